@@ -20,7 +20,7 @@ public class LifeXDatawarehouseAppApplication {
         /** Launches the Spring Boot application.
          * <p>
          * Requires a reachable database and write access to the Lucene index path
-         * ({@code target/lifex-index}); when the Camel/Lucene integration is disabled
+         * ({@code lifex.lucene.index-path}, default {@code target/lifex-index}); when the Camel/Lucene integration is disabled
          * (property {@code lifex.lucene.camel.enabled=false}) reindex calls must be triggered manually.
          * </p>
          */
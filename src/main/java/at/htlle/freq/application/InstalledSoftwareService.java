@@ -259,7 +259,7 @@ public class InstalledSoftwareService {
             repo.deleteById(id);
             log.info("InstalledSoftware deleted: id={} site={} software={} status={}",
                     id, isw.getSiteID(), isw.getSoftwareID(), isw.getStatus());
-            // Optionally remove the entry from Lucene once delete support exists.
+            registerAfterCommitDeletion(id);
         });
     }
 
@@ -268,30 +268,77 @@ public class InstalledSoftwareService {
     /**
      * Registers the After Commit Indexing for deferred execution.
      *
+     * <p>All installations touched in the same transaction (for example by
+     * {@link #replaceAssignmentsForSite(UUID, List)}) share one synchronization and are indexed as one batch.</p>
+     *
      * @param isw installation record to index after the transaction commits.
      */
     private void registerAfterCommitIndexing(InstalledSoftware isw) {
         if (!TransactionSynchronizationManager.isSynchronizationActive()) {
-            indexToLucene(isw);
+            indexToLucene(List.of(isw));
+            return;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof AfterCommitIndexing pending && pending.belongsTo(this)) {
+                pending.add(isw);
+                return;
+            }
+        }
+        TransactionSynchronizationManager.registerSynchronization(new AfterCommitIndexing(isw));
+    }
+
+    /**
+     * Registers the After Commit Deletion for deferred execution.
+     *
+     * @param id installation identifier to remove from the index.
+     */
+    private void registerAfterCommitDeletion(UUID id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            deleteFromLucene(id);
             return;
         }
         TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
             /**
-             * Indexes the installation after the transaction commits.
+             * Removes the installation from the index after the transaction commits.
              */
             @Override
             public void afterCommit() {
-                indexToLucene(isw);
+                deleteFromLucene(id);
             }
         });
     }
 
     /**
-     * Indexes an installation record in Lucene for search operations.
+     * Removes the installation document from the Lucene index.
      *
-     * @param isw installed software entity to index.
+     * @param id installation identifier.
      */
-    private void indexToLucene(InstalledSoftware isw) {
+    private void deleteFromLucene(UUID id) {
+        try {
+            lucene.deleteDocument(id.toString());
+            log.debug("InstalledSoftware removed from Lucene: id={}", id);
+        } catch (Exception e) {
+            log.error("Lucene delete for InstalledSoftware {} failed", id, e);
+        }
+    }
+
+    /**
+     * Indexes installation records in Lucene for search operations. A single record uses the dedicated
+     * index method; larger batches go through the bulk API in one writer session.
+     *
+     * @param batch installed software entities to index.
+     */
+    private void indexToLucene(List<InstalledSoftware> batch) {
+        if (batch.size() > 1) {
+            try {
+                lucene.indexAll(batch);
+                log.debug("InstalledSoftware batch indexed in Lucene: {} records", batch.size());
+            } catch (Exception e) {
+                log.error("Lucene indexing for {} InstalledSoftware records failed", batch.size(), e);
+            }
+            return;
+        }
+        InstalledSoftware isw = batch.get(0);
         try {
             lucene.indexInstalledSoftware(
                     isw.getInstalledSoftwareID() != null ? isw.getInstalledSoftwareID().toString() : null,
@@ -309,6 +356,34 @@ public class InstalledSoftwareService {
         }
     }
 
+    /**
+     * Collects the installations of one transaction and indexes them once it commits.
+     */
+    private final class AfterCommitIndexing implements TransactionSynchronization {
+
+        private final List<InstalledSoftware> batch = new ArrayList<>();
+
+        private AfterCommitIndexing(InstalledSoftware first) {
+            batch.add(first);
+        }
+
+        private boolean belongsTo(InstalledSoftwareService service) {
+            return InstalledSoftwareService.this == service;
+        }
+
+        private void add(InstalledSoftware isw) {
+            batch.add(isw);
+        }
+
+        /**
+         * Indexes the collected installations after the transaction commits.
+         */
+        @Override
+        public void afterCommit() {
+            indexToLucene(batch);
+        }
+    }
+
     /**
      * Normalizes status and date fields based on the chosen status.
      *
@@ -167,7 +167,7 @@ public class SiteService {
             projectSites.replaceProjectsForSite(id, List.of());
             repo.deleteById(id);
             log.info("Site deleted: id={} name='{}'", id, s.getSiteName());
-            // Optionally remove the entry from Lucene once delete support exists.
+            registerAfterCommitDeletion(id);
         });
     }
 
@@ -194,6 +194,41 @@ public class SiteService {
         });
     }
 
+    /**
+     * Registers the After Commit Deletion for deferred execution.
+     *
+     * @param id site identifier to remove from the index.
+     */
+    private void registerAfterCommitDeletion(UUID id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            deleteFromLucene(id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            /**
+             * Removes the site from the index after the transaction commits.
+             */
+            @Override
+            public void afterCommit() {
+                deleteFromLucene(id);
+            }
+        });
+    }
+
+    /**
+     * Removes the site document from the Lucene index.
+     *
+     * @param id site identifier.
+     */
+    private void deleteFromLucene(UUID id) {
+        try {
+            lucene.deleteDocument(id.toString());
+            log.debug("Site removed from Lucene: id={}", id);
+        } catch (Exception e) {
+            log.error("Lucene delete for Site {} failed", id, e);
+        }
+    }
+
     /**
      * Indexes a site in Lucene for search operations.
      *
@@ -3,6 +3,7 @@ package at.htlle.freq.domain;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repository abstraction for working with {@link Account} customer accounts
@@ -40,6 +41,26 @@ public interface AccountRepository {
      */
     List<Account> findAll();
 
+    /**
+     * Streams all accounts without loading the whole table at once. Rows are read in chunks of
+     * {@code chunkSize} as the stream is consumed; the default falls back to {@link #findAll()}.
+     *
+     * @param chunkSize rows read per database round trip
+     * @return all accounts
+     */
+    default Stream<Account> streamAll(int chunkSize) {
+        return findAll().stream();
+    }
+
+    /**
+     * Counts all accounts without reading them; the default falls back to {@link #findAll()}.
+     *
+     * @return number of accounts
+     */
+    default long count() {
+        return findAll().size();
+    }
+
     /**
      * Removes a customer account with the provided identifier.
      *
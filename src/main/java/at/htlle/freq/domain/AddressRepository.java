@@ -1,6 +1,7 @@
 package at.htlle.freq.domain;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * Persistence abstraction for {@link Address} entities.
@@ -29,6 +30,26 @@ public interface AddressRepository {
      */
     List<Address> findAll();
 
+    /**
+     * Streams all addresses without loading the whole table at once. Rows are read in chunks of
+     * {@code chunkSize} as the stream is consumed; the default falls back to {@link #findAll()}.
+     *
+     * @param chunkSize rows read per database round trip
+     * @return all addresses
+     */
+    default Stream<Address> streamAll(int chunkSize) {
+        return findAll().stream();
+    }
+
+    /**
+     * Counts all addresses without reading them; the default falls back to {@link #findAll()}.
+     *
+     * @return number of addresses
+     */
+    default long count() {
+        return findAll().size();
+    }
+
     /**
      * Deletes the address with the given identifier.
      *
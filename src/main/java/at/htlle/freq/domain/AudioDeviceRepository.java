@@ -1,6 +1,7 @@
 package at.htlle.freq.domain;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * Repository contract for persisting {@link AudioDevice} peripherals.
@@ -37,4 +38,24 @@ public interface AudioDeviceRepository {
      * @return snapshot of every audio device entity
      */
     List<AudioDevice> findAll();
+
+    /**
+     * Streams all audio devices without loading the whole table at once. Rows are read in chunks of
+     * {@code chunkSize} as the stream is consumed; the default falls back to {@link #findAll()}.
+     *
+     * @param chunkSize rows read per database round trip
+     * @return all audio devices
+     */
+    default Stream<AudioDevice> streamAll(int chunkSize) {
+        return findAll().stream();
+    }
+
+    /**
+     * Counts all audio devices without reading them; the default falls back to {@link #findAll()}.
+     *
+     * @return number of audio devices
+     */
+    default long count() {
+        return findAll().size();
+    }
 }
@@ -2,6 +2,7 @@ package at.htlle.freq.domain;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Data access abstraction for {@link City} master data.
@@ -38,6 +39,26 @@ public interface CityRepository {
      */
     List<City> findAll();
 
+    /**
+     * Streams all cities without loading the whole table at once. Rows are read in chunks of
+     * {@code chunkSize} as the stream is consumed; the default falls back to {@link #findAll()}.
+     *
+     * @param chunkSize rows read per database round trip
+     * @return all cities
+     */
+    default Stream<City> streamAll(int chunkSize) {
+        return findAll().stream();
+    }
+
+    /**
+     * Counts all cities without reading them; the default falls back to {@link #findAll()}.
+     *
+     * @return number of cities
+     */
+    default long count() {
+        return findAll().size();
+    }
+
     /**
      * Deletes a city using its natural identifier.
      *
@@ -1,6 +1,7 @@
 package at.htlle.freq.domain;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for {@link Clients} client workstations.
@@ -36,4 +37,24 @@ public interface ClientsRepository {
      * @return snapshot of every client workstation
      */
     List<Clients> findAll();
+
+    /**
+     * Streams all clients without loading the whole table at once. Rows are read in chunks of
+     * {@code chunkSize} as the stream is consumed; the default falls back to {@link #findAll()}.
+     *
+     * @param chunkSize rows read per database round trip
+     * @return all clients
+     */
+    default Stream<Clients> streamAll(int chunkSize) {
+        return findAll().stream();
+    }
+
+    /**
+     * Counts all clients without reading them; the default falls back to {@link #findAll()}.
+     *
+     * @return number of clients
+     */
+    default long count() {
+        return findAll().size();
+    }
 }
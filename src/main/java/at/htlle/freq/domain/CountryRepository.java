@@ -2,6 +2,7 @@ package at.htlle.freq.domain;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository abstraction for {@link Country} entities.
@@ -30,6 +31,26 @@ public interface CountryRepository {
      */
     List<Country> findAll();
 
+    /**
+     * Streams all countries without loading the whole table at once. Rows are read in chunks of
+     * {@code chunkSize} as the stream is consumed; the default falls back to {@link #findAll()}.
+     *
+     * @param chunkSize rows read per database round trip
+     * @return all countries
+     */
+    default Stream<Country> streamAll(int chunkSize) {
+        return findAll().stream();
+    }
+
+    /**
+     * Counts all countries without reading them; the default falls back to {@link #findAll()}.
+     *
+     * @return number of countries
+     */
+    default long count() {
+        return findAll().size();
+    }
+
     /**
      * Deletes a country by its ISO code.
      *
@@ -1,6 +1,7 @@
 package at.htlle.freq.domain;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * Repository contract for {@link DeploymentVariant} definitions.
@@ -45,6 +46,26 @@ public interface DeploymentVariantRepository {
      */
     List<DeploymentVariant> findAll();
 
+    /**
+     * Streams all deployment variants without loading the whole table at once. Rows are read in chunks of
+     * {@code chunkSize} as the stream is consumed; the default falls back to {@link #findAll()}.
+     *
+     * @param chunkSize rows read per database round trip
+     * @return all deployment variants
+     */
+    default Stream<DeploymentVariant> streamAll(int chunkSize) {
+        return findAll().stream();
+    }
+
+    /**
+     * Counts all deployment variants without reading them; the default falls back to {@link #findAll()}.
+     *
+     * @return number of deployment variants
+     */
+    default long count() {
+        return findAll().size();
+    }
+
     /**
      * Deletes a deployment variant by its identifier.
      *
@@ -0,0 +1,26 @@
+package at.htlle.freq.domain;
+
+/**
+ * One entry of the IndexChangeLog table: a row of an indexed table was inserted, updated or deleted.
+ *
+ * @param seq       position in the log; assigned by the database in write order
+ * @param table     upper-case table name (for example {@code SITE})
+ * @param key       primary key of the changed row as text
+ * @param operation {@code INSERT}, {@code UPDATE} or {@code DELETE}
+ */
+public record IndexChange(
+        long seq,
+        String table,
+        String key,
+        String operation
+) {
+
+    /**
+     * Tells whether the row no longer exists after this change.
+     *
+     * @return true for deletes
+     */
+    public boolean isDelete() {
+        return "DELETE".equals(operation);
+    }
+}
@@ -0,0 +1,31 @@
+package at.htlle.freq.domain;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for the change log written by the database triggers on all indexed tables.
+ */
+public interface IndexChangeLogRepository {
+    /**
+     * Returns the oldest pending changes.
+     *
+     * @param limit maximum number of entries
+     * @return changes ordered by sequence number
+     */
+    List<IndexChange> findPending(int limit);
+
+    /**
+     * Removes applied changes from the log.
+     *
+     * @param seqs sequence numbers of the applied changes
+     */
+    void deleteBySeq(Collection<Long> seqs);
+
+    /**
+     * Counts the pending changes.
+     *
+     * @return number of entries in the log
+     */
+    long countPending();
+}
@@ -1,6 +1,7 @@
 package at.htlle.freq.domain;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for {@link InstalledSoftware} relationships.
@@ -53,6 +54,26 @@ public interface InstalledSoftwareRepository {
      */
     List<InstalledSoftware> findAll();
 
+    /**
+     * Streams all installed software records without loading the whole table at once. Rows are read in chunks of
+     * {@code chunkSize} as the stream is consumed; the default falls back to {@link #findAll()}.
+     *
+     * @param chunkSize rows read per database round trip
+     * @return all installed software records
+     */
+    default Stream<InstalledSoftware> streamAll(int chunkSize) {
+        return findAll().stream();
+    }
+
+    /**
+     * Counts all installed software records without reading them; the default falls back to {@link #findAll()}.
+     *
+     * @return number of installed software records
+     */
+    default long count() {
+        return findAll().size();
+    }
+
     /**
      * Deletes an installed software relationship by its identifier.
      *
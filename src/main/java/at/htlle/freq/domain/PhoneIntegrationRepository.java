@@ -1,6 +1,7 @@
 package at.htlle.freq.domain;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * Repository abstraction for {@link PhoneIntegration} peripherals.
@@ -37,6 +38,26 @@ public interface PhoneIntegrationRepository {
      */
     List<PhoneIntegration> findAll();
 
+    /**
+     * Streams all phone integrations without loading the whole table at once. Rows are read in chunks of
+     * {@code chunkSize} as the stream is consumed; the default falls back to {@link #findAll()}.
+     *
+     * @param chunkSize rows read per database round trip
+     * @return all phone integrations
+     */
+    default Stream<PhoneIntegration> streamAll(int chunkSize) {
+        return findAll().stream();
+    }
+
+    /**
+     * Counts all phone integrations without reading them; the default falls back to {@link #findAll()}.
+     *
+     * @return number of phone integrations
+     */
+    default long count() {
+        return findAll().size();
+    }
+
     /**
      * Deletes a phone integration by its identifier.
      *
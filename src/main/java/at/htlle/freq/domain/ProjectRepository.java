@@ -1,6 +1,7 @@
 package at.htlle.freq.domain;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * Repository abstraction for {@link Project} deployment projects executed for
@@ -38,6 +39,26 @@ public interface ProjectRepository {
      */
     List<Project> findAll();
 
+    /**
+     * Streams all projects without loading the whole table at once. Rows are read in chunks of
+     * {@code chunkSize} as the stream is consumed; the default falls back to {@link #findAll()}.
+     *
+     * @param chunkSize rows read per database round trip
+     * @return all projects
+     */
+    default Stream<Project> streamAll(int chunkSize) {
+        return findAll().stream();
+    }
+
+    /**
+     * Counts all projects without reading them; the default falls back to {@link #findAll()}.
+     *
+     * @return number of projects
+     */
+    default long count() {
+        return findAll().size();
+    }
+
     /**
      * Deletes a project by its identifier.
      *
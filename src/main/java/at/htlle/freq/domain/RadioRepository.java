@@ -1,6 +1,7 @@
 package at.htlle.freq.domain;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * Repository abstraction for {@link Radio} devices.
@@ -37,6 +38,26 @@ public interface RadioRepository {
      */
     List<Radio> findAll();
 
+    /**
+     * Streams all radios without loading the whole table at once. Rows are read in chunks of
+     * {@code chunkSize} as the stream is consumed; the default falls back to {@link #findAll()}.
+     *
+     * @param chunkSize rows read per database round trip
+     * @return all radios
+     */
+    default Stream<Radio> streamAll(int chunkSize) {
+        return findAll().stream();
+    }
+
+    /**
+     * Counts all radios without reading them; the default falls back to {@link #findAll()}.
+     *
+     * @return number of radios
+     */
+    default long count() {
+        return findAll().size();
+    }
+
     /**
      * Deletes a radio by its identifier.
      *
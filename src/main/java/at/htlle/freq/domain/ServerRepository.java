@@ -1,6 +1,7 @@
 package at.htlle.freq.domain;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for {@link Server} infrastructure nodes.
@@ -37,6 +38,26 @@ public interface ServerRepository {
      */
     List<Server> findAll();
 
+    /**
+     * Streams all servers without loading the whole table at once. Rows are read in chunks of
+     * {@code chunkSize} as the stream is consumed; the default falls back to {@link #findAll()}.
+     *
+     * @param chunkSize rows read per database round trip
+     * @return all servers
+     */
+    default Stream<Server> streamAll(int chunkSize) {
+        return findAll().stream();
+    }
+
+    /**
+     * Counts all servers without reading them; the default falls back to {@link #findAll()}.
+     *
+     * @return number of servers
+     */
+    default long count() {
+        return findAll().size();
+    }
+
     /**
      * Deletes a server by its identifier.
      *
@@ -1,6 +1,7 @@
 package at.htlle.freq.domain;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * Repository abstraction for {@link ServiceContract} agreements with customer
@@ -38,6 +39,26 @@ public interface ServiceContractRepository {
      */
     List<ServiceContract> findAll();
 
+    /**
+     * Streams all service contracts without loading the whole table at once. Rows are read in chunks of
+     * {@code chunkSize} as the stream is consumed; the default falls back to {@link #findAll()}.
+     *
+     * @param chunkSize rows read per database round trip
+     * @return all service contracts
+     */
+    default Stream<ServiceContract> streamAll(int chunkSize) {
+        return findAll().stream();
+    }
+
+    /**
+     * Counts all service contracts without reading them; the default falls back to {@link #findAll()}.
+     *
+     * @return number of service contracts
+     */
+    default long count() {
+        return findAll().size();
+    }
+
     /**
      * Deletes a service contract by its identifier.
      *
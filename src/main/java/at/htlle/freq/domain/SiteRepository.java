@@ -1,6 +1,7 @@
 package at.htlle.freq.domain;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for {@link Site} aggregates.
@@ -37,6 +38,26 @@ public interface SiteRepository {
      */
     List<Site> findAll();
 
+    /**
+     * Streams all sites without loading the whole table at once. Rows are read in chunks of
+     * {@code chunkSize} as the stream is consumed; the default falls back to {@link #findAll()}.
+     *
+     * @param chunkSize rows read per database round trip
+     * @return all sites
+     */
+    default Stream<Site> streamAll(int chunkSize) {
+        return findAll().stream();
+    }
+
+    /**
+     * Counts all sites without reading them; the default falls back to {@link #findAll()}.
+     *
+     * @return number of sites
+     */
+    default long count() {
+        return findAll().size();
+    }
+
     /**
      * Deletes a site by its identifier.
      *
@@ -1,6 +1,7 @@
 package at.htlle.freq.domain;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * Repository abstraction for {@link Software} catalogue entries.
@@ -37,6 +38,26 @@ public interface SoftwareRepository {
      */
     List<Software> findAll();
 
+    /**
+     * Streams all software entries without loading the whole table at once. Rows are read in chunks of
+     * {@code chunkSize} as the stream is consumed; the default falls back to {@link #findAll()}.
+     *
+     * @param chunkSize rows read per database round trip
+     * @return all software entries
+     */
+    default Stream<Software> streamAll(int chunkSize) {
+        return findAll().stream();
+    }
+
+    /**
+     * Counts all software entries without reading them; the default falls back to {@link #findAll()}.
+     *
+     * @return number of software entries
+     */
+    default long count() {
+        return findAll().size();
+    }
+
     /**
      * Deletes a software entry by its identifier.
      *
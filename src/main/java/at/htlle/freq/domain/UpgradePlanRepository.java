@@ -1,6 +1,7 @@
 package at.htlle.freq.domain;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for {@link UpgradePlan} schedules.
@@ -37,6 +38,26 @@ public interface UpgradePlanRepository {
      */
     List<UpgradePlan> findAll();
 
+    /**
+     * Streams all upgrade plans without loading the whole table at once. Rows are read in chunks of
+     * {@code chunkSize} as the stream is consumed; the default falls back to {@link #findAll()}.
+     *
+     * @param chunkSize rows read per database round trip
+     * @return all upgrade plans
+     */
+    default Stream<UpgradePlan> streamAll(int chunkSize) {
+        return findAll().stream();
+    }
+
+    /**
+     * Counts all upgrade plans without reading them; the default falls back to {@link #findAll()}.
+     *
+     * @return number of upgrade plans
+     */
+    default long count() {
+        return findAll().size();
+    }
+
     /**
      * Deletes an upgrade plan by its identifier.
      *
@@ -0,0 +1,189 @@
+package at.htlle.freq.infrastructure.camel;
+
+import at.htlle.freq.domain.IndexChange;
+import at.htlle.freq.domain.IndexChangeLogRepository;
+import at.htlle.freq.infrastructure.lucene.LuceneIndexService;
+import at.htlle.freq.infrastructure.lucene.LuceneProperties;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Camel route that tails the database change log into the Lucene index.
+ *
+ * Data flow:
+ *  - ChangeLogTrigger appends (table, key, operation) to IndexChangeLog for every write on an indexed table, no matter
+ *    whether it came from a service, a controller or plain SQL.
+ *  - This route polls the log every lifex.lucene.changelog.poll-interval-ms, hands the oldest entries to
+ *    LuceneIndexService.applyChanges() in sequence order and deletes exactly the applied entries. It keeps draining
+ *    until the log is empty, so bursts are caught up within one poll.
+ *  - The applied entries are counted per table for SweepScheduler, which derives each table's sweep cadence from them.
+ *
+ * Retry / locking considerations:
+ *  - A timer consumer is single-threaded, so there is exactly one tailer and entries are applied in order.
+ *  - Entries are removed only after applyChanges() returned. applyChanges() throws when a row cannot be loaded or a
+ *    document cannot be written or deleted.
+ *  - Transient failures (I/O errors and closed writers as classified by LuceneIndexingHubRoute.isTransient(), plus
+ *    transient, recoverable and resource-failure DataAccessExceptions) leave the batch in the log; the next poll is the
+ *    retry, so the log itself is the durable retry queue and nothing moves into the bounded in-memory store while the
+ *    database or the index is unavailable. Errors are logged with {@code "Index change log poll failed: {}"}.
+ *  - Any other failure would block the log forever, so the batch is applied entry by entry: entries that still fail
+ *    are handed to the hub's dead-letter store (LuceneIndexingHubRoute.deadLetterChanges(), replayable through
+ *    replayDeadLetters()) and removed from the log together with the applied ones. A transient failure during this
+ *    isolation removes only the entries handled so far and leaves the rest for the next poll.
+ *  - The journal replay of LuceneIndexServiceImpl at startup does not go through this route: a failed replay keeps
+ *    its range pending for the next start, and the sweeps and this log re-send the affected rows meanwhile.
+ *
+ * Integration points:
+ *  - Replaces the former three-minute full-table timers in UnifiedIndexingRoutes (still available as optional sweeps).
+ */
+/**
+ * Component that provides Index Change Log Route behavior.
+ */
+@Component("IndexChangeLogRoute")
+@ConditionalOnProperty(value = "lifex.lucene.camel.enabled", havingValue = "true", matchIfMissing = true)
+public class IndexChangeLogRoute extends RouteBuilder {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexChangeLogRoute.class);
+
+    private final IndexChangeLogRepository changeLog;
+    private final LuceneIndexService lucene;
+    private final LuceneProperties properties;
+    private final SweepScheduler scheduler;
+    private final LuceneIndexingHubRoute hub;
+
+    /**
+     * Creates a new IndexChangeLogRoute instance that dead-letters entries it cannot apply in the hub's store.
+     * @param changeLog change log repository.
+     * @param lucene lucene.
+     * @param properties lucene settings (poll interval and batch size).
+     * @param scheduler sweep schedule shared with the sweep routes.
+     * @param hub indexing hub whose dead-letter store keeps failed entries.
+     */
+    @Autowired
+    public IndexChangeLogRoute(IndexChangeLogRepository changeLog, LuceneIndexService lucene,
+                               LuceneProperties properties, SweepScheduler scheduler, LuceneIndexingHubRoute hub) {
+        this.changeLog = changeLog;
+        this.lucene = lucene;
+        this.properties = properties;
+        this.scheduler = scheduler;
+        this.hub = hub;
+    }
+
+    @Override
+    /**
+     * Polls the change log with a single timer consumer.
+     */
+    public void configure() {
+
+        onException(Exception.class)
+                .handled(true)
+                .process(ex -> {
+                    Exception cause = ex.getProperty(Exchange.EXCEPTION_CAUGHT, Exception.class);
+                    log.error("Index change log poll failed: {}", cause != null ? cause.getMessage() : "unknown", cause);
+                });
+
+        long interval = Math.max(1L, properties.getChangelog().getPollIntervalMs());
+        from("timer://indexChangeLog?delay=" + interval + "&period=" + interval).routeId("IndexChangeLogTail")
+                .process(ex -> drain());
+    }
+
+    /**
+     * Applies pending change-log entries batch by batch until the log is empty.
+     * @return number of applied or dead-lettered entries.
+     */
+    int drain() {
+        int batchSize = Math.max(1, properties.getChangelog().getBatchSize());
+        int applied = 0;
+        while (true) {
+            List<IndexChange> batch = changeLog.findPending(batchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+            try {
+                lucene.applyChanges(batch);
+            } catch (RuntimeException e) {
+                if (isRetriable(e)) {
+                    throw e;
+                }
+                applyOneByOne(batch, e);
+            }
+            acknowledge(batch);
+            applied += batch.size();
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        if (applied > 0) {
+            log.debug("Applied {} index change log entries", applied);
+        }
+        return applied;
+    }
+
+    /**
+     * Isolates the entries of a batch that failed permanently: applies them one at a time and dead-letters those that
+     * still fail. A transient failure acknowledges the entries handled so far and is rethrown.
+     */
+    private void applyOneByOne(List<IndexChange> batch, RuntimeException batchFailure) {
+        log.warn("Applying {} index change log entries one by one after: {}", batch.size(), batchFailure.getMessage());
+        List<IndexChange> handled = new ArrayList<>(batch.size());
+        for (IndexChange change : batch) {
+            try {
+                lucene.applyChanges(List.of(change));
+            } catch (RuntimeException e) {
+                if (isRetriable(e)) {
+                    acknowledge(handled);
+                    throw e;
+                }
+                hub.deadLetterChanges(List.of(change), e);
+            }
+            handled.add(change);
+        }
+    }
+
+    /**
+     * Deletes handled entries from the log and counts them per table for the sweep schedule.
+     */
+    private void acknowledge(List<IndexChange> handled) {
+        if (handled.isEmpty()) {
+            return;
+        }
+        changeLog.deleteBySeq(handled.stream().map(IndexChange::seq).toList());
+        Map<String, Integer> perTable = new LinkedHashMap<>();
+        for (IndexChange change : handled) {
+            perTable.merge(change.table(), 1, Integer::sum);
+        }
+        perTable.forEach(scheduler::changed);
+    }
+
+    /**
+     * Tells whether applying a batch may succeed on the next poll: transient index failures and database errors that
+     * are transient, recoverable or caused by an unavailable resource.
+     * @param failure failure of applyChanges().
+     * @return {@code true} when the entries should stay in the log.
+     */
+    static boolean isRetriable(Throwable failure) {
+        if (LuceneIndexingHubRoute.isTransient(failure)) {
+            return true;
+        }
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof TransientDataAccessException || t instanceof RecoverableDataAccessException
+                    || t instanceof DataAccessResourceFailureException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
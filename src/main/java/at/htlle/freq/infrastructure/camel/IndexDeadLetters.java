@@ -0,0 +1,132 @@
+package at.htlle.freq.infrastructure.camel;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+/*
+ * Bounded store of indexing batches the hub gave up on.
+ *
+ * Data flow:
+ *  - LuceneIndexingHubRoute adds a batch once its retries are spent or its failure is not transient, and the
+ *    onException handler adds messages that failed before they reached a partition. IndexChangeLogRoute adds
+ *    change-log entries that cannot be applied. Every letter keeps the original payload (entities, documents or
+ *    change-log entries, in arrival order), the partition, the attempts and the last error.
+ *  - take() removes letters for a replay, which puts their payloads back on the hub queue or applies the change-log
+ *    entries again; purge() just drops them.
+ *
+ * Retry / locking considerations:
+ *  - All operations synchronize on the store. When the capacity is reached the oldest letter is evicted and counted,
+ *    so a long outage cannot exhaust the heap; the next sweep re-sends the evicted rows anyway.
+ *  - Letters live in memory only. Rows of a batch lost on restart are restored by the journal replay and the sweeps.
+ */
+
+/**
+ * In-memory, capacity-bounded dead-letter store of failed indexing batches.
+ */
+final class IndexDeadLetters {
+
+    /**
+     * One failed batch.
+     * @param id          store-wide sequence number, starting at 1.
+     * @param partition   partition the batch belonged to, {@code -1} when it failed before dispatch.
+     * @param payload     original items in arrival order.
+     * @param attempts    write attempts made.
+     * @param error       message of the last failure.
+     * @param failedAtMs  epoch milliseconds of the last failure.
+     */
+    record Letter(long id, int partition, List<Object> payload, int attempts, String error, long failedAtMs) {}
+
+    private final int capacity;
+    private final ArrayDeque<Letter> letters = new ArrayDeque<>();
+    private long nextId = 1;
+    private long evicted;
+
+    /**
+     * Creates an empty store.
+     * @param capacity maximum number of letters; at least one is kept.
+     */
+    IndexDeadLetters(int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    /**
+     * Stores a failed batch, evicting the oldest letter when the store is full.
+     * @param partition partition of the batch.
+     * @param payload original items.
+     * @param attempts write attempts made.
+     * @param failure last failure.
+     * @return stored letter.
+     */
+    synchronized Letter add(int partition, Collection<?> payload, int attempts, Throwable failure) {
+        if (letters.size() >= capacity) {
+            letters.removeFirst();
+            evicted++;
+        }
+        Letter letter = new Letter(nextId++, partition, List.copyOf(payload), attempts, describe(failure),
+                System.currentTimeMillis());
+        letters.addLast(letter);
+        return letter;
+    }
+
+    /**
+     * Returns the stored letters, oldest first.
+     * @return snapshot of the store.
+     */
+    synchronized List<Letter> list() {
+        return List.copyOf(letters);
+    }
+
+    /**
+     * Removes and returns letters.
+     * @param ids letter ids, or {@code null}/empty for all letters.
+     * @return removed letters, oldest first.
+     */
+    synchronized List<Letter> take(Collection<Long> ids) {
+        List<Letter> taken = new ArrayList<>();
+        Iterator<Letter> it = letters.iterator();
+        while (it.hasNext()) {
+            Letter letter = it.next();
+            if (ids == null || ids.isEmpty() || ids.contains(letter.id())) {
+                taken.add(letter);
+                it.remove();
+            }
+        }
+        return taken;
+    }
+
+    /**
+     * Drops letters without replaying them.
+     * @param ids letter ids, or {@code null}/empty for all letters.
+     * @return number of dropped letters.
+     */
+    int purge(Collection<Long> ids) {
+        return take(ids).size();
+    }
+
+    /**
+     * Returns the number of stored letters.
+     * @return letters in the store.
+     */
+    synchronized int size() {
+        return letters.size();
+    }
+
+    /**
+     * Returns the number of letters dropped because the store was full.
+     * @return evicted letters since startup.
+     */
+    synchronized long evicted() {
+        return evicted;
+    }
+
+    private static String describe(Throwable failure) {
+        if (failure == null) {
+            return "unknown";
+        }
+        String message = failure.getMessage();
+        return failure.getClass().getSimpleName() + (message == null ? "" : ": " + message);
+    }
+}
@@ -0,0 +1,290 @@
+package at.htlle.freq.infrastructure.camel;
+
+import at.htlle.freq.infrastructure.lucene.LuceneProperties;
+import org.apache.camel.Exchange;
+import org.apache.camel.component.seda.SedaEndpoint;
+import org.apache.lucene.document.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Instrumentation and adaptive backpressure of the Camel indexing queue.
+ *
+ * Data flow:
+ *  - Every producer route of UnifiedIndexingRoutes stamps its messages with the enqueue time (header
+ *    ENQUEUED_AT_HEADER) right before they enter "seda:lucene-index". The hub dispatcher copies the header onto the
+ *    partition messages, and a partition batch keeps the header of its first (oldest) message.
+ *  - LuceneIndexingHubRoute reports every written batch through batchIndexed(): the entity count per type feeds a
+ *    one-minute rate window, the age of the batch's oldest entity feeds the enqueue-to-index latency sample and the
+ *    time indexChanged() took feeds the processing-time sample. Percentiles are computed over the last SAMPLE_SIZE
+ *    batches when stats() is called.
+ *  - Queue depth and the age of the oldest waiting message are read from the SEDA queues the hub registered through
+ *    watch(): the head of a queue is its oldest message.
+ *  - The sweep timers ask backoffMs() before queueing each entity and delay it asynchronously by the answer. While the
+ *    hub queue is below lifex.lucene.hub.backoff-depth and its oldest message is younger than
+ *    lifex.lucene.hub.backoff-lag-ms the answer is 0; above either limit the delay starts at MIN_BACKOFF_MS and doubles
+ *    with every further entity up to lifex.lucene.hub.max-backoff-ms, and drops back to 0 once the queue has drained
+ *    below the limits.
+ *
+ * Retry / locking considerations:
+ *  - Counters are atomics; the rate windows and samples synchronize on themselves and only update an array slot.
+ *  - The delay is scheduled by Camel's Delayer, so a backing-off sweep does not hold a Camel thread while it waits.
+ *    The blockWhenFull queue remains the hard bound for direct producers, which are never delayed.
+ *
+ * Integration points:
+ *  - IndexAdminController exposes stats() as GET /api/index/queue.
+ */
+/**
+ * Component that measures the indexing queue and throttles the sweep producers when it lags behind.
+ */
+@Component("IndexingQueueMonitor")
+@ConditionalOnProperty(value = "lifex.lucene.camel.enabled", havingValue = "true", matchIfMissing = true)
+public class IndexingQueueMonitor {
+
+    /** Header holding the epoch milliseconds at which a message was put on the hub queue. */
+    public static final String ENQUEUED_AT_HEADER = "lifexEnqueuedAt";
+
+    static final long MIN_BACKOFF_MS = 5;
+    static final int SAMPLE_SIZE = 1024;
+    static final int RATE_WINDOW_SECONDS = 60;
+
+    /**
+     * Throughput of one entity type.
+     *
+     * @param indexed   entities handed to the index since startup.
+     * @param perSecond entities per second over the last minute.
+     */
+    public record TypeStats(long indexed, double perSecond) {}
+
+    /**
+     * Snapshot of the indexing queue.
+     *
+     * @param queued          messages waiting in the hub queue.
+     * @param partitionQueued messages waiting in the partition queues.
+     * @param oldestAgeMs     age of the oldest waiting message, {@code 0} when the queues are empty.
+     * @param indexed         entities handed to the index since startup.
+     * @param perSecond       entities per second over the last minute.
+     * @param latencyP50Ms    median enqueue-to-index latency of the oldest entity of a batch.
+     * @param latencyP99Ms    99th percentile of that latency.
+     * @param processingP50Ms median time of writing one batch.
+     * @param processingP99Ms 99th percentile of the batch write time.
+     * @param backoffMs       delay the sweeps currently wait per entity.
+     * @param throttled       sweep entities that were delayed since startup.
+     * @param types           throughput per entity type, by type name.
+     */
+    public record QueueStats(int queued, int partitionQueued, long oldestAgeMs, long indexed, double perSecond,
+                             long latencyP50Ms, long latencyP99Ms, long processingP50Ms, long processingP99Ms,
+                             long backoffMs, long throttled, Map<String, TypeStats> types) {}
+
+    private final int backoffDepth;
+    private final long backoffLagMs;
+    private final long maxBackoffMs;
+    private final AtomicLong backoff = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private final RateWindow total = new RateWindow();
+    private final Map<String, RateWindow> byType = new HashMap<>();
+    private final Sample latency = new Sample();
+    private final Sample processing = new Sample();
+    private volatile SedaEndpoint hubQueue;
+    private volatile SedaEndpoint[] partitionQueues = new SedaEndpoint[0];
+
+    /**
+     * Creates a new IndexingQueueMonitor instance and initializes it with the provided values.
+     * @param properties lucene settings ({@code lifex.lucene.hub.backoff-*}).
+     */
+    public IndexingQueueMonitor(LuceneProperties properties) {
+        LuceneProperties.Hub hub = properties.getHub();
+        this.backoffDepth = Math.max(1, hub.getBackoffDepth());
+        this.backoffLagMs = hub.getBackoffLagMs() > 0 ? hub.getBackoffLagMs() : Long.MAX_VALUE;
+        this.maxBackoffMs = Math.max(MIN_BACKOFF_MS, hub.getMaxBackoffMs());
+    }
+
+    /**
+     * Registers the queues whose depth and age are reported.
+     * @param hubQueue consumer endpoint of {@code seda:lucene-index}.
+     * @param partitionQueues partition endpoints of the hub.
+     */
+    void watch(SedaEndpoint hubQueue, SedaEndpoint... partitionQueues) {
+        this.hubQueue = hubQueue;
+        this.partitionQueues = partitionQueues.clone();
+    }
+
+    /**
+     * Stamps a message with the current time before it is put on the hub queue.
+     * @param exchange exchange about to be queued.
+     */
+    public void stamp(Exchange exchange) {
+        exchange.getIn().setHeader(ENQUEUED_AT_HEADER, System.currentTimeMillis());
+    }
+
+    /**
+     * Records a batch handed to the index.
+     * @param batch entities of the batch.
+     * @param enqueuedAt epoch milliseconds at which the oldest entity was queued, or {@code null} when unknown.
+     * @param processingMs time the batch write took.
+     */
+    void batchIndexed(Collection<?> batch, Long enqueuedAt, long processingMs) {
+        long now = System.currentTimeMillis();
+        Map<String, Integer> counts = new HashMap<>();
+        for (Object item : batch) {
+            counts.merge(typeOf(item), 1, Integer::sum);
+        }
+        total.add(now, batch.size());
+        synchronized (byType) {
+            counts.forEach((type, count) -> byType.computeIfAbsent(type, t -> new RateWindow()).add(now, count));
+        }
+        if (enqueuedAt != null) {
+            latency.add(Math.max(0, now - enqueuedAt));
+        }
+        processing.add(processingMs);
+    }
+
+    /**
+     * Returns the delay before a sweep queues its next entity and adapts it to the current queue state.
+     * @return delay in milliseconds, {@code 0} while the queue keeps up.
+     */
+    public long backoffMs() {
+        return nextBackoff(queued(hubQueue), oldestAgeMs(System.currentTimeMillis()));
+    }
+
+    /**
+     * Doubles the delay while the queue is over a limit and resets it once it is below both.
+     * @param depth messages in the hub queue.
+     * @param oldestAgeMs age of the oldest waiting message.
+     * @return delay in milliseconds.
+     */
+    long nextBackoff(int depth, long oldestAgeMs) {
+        if (depth < backoffDepth && oldestAgeMs < backoffLagMs) {
+            backoff.set(0);
+            return 0;
+        }
+        throttled.incrementAndGet();
+        return backoff.updateAndGet(current -> current == 0 ? MIN_BACKOFF_MS : Math.min(maxBackoffMs, current * 2));
+    }
+
+    /**
+     * Returns a snapshot of queue depth, age, throughput, latencies and backoff.
+     * @return current queue statistics.
+     */
+    public QueueStats stats() {
+        long now = System.currentTimeMillis();
+        int partitionQueued = 0;
+        for (SedaEndpoint queue : partitionQueues) {
+            partitionQueued += queued(queue);
+        }
+        Map<String, TypeStats> types = new TreeMap<>();
+        synchronized (byType) {
+            byType.forEach((type, window) -> types.put(type, new TypeStats(window.total(), window.perSecond(now))));
+        }
+        long[] latencies = latency.sorted();
+        long[] durations = processing.sorted();
+        return new QueueStats(queued(hubQueue), partitionQueued, oldestAgeMs(now), total.total(), total.perSecond(now),
+                percentile(latencies, 50), percentile(latencies, 99),
+                percentile(durations, 50), percentile(durations, 99),
+                backoff.get(), throttled.get(), types);
+    }
+
+    private long oldestAgeMs(long now) {
+        long oldest = oldestEnqueuedAt(hubQueue, now);
+        for (SedaEndpoint queue : partitionQueues) {
+            oldest = Math.min(oldest, oldestEnqueuedAt(queue, now));
+        }
+        return Math.max(0, now - oldest);
+    }
+
+    private static long oldestEnqueuedAt(SedaEndpoint queue, long now) {
+        if (queue == null) {
+            return now;
+        }
+        Exchange head = queue.getQueue().peek();
+        Long enqueuedAt = head == null ? null : head.getIn().getHeader(ENQUEUED_AT_HEADER, Long.class);
+        return enqueuedAt == null ? now : enqueuedAt;
+    }
+
+    private static int queued(SedaEndpoint queue) {
+        return queue == null ? 0 : queue.getCurrentQueueSize();
+    }
+
+    private static String typeOf(Object item) {
+        if (item instanceof Document doc && doc.get("type") != null) {
+            return doc.get("type");
+        }
+        return item == null ? "null" : item.getClass().getSimpleName();
+    }
+
+    /**
+     * Returns the value at a percentile of a sorted sample.
+     * @param sorted ascending values.
+     * @param percentile percentile between 0 and 100.
+     * @return nearest-rank value, {@code 0} for an empty sample.
+     */
+    static long percentile(long[] sorted, int percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    /**
+     * Counts over the last RATE_WINDOW_SECONDS in one-second buckets, plus a running total.
+     */
+    static final class RateWindow {
+
+        private final long[] seconds = new long[RATE_WINDOW_SECONDS];
+        private final long[] counts = new long[RATE_WINDOW_SECONDS];
+        private long total;
+
+        synchronized void add(long nowMs, long count) {
+            long second = nowMs / 1000;
+            int slot = (int) (second % RATE_WINDOW_SECONDS);
+            if (seconds[slot] != second) {
+                seconds[slot] = second;
+                counts[slot] = 0;
+            }
+            counts[slot] += count;
+            total += count;
+        }
+
+        synchronized long total() {
+            return total;
+        }
+
+        synchronized double perSecond(long nowMs) {
+            long second = nowMs / 1000;
+            long sum = 0;
+            for (int i = 0; i < RATE_WINDOW_SECONDS; i++) {
+                if (second - seconds[i] < RATE_WINDOW_SECONDS) {
+                    sum += counts[i];
+                }
+            }
+            return (double) sum / RATE_WINDOW_SECONDS;
+        }
+    }
+
+    /**
+     * Ring of the last SAMPLE_SIZE measurements.
+     */
+    static final class Sample {
+
+        private final long[] values = new long[SAMPLE_SIZE];
+        private long recorded;
+
+        synchronized void add(long value) {
+            values[(int) (recorded++ % SAMPLE_SIZE)] = value;
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(values, (int) Math.min(recorded, SAMPLE_SIZE));
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
@@ -1,35 +1,81 @@
 // src/main/java/at/htlle/freq/infrastructure/camel/LuceneIndexingHubRoute.java
 package at.htlle.freq.infrastructure.camel;
 
-import at.htlle.freq.application.ProjectSiteAssignmentService;
-import at.htlle.freq.domain.*;
+import at.htlle.freq.domain.IndexChange;
 import at.htlle.freq.infrastructure.lucene.LuceneIndexService;
+import at.htlle.freq.infrastructure.lucene.LuceneProperties;
+import org.apache.camel.AggregationStrategy;
 import org.apache.camel.Exchange;
+import org.apache.camel.ProducerTemplate;
 import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.seda.SedaEndpoint;
+import org.apache.lucene.store.AlreadyClosedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
-import java.util.UUID;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /*
  * Camel routing hub for all Lucene write operations.
  *
  * Data flow:
  *  - UnifiedIndexingRoutes (timers, direct endpoints) push domain entities into the "seda:lucene-index" queue.
- *  - This route consumes the queue with a single consumer and invokes the matching indexXxx() method based on the payload.
- *  - Errors are logged inside onException with the template {@code "Lucene indexing failed for {}: {}"} and the
- *    message is dropped to prevent retry storms.
+ *  - A single dispatcher consumes that queue and routes every entity (payloads are one entity or a collection) to one of
+ *    lifex.lucene.hub.partitions partition queues ("seda:lucene-index-<n>") by hashing its document id
+ *    (LuceneIndexService.documentId()). A collection is split into one message per partition, keeping the order of
+ *    its items.
+ *  - Each partition has its own consumer that aggregates the payloads into batches. A batch is complete after
+ *    lifex.lucene.hub.batch-size entities or after lifex.lucene.hub.batch-timeout-ms without new messages, and pending
+ *    entities are flushed when the route stops.
+ *  - Each batch goes to LuceneIndexService.indexChanged(), which maps every entity to its document, keeps only the last
+ *    document per id, drops documents whose content fingerprint matches the indexed one and writes the rest in one
+ *    writer session. Since the timer sweeps resend mostly unchanged rows, most of them never reach the IndexWriter.
+ *  - A batch whose write fails with a transient error (an IOException such as a held write lock, or a writer closed
+ *    by a concurrent generation switch) is retried up to lifex.lucene.hub.max-retries times, waiting
+ *    lifex.lucene.hub.retry-backoff-ms before the first retry and doubling the wait up to
+ *    lifex.lucene.hub.max-retry-backoff-ms. A batch that still fails, or fails with any other error, is moved with its
+ *    original payload into the bounded dead-letter store (IndexDeadLetters, lifex.lucene.hub.dead-letter-capacity).
+ *  - Messages failing before they reach a partition are logged inside onException with the template
+ *    {@code "Lucene indexing failed for {}: {}"} and dead-lettered as well.
+ *  - IndexChangeLogRoute stores change-log entries it cannot apply through deadLetterChanges() (partition -1), so the
+ *    change log can move past them.
+ *  - replayDeadLetters() puts the payloads of dead letters back on the hub queue and hands dead-lettered change-log
+ *    entries to LuceneIndexService.applyChanges() again; purgeDeadLetters() drops them.
  *
  * Retry / locking considerations:
- *  - Camel SEDA with concurrentConsumers=1 ensures only one writer at a time; LuceneIndexServiceImpl also serializes write
- *    operations via a ReentrantLock as an additional safeguard.
- *  - Automatic redelivery is disabled (handled(true)) to align with the logging guidance and avoid requeue loops.
+ *  - The shared IndexWriter is thread-safe, so the partitions write concurrently. All updates of one entity hash to the
+ *    same partition, whose single consumer preserves their queue order; different entities are written in parallel.
+ *  - Partition queues are bounded (PARTITION_QUEUE_SIZE messages) and block the dispatcher when full, so a slow
+ *    partition back-pressures the hub queue instead of buffering without limit.
+ *  - Batches completed by size are written on the partition's consumer thread, batches completed by timeout on the
+ *    aggregator timer thread, so two completed batches of one partition can race for the partition lock. Each batch
+ *    therefore gets a per-partition sequence number when it is started (under the aggregator lock, so in arrival
+ *    order), and indexBatch() writes a batch only after all batches with lower numbers; a newer batch that wins the
+ *    race waits on the partition lock until its predecessor is written (at most BATCH_ORDER_WAIT_MS, in case the
+ *    predecessor never arrives). Two batches of one partition never interleave or overtake each other.
+ *  - Camel redelivery is disabled (handled(true)): retries run inside indexBatch() while the partition lock is held,
+ *    so a retried batch can never be overtaken by a newer update of the same entity. The waits block the partition,
+ *    which back-pressures its queue instead of piling up retries.
+ *  - partitionStats() reports per partition how many entities were dispatched and written; the difference is the lag.
+ *  - Every written batch is reported to IndexingQueueMonitor with its types, the enqueue time of its oldest entity
+ *    (header IndexingQueueMonitor.ENQUEUED_AT_HEADER) and its write time; the monitor also watches the hub and
+ *    partition queues for their depth and oldest message.
  *
  * Integration points:
  *  - Serves as the bridge between Camel and LuceneIndexServiceImpl.
- *  - Consumes entities from the repositories (see UnifiedIndexingRoutes) and mirrors their structure one-to-one in the indexing methods.
+ *  - Consumes entities from the repositories (see UnifiedIndexingRoutes); the entity-to-document mapping lives in
+ *    LuceneIndexServiceImpl.toDocument() so reindexAll() and this route index identical documents.
  */
 /**
  * Component that provides Lucene Indexing Hub Route behavior.
@@ -39,27 +85,113 @@ import java.util.UUID;
 public class LuceneIndexingHubRoute extends RouteBuilder {
 
     private static final Logger log = LoggerFactory.getLogger(LuceneIndexingHubRoute.class);
+
+    /** Messages the hub queue holds before producers block. */
+    static final int HUB_QUEUE_SIZE = 2000;
+    /** Producer URI of the hub queue. */
+    static final String HUB_QUEUE_URI = "seda:lucene-index?size=" + HUB_QUEUE_SIZE + "&blockWhenFull=true";
+    /** Messages a partition queue holds before the dispatcher blocks. */
+    static final int PARTITION_QUEUE_SIZE = 1000;
+    private static final String PARTITION_HEADER = "lifexIndexPartition";
+    /** Header carrying the per-partition sequence number of an aggregated batch. */
+    static final String BATCH_SEQUENCE_HEADER = "lifexIndexBatchSequence";
+    /** Longest wait for the predecessor of a batch before it is written anyway. */
+    static final long BATCH_ORDER_WAIT_MS = 30_000;
+
+    /**
+     * Throughput and lag of one consumer partition.
+     *
+     * @param partition  partition number.
+     * @param dispatched entities routed to the partition since startup.
+     * @param indexed    entities the partition has handed to the index (written, skipped or dead-lettered).
+     * @param lag        entities dispatched but not yet indexed.
+     * @param queued     messages waiting in the partition queue.
+     * @param batches    batches written.
+     */
+    public record PartitionStats(int partition, long dispatched, long indexed, long lag, int queued, long batches) {}
+
+    /**
+     * A batch the hub gave up on.
+     *
+     * @param id         dead-letter id used to replay or purge it.
+     * @param partition  partition of the batch, {@code -1} when it failed before dispatch or came from the change log.
+     * @param items      entities in the batch.
+     * @param ids        document ids of the entities (row keys of change-log entries), in arrival order.
+     * @param attempts   write attempts made.
+     * @param error      last failure.
+     * @param failedAtMs epoch milliseconds of the last failure.
+     */
+    public record DeadLetter(long id, int partition, int items, List<String> ids, int attempts, String error,
+                             long failedAtMs) {}
+
+    /**
+     * Content of the dead-letter store.
+     *
+     * @param stored  dead letters in the store.
+     * @param evicted dead letters dropped because the store was full.
+     * @param retries batch writes retried since startup.
+     * @param letters stored dead letters, oldest first.
+     */
+    public record DeadLetterReport(int stored, long evicted, long retries, List<DeadLetter> letters) {}
+
+    /** Items of one hub message that belong to the same partition. */
+    record Partitioned(int partition, List<Object> items) {}
+
     private final LuceneIndexService lucene;
-    private final ProjectSiteAssignmentService projectSites;
+    private final LuceneProperties properties;
+    private final IndexingQueueMonitor monitor;
+    private final int partitions;
+    private final Object[] partitionLocks;
+    private final AtomicLongArray dispatched;
+    private final AtomicLongArray indexed;
+    private final AtomicLongArray batches;
+    private final AtomicLongArray batchSequences;
+    private final long[] nextBatch;     // guarded by partitionLocks
+    private final SedaEndpoint[] partitionEndpoints;
+    private final IndexDeadLetters deadLetters;
+    private final AtomicLong retries = new AtomicLong();
 
     /**
      * Creates a new LuceneIndexingHubRoute instance and initializes it with the provided values.
      * @param lucene lucene.
-     * @param projectSites project sites.
+     * @param properties lucene settings (batch size and timeout, partitions).
+     */
+    public LuceneIndexingHubRoute(LuceneIndexService lucene, LuceneProperties properties) {
+        this(lucene, properties, new IndexingQueueMonitor(properties));
+    }
+
+    /**
+     * Creates a new LuceneIndexingHubRoute instance that reports to a shared queue monitor.
+     * @param lucene lucene.
+     * @param properties lucene settings (batch size and timeout, partitions).
+     * @param monitor queue instrumentation shared with the producer routes.
      */
-    public LuceneIndexingHubRoute(LuceneIndexService lucene, ProjectSiteAssignmentService projectSites) {
+    @Autowired
+    public LuceneIndexingHubRoute(LuceneIndexService lucene, LuceneProperties properties, IndexingQueueMonitor monitor) {
         this.lucene = lucene;
-        this.projectSites = projectSites;
+        this.properties = properties;
+        this.monitor = monitor;
+        this.partitions = Math.max(1, properties.getHub().effectivePartitions());
+        this.partitionLocks = new Object[partitions];
+        for (int i = 0; i < partitions; i++) {
+            partitionLocks[i] = new Object();
+        }
+        this.dispatched = new AtomicLongArray(partitions);
+        this.indexed = new AtomicLongArray(partitions);
+        this.batches = new AtomicLongArray(partitions);
+        this.batchSequences = new AtomicLongArray(partitions);
+        this.nextBatch = new long[partitions];
+        this.partitionEndpoints = new SedaEndpoint[partitions];
+        this.deadLetters = new IndexDeadLetters(properties.getHub().getDeadLetterCapacity());
     }
 
     @Override
     /**
-     * Configures the onException logging and enforces a single-consumer flow.
-     * Parallel processing is disabled to match the lock warnings emitted by the service.
+     * Configures the onException logging, the dispatcher and one single-consumer route per partition.
      */
     public void configure() {
 
-        // Global error handling: log and drop the message to avoid retry storms
+        // Global error handling: log and dead-letter the message; batch writes retry inside indexBatch()
         onException(Exception.class)
                 .handled(true)
                 .process(ex -> {
@@ -69,213 +201,370 @@ public class LuceneIndexingHubRoute extends RouteBuilder {
                             body == null ? "null" : body.getClass().getSimpleName(),
                             cause != null ? cause.getMessage() : "unknown",
                             cause);
+                    List<Object> payload = payloadOf(body);
+                    if (!payload.isEmpty()) {
+                        deadLetters.add(-1, payload, 1, cause);
+                    }
                 });
 
-        // Single consumer to prevent write.lock conflicts
-        from("seda:lucene-index?concurrentConsumers=1")
-                .routeId("LuceneIndexHub")
-                .process(ex -> {
-                    Object body = ex.getIn().getBody();
+        int batchSize = Math.max(1, properties.getHub().getBatchSize());
+        long batchTimeoutMs = Math.max(1L, properties.getHub().getBatchTimeoutMs());
+        // Camel checks for timed-out batches once a second by default, which would delay quiet partitions far beyond
+        // the configured timeout
+        long timeoutCheckMs = Math.max(10L, Math.min(1000L, batchTimeoutMs / 2));
 
-                    if (body instanceof Account a) {
-                        lucene.indexAccount(
-                                a.getAccountID() != null ? a.getAccountID().toString() : null,
-                                a.getAccountName(),
-                                a.getCountry(),
-                                a.getContactEmail()
-                        );
-                        return;
+        // Single dispatcher keeps the queue order while it hands each entity to the partition of its id
+        SedaEndpoint hubQueue = getContext().getEndpoint("seda:lucene-index?concurrentConsumers=1", SedaEndpoint.class);
+        from(hubQueue)
+                .routeId("LuceneIndexHub")
+                .filter(ex -> {
+                    if (ex.getIn().getBody() == null) {
+                        log.warn("LuceneIndexHub: Unsupported body type: null");
+                        return false;
                     }
+                    return true;
+                })
+                .process(ex -> ex.getIn().setBody(partition(ex.getIn().getBody())))
+                .split(body())
+                    .process(ex -> {
+                        Partitioned part = ex.getIn().getBody(Partitioned.class);
+                        ex.getIn().setHeader(PARTITION_HEADER, part.partition());
+                        ex.getIn().setBody(part.items());
+                    })
+                    .toD("seda:lucene-index-${header." + PARTITION_HEADER + "}?size=" + PARTITION_QUEUE_SIZE
+                            + "&blockWhenFull=true")
+                .end();
 
-                    if (body instanceof Address a) {
-                        lucene.indexAddress(
-                                a.getAddressID() != null ? a.getAddressID().toString() : null,
-                                a.getStreet(),
-                                a.getCityID()
-                        );
-                        return;
-                    }
+        for (int i = 0; i < partitions; i++) {
+            int partition = i;
+            partitionEndpoints[i] = getContext().getEndpoint(partitionUri(i), SedaEndpoint.class);
+            from(partitionEndpoints[i])
+                    .routeId("LuceneIndexHub-" + i)
+                    .aggregate(constant(true), new BatchAggregation(batchSequences, partition))
+                        .completionPredicate(ex -> ex.getIn().getBody(List.class).size() >= batchSize)
+                        .completionTimeout(batchTimeoutMs)
+                        .completionTimeoutCheckerInterval(timeoutCheckMs)
+                        .forceCompletionOnStop()
+                        .process(ex -> indexBatch(partition, ex.getIn().getHeader(BATCH_SEQUENCE_HEADER, Long.class),
+                                ex.getIn().getBody(List.class),
+                                ex.getIn().getHeader(IndexingQueueMonitor.ENQUEUED_AT_HEADER, Long.class)))
+                    .end();
+        }
+        monitor.watch(hubQueue, partitionEndpoints);
+    }
 
-                    if (body instanceof AudioDevice d) {
-                        lucene.indexAudioDevice(
-                                d.getAudioDeviceID() != null ? d.getAudioDeviceID().toString() : null,
-                                d.getClientID() != null ? d.getClientID().toString() : null,
-                                d.getAudioDeviceBrand(),
-                                d.getDeviceSerialNr(),
-                                d.getAudioDeviceFirmware(),
-                                d.getDeviceType(),
-                                d.getDirection()
-                        );
-                        return;
-                    }
+    private static String partitionUri(int partition) {
+        return "seda:lucene-index-" + partition + "?size=" + PARTITION_QUEUE_SIZE + "&blockWhenFull=true";
+    }
 
-                    if (body instanceof City c) {
-                        lucene.indexCity(c.getCityID(), c.getCityName(), c.getCountryCode());
-                        return;
-                    }
+    /**
+     * Groups the items of a hub message by partition, keeping their order within each partition.
+     * @param body one entity or a collection of them.
+     * @return one entry per partition that receives items.
+     */
+    List<Partitioned> partition(Object body) {
+        Collection<?> items = body instanceof Collection<?> collection ? collection : List.of(body);
+        Map<Integer, List<Object>> byPartition = new LinkedHashMap<>();
+        for (Object item : items) {
+            if (item != null) {
+                byPartition.computeIfAbsent(partitionOf(item), p -> new ArrayList<>()).add(item);
+            }
+        }
+        List<Partitioned> parts = new ArrayList<>(byPartition.size());
+        byPartition.forEach((partition, partItems) -> {
+            dispatched.addAndGet(partition, partItems.size());
+            parts.add(new Partitioned(partition, partItems));
+        });
+        return parts;
+    }
 
-                    if (body instanceof Clients c) {
-                        lucene.indexClient(
-                                c.getClientID() != null ? c.getClientID().toString() : null,
-                                c.getSiteID() != null ? c.getSiteID().toString() : null,
-                                c.getClientName(),
-                                c.getClientBrand(),
-                                c.getClientOS(),
-                                c.getInstallType(),
-                                c.getWorkingPositionType(),
-                                c.getOtherInstalledSoftware()
-                        );
-                        return;
-                    }
+    /**
+     * Hashes the document id of an item to a partition; items without id go to partition 0.
+     * @param item entity or document.
+     * @return partition number.
+     */
+    int partitionOf(Object item) {
+        String id = lucene.documentId(item);
+        return id == null ? 0 : Math.floorMod(id.hashCode(), partitions);
+    }
 
-                    if (body instanceof Country c) {
-                        lucene.indexCountry(c.getCountryCode(), c.getCountryName());
-                        return;
-                    }
+    /**
+     * Writes one aggregated batch of a partition in a single writer session, after all earlier batches of the
+     * partition.
+     * @param partition partition the batch belongs to.
+     * @param sequence per-partition sequence number assigned when the batch was started, or {@code null} to write it
+     *                 without waiting.
+     * @param batch entities in arrival order.
+     * @param enqueuedAt epoch milliseconds at which the oldest entity was queued, or {@code null} when unknown.
+     */
+    void indexBatch(int partition, Long sequence, List<?> batch, Long enqueuedAt) {
+        Object lock = partitionLocks[partition];
+        synchronized (lock) {
+            if (sequence != null) {
+                awaitTurn(partition, sequence);
+            }
+            try {
+                if (batch == null || batch.isEmpty()) {
+                    return;
+                }
+                long start = System.nanoTime();
+                try {
+                    writeWithRetry(partition, batch);
+                } finally {
+                    monitor.batchIndexed(batch, enqueuedAt, (System.nanoTime() - start) / 1_000_000L);
+                    indexed.addAndGet(partition, batch.size());
+                    batches.incrementAndGet(partition);
+                }
+            } finally {
+                if (sequence != null) {
+                    nextBatch[partition] = Math.max(nextBatch[partition], sequence + 1);
+                    lock.notifyAll();
+                }
+            }
+        }
+    }
 
-                    if (body instanceof DeploymentVariant v) {
-                        lucene.indexDeploymentVariant(
-                                v.getVariantID() != null ? v.getVariantID().toString() : null,
-                                v.getVariantCode(),
-                                v.getVariantName(),
-                                v.getDescription(),
-                                v.isActive()
-                        );
-                        return;
-                    }
+    /**
+     * Waits on the partition lock until every batch started before this one has been written. Holds the lock.
+     */
+    private void awaitTurn(int partition, long sequence) {
+        Object lock = partitionLocks[partition];
+        long deadline = System.currentTimeMillis() + BATCH_ORDER_WAIT_MS;
+        while (nextBatch[partition] < sequence) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                log.warn("LuceneIndexHub: partition {} gave up waiting for batch {} before batch {}",
+                        partition, nextBatch[partition], sequence);
+                return;
+            }
+            try {
+                lock.wait(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
 
-                    if (body instanceof InstalledSoftware is) {
-                        lucene.indexInstalledSoftware(
-                                is.getInstalledSoftwareID() != null ? is.getInstalledSoftwareID().toString() : null,
-                                is.getSiteID() != null ? is.getSiteID().toString() : null,
-                                is.getSoftwareID() != null ? is.getSoftwareID().toString() : null,
-                                is.getStatus(),
-                                is.getOfferedDate(),
-                                is.getInstalledDate(),
-                                is.getRejectedDate(),
-                                is.getOutdatedDate()
-                        );
-                        return;
-                    }
+    /**
+     * Writes a batch, retrying transient failures with exponential backoff; a batch that cannot be written is
+     * dead-lettered. Runs under the partition lock.
+     */
+    private void writeWithRetry(int partition, List<?> batch) {
+        LuceneProperties.Hub settings = properties.getHub();
+        int maxRetries = Math.max(0, settings.getMaxRetries());
+        long delayMs = Math.max(1L, settings.getRetryBackoffMs());
+        long maxDelayMs = Math.max(delayMs, settings.getMaxRetryBackoffMs());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                lucene.indexChanged(batch);
+                if (attempt > 1) {
+                    log.info("LuceneIndexHub: partition {} indexed batch of {} entities after {} attempts",
+                            partition, batch.size(), attempt);
+                } else {
+                    log.debug("LuceneIndexHub: partition {} indexed batch of {} entities", partition, batch.size());
+                }
+                return;
+            } catch (RuntimeException e) {
+                if (!isTransient(e) || attempt > maxRetries) {
+                    deadLetter(partition, batch, attempt, e);
+                    return;
+                }
+                log.warn("LuceneIndexHub: partition {} failed to index batch of {} entities (attempt {}), "
+                        + "retrying in {} ms: {}", partition, batch.size(), attempt, delayMs, e.getMessage());
+                retries.incrementAndGet();
+                try {
+                    Thread.sleep(delayMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    deadLetter(partition, batch, attempt, e);
+                    return;
+                }
+                delayMs = Math.min(maxDelayMs, delayMs * 2);
+            }
+        }
+    }
 
-                    if (body instanceof PhoneIntegration p) {
-                        lucene.indexPhoneIntegration(
-                                p.getPhoneIntegrationID() != null ? p.getPhoneIntegrationID().toString() : null,
-                                p.getSiteID() != null ? p.getSiteID().toString() : null,
-                                p.getPhoneType(),
-                                p.getPhoneBrand(),
-                                p.getInterfaceName(),
-                                p.getCapacity(),
-                                p.getPhoneFirmware()
-                        );
-                        return;
-                    }
+    private void deadLetter(int partition, List<?> batch, int attempts, RuntimeException failure) {
+        IndexDeadLetters.Letter letter = deadLetters.add(partition, batch, attempts, failure);
+        log.error("LuceneIndexHub: partition {} gave up on batch of {} entities after {} attempts; "
+                + "stored as dead letter {}", partition, batch.size(), attempts, letter.id(), failure);
+    }
 
-                    if (body instanceof Project p) {
-                        lucene.indexProject(
-                                p.getProjectID() != null ? p.getProjectID().toString() : null,
-                                p.getProjectSAPID(),
-                                p.getProjectName(),
-                                p.getDeploymentVariantID() != null ? p.getDeploymentVariantID().toString() : null,
-                                p.getBundleType(),
-                                p.getLifecycleStatus() != null ? p.getLifecycleStatus().name() : null,
-                                p.getAccountID() != null ? p.getAccountID().toString() : null,
-                                p.getAddressID() != null ? p.getAddressID().toString() : null,
-                                p.getSpecialNotes()
-                        );
-                        return;
-                    }
+    /**
+     * Stores change-log entries that cannot be applied, so the change log can delete them and move on.
+     * @param changes entries that failed.
+     * @param failure failure of applyChanges().
+     */
+    void deadLetterChanges(List<IndexChange> changes, RuntimeException failure) {
+        IndexDeadLetters.Letter letter = deadLetters.add(-1, changes, 1, failure);
+        log.error("LuceneIndexHub: gave up on {} change log entries; stored as dead letter {}",
+                changes.size(), letter.id(), failure);
+    }
 
-                    if (body instanceof Radio r) {
-                        lucene.indexRadio(
-                                r.getRadioID() != null ? r.getRadioID().toString() : null,
-                                r.getSiteID() != null ? r.getSiteID().toString() : null,
-                                r.getAssignedClientID() != null ? r.getAssignedClientID().toString() : null,
-                                r.getRadioBrand(),
-                                r.getRadioSerialNr(),
-                                r.getMode(),
-                                r.getDigitalStandard()
-                        );
-                        return;
-                    }
+    /**
+     * Tells whether a write failure may succeed when retried: I/O errors (including a write lock held elsewhere) and
+     * writers closed by a concurrent generation switch.
+     * @param failure failure of indexChanged().
+     * @return {@code true} for transient failures.
+     */
+    static boolean isTransient(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof IOException || t instanceof UncheckedIOException
+                    || t instanceof AlreadyClosedException) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-                    if (body instanceof Server s) {
-                        lucene.indexServer(
-                                s.getServerID() != null ? s.getServerID().toString() : null,
-                                s.getSiteID() != null ? s.getSiteID().toString() : null,
-                                s.getServerName(),
-                                s.getServerBrand(),
-                                s.getServerSerialNr(),
-                                s.getServerOS(),
-                                s.getPatchLevel(),
-                                s.getVirtualPlatform(),
-                                s.getVirtualVersion()
-                        );
-                        return;
-                    }
+    private static List<Object> payloadOf(Object body) {
+        if (body == null) {
+            return List.of();
+        }
+        List<Object> payload = new ArrayList<>();
+        Collection<?> items = body instanceof Collection<?> collection ? collection : List.of(body);
+        for (Object item : items) {
+            if (item instanceof Partitioned part) {
+                payload.addAll(part.items());
+            } else if (item != null) {
+                payload.add(item);
+            }
+        }
+        return payload;
+    }
 
-                    if (body instanceof ServiceContract sc) {
-                                lucene.indexServiceContract(
-                                        sc.getContractID() != null ? sc.getContractID().toString() : null,
-                                        sc.getAccountID() != null ? sc.getAccountID().toString() : null,
-                                        sc.getProjectID() != null ? sc.getProjectID().toString() : null,
-                                        sc.getSiteID() != null ? sc.getSiteID().toString() : null,
-                                        sc.getContractNumber(),
-                                        sc.getStatus(),
-                                        sc.getStartDate() != null ? sc.getStartDate().toString() : null,
-                                        sc.getEndDate() != null ? sc.getEndDate().toString() : null
-                                );
-                        return;
-                    }
+    /**
+     * Lists the batches the hub gave up on.
+     * @return dead-letter store content and retry counters.
+     */
+    public DeadLetterReport deadLetters() {
+        List<DeadLetter> letters = new ArrayList<>();
+        for (IndexDeadLetters.Letter letter : deadLetters.list()) {
+            List<String> ids = new ArrayList<>(letter.payload().size());
+            for (Object item : letter.payload()) {
+                ids.add(item instanceof IndexChange change ? change.key() : lucene.documentId(item));
+            }
+            letters.add(new DeadLetter(letter.id(), letter.partition(), letter.payload().size(), ids,
+                    letter.attempts(), letter.error(), letter.failedAtMs()));
+        }
+        return new DeadLetterReport(letters.size(), deadLetters.evicted(), retries.get(), letters);
+    }
 
-                    if (body instanceof Site s) {
-                        lucene.indexSite(
-                                s.getSiteID() != null ? s.getSiteID().toString() : null,
-                                projectSites.getProjectsForSite(s.getSiteID()).stream()
-                                        .map(UUID::toString)
-                                        .toList(),
-                                s.getAddressID() != null ? s.getAddressID().toString() : null,
-                                s.getSiteName(),
-                                s.getFireZone(),
-                                s.getTenantCount(),
-                                s.getRedundantServers(),
-                                s.isHighAvailability()
-                        );
-                        return;
-                    }
+    /**
+     * Puts dead-lettered payloads back on the hub queue, where they are partitioned and written like new updates;
+     * dead-lettered change-log entries are applied directly. Letters that could not be queued or applied stay in the
+     * store.
+     * @param ids dead-letter ids, or {@code null}/empty for all.
+     * @return number of replayed dead letters.
+     */
+    public int replayDeadLetters(Collection<Long> ids) {
+        List<IndexDeadLetters.Letter> letters = deadLetters.take(ids);
+        if (letters.isEmpty()) {
+            return 0;
+        }
+        int replayed = 0;
+        ProducerTemplate producer = getContext().createProducerTemplate();
+        try {
+            for (IndexDeadLetters.Letter letter : letters) {
+                List<IndexChange> changes = changesOf(letter.payload());
+                if (!changes.isEmpty()) {
+                    lucene.applyChanges(changes);
+                    replayed++;
+                    continue;
+                }
+                // No size option: the queue already exists and keeps the size its producers created it with
+                producer.sendBodyAndHeader("seda:lucene-index?blockWhenFull=true", new ArrayList<>(letter.payload()),
+                        IndexingQueueMonitor.ENQUEUED_AT_HEADER, System.currentTimeMillis());
+                replayed++;
+            }
+        } catch (RuntimeException e) {
+            for (IndexDeadLetters.Letter letter : letters.subList(replayed, letters.size())) {
+                deadLetters.add(letter.partition(), letter.payload(), letter.attempts(), e);
+            }
+            throw e;
+        } finally {
+            producer.stop();
+        }
+        log.info("LuceneIndexHub: replayed {} dead letters", replayed);
+        return replayed;
+    }
 
-                    if (body instanceof Software sw) {
-                        lucene.indexSoftware(
-                                sw.getSoftwareID() != null ? sw.getSoftwareID().toString() : null,
-                                sw.getName(),
-                                sw.getRelease(),
-                                sw.getRevision(),
-                                sw.getSupportPhase(),
-                                sw.getLicenseModel(),
-                                sw.isThirdParty(),
-                                sw.getEndOfSalesDate(),
-                                sw.getSupportStartDate(),
-                                sw.getSupportEndDate()
-                        );
-                        return;
-                    }
+    private static List<IndexChange> changesOf(List<Object> payload) {
+        List<IndexChange> changes = new ArrayList<>(payload.size());
+        for (Object item : payload) {
+            if (!(item instanceof IndexChange change)) {
+                return List.of();
+            }
+            changes.add(change);
+        }
+        return changes;
+    }
 
-                    if (body instanceof UpgradePlan up) {
-                                lucene.indexUpgradePlan(
-                                        up.getUpgradePlanID() != null ? up.getUpgradePlanID().toString() : null,
-                                        up.getSiteID() != null ? up.getSiteID().toString() : null,
-                                        up.getSoftwareID() != null ? up.getSoftwareID().toString() : null,
-                                        up.getPlannedWindowStart() != null ? up.getPlannedWindowStart().toString() : null,
-                                        up.getPlannedWindowEnd() != null ? up.getPlannedWindowEnd().toString() : null,
-                                        up.getStatus(),
-                                        up.getCreatedAt() != null ? up.getCreatedAt().toString() : null,
-                                        up.getCreatedBy()
-                                );
-                        return;
-                    }
+    /**
+     * Drops dead letters without replaying them.
+     * @param ids dead-letter ids, or {@code null}/empty for all.
+     * @return number of purged dead letters.
+     */
+    public int purgeDeadLetters(Collection<Long> ids) {
+        int purged = deadLetters.purge(ids);
+        log.info("LuceneIndexHub: purged {} dead letters", purged);
+        return purged;
+    }
 
-                    // Fallback: log unsupported payload types
-                    log.warn("LuceneIndexHub: Unsupported body type: {}", body == null ? "null" : body.getClass());
-                });
+    /**
+     * Reports throughput and lag of every partition.
+     * @return one entry per partition, in partition order.
+     */
+    public List<PartitionStats> partitionStats() {
+        List<PartitionStats> stats = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            long sent = dispatched.get(i);
+            long done = indexed.get(i);
+            int queued = partitionEndpoints[i] != null ? partitionEndpoints[i].getCurrentQueueSize() : 0;
+            stats.add(new PartitionStats(i, sent, done, Math.max(0, sent - done), queued, batches.get(i)));
+        }
+        return stats;
+    }
+
+    /**
+     * Returns the queue instrumentation this hub reports to.
+     * @return queue monitor.
+     */
+    IndexingQueueMonitor monitor() {
+        return monitor;
+    }
+
+    /**
+     * Collects the payloads of consecutive exchanges into one list; collection payloads are flattened. Every new batch
+     * is numbered with the next sequence number of its partition ({@link #BATCH_SEQUENCE_HEADER}).
+     */
+    static final class BatchAggregation implements AggregationStrategy {
+
+        private final AtomicLongArray sequences;
+        private final int partition;
+
+        BatchAggregation(AtomicLongArray sequences, int partition) {
+            this.sequences = sequences;
+            this.partition = partition;
+        }
+
+        @Override
+        public Exchange aggregate(Exchange oldExchange, Exchange newExchange) {
+            Exchange target = oldExchange != null ? oldExchange : newExchange;
+            if (oldExchange == null) {
+                target.getIn().setHeader(BATCH_SEQUENCE_HEADER, sequences.getAndIncrement(partition));
+            }
+            @SuppressWarnings("unchecked")
+            List<Object> batch = oldExchange != null ? oldExchange.getIn().getBody(List.class) : new ArrayList<>();
+            Object body = newExchange.getIn().getBody();
+            if (body instanceof Collection<?> items) {
+                batch.addAll(items);
+            } else if (body != null) {
+                batch.add(body);
+            }
+            target.getIn().setBody(batch);
+            return target;
+        }
     }
 }
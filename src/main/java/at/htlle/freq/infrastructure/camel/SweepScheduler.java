@@ -0,0 +1,237 @@
+package at.htlle.freq.infrastructure.camel;
+
+import at.htlle.freq.infrastructure.logging.RequestLoadFilter;
+import at.htlle.freq.infrastructure.lucene.LuceneProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+ * Adaptive schedule of the reconciliation sweeps.
+ *
+ * Data flow:
+ *  - UnifiedIndexingRoutes registers every swept table when lifex.lucene.sweep.enabled=true. Its first sweep is due at a
+ *    random point within lifex.lucene.sweep.period-ms, so the tables no longer read the database at the same moment.
+ *  - Every sweep route ticks once per TICK_MS and asks tryStart(); only a due, idle table starts. finished() records the
+ *    rows and duration of the sweep and schedules the next one.
+ *  - IndexChangeLogRoute reports the change-log entries it applied per table through changed(). Each finished sweep
+ *    turns the entries since the previous sweep into a change rate per minute, smoothed over sweeps (RATE_WEIGHT).
+ *  - The next period is period-ms / (1 + changes per minute) for a table that changes, and twice the previous period
+ *    for one that does not; it is never shorter than the sweep itself divided by lifex.lucene.sweep.max-duty-percent,
+ *    and always within min-period-ms and max-period-ms. Every period is spread by +/- jitter-percent.
+ *  - While interactive requests (RequestLoadFilter) reach busy-in-flight running requests or busy-requests-per-second,
+ *    a due sweep is deferred to the next tick and counted once. A sweep overdue by max-period-ms runs regardless, so
+ *    sustained load cannot suppress reconciliation forever.
+ *
+ * Retry / locking considerations:
+ *  - All state is guarded by the scheduler's monitor; the calls are short and made once per tick and sweep.
+ *  - A table never runs two sweeps at once: tryStart() refuses while one is running, and the route reports finished()
+ *    in a doFinally block, so a failing scan does not leave the table marked as running.
+ *
+ * Integration points:
+ *  - IndexAdminController exposes schedule() as GET /api/index/sweeps.
+ */
+/**
+ * Component that spreads the reconciliation sweeps over time and adapts each table's cadence.
+ */
+@Component("SweepScheduler")
+@ConditionalOnProperty(value = "lifex.lucene.camel.enabled", havingValue = "true", matchIfMissing = true)
+public class SweepScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(SweepScheduler.class);
+
+    /** Interval at which the sweep routes ask whether their table is due, in milliseconds. */
+    static final long TICK_MS = 1000;
+    /** Weight of the latest observation in the smoothed change rate. */
+    static final double RATE_WEIGHT = 0.5;
+    /** Change rate per minute below which a table counts as idle. */
+    static final double IDLE_RATE = 0.01;
+
+    /**
+     * Schedule of one swept table.
+     *
+     * @param table            upper-case table name.
+     * @param periodMs         current pause between two sweeps, before jitter.
+     * @param nextInMs         time until the next sweep is due, {@code 0} when it is due or running.
+     * @param running          whether a sweep is in progress.
+     * @param runs             sweeps finished since startup.
+     * @param deferred         due sweeps deferred because of interactive load.
+     * @param changesPerMinute smoothed change-log entries per minute.
+     * @param lastRows         rows read by the last sweep.
+     * @param lastDurationMs   duration of the last sweep.
+     */
+    public record SweepSchedule(String table, long periodMs, long nextInMs, boolean running, long runs, long deferred,
+                                double changesPerMinute, long lastRows, long lastDurationMs) {}
+
+    private static final class State {
+        long periodMs;
+        long nextDueMs;
+        long lastFinishedMs;
+        long startedMs;
+        boolean running;
+        boolean deferring;
+        long runs;
+        long deferred;
+        long changes;
+        double changesPerMinute;
+        long lastRows;
+        long lastDurationMs;
+    }
+
+    private final long basePeriodMs;
+    private final long minPeriodMs;
+    private final long maxPeriodMs;
+    private final int jitterPercent;
+    private final int maxDutyPercent;
+    private final double busyRequestsPerSecond;
+    private final int busyInFlight;
+    private final Optional<RequestLoadFilter> load;
+    private final Map<String, State> states = new TreeMap<>();
+
+    /**
+     * Creates a new SweepScheduler instance and initializes it with the provided values.
+     * @param properties lucene settings ({@code lifex.lucene.sweep.*}).
+     * @param load interactive request load; absent outside a web application, which never defers sweeps.
+     */
+    public SweepScheduler(LuceneProperties properties, Optional<RequestLoadFilter> load) {
+        LuceneProperties.Sweep sweep = properties.getSweep();
+        this.minPeriodMs = Math.max(TICK_MS, sweep.getMinPeriodMs());
+        this.maxPeriodMs = Math.max(minPeriodMs, sweep.getMaxPeriodMs());
+        this.basePeriodMs = Math.min(maxPeriodMs, Math.max(minPeriodMs, sweep.getPeriodMs()));
+        this.jitterPercent = Math.min(100, Math.max(0, sweep.getJitterPercent()));
+        this.maxDutyPercent = Math.min(100, Math.max(1, sweep.getMaxDutyPercent()));
+        this.busyRequestsPerSecond = sweep.getBusyRequestsPerSecond();
+        this.busyInFlight = sweep.getBusyInFlight();
+        this.load = load;
+    }
+
+    /**
+     * Adds a table to the schedule with its first sweep at a random point within the nominal period.
+     * @param table upper-case table name.
+     */
+    void register(String table) {
+        register(table, System.currentTimeMillis());
+    }
+
+    synchronized void register(String table, long nowMs) {
+        State state = new State();
+        state.periodMs = basePeriodMs;
+        state.nextDueMs = nowMs + ThreadLocalRandom.current().nextLong(basePeriodMs);
+        state.lastFinishedMs = nowMs;
+        states.put(table, state);
+    }
+
+    /**
+     * Tells a sweep route whether its table should be swept now and marks the sweep as running if so.
+     * @param table upper-case table name.
+     * @return {@code true} when the sweep starts.
+     */
+    public boolean tryStart(String table) {
+        return tryStart(table, System.currentTimeMillis());
+    }
+
+    synchronized boolean tryStart(String table, long nowMs) {
+        State state = states.get(table);
+        if (state == null || state.running || nowMs < state.nextDueMs) {
+            return false;
+        }
+        if (busy() && nowMs - state.nextDueMs < maxPeriodMs) {
+            if (!state.deferring) {
+                state.deferring = true;
+                state.deferred++;
+                log.debug("Deferring sweep of {} while interactive load is high", table);
+            }
+            return false;
+        }
+        state.deferring = false;
+        state.running = true;
+        state.startedMs = nowMs;
+        return true;
+    }
+
+    /**
+     * Records a finished sweep and schedules the next one.
+     * @param table upper-case table name.
+     * @param rows rows the sweep read.
+     */
+    public void finished(String table, int rows) {
+        finished(table, rows, System.currentTimeMillis());
+    }
+
+    synchronized void finished(String table, int rows, long nowMs) {
+        State state = states.get(table);
+        if (state == null || !state.running) {
+            return;
+        }
+        state.running = false;
+        state.runs++;
+        state.lastRows = rows;
+        state.lastDurationMs = Math.max(0, nowMs - state.startedMs);
+        double observed = state.changes * 60_000.0 / Math.max(1L, nowMs - state.lastFinishedMs);
+        state.changesPerMinute = state.runs == 1
+                ? observed
+                : RATE_WEIGHT * observed + (1 - RATE_WEIGHT) * state.changesPerMinute;
+        state.changes = 0;
+        state.lastFinishedMs = nowMs;
+        state.periodMs = nextPeriod(state.periodMs, state.changesPerMinute, state.lastDurationMs);
+        state.nextDueMs = nowMs + jittered(state.periodMs);
+        log.debug("Swept {} rows of {} in {} ms; next sweep in about {} ms", rows, table, state.lastDurationMs,
+                state.periodMs);
+    }
+
+    /**
+     * Counts change-log entries applied for a table.
+     * @param table upper-case table name; tables without sweep are ignored.
+     * @param count applied entries.
+     */
+    public synchronized void changed(String table, int count) {
+        State state = states.get(table);
+        if (state != null) {
+            state.changes += count;
+        }
+    }
+
+    /**
+     * Computes the pause before the next sweep of a table.
+     * @param previousMs current period.
+     * @param changesPerMinute smoothed change rate.
+     * @param durationMs duration of the last sweep.
+     * @return period in milliseconds, before jitter.
+     */
+    long nextPeriod(long previousMs, double changesPerMinute, long durationMs) {
+        double target = changesPerMinute >= IDLE_RATE ? basePeriodMs / (1 + changesPerMinute) : previousMs * 2.0;
+        double costFloor = durationMs * 100.0 / maxDutyPercent;
+        return Math.min(maxPeriodMs, Math.max(minPeriodMs, (long) Math.max(target, costFloor)));
+    }
+
+    private long jittered(long periodMs) {
+        long spread = periodMs * jitterPercent / 100;
+        return spread == 0 ? periodMs : periodMs - spread + ThreadLocalRandom.current().nextLong(2 * spread + 1);
+    }
+
+    private boolean busy() {
+        return load.map(l -> l.inFlight() >= busyInFlight || l.requestsPerSecond() >= busyRequestsPerSecond)
+                .orElse(false);
+    }
+
+    /**
+     * Returns the current schedule of every swept table.
+     * @return one entry per table in table order; empty while sweeps are disabled.
+     */
+    public synchronized List<SweepSchedule> schedule() {
+        long now = System.currentTimeMillis();
+        List<SweepSchedule> schedule = new ArrayList<>(states.size());
+        states.forEach((table, state) -> schedule.add(new SweepSchedule(table, state.periodMs,
+                state.running ? 0 : Math.max(0, state.nextDueMs - now), state.running, state.runs, state.deferred,
+                state.changesPerMinute, state.lastRows, state.lastDurationMs)));
+        return schedule;
+    }
+}
@@ -2,20 +2,37 @@
 package at.htlle.freq.infrastructure.camel;
 
 import at.htlle.freq.domain.*;
+import at.htlle.freq.infrastructure.lucene.LuceneProperties;
 import org.apache.camel.builder.RouteBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
 /*
  * Unified Camel routes for producing Lucene index messages.
  *
  * Data flow:
- *  - Timer sources fire every three minutes, read sequentially from the JPA repositories, and stream individual entities.
- *  - Each source writes its records to the central "seda:lucene-index" queue.
+ *  - Regular freshness comes from the database change log (IndexChangeLogRoute). The timer sweeps below are a
+ *    reconciliation safety net: they only start when lifex.lucene.sweep.enabled=true, read sequentially from the
+ *    repositories, and stream individual entities. Rows come from the repositories' streamAll() in keyset chunks of
+ *    lifex.lucene.sweep.chunk-size, so a sweep holds one chunk of a table in memory instead of the whole table.
+ *  - The sweep timers tick every SweepScheduler.TICK_MS and only sweep when SweepScheduler.tryStart() says their table
+ *    is due: first sweeps are spread randomly over lifex.lucene.sweep.period-ms, later ones follow each table's change
+ *    rate and sweep cost, and due sweeps wait while interactive request load is high.
+ *  - Each source writes its records to the central "seda:lucene-index" queue, where unchanged rows are skipped.
  *  - Direct endpoints allow ad-hoc indexing (for example after CRUD events) and also publish to the queue.
  *
+ *  - Every message is stamped with its enqueue time (IndexingQueueMonitor.ENQUEUED_AT_HEADER) so the hub can report
+ *    queue age and enqueue-to-index latency.
+ *
  * Retry / locking considerations:
  *  - The SEDA queue is configured with blockWhenFull=true (see configuration) to avoid backpressure issues.
+ *  - Sweeps do not rely on that block: before each entity they wait IndexingQueueMonitor.backoffMs(), an asynchronous
+ *    delay that grows while the hub queue is deep or old and is 0 while it keeps up. Direct endpoints are not delayed.
  *  - Serialization happens downstream (LuceneIndexingHubRoute + LuceneIndexServiceImpl), so no extra locks are required because
  *    Camel preserves ordering within a route.
  *
@@ -30,6 +47,9 @@ import org.springframework.stereotype.Component;
 @ConditionalOnProperty(value = "lifex.lucene.camel.enabled", havingValue = "true", matchIfMissing = true)
 public class UnifiedIndexingRoutes extends RouteBuilder {
 
+    /** Exchange property counting the rows a running sweep has read so far. */
+    private static final String SWEPT_ROWS = "lifexSweptRows";
+
     // --- Repositories: capture every dependency ---
     private final AccountRepository accountRepo;
     private final AddressRepository addressRepo;
@@ -47,9 +67,12 @@ public class UnifiedIndexingRoutes extends RouteBuilder {
     private final SiteRepository siteRepo;
     private final SoftwareRepository softwareRepo;
     private final UpgradePlanRepository upgradePlanRepo;
+    private final LuceneProperties properties;
+    private final IndexingQueueMonitor monitor;
+    private final SweepScheduler scheduler;
 
     /**
-     * Creates a new UnifiedIndexingRoutes instance and initializes it with the provided values.
+     * Creates a new UnifiedIndexingRoutes instance whose sweeps follow a shared adaptive schedule.
      * @param accountRepo account repo.
      * @param addressRepo address repo.
      * @param audioDeviceRepo audio device repo.
@@ -66,7 +89,11 @@ public class UnifiedIndexingRoutes extends RouteBuilder {
      * @param siteRepo site repo.
      * @param softwareRepo software repo.
      * @param upgradePlanRepo upgrade plan repo.
+     * @param properties lucene settings ({@code lifex.lucene.sweep.*}).
+     * @param monitor queue instrumentation shared with the indexing hub.
+     * @param scheduler sweep schedule shared with the change-log route.
      */
+    @Autowired
     public UnifiedIndexingRoutes(AccountRepository accountRepo,
                                  AddressRepository addressRepo,
                                  AudioDeviceRepository audioDeviceRepo,
@@ -82,7 +109,10 @@ public class UnifiedIndexingRoutes extends RouteBuilder {
                                  ServiceContractRepository serviceContractRepo,
                                  SiteRepository siteRepo,
                                  SoftwareRepository softwareRepo,
-                                 UpgradePlanRepository upgradePlanRepo) {
+                                 UpgradePlanRepository upgradePlanRepo,
+                                 LuceneProperties properties,
+                                 IndexingQueueMonitor monitor,
+                                 SweepScheduler scheduler) {
         this.accountRepo = accountRepo;
         this.addressRepo = addressRepo;
         this.audioDeviceRepo = audioDeviceRepo;
@@ -99,96 +129,107 @@ public class UnifiedIndexingRoutes extends RouteBuilder {
         this.siteRepo = siteRepo;
         this.softwareRepo = softwareRepo;
         this.upgradePlanRepo = upgradePlanRepo;
+        this.properties = properties;
+        this.monitor = monitor;
+        this.scheduler = scheduler;
     }
 
     @Override
     /**
      * Wires timers and direct endpoints to the shared SEDA queue.
-     * Each timer fires every 180 seconds and streams entities so even large tables are processed incrementally.
+     * Once enabled, each table is swept when the SweepScheduler finds it due (nominally every
+     * lifex.lucene.sweep.period-ms, default 180 seconds) and streams its entities so even large tables are processed
+     * incrementally.
      */
     public void configure() {
-
-        // ===== Timer-based reindex for every entity, routed into the shared SEDA queue =====
-        from("timer://idxAccounts?period=180000").routeId("ReindexAccounts")
-                .bean(accountRepo, "findAll").split(body()).streaming()
-                .to("seda:lucene-index?size=2000&blockWhenFull=true");
-
-        from("timer://idxAddresses?period=180000").routeId("ReindexAddresses")
-                .bean(addressRepo, "findAll").split(body()).streaming()
-                .to("seda:lucene-index?size=2000&blockWhenFull=true");
-
-        from("timer://idxAudioDevices?period=180000").routeId("ReindexAudioDevices")
-                .bean(audioDeviceRepo, "findAll").split(body()).streaming()
-                .to("seda:lucene-index?size=2000&blockWhenFull=true");
-
-        from("timer://idxCities?period=180000").routeId("ReindexCities")
-                .bean(cityRepo, "findAll").split(body()).streaming()
-                .to("seda:lucene-index?size=2000&blockWhenFull=true");
-
-        from("timer://idxClients?period=180000").routeId("ReindexClients")
-                .bean(clientsRepo, "findAll").split(body()).streaming()
-                .to("seda:lucene-index?size=2000&blockWhenFull=true");
-
-        from("timer://idxCountries?period=180000").routeId("ReindexCountries")
-                .bean(countryRepo, "findAll").split(body()).streaming()
-                .to("seda:lucene-index?size=2000&blockWhenFull=true");
-
-        from("timer://idxDeploymentVariants?period=180000").routeId("ReindexDeploymentVariants")
-                .bean(deploymentVariantRepo, "findAll").split(body()).streaming()
-                .to("seda:lucene-index?size=2000&blockWhenFull=true");
-
-        from("timer://idxInstalledSoftware?period=180000").routeId("ReindexInstalledSoftware")
-                .bean(installedSoftwareRepo, "findAll").split(body()).streaming()
-                .to("seda:lucene-index?size=2000&blockWhenFull=true");
-
-        from("timer://idxPhoneIntegrations?period=180000").routeId("ReindexPhoneIntegrations")
-                .bean(phoneIntegrationRepo, "findAll").split(body()).streaming()
-                .to("seda:lucene-index?size=2000&blockWhenFull=true");
-
-        from("timer://idxProjects?period=180000").routeId("ReindexProjects")
-                .bean(projectRepo, "findAll").split(body()).streaming()
-                .to("seda:lucene-index?size=2000&blockWhenFull=true");
-
-        from("timer://idxRadios?period=180000").routeId("ReindexRadios")
-                .bean(radioRepo, "findAll").split(body()).streaming()
-                .to("seda:lucene-index?size=2000&blockWhenFull=true");
-
-        from("timer://idxServers?period=180000").routeId("ReindexServers")
-                .bean(serverRepo, "findAll").split(body()).streaming()
-                .to("seda:lucene-index?size=2000&blockWhenFull=true");
-
-        from("timer://idxServiceContracts?period=180000").routeId("ReindexServiceContracts")
-                .bean(serviceContractRepo, "findAll").split(body()).streaming()
-                .to("seda:lucene-index?size=2000&blockWhenFull=true");
-
-        from("timer://idxSites?period=180000").routeId("ReindexSites")
-                .bean(siteRepo, "findAll").split(body()).streaming()
-                .to("seda:lucene-index?size=2000&blockWhenFull=true");
-
-        from("timer://idxSoftware?period=180000").routeId("ReindexSoftware")
-                .bean(softwareRepo, "findAll").split(body()).streaming()
-                .to("seda:lucene-index?size=2000&blockWhenFull=true");
-
-        from("timer://idxUpgradePlans?period=180000").routeId("ReindexUpgradePlans")
-                .bean(upgradePlanRepo, "findAll").split(body()).streaming()
-                .to("seda:lucene-index?size=2000&blockWhenFull=true");
+        boolean sweep = properties.getSweep().isEnabled();
+
+        // ===== Optional timer-based sweep for every entity, routed into the shared SEDA queue =====
+        sweep("idxAccounts", "ReindexAccounts", "ACCOUNT", accountRepo::streamAll, sweep);
+        sweep("idxAddresses", "ReindexAddresses", "ADDRESS", addressRepo::streamAll, sweep);
+        sweep("idxAudioDevices", "ReindexAudioDevices", "AUDIODEVICE", audioDeviceRepo::streamAll, sweep);
+        sweep("idxCities", "ReindexCities", "CITY", cityRepo::streamAll, sweep);
+        sweep("idxClients", "ReindexClients", "CLIENTS", clientsRepo::streamAll, sweep);
+        sweep("idxCountries", "ReindexCountries", "COUNTRY", countryRepo::streamAll, sweep);
+        sweep("idxDeploymentVariants", "ReindexDeploymentVariants", "DEPLOYMENTVARIANT", deploymentVariantRepo::streamAll, sweep);
+        sweep("idxInstalledSoftware", "ReindexInstalledSoftware", "INSTALLEDSOFTWARE", installedSoftwareRepo::streamAll, sweep);
+        sweep("idxPhoneIntegrations", "ReindexPhoneIntegrations", "PHONEINTEGRATION", phoneIntegrationRepo::streamAll, sweep);
+        sweep("idxProjects", "ReindexProjects", "PROJECT", projectRepo::streamAll, sweep);
+        sweep("idxRadios", "ReindexRadios", "RADIO", radioRepo::streamAll, sweep);
+        sweep("idxServers", "ReindexServers", "SERVER", serverRepo::streamAll, sweep);
+        sweep("idxServiceContracts", "ReindexServiceContracts", "SERVICECONTRACT", serviceContractRepo::streamAll, sweep);
+        sweep("idxSites", "ReindexSites", "SITE", siteRepo::streamAll, sweep);
+        sweep("idxSoftware", "ReindexSoftware", "SOFTWARE", softwareRepo::streamAll, sweep);
+        sweep("idxUpgradePlans", "ReindexUpgradePlans", "UPGRADEPLAN", upgradePlanRepo::streamAll, sweep);
 
         // ===== Single index endpoints, also routed into the queue =====
-        from("direct:index-single-account").routeId("IndexSingleAccount").to("seda:lucene-index");
-        from("direct:index-single-address").routeId("IndexSingleAddress").to("seda:lucene-index");
-        from("direct:index-single-audioDevice").routeId("IndexSingleAudioDevice").to("seda:lucene-index");
-        from("direct:index-single-city").routeId("IndexSingleCity").to("seda:lucene-index");
-        from("direct:index-single-client").routeId("IndexSingleClient").to("seda:lucene-index");
-        from("direct:index-single-country").routeId("IndexSingleCountry").to("seda:lucene-index");
-        from("direct:index-single-deploymentVariant").routeId("IndexSingleDeploymentVariant").to("seda:lucene-index");
-        from("direct:index-single-installedSoftware").routeId("IndexSingleInstalledSoftware").to("seda:lucene-index");
-        from("direct:index-single-phoneIntegration").routeId("IndexSinglePhoneIntegration").to("seda:lucene-index");
-        from("direct:index-single-project").routeId("IndexSingleProject").to("seda:lucene-index");
-        from("direct:index-single-radio").routeId("IndexSingleRadio").to("seda:lucene-index");
-        from("direct:index-single-server").routeId("IndexSingleServer").to("seda:lucene-index");
-        from("direct:index-single-serviceContract").routeId("IndexSingleServiceContract").to("seda:lucene-index");
-        from("direct:index-single-site").routeId("IndexSingleSite").to("seda:lucene-index");
-        from("direct:index-single-software").routeId("IndexSingleSoftware").to("seda:lucene-index");
-        from("direct:index-single-upgradePlan").routeId("IndexSingleUpgradePlan").to("seda:lucene-index");
+        from("direct:index-single-account").routeId("IndexSingleAccount")
+                .process(monitor::stamp).to("seda:lucene-index");
+        from("direct:index-single-address").routeId("IndexSingleAddress")
+                .process(monitor::stamp).to("seda:lucene-index");
+        from("direct:index-single-audioDevice").routeId("IndexSingleAudioDevice")
+                .process(monitor::stamp).to("seda:lucene-index");
+        from("direct:index-single-city").routeId("IndexSingleCity")
+                .process(monitor::stamp).to("seda:lucene-index");
+        from("direct:index-single-client").routeId("IndexSingleClient")
+                .process(monitor::stamp).to("seda:lucene-index");
+        from("direct:index-single-country").routeId("IndexSingleCountry")
+                .process(monitor::stamp).to("seda:lucene-index");
+        from("direct:index-single-deploymentVariant").routeId("IndexSingleDeploymentVariant")
+                .process(monitor::stamp).to("seda:lucene-index");
+        from("direct:index-single-installedSoftware").routeId("IndexSingleInstalledSoftware")
+                .process(monitor::stamp).to("seda:lucene-index");
+        from("direct:index-single-phoneIntegration").routeId("IndexSinglePhoneIntegration")
+                .process(monitor::stamp).to("seda:lucene-index");
+        from("direct:index-single-project").routeId("IndexSingleProject")
+                .process(monitor::stamp).to("seda:lucene-index");
+        from("direct:index-single-radio").routeId("IndexSingleRadio")
+                .process(monitor::stamp).to("seda:lucene-index");
+        from("direct:index-single-server").routeId("IndexSingleServer")
+                .process(monitor::stamp).to("seda:lucene-index");
+        from("direct:index-single-serviceContract").routeId("IndexSingleServiceContract")
+                .process(monitor::stamp).to("seda:lucene-index");
+        from("direct:index-single-site").routeId("IndexSingleSite")
+                .process(monitor::stamp).to("seda:lucene-index");
+        from("direct:index-single-software").routeId("IndexSingleSoftware")
+                .process(monitor::stamp).to("seda:lucene-index");
+        from("direct:index-single-upgradePlan").routeId("IndexSingleUpgradePlan")
+                .process(monitor::stamp).to("seda:lucene-index");
+    }
+
+    /**
+     * Adds the sweep route of one repository: on every tick at which the scheduler finds the table due, it streams all
+     * rows in keyset chunks of lifex.lucene.sweep.chunk-size and queues them one by one, each after the adaptive backoff
+     * of the queue monitor, and reports the sweep back to the scheduler.
+     * @param timer timer name.
+     * @param routeId route id.
+     * @param table upper-case table name, as in the change log.
+     * @param scan the repository's {@code streamAll}, called with the chunk size.
+     * @param sweep whether the route starts with the context.
+     */
+    private void sweep(String timer, String routeId, String table, IntFunction<Stream<?>> scan, boolean sweep) {
+        if (sweep) {
+            scheduler.register(table);
+        }
+        int chunkSize = properties.getSweep().getChunkSize();
+        from("timer://" + timer + "?period=" + SweepScheduler.TICK_MS).routeId(routeId).autoStartup(sweep)
+                .filter(ex -> scheduler.tryStart(table))
+                .doTry()
+                    .process(ex -> {
+                        AtomicInteger rows = new AtomicInteger();
+                        ex.setProperty(SWEPT_ROWS, rows);
+                        ex.getIn().setBody(scan.apply(chunkSize).peek(row -> rows.incrementAndGet()).iterator());
+                    })
+                    .split(body()).streaming()
+                        .delay(method(monitor, "backoffMs")).asyncDelayed()
+                        .process(monitor::stamp)
+                        .to(LuceneIndexingHubRoute.HUB_QUEUE_URI)
+                    .end().endDoTry()
+                .doFinally()
+                    .process(ex -> {
+                        AtomicInteger rows = ex.getProperty(SWEPT_ROWS, AtomicInteger.class);
+                        scheduler.finished(table, rows == null ? 0 : rows.get());
+                    })
+                .end();
     }
 }
@@ -0,0 +1,113 @@
+package at.htlle.freq.infrastructure.logging;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Servlet filter that measures the interactive request load: requests currently running and requests started per
+ * second over the last {@value #WINDOW_SECONDS} seconds.
+ * <p>
+ * Background work such as the index sweeps reads these figures to stay out of the way of users. Requests to the index
+ * administration API ({@value #ADMIN_PATH}) are not counted, so polling the indexing status does not defer indexing,
+ * and neither are static assets (stylesheets, scripts, images) that a page load fetches alongside. Paths are matched
+ * within the application, without the context path.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class RequestLoadFilter extends OncePerRequestFilter {
+
+    static final int WINDOW_SECONDS = 10;
+    private static final String ADMIN_PATH = "/api/index";
+    private static final List<String> STATIC_PREFIXES = List.of("/css/", "/js/", "/img/", "/favicon.ico");
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // One slot per second of the window: the epoch second in the upper 32 bits, its request count in the lower 32
+    private final AtomicLongArray slots = new AtomicLongArray(WINDOW_SECONDS);
+
+    /**
+     * Counts the request while it runs.
+     *
+     * @param request incoming HTTP request.
+     * @param response HTTP response.
+     * @param filterChain servlet filter chain.
+     * @throws ServletException when the filter chain fails.
+     * @throws IOException when the response cannot be written.
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (!isInteractive(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        started(System.currentTimeMillis());
+        inFlight.incrementAndGet();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * Returns the number of interactive requests currently running.
+     *
+     * @return running requests.
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Returns the rate of interactive requests over the last {@value #WINDOW_SECONDS} seconds.
+     *
+     * @return requests per second.
+     */
+    public double requestsPerSecond() {
+        return requestsPerSecond(System.currentTimeMillis());
+    }
+
+    /**
+     * Tells whether a request counts as interactive load: anything but the index administration API and static assets.
+     */
+    static boolean isInteractive(HttpServletRequest request) {
+        String path = request.getServletPath();
+        if (request.getPathInfo() != null) {
+            path = path + request.getPathInfo();
+        }
+        if (path.equals(ADMIN_PATH) || path.startsWith(ADMIN_PATH + "/")) {
+            return false;
+        }
+        return STATIC_PREFIXES.stream().noneMatch(path::startsWith);
+    }
+
+    void started(long nowMs) {
+        long second = nowMs / 1000;
+        slots.updateAndGet((int) (second % WINDOW_SECONDS),
+                slot -> (slot >>> 32) == second ? slot + 1 : (second << 32) | 1);
+    }
+
+    double requestsPerSecond(long nowMs) {
+        long second = nowMs / 1000;
+        long sum = 0;
+        for (int i = 0; i < WINDOW_SECONDS; i++) {
+            long slot = slots.get(i);
+            if (second - (slot >>> 32) < WINDOW_SECONDS) {
+                sum += slot & 0xFFFF_FFFFL;
+            }
+        }
+        return (double) sum / WINDOW_SECONDS;
+    }
+}
@@ -0,0 +1,202 @@
+package at.htlle.freq.infrastructure.lucene;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Group-commit engine for the shared IndexWriter.
+ *
+ * Data flow:
+ *  - LuceneIndexServiceImpl reports every applied change through onChange() instead of committing synchronously.
+ *  - The first pending change schedules a commit after maxLatencyMs; reaching maxPendingDocs triggers one immediately.
+ *  - One background commit therefore covers every change that arrived in the meantime, so fsync costs scale with the
+ *    number of commits rather than with the number of documents.
+ *
+ * Retry / locking considerations:
+ *  - Commits run on a single daemon thread. A failed commit keeps its changes pending and schedules a retry after
+ *    maxLatencyMs (at least RETRY_MIN_DELAY_MS), doubling the delay up to RETRY_MAX_DELAY_MS while commits keep failing,
+ *    so the changes and the journal checkpoint do not wait for the next change to be committed.
+ *  - flush() commits synchronously and is used on shutdown so no acknowledged change is left uncommitted.
+ */
+
+/**
+ * Decides when pending index changes are committed and reports the commit state.
+ */
+public final class CommitPolicy {
+
+    private static final Logger log = LoggerFactory.getLogger(CommitPolicy.class);
+    static final long RETRY_MIN_DELAY_MS = 100L;
+    static final long RETRY_MAX_DELAY_MS = 60_000L;
+
+    /**
+     * Performs the actual commit and returns the resulting commit generation, or {@code -1} when nothing is open.
+     */
+    @FunctionalInterface
+    interface Committer {
+        long commit() throws Exception;
+    }
+
+    private final Committer committer;
+    private final long maxLatencyMs;
+    private final int maxPendingDocs;
+
+    private final AtomicLong pendingDocs = new AtomicLong();
+    private final AtomicBoolean commitScheduled = new AtomicBoolean();
+    private final AtomicBoolean immediateQueued = new AtomicBoolean();
+    private final Object commitMonitor = new Object();
+    private volatile long lastCommitGeneration = -1L;
+    private volatile long lastCommitAtMs = 0L;
+    private volatile long commitCount = 0L;
+    private long retryDelayMs = 0L;   // guarded by commitMonitor; 0 while commits succeed
+    private ScheduledExecutorService executor;   // guarded by this
+
+    /**
+     * Creates a policy with the given triggers.
+     * @param committer callback that commits the writer.
+     * @param maxLatencyMs longest time a change may stay uncommitted.
+     * @param maxPendingDocs number of pending changes that forces an immediate commit.
+     */
+    CommitPolicy(Committer committer, long maxLatencyMs, int maxPendingDocs) {
+        this.committer = committer;
+        this.maxLatencyMs = Math.max(0L, maxLatencyMs);
+        this.maxPendingDocs = Math.max(1, maxPendingDocs);
+    }
+
+    /**
+     * Registers applied but uncommitted changes and schedules the commit that will cover them.
+     * @param docs number of changed documents.
+     */
+    void onChange(int docs) {
+        if (docs <= 0) {
+            return;
+        }
+        long pending = pendingDocs.addAndGet(docs);
+        if (pending >= maxPendingDocs) {
+            if (immediateQueued.compareAndSet(false, true)) {
+                submit(() -> {
+                    immediateQueued.set(false);
+                    commitPending();
+                }, 0L);
+            }
+        } else {
+            scheduleCommit(maxLatencyMs);
+        }
+    }
+
+    /**
+     * Synchronously commits all pending changes, e.g. on shutdown.
+     */
+    void flush() {
+        commitPending();
+    }
+
+    /**
+     * Marks the pending counter as cleared without committing, used when the writer was closed (which commits itself)
+     * or its changes were discarded.
+     * @param generation commit generation observed after closing, or {@code -1} when unknown.
+     */
+    void reset(long generation) {
+        pendingDocs.set(0L);
+        if (generation >= 0) {
+            lastCommitGeneration = generation;
+            lastCommitAtMs = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Stops the background thread; a later change starts a new one.
+     */
+    synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * Returns a snapshot for the admin endpoint.
+     * @return commit status.
+     */
+    public Status status() {
+        return new Status(lastCommitGeneration, pendingDocs.get(), lastCommitAtMs, commitCount, maxLatencyMs, maxPendingDocs);
+    }
+
+    /**
+     * Commits if anything is pending. Serialized so concurrent triggers never overlap.
+     */
+    private void commitPending() {
+        synchronized (commitMonitor) {
+            long covered = pendingDocs.getAndSet(0L);
+            if (covered == 0L) {
+                return;
+            }
+            try {
+                long generation = committer.commit();
+                if (generation >= 0) {
+                    lastCommitGeneration = generation;
+                }
+                lastCommitAtMs = System.currentTimeMillis();
+                commitCount++;
+                retryDelayMs = 0L;
+                if (log.isDebugEnabled()) {
+                    log.debug("Lucene group commit covered {} changes (generation {})", covered, generation);
+                }
+            } catch (Exception e) {
+                pendingDocs.addAndGet(covered);
+                retryDelayMs = retryDelayMs == 0L
+                        ? Math.max(maxLatencyMs, RETRY_MIN_DELAY_MS)
+                        : Math.min(retryDelayMs * 2, RETRY_MAX_DELAY_MS);
+                log.error("Lucene group commit failed; {} changes remain pending, retrying in {} ms",
+                        covered, retryDelayMs, e);
+                scheduleCommit(retryDelayMs);
+            }
+        }
+    }
+
+    /**
+     * Schedules a commit after {@code delayMs} unless one is already scheduled.
+     */
+    private void scheduleCommit(long delayMs) {
+        if (commitScheduled.compareAndSet(false, true)) {
+            submit(() -> {
+                commitScheduled.set(false);
+                commitPending();
+            }, delayMs);
+        }
+    }
+
+    /**
+     * Schedules a task on the lazily created commit thread.
+     */
+    private synchronized void submit(Runnable task, long delayMs) {
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "lucene-group-commit");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        try {
+            executor.schedule(task, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.warn("Lucene group commit could not be scheduled", e);
+        }
+    }
+
+    /** Commit state exposed via REST; Jackson serializes it as JSON without additional configuration. */
+    public static record Status(
+            long lastCommitGeneration,
+            long uncommittedDocs,
+            long lastCommitAtMs,
+            long commitCount,
+            long maxLatencyMs,
+            int maxPendingDocs
+    ) {}
+}
@@ -0,0 +1,127 @@
+package at.htlle.freq.infrastructure.lucene;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.PostingsEnum;
+import org.apache.lucene.index.Terms;
+import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.Bits;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * Content fingerprint of an indexed document.
+ *
+ * Data flow:
+ *  - stamp() adds a 64-bit hash of all stored fields as a NumericDocValues field before a document is written.
+ *  - lookup() reads the fingerprints of existing documents by id, so LuceneIndexServiceImpl.indexChanged() can drop
+ *    documents whose content did not change without touching the IndexWriter.
+ *
+ * Retry / locking considerations:
+ *  - Pure functions; lookup() runs on a searcher acquired by the caller.
+ */
+
+/**
+ * Computes, attaches and reads the {@value #FIELD} doc-values field of index documents.
+ */
+final class DocumentFingerprint {
+
+    static final String FIELD = "fingerprint";
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private DocumentFingerprint() {
+    }
+
+    /**
+     * Hashes the stored fields of a document (FNV-1a, 64 bit) in field order.
+     * @param doc document to hash.
+     * @return fingerprint.
+     */
+    static long of(Document doc) {
+        long hash = FNV_OFFSET;
+        for (IndexableField field : doc.getFields()) {
+            if (FIELD.equals(field.name()) || !field.fieldType().stored()) {
+                continue;
+            }
+            hash = mix(hash, field.name());
+            hash = mix(hash, "\u0000");
+            String value = field.stringValue();
+            if (value == null && field.numericValue() != null) {
+                value = field.numericValue().toString();
+            }
+            hash = mix(hash, value == null ? "" : value);
+            hash = mix(hash, "\u0001");
+        }
+        return hash;
+    }
+
+    /**
+     * Adds the fingerprint field unless the document already carries one.
+     * @param doc document to stamp.
+     * @return the stamped fingerprint.
+     */
+    static long stamp(Document doc) {
+        IndexableField existing = doc.getField(FIELD);
+        if (existing != null && existing.numericValue() != null) {
+            return existing.numericValue().longValue();
+        }
+        long fingerprint = of(doc);
+        doc.add(new NumericDocValuesField(FIELD, fingerprint));
+        return fingerprint;
+    }
+
+    /**
+     * Reads the fingerprints of the live documents with the given ids.
+     * @param searcher searcher on the current index.
+     * @param ids document ids.
+     * @return fingerprint per id; ids without document or fingerprint are absent.
+     */
+    static Map<String, Long> lookup(IndexSearcher searcher, Collection<String> ids) throws IOException {
+        Map<String, Long> found = new HashMap<>();
+        for (LeafReaderContext leaf : searcher.getIndexReader().leaves()) {
+            Terms terms = leaf.reader().terms("id");
+            if (terms == null) {
+                continue;
+            }
+            TermsEnum termsEnum = terms.iterator();
+            Bits liveDocs = leaf.reader().getLiveDocs();
+            PostingsEnum postings = null;
+            for (String id : ids) {
+                if (found.containsKey(id) || !termsEnum.seekExact(new BytesRef(id))) {
+                    continue;
+                }
+                postings = termsEnum.postings(postings, PostingsEnum.NONE);
+                for (int doc = postings.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = postings.nextDoc()) {
+                    if (liveDocs != null && !liveDocs.get(doc)) {
+                        continue;
+                    }
+                    NumericDocValues values = leaf.reader().getNumericDocValues(FIELD);
+                    if (values != null && values.advanceExact(doc)) {
+                        found.put(id, values.longValue());
+                    }
+                    break;
+                }
+            }
+        }
+        return found;
+    }
+
+    private static long mix(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,160 @@
+package at.htlle.freq.infrastructure.lucene;
+
+import at.htlle.freq.infrastructure.search.SearchFacets;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SortedDocValues;
+import org.apache.lucene.search.CollectorManager;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.SimpleCollector;
+import org.apache.lucene.util.BytesRef;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * Single-pass facet counting over the sorted doc values of the index.
+ *
+ * Data flow:
+ *  - LuceneIndexServiceImpl.facets() runs the query with this collector instead of a top-N collector, so every
+ *    matching document is counted, not only the 50 returned hits.
+ *  - Per segment the collector counts ordinals of the "type", "status" and "supportPhase" doc values in plain arrays;
+ *    the ordinals are resolved to strings once when the segment is done. Status ordinals are attributed to the
+ *    lifecycle dimension for projects and to the installed-software dimension for installed software.
+ *
+ * Retry / locking considerations:
+ *  - One instance per search slice; not thread-safe. Runs on a searcher acquired by the caller; manager() adds up the
+ *    counts of the slices of a concurrent search.
+ */
+
+/**
+ * Collects {@link SearchFacets} for all documents matching a query.
+ */
+final class FacetCollector extends SimpleCollector {
+
+    private final Map<String, Map<String, Long>> counts = new HashMap<>();
+    private long total;
+
+    private SortedDocValues types;
+    private SortedDocValues statuses;
+    private SortedDocValues phases;
+    private int projectOrd;
+    private int installedSoftwareOrd;
+    private int softwareOrd;
+    private int[] typeCounts;
+    private int[] lifecycleCounts;
+    private int[] installedCounts;
+    private int[] phaseCounts;
+
+    @Override
+    protected void doSetNextReader(LeafReaderContext context) throws IOException {
+        flushSegment();
+        types = DocValues.getSorted(context.reader(), IndexSchema.TYPE);
+        statuses = DocValues.getSorted(context.reader(), IndexSchema.STATUS);
+        phases = DocValues.getSorted(context.reader(), IndexSchema.SUPPORT_PHASE);
+        projectOrd = types.lookupTerm(new BytesRef("project"));
+        installedSoftwareOrd = types.lookupTerm(new BytesRef("installedsoftware"));
+        softwareOrd = types.lookupTerm(new BytesRef("software"));
+        typeCounts = new int[types.getValueCount()];
+        lifecycleCounts = new int[statuses.getValueCount()];
+        installedCounts = new int[statuses.getValueCount()];
+        phaseCounts = new int[phases.getValueCount()];
+    }
+
+    @Override
+    public void collect(int doc) throws IOException {
+        total++;
+        if (!types.advanceExact(doc)) {
+            return;
+        }
+        int typeOrd = types.ordValue();
+        typeCounts[typeOrd]++;
+        if (typeOrd == softwareOrd) {
+            if (phases.advanceExact(doc)) {
+                phaseCounts[phases.ordValue()]++;
+            }
+        } else if ((typeOrd == projectOrd || typeOrd == installedSoftwareOrd) && statuses.advanceExact(doc)) {
+            int[] target = typeOrd == projectOrd ? lifecycleCounts : installedCounts;
+            target[statuses.ordValue()]++;
+        }
+    }
+
+    @Override
+    public ScoreMode scoreMode() {
+        return ScoreMode.COMPLETE_NO_SCORES;
+    }
+
+    /**
+     * Returns a manager that counts every slice of a concurrent search with its own collector and adds up the counts.
+     * @return collector manager producing the facets of all slices.
+     */
+    static CollectorManager<FacetCollector, SearchFacets> manager() {
+        return new CollectorManager<>() {
+            @Override
+            public FacetCollector newCollector() {
+                return new FacetCollector();
+            }
+
+            @Override
+            public SearchFacets reduce(Collection<FacetCollector> collectors) throws IOException {
+                FacetCollector merged = new FacetCollector();
+                for (FacetCollector collector : collectors) {
+                    collector.flushSegment();
+                    merged.total += collector.total;
+                    collector.counts.forEach((dimension, values) -> values.forEach((value, count) ->
+                            merged.counts.computeIfAbsent(dimension, d -> new HashMap<>())
+                                    .merge(value, count, Long::sum)));
+                }
+                return merged.facets();
+            }
+        };
+    }
+
+    /**
+     * Resolves the counts of the last segment and returns the result.
+     * @return facets of all collected documents.
+     * @throws IOException when doc values cannot be read.
+     */
+    SearchFacets facets() throws IOException {
+        flushSegment();
+        Map<String, Map<String, Long>> ordered = new LinkedHashMap<>();
+        for (String dimension : new String[]{SearchFacets.TYPE, SearchFacets.LIFECYCLE_STATUS,
+                SearchFacets.INSTALLED_SOFTWARE_STATUS, SearchFacets.SUPPORT_PHASE}) {
+            Map<String, Long> values = counts.get(dimension);
+            if (values == null || values.isEmpty()) {
+                continue;
+            }
+            Map<String, Long> sorted = new LinkedHashMap<>();
+            values.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .forEach(e -> sorted.put(e.getKey(), e.getValue()));
+            ordered.put(dimension, sorted);
+        }
+        return new SearchFacets(total, ordered);
+    }
+
+    private void flushSegment() throws IOException {
+        if (types == null) {
+            return;
+        }
+        flush(SearchFacets.TYPE, types, typeCounts);
+        flush(SearchFacets.LIFECYCLE_STATUS, statuses, lifecycleCounts);
+        flush(SearchFacets.INSTALLED_SOFTWARE_STATUS, statuses, installedCounts);
+        flush(SearchFacets.SUPPORT_PHASE, phases, phaseCounts);
+        types = null;
+    }
+
+    private void flush(String dimension, SortedDocValues values, int[] ordCounts) throws IOException {
+        for (int ord = 0; ord < ordCounts.length; ord++) {
+            if (ordCounts[ord] > 0) {
+                counts.computeIfAbsent(dimension, d -> new HashMap<>())
+                        .merge(values.lookupOrd(ord).utf8ToString(), (long) ordCounts[ord], Long::sum);
+            }
+        }
+    }
+}
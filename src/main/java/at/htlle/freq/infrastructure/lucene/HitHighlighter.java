@@ -0,0 +1,158 @@
+package at.htlle.freq.infrastructure.lucene;
+
+import at.htlle.freq.infrastructure.search.HighlightSpan;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.uhighlight.LengthGoalBreakIterator;
+import org.apache.lucene.search.uhighlight.Passage;
+import org.apache.lucene.search.uhighlight.PassageFormatter;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+
+import java.io.IOException;
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/*
+ * Query-aware snippets of the "content" field.
+ *
+ * Data flow:
+ *  - LuceneIndexServiceImpl.collectPage() passes the hits of a page and the executed query. The UnifiedHighlighter
+ *    reads the match offsets straight from the postings (the field is indexed with offsets, see IndexSchema) and picks
+ *    the best passage of about SNIPPET_LENGTH characters, centred on the matches.
+ *  - The formatter returns the passage text together with the match spans relative to it instead of markup, so the
+ *    browser can render the marks without re-matching terms.
+ *  - Hits without a match in the content field (e.g. queries on typed fields only) get no highlight; the caller falls
+ *    back to the plain leading snippet.
+ *
+ * Retry / locking considerations:
+ *  - One instance per page on the searcher acquired by the caller; not shared between threads.
+ */
+
+/**
+ * Highlights the {@value IndexSchema#CONTENT} field of search hits and reports match spans.
+ */
+final class HitHighlighter extends UnifiedHighlighter {
+
+    /** Target snippet length in characters. */
+    static final int SNIPPET_LENGTH = 160;
+
+    private static final String ELLIPSIS = "…";
+
+    /**
+     * Snippet text and the match positions inside it.
+     * @param text passage, with ellipses where it was cut.
+     * @param spans match positions relative to {@code text}.
+     */
+    record Highlight(String text, List<HighlightSpan> spans) {
+    }
+
+    /**
+     * Creates a highlighter on a searcher.
+     * @param searcher searcher the hits were collected on.
+     * @param analyzer index analyzer, used only for documents indexed without offsets.
+     */
+    HitHighlighter(IndexSearcher searcher, Analyzer analyzer) {
+        super(searcher, analyzer);
+        setBreakIterator(() -> LengthGoalBreakIterator.createClosestToLength(
+                BreakIterator.getWordInstance(Locale.ROOT), SNIPPET_LENGTH, 0.5f));
+        setFormatter(new SpanFormatter());
+        setMaxNoHighlightPassages(0);
+    }
+
+    /**
+     * Highlights the first {@code count} hits.
+     * @param query executed query.
+     * @param hits collected hits.
+     * @param count number of hits to highlight.
+     * @return highlight per hit, {@code null} where the content field has no match.
+     * @throws IOException when postings or stored fields cannot be read.
+     */
+    Highlight[] highlight(Query query, ScoreDoc[] hits, int count) throws IOException {
+        Highlight[] result = new Highlight[count];
+        if (count == 0) {
+            return result;
+        }
+        int[] docIds = new int[count];
+        for (int i = 0; i < count; i++) {
+            docIds[i] = hits[i].doc;
+        }
+        Map<String, Object[]> byField = highlightFieldsAsObjects(new String[]{IndexSchema.CONTENT}, query, docIds,
+                new int[]{1});
+        Object[] highlights = byField.get(IndexSchema.CONTENT);
+        for (int i = 0; i < count; i++) {
+            result[i] = (Highlight) highlights[i];
+        }
+        return result;
+    }
+
+    /**
+     * Turns the best passage into plain text plus spans. A leading type key (the first word of every content value)
+     * is dropped unless it is itself a match, since the type is shown separately.
+     */
+    private static final class SpanFormatter extends PassageFormatter {
+
+        @Override
+        public Object format(Passage[] passages, String content) {
+            if (passages.length == 0) {
+                return null;
+            }
+            Passage passage = passages[0];
+            int start = passage.getStartOffset();
+            int end = Math.min(passage.getEndOffset(), content.length());
+            int[] matchStarts = passage.getMatchStarts();
+            int[] matchEnds = passage.getMatchEnds();
+            int matches = passage.getNumMatches();
+
+            if (start == 0) {
+                int typeEnd = content.indexOf(' ');
+                if (typeEnd > 0 && (matches == 0 || matchStarts[0] > typeEnd)) {
+                    start = typeEnd + 1;
+                }
+            }
+            while (start < end && Character.isWhitespace(content.charAt(start))) {
+                start++;
+            }
+            while (end > start && Character.isWhitespace(content.charAt(end - 1))) {
+                end--;
+            }
+            if (start >= end) {
+                return null;
+            }
+
+            // Copy the passage with whitespace runs collapsed; position maps content offsets to snippet offsets
+            String prefix = passage.getStartOffset() > 0 ? ELLIPSIS : "";
+            StringBuilder text = new StringBuilder(prefix.length() + end - start + 1).append(prefix);
+            int[] position = new int[end - start + 1];
+            for (int i = start; i < end; i++) {
+                position[i - start] = text.length();
+                char c = content.charAt(i);
+                if (!Character.isWhitespace(c)) {
+                    text.append(c);
+                } else if (text.charAt(text.length() - 1) != ' ') {
+                    text.append(' ');
+                }
+            }
+            position[end - start] = text.length();
+            if (end < content.length()) {
+                text.append(ELLIPSIS);
+            }
+
+            List<HighlightSpan> spans = new ArrayList<>(matches);
+            int lastEnd = start;
+            for (int i = 0; i < matches; i++) {
+                int spanStart = Math.max(matchStarts[i], lastEnd);
+                int spanEnd = Math.min(matchEnds[i], end);
+                if (spanEnd > spanStart) {
+                    spans.add(new HighlightSpan(position[spanStart - start], position[spanEnd - start]));
+                    lastEnd = spanEnd;
+                }
+            }
+            return new Highlight(text.toString(), List.copyOf(spans));
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package at.htlle.freq.infrastructure.lucene;
+
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.store.FileSwitchDirectory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.store.NIOFSDirectory;
+import org.apache.lucene.util.IOUtils;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/*
+ * Lucene Directory of an index generation, as configured by lifex.lucene.store.*.
+ *
+ * Data flow:
+ *  - LuceneIndexServiceImpl opens the active generation and every shadow generation of a reindex through open(), so all
+ *    generations use the same implementation.
+ *  - MMAP preloads the hot files (lifex.lucene.store.hot-extensions) into physical memory when a segment is opened.
+ *    Lucene 8 can only preload a whole MMapDirectory, so the hot files are served by a second, preloading MMapDirectory
+ *    on the same path behind a FileSwitchDirectory; the remaining files (stored fields, term vectors, …) are mapped
+ *    lazily.
+ *  - FS and NIO leave paging to the OS; warm() reads the hot files once when the index is opened at startup, so they
+ *    are in the page cache before the first search. MEMORY keeps the whole index on the heap and needs no warmup.
+ *
+ * Retry / locking considerations:
+ *  - Stateless apart from the settings; the returned directories are owned and closed by the caller.
+ *  - MEMORY generations live exactly as long as their Directory: closing the index handle or retiring a generation
+ *    drops its contents. Only the generation pointer is kept on disk.
+ */
+
+/**
+ * Opens and warms the Lucene directories of the index generations.
+ */
+final class IndexDirectories {
+
+    private static final String ALL_FILES = "*";
+    private static final int WARMUP_BUFFER_BYTES = 64 * 1024;
+
+    /**
+     * Outcome of a warmup.
+     * @param files number of files read.
+     * @param bytes number of bytes read.
+     */
+    record Warmup(int files, long bytes) {
+    }
+
+    private final LuceneProperties.Store.Type type;
+    private final Set<String> hotExtensions;
+    private final boolean allHot;
+
+    /**
+     * Creates the factory for the configured store settings.
+     * @param settings {@code lifex.lucene.store.*} settings.
+     */
+    IndexDirectories(LuceneProperties.Store settings) {
+        this.type = settings.getType() != null ? settings.getType() : LuceneProperties.Store.Type.FS;
+        List<String> extensions = settings.getHotExtensions() != null ? settings.getHotExtensions() : List.of();
+        this.hotExtensions = extensions.stream()
+                .map(ext -> ext.trim().toLowerCase(Locale.ROOT))
+                .map(ext -> ext.startsWith(".") ? ext.substring(1) : ext)
+                .filter(ext -> !ext.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.allHot = hotExtensions.contains(ALL_FILES);
+    }
+
+    /**
+     * Returns the configured directory implementation.
+     * @return directory type.
+     */
+    LuceneProperties.Store.Type type() {
+        return type;
+    }
+
+    /**
+     * Tells whether the files must be read once after opening to be resident; memory-mapped stores preload them
+     * themselves and in-memory stores are resident anyway.
+     * @return {@code true} for page-cache backed stores with hot files configured.
+     */
+    boolean needsWarmup() {
+        return (type == LuceneProperties.Store.Type.FS || type == LuceneProperties.Store.Type.NIO)
+                && !hotExtensions.isEmpty();
+    }
+
+    /**
+     * Opens the directory of a generation, creating it on disk for file-system stores.
+     * @param path generation directory.
+     * @return open directory, owned by the caller.
+     * @throws IOException when the directory cannot be created or opened.
+     */
+    Directory open(Path path) throws IOException {
+        switch (type) {
+            case MEMORY:
+                return new ByteBuffersDirectory();
+            case MMAP:
+                Files.createDirectories(path);
+                return mmap(path);
+            case NIO:
+                Files.createDirectories(path);
+                return new NIOFSDirectory(path);
+            default:
+                Files.createDirectories(path);
+                return FSDirectory.open(path);
+        }
+    }
+
+    private Directory mmap(Path path) throws IOException {
+        MMapDirectory lazy = new MMapDirectory(path);
+        if (hotExtensions.isEmpty()) {
+            return lazy;
+        }
+        if (allHot) {
+            lazy.setPreload(true);
+            return lazy;
+        }
+        MMapDirectory preloaded = null;
+        try {
+            preloaded = new MMapDirectory(path);
+            preloaded.setPreload(true);
+            return new FileSwitchDirectory(hotExtensions, preloaded, lazy, true);
+        } catch (IOException | RuntimeException e) {
+            IOUtils.closeWhileHandlingException(preloaded, lazy);
+            throw e;
+        }
+    }
+
+    /**
+     * Reads every hot file of a directory sequentially so its pages are cached by the OS.
+     * Files deleted meanwhile by a merge are skipped.
+     * @param directory open index directory.
+     * @return number of files and bytes read.
+     * @throws IOException when a file cannot be read.
+     */
+    Warmup warm(Directory directory) throws IOException {
+        byte[] buffer = new byte[WARMUP_BUFFER_BYTES];
+        int files = 0;
+        long bytes = 0;
+        for (String name : directory.listAll()) {
+            if (!isHot(name)) {
+                continue;
+            }
+            try (IndexInput in = directory.openInput(name, IOContext.READONCE)) {
+                long remaining = in.length();
+                while (remaining > 0) {
+                    int chunk = (int) Math.min(buffer.length, remaining);
+                    in.readBytes(buffer, 0, chunk);
+                    remaining -= chunk;
+                }
+                files++;
+                bytes += in.length();
+            } catch (NoSuchFileException | FileNotFoundException e) {
+                // merged away since listAll()
+            }
+        }
+        return new Warmup(files, bytes);
+    }
+
+    private boolean isHot(String fileName) {
+        if (IndexWriter.WRITE_LOCK_NAME.equals(fileName)) {
+            return false;
+        }
+        if (allHot) {
+            return true;
+        }
+        String extension = FileSwitchDirectory.getExtension(fileName);
+        return hotExtensions.contains(extension.toLowerCase(Locale.ROOT));
+    }
+}
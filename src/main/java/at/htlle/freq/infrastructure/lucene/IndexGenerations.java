@@ -0,0 +1,162 @@
+package at.htlle.freq.infrastructure.lucene;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/*
+ * On-disk layout of the Lucene index.
+ *
+ * Data flow:
+ *  - The configured index path is a root directory that holds numbered generations ("index-000001", "index-000002", …)
+ *    and a small pointer file ("active-index") naming the generation that serves searches.
+ *  - A full rebuild writes into next(), and activate() switches the pointer once the new generation is complete.
+ *
+ * Retry / locking considerations:
+ *  - activate() writes the pointer to a temporary file and renames it with ATOMIC_MOVE, so a crash leaves either the old
+ *    or the new pointer, never a partial one.
+ *  - Callers serialize activate()/deleteStale() (LuceneIndexServiceImpl holds its handle write lock).
+ */
+
+/**
+ * Resolves, creates and retires the generation directories below the index root.
+ */
+final class IndexGenerations {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexGenerations.class);
+
+    static final String POINTER_FILE = "active-index";
+    private static final String PREFIX = "index-";
+
+    private final Path root;
+
+    /**
+     * Creates the layout helper for a root directory; nothing is touched on disk yet.
+     * @param root configured index path.
+     */
+    IndexGenerations(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * Returns the index root.
+     * @return root directory.
+     */
+    Path root() {
+        return root;
+    }
+
+    /**
+     * Resolves the active generation from the pointer file. Without a (valid) pointer the first generation is used.
+     * @return directory of the active generation; it may not exist yet.
+     */
+    Path active() throws IOException {
+        Path pointer = root.resolve(POINTER_FILE);
+        if (Files.exists(pointer)) {
+            String name = Files.readString(pointer, StandardCharsets.UTF_8).trim();
+            if (isGenerationName(name)) {
+                return root.resolve(name);
+            }
+            log.warn("Ignoring invalid Lucene index pointer '{}' in {}", name, pointer.toAbsolutePath());
+        }
+        return root.resolve(PREFIX + format(1));
+    }
+
+    /**
+     * Returns the directory for the next generation, one above the highest existing one.
+     * @return directory of the next generation; not created.
+     */
+    Path next() throws IOException {
+        long max = generationNumber(active().getFileName().toString());
+        if (Files.isDirectory(root)) {
+            try (DirectoryStream<Path> dirs = Files.newDirectoryStream(root, PREFIX + "*")) {
+                for (Path dir : dirs) {
+                    max = Math.max(max, generationNumber(dir.getFileName().toString()));
+                }
+            }
+        }
+        return root.resolve(PREFIX + format(max + 1));
+    }
+
+    /**
+     * Atomically points the index at another generation.
+     * @param generation generation directory below the root.
+     */
+    void activate(Path generation) throws IOException {
+        Files.createDirectories(root);
+        Path tmp = root.resolve(POINTER_FILE + ".tmp");
+        Files.writeString(tmp, generation.getFileName().toString(), StandardCharsets.UTF_8);
+        Files.move(tmp, root.resolve(POINTER_FILE), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Deletes generation directories that are neither active nor explicitly kept, e.g. leftovers of an interrupted
+     * rebuild or of a retirement that did not finish before shutdown.
+     * @param keep generation directories that must survive.
+     */
+    void deleteStale(Set<Path> keep) {
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(root, PREFIX + "*")) {
+            for (Path dir : dirs) {
+                if (!keep.contains(dir) && isGenerationName(dir.getFileName().toString())) {
+                    delete(dir);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not scan Lucene index root {} for stale generations", root.toAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Recursively deletes a generation directory; failures are logged and retried by the next deleteStale().
+     * @param dir generation directory.
+     */
+    static void delete(Path dir) {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            log.debug("Deleted retired Lucene index generation {}", dir.toAbsolutePath());
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Could not delete retired Lucene index generation {}", dir.toAbsolutePath(), e);
+        }
+    }
+
+    private static boolean isGenerationName(String name) {
+        return generationNumber(name) > 0;
+    }
+
+    private static long generationNumber(String name) {
+        if (name == null || !name.startsWith(PREFIX)) {
+            return -1L;
+        }
+        try {
+            return Long.parseLong(name.substring(PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    private static String format(long generation) {
+        return String.format("%06d", generation);
+    }
+}
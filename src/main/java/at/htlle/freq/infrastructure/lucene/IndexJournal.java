@@ -0,0 +1,441 @@
+package at.htlle.freq.infrastructure.lucene;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/*
+ * Write-ahead journal of the live index operations.
+ *
+ * Data flow:
+ *  - LuceneIndexServiceImpl appends one entry (type, id, operation, fingerprint) per document to the journal before it
+ *    hands a batch to the IndexWriter, and reports the Lucene sequence number of the batch once it is written.
+ *  - When a group commit returns its sequence number, every batch at or below it is durable in the index. The
+ *    checkpoint moves to the start of the oldest batch that is still being written or not yet committed (or to the end
+ *    of the journal) and is stored in the CHECKPOINT_FILE. Closing the writer and activating a new generation commit
+ *    everything, so they move the checkpoint to the end.
+ *  - At startup the entries after the checkpoint are what the previous run wrote but never committed. pending() returns
+ *    them, LuceneIndexServiceImpl reloads those rows from the database (or deletes them again) and replayed() releases
+ *    the range once that replay is written.
+ *
+ * File format:
+ *  - Segments "journal-<first offset>.log" of a fixed size are memory-mapped; offsets are logical and contiguous across
+ *    segments. A record is [int length][int crc32][payload]; a zero length marks the end of the data in a segment, so a
+ *    torn record at the tail is detected by its length or checksum and overwritten on the next start.
+ *  - Segments that lie completely before the checkpoint are deleted (compaction); the active segment is kept.
+ *
+ * Retry / locking considerations:
+ *  - All state changes synchronize on the journal. Appends are forced to disk in groups: after sync-every entries
+ *    synchronously, otherwise by a background force at most sync-interval-ms later. An entry lost in that window was
+ *    never committed to the index either and is reconciled by the database change log or the next sweep.
+ *  - Mapped buffers cannot be unmapped explicitly before Java 19; retired segments are released by the garbage
+ *    collector after their files were deleted.
+ */
+
+/**
+ * Memory-mapped, checkpointed journal of index operations that are not yet covered by a Lucene commit.
+ */
+final class IndexJournal implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexJournal.class);
+
+    static final String CHECKPOINT_FILE = "checkpoint";
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".log";
+    private static final int HEADER_BYTES = 8;
+    private static final int MIN_SEGMENT_BYTES = 4096;
+    private static final long IN_FLIGHT = Long.MAX_VALUE;
+
+    /** Kind of index operation. */
+    enum Op {
+        UPSERT, DELETE
+    }
+
+    /**
+     * One journaled operation.
+     * @param type    document type key, empty when unknown (deletes by id).
+     * @param id      document id.
+     * @param op      operation.
+     * @param version content fingerprint of the written document, {@code 0} for deletes.
+     */
+    record Entry(String type, String id, Op op, long version) {}
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final int syncEvery;
+    private final long syncIntervalMs;
+    /** Start offset of every batch that is not yet known to be committed, mapped to its sequence number. */
+    private final TreeMap<Long, Long> uncommitted = new TreeMap<>();
+    private MappedByteBuffer active;
+    private long activeBase;
+    private long checkpoint;
+    private long recoveredEnd;
+    private int unsynced;
+    private long appended;
+    private long syncs;
+    private boolean syncScheduled;
+    private ScheduledExecutorService syncer;
+    private boolean closed;
+
+    private IndexJournal(Path dir, LuceneProperties.Journal settings) {
+        this.dir = dir;
+        this.segmentBytes = Math.max(MIN_SEGMENT_BYTES, settings.getSegmentBytes());
+        this.syncEvery = Math.max(1, settings.getSyncEvery());
+        this.syncIntervalMs = Math.max(0L, settings.getSyncIntervalMs());
+    }
+
+    /**
+     * Opens the journal in a directory, creating it when needed, and positions the writer after the last intact record.
+     * The entries after the stored checkpoint stay reserved until {@link #replayed()} is called.
+     * @param dir journal directory.
+     * @param settings {@code lifex.lucene.journal.*} settings.
+     * @return opened journal.
+     * @throws IOException when the directory or a segment cannot be read or mapped.
+     */
+    static IndexJournal open(Path dir, LuceneProperties.Journal settings) throws IOException {
+        IndexJournal journal = new IndexJournal(dir, settings);
+        journal.recover();
+        return journal;
+    }
+
+    private void recover() throws IOException {
+        Files.createDirectories(dir);
+        Path checkpointFile = dir.resolve(CHECKPOINT_FILE);
+        checkpoint = Files.isRegularFile(checkpointFile)
+                ? Long.parseLong(Files.readString(checkpointFile, StandardCharsets.UTF_8).trim()) : 0L;
+        List<Long> bases = segmentBases();
+        activeBase = bases.isEmpty() ? checkpoint - Math.floorMod(checkpoint, (long) segmentBytes) : bases.get(bases.size() - 1);
+        active = map(activeBase);
+        int end = scanEnd(active);
+        if (active.getInt(end) != 0 || (end + HEADER_BYTES <= segmentBytes && active.getInt(end + 4) != 0)) {
+            // torn or corrupt tail: clear it so no stale bytes follow the next record
+            for (int i = end; i < segmentBytes; i++) {
+                active.put(i, (byte) 0);
+            }
+            active.force();
+        }
+        active.position(end);
+        recoveredEnd = activeBase + end;
+        if (recoveredEnd > checkpoint) {
+            uncommitted.put(checkpoint, IN_FLIGHT);
+        }
+    }
+
+    /**
+     * Appends the entries of one batch and registers the batch as being written.
+     * @param entries operations of the batch.
+     * @return offset of the batch, passed to {@link #written(long, long)}.
+     * @throws IOException when a new segment cannot be created.
+     */
+    synchronized long append(List<Entry> entries) throws IOException {
+        if (closed) {
+            throw new IOException("Index journal is closed");
+        }
+        long start = -1L;
+        for (Entry entry : entries) {
+            byte[] payload = encode(entry);
+            if (HEADER_BYTES + payload.length + 4 > segmentBytes) {
+                throw new IOException("Journal entry for " + entry.id() + " exceeds the segment size");
+            }
+            // keep room for the terminating zero length
+            if (active.position() + HEADER_BYTES + payload.length + 4 > segmentBytes) {
+                roll();
+            }
+            if (start < 0) {
+                start = position();
+            }
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            int at = active.position();
+            active.position(at + 4);
+            active.putInt((int) crc.getValue());
+            active.put(payload);
+            active.putInt(at, payload.length);
+        }
+        if (start < 0) {
+            start = position();
+        }
+        uncommitted.put(start, IN_FLIGHT);
+        appended += entries.size();
+        unsynced += entries.size();
+        if (unsynced >= syncEvery) {
+            sync();
+        } else if (unsynced > 0 && !syncScheduled) {
+            scheduleSync();
+        }
+        return start;
+    }
+
+    /**
+     * Records the sequence number a batch was written with; a negative one marks a failed batch, which is not kept
+     * for replay.
+     * @param start offset returned by {@link #append(List)}.
+     * @param seqNo Lucene sequence number of the last operation of the batch.
+     */
+    synchronized void written(long start, long seqNo) {
+        if (seqNo < 0) {
+            uncommitted.remove(start);
+        } else if (uncommitted.containsKey(start)) {
+            uncommitted.put(start, seqNo);
+        }
+    }
+
+    /**
+     * Moves the checkpoint past every written batch covered by a commit and deletes fully consumed segments.
+     * @param commitSeqNo sequence number returned by {@code IndexWriter#commit()}.
+     */
+    synchronized void committed(long commitSeqNo) {
+        uncommitted.values().removeIf(seqNo -> seqNo != IN_FLIGHT && seqNo <= commitSeqNo);
+        advance();
+    }
+
+    /**
+     * Marks every written batch as durable, e.g. after the writer was closed or a new generation was committed.
+     */
+    synchronized void committedAll() {
+        uncommitted.values().removeIf(seqNo -> seqNo != IN_FLIGHT);
+        advance();
+    }
+
+    /**
+     * Releases the range recovered at startup once its operations were written again.
+     */
+    synchronized void replayed() {
+        Long reserved = uncommitted.get(checkpoint);
+        if (reserved != null && reserved == IN_FLIGHT && checkpoint < recoveredEnd) {
+            uncommitted.remove(checkpoint);
+        }
+        recoveredEnd = checkpoint;
+        advance();
+    }
+
+    /**
+     * Reads the operations after the checkpoint that were found at startup.
+     * @return entries in journal order.
+     * @throws IOException when a segment cannot be read.
+     */
+    synchronized List<Entry> pending() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        for (long base : segmentBases()) {
+            if (base + segmentBytes <= checkpoint || base >= recoveredEnd) {
+                continue;
+            }
+            ByteBuffer segment = base == activeBase ? active.duplicate() : map(base);
+            int pos = (int) Math.max(0, checkpoint - base);
+            while (base + pos < recoveredEnd) {
+                int length = segment.getInt(pos);
+                if (!intact(segment, pos, length)) {
+                    break;
+                }
+                entries.add(decode(segment, pos + HEADER_BYTES, length));
+                pos += HEADER_BYTES + length;
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Forces appended entries to disk.
+     */
+    synchronized void sync() {
+        if (unsynced == 0 || closed) {
+            return;
+        }
+        active.force();
+        unsynced = 0;
+        syncs++;
+    }
+
+    /**
+     * Returns the journal state.
+     * @return counters and positions.
+     */
+    synchronized LuceneIndexService.JournalStats stats() {
+        int segments;
+        try {
+            segments = segmentBases().size();
+        } catch (IOException e) {
+            segments = -1;
+        }
+        return new LuceneIndexService.JournalStats(appended, syncs, checkpoint, position(),
+                Math.max(0L, recoveredEnd - checkpoint), segments);
+    }
+
+    /**
+     * Forces the journal to disk and stops the background sync; the checkpoint stays where the last commit put it.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        sync();
+        closed = true;
+        if (syncer != null) {
+            syncer.shutdownNow();
+            syncer = null;
+        }
+    }
+
+    private long position() {
+        return activeBase + active.position();
+    }
+
+    private void advance() {
+        long next = uncommitted.isEmpty() ? position() : uncommitted.firstKey();
+        if (next <= checkpoint || closed) {
+            return;
+        }
+        try {
+            sync();
+            writeCheckpoint(next);
+            checkpoint = next;
+            compact();
+        } catch (IOException e) {
+            log.warn("Could not store index journal checkpoint in {}", dir.toAbsolutePath(), e);
+        }
+    }
+
+    private void writeCheckpoint(long offset) throws IOException {
+        Path file = dir.resolve(CHECKPOINT_FILE);
+        Path tmp = dir.resolve(CHECKPOINT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(Long.toString(offset).getBytes(StandardCharsets.UTF_8)));
+            channel.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void compact() throws IOException {
+        for (long base : segmentBases()) {
+            if (base != activeBase && base + segmentBytes <= checkpoint) {
+                Files.deleteIfExists(segmentPath(base));
+                log.debug("Deleted consumed index journal segment {}", segmentPath(base).getFileName());
+            }
+        }
+    }
+
+    private void roll() throws IOException {
+        active.force();
+        unsynced = 0;
+        activeBase += segmentBytes;
+        active = map(activeBase);
+        active.position(0);
+    }
+
+    private void scheduleSync() {
+        if (syncer == null) {
+            syncer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "lucene-journal-sync");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        try {
+            syncer.schedule(() -> {
+                synchronized (this) {
+                    syncScheduled = false;
+                    sync();
+                }
+            }, syncIntervalMs, TimeUnit.MILLISECONDS);
+            syncScheduled = true;
+        } catch (RejectedExecutionException e) {
+            sync();
+        }
+    }
+
+    private MappedByteBuffer map(long base) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(base), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+    }
+
+    private Path segmentPath(long base) {
+        return dir.resolve(PREFIX + String.format("%020d", base) + SUFFIX);
+    }
+
+    private List<Long> segmentBases() throws IOException {
+        Map<Long, Path> sorted = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, PREFIX + "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    sorted.put(Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())), file);
+                } catch (NumberFormatException e) {
+                    log.warn("Ignoring unexpected file {} in index journal", name);
+                }
+            }
+        }
+        return new ArrayList<>(sorted.keySet());
+    }
+
+    /**
+     * Returns the position after the last intact record of a segment.
+     */
+    private int scanEnd(ByteBuffer segment) {
+        int pos = 0;
+        while (pos + HEADER_BYTES <= segmentBytes) {
+            int length = segment.getInt(pos);
+            if (!intact(segment, pos, length)) {
+                break;
+            }
+            pos += HEADER_BYTES + length;
+        }
+        return pos;
+    }
+
+    private boolean intact(ByteBuffer segment, int pos, int length) {
+        if (length <= 0 || pos + HEADER_BYTES + length > segmentBytes) {
+            return false;
+        }
+        CRC32 crc = new CRC32();
+        ByteBuffer payload = segment.duplicate();
+        payload.limit(pos + HEADER_BYTES + length).position(pos + HEADER_BYTES);
+        crc.update(payload);
+        return (int) crc.getValue() == segment.getInt(pos + 4);
+    }
+
+    private static byte[] encode(Entry entry) {
+        byte[] type = entry.type() == null ? new byte[0] : entry.type().getBytes(StandardCharsets.UTF_8);
+        byte[] id = entry.id().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(1 + Long.BYTES + 2 * Short.BYTES + type.length + id.length);
+        buffer.put((byte) entry.op().ordinal());
+        buffer.putLong(entry.version());
+        buffer.putShort((short) type.length).put(type);
+        buffer.putShort((short) id.length).put(id);
+        return buffer.array();
+    }
+
+    private static Entry decode(ByteBuffer segment, int pos, int length) {
+        ByteBuffer buffer = segment.duplicate();
+        buffer.limit(pos + length).position(pos);
+        Op op = Op.values()[buffer.get()];
+        long version = buffer.getLong();
+        byte[] type = new byte[buffer.getShort()];
+        buffer.get(type);
+        byte[] id = new byte[buffer.getShort()];
+        buffer.get(id);
+        return new Entry(new String(type, StandardCharsets.UTF_8), new String(id, StandardCharsets.UTF_8), op, version);
+    }
+}
@@ -9,8 +9,9 @@ import java.util.concurrent.atomic.AtomicInteger;
  * Progress hub for Lucene reindexing.
  *
  * Data flow:
- *  - reindexAll() loads totals from every repository and calls start().
- *  - While Camel/schedulers execute the indexXxx() methods they increment the counters through IndexProgress.inc().
+ *  - reindexAll() calls start() with every table at 0 and raises the totals through grow() while it streams the
+ *    repositories, so the totals are complete once every table has been read.
+ *  - While reindex workers/Camel write documents they increment the counters through IndexProgress.inc()/add().
  *  - REST/UI layers read status() (see IndexProgressController) and display percentage values.
  *
  * Retry / locking considerations:
@@ -47,6 +48,7 @@ public final class IndexProgress {
 
     private volatile Map<String, Integer> totals = Map.of();              // preserve insertion order
     private final Map<String, AtomicInteger> done = new ConcurrentHashMap<>();
+    private final AtomicInteger doneTotal = new AtomicInteger();
     private volatile long startedAtMs = 0L;
     private volatile boolean active = false;
 
@@ -63,6 +65,7 @@ public final class IndexProgress {
         LinkedHashMap<String, Integer> copy = new LinkedHashMap<>(totals); // stable ordering
         this.totals = copy;
         this.done.clear();
+        this.doneTotal.set(0);
         for (String k : copy.keySet()) {
             this.done.put(k, new AtomicInteger(0));
         }
@@ -70,12 +73,36 @@ public final class IndexProgress {
         this.active = true;
     }
 
+    /**
+     * Raises the total of a table while its rows are still being read, for runs that stream their sources instead of
+     * counting them up front. The totals map is replaced, never modified, so status() snapshots stay consistent.
+     * @param key table key; unknown keys are appended.
+     * @param count rows read since the last call.
+     */
+    public synchronized void grow(String key, int count) {
+        LinkedHashMap<String, Integer> copy = new LinkedHashMap<>(totals);
+        copy.merge(key, count, Integer::sum);
+        this.totals = copy;
+    }
+
     /**
      * Increments the counter for a table. Unknown keys are created on the fly.
      * Thread-safe thanks to {@link ConcurrentHashMap} + {@link AtomicInteger}; used concurrently from various Camel threads.
      */
     public void inc(String key) {
-        done.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+        add(key, 1);
+    }
+
+    /**
+     * Adds several completed records for a table at once, e.g. one indexed batch.
+     * @param key table key.
+     * @param count number of completed records.
+     * @return total number of completed records across all tables after the update, so concurrent reindex workers can
+     *         decide on progress logging without re-reading every counter.
+     */
+    public int add(String key, int count) {
+        done.computeIfAbsent(key, k -> new AtomicInteger()).addAndGet(count);
+        return doneTotal.addAndGet(count);
     }
 
     /** Total number of completed records across all tables. */
@@ -111,6 +138,7 @@ public final class IndexProgress {
             done.computeIfAbsent(e.getKey(), k -> new AtomicInteger())
                     .set(target);
         }
+        this.doneTotal.set(totalDone());
         this.active = false;
     }
 
@@ -0,0 +1,303 @@
+package at.htlle.freq.infrastructure.lucene;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.FieldType;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DocValuesType;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.IndexableFieldType;
+import org.apache.lucene.util.BytesRef;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ * Typed per-field schema of the Lucene documents, next to the analyzed "content" field.
+ *
+ * Data flow:
+ *  - LuceneIndexServiceImpl adds the typed fields while building a document: integers as IntPoint, dates as LongPoint
+ *    (epoch day), keywords as lower-cased StringField. Every typed field also carries DocValues for sorting/faceting.
+ *  - SchemaQueryParser maps field queries on these names to point range and term queries.
+ *  - Before any document is written, addKeyDocValues() adds sorted doc values for the id and type keys; the id sorts
+ *    cursor-paged results, the type feeds the facet counts.
+ *  - The "content" field is indexed with offsets in the postings, so HitHighlighter can locate matches without
+ *    re-analyzing the text. Lucene rejects mixing index options of a field within one index, so alignContent() writes
+ *    the field without offsets into indexes created before offsets were introduced (until the next reindex).
+ *
+ * Retry / locking considerations:
+ *  - Stateless; the relative date syntax ("today", "today+90d") is resolved against the current day on every call.
+ */
+
+/**
+ * Names, types and value conversions of the typed index fields.
+ */
+public final class IndexSchema {
+
+    /** Document key ({@code StringField} plus sorted doc values). */
+    public static final String ID = "id";
+    /** Lower-cased entity type ({@code StringField} plus sorted doc values). */
+    public static final String TYPE = "type";
+    /** Aggregated, analyzed and stored full text; indexed with offsets for highlighting. */
+    public static final String CONTENT = "content";
+
+    /** Site tenant count (IntPoint). */
+    public static final String TENANT_COUNT = "tenantCount";
+    /** Number of redundant servers of a site (IntPoint). */
+    public static final String REDUNDANT_SERVERS = "redundantServers";
+    /** Phone integration capacity (IntPoint). */
+    public static final String CAPACITY = "capacity";
+
+    /** Software support end (LongPoint, epoch day). */
+    public static final String SUPPORT_END_DATE = "supportEndDate";
+    /** Installation date of installed software (LongPoint, epoch day). */
+    public static final String INSTALLED_DATE = "installedDate";
+    /** Start of an upgrade plan window (LongPoint, epoch day). */
+    public static final String PLANNED_WINDOW_START = "plannedWindowStart";
+
+    /** Status of installed software, projects, contracts and upgrade plans (keyword). */
+    public static final String STATUS = "status";
+    /** Brand of devices, clients, phones, radios and servers (keyword). */
+    public static final String BRAND = "brand";
+    /** Operating system of clients and servers (keyword). */
+    public static final String OS = "os";
+    /** Radio mode (keyword). */
+    public static final String MODE = "mode";
+    /** Software support phase (keyword). */
+    public static final String SUPPORT_PHASE = "supportPhase";
+
+    private static final Set<String> INT_FIELDS = Set.of(TENANT_COUNT, REDUNDANT_SERVERS, CAPACITY);
+    private static final Set<String> DATE_FIELDS = Set.of(SUPPORT_END_DATE, INSTALLED_DATE, PLANNED_WINDOW_START);
+    private static final Set<String> KEYWORD_FIELDS = Set.of(STATUS, BRAND, OS, MODE, SUPPORT_PHASE);
+
+    private static final Map<String, String> CANONICAL = canonicalNames();
+
+    private static final FieldType CONTENT_TYPE = withIndexOptions(TextField.TYPE_STORED,
+            IndexOptions.DOCS_AND_FREQS_AND_POSITIONS_AND_OFFSETS);
+
+    private static final Pattern RELATIVE_DATE = Pattern.compile("today(?:([+-])(\\d+)d)?");
+
+    private IndexSchema() {
+    }
+
+    /**
+     * Creates the stored full-text field with offsets.
+     * @param text aggregated text.
+     * @return content field.
+     */
+    static Field content(String text) {
+        return new Field(CONTENT, text, CONTENT_TYPE);
+    }
+
+    /**
+     * Returns the document with its {@value #CONTENT} field indexed with or without offsets, as the target index
+     * requires. The document is returned unchanged when it already matches, otherwise a copy is returned so the original
+     * can still be written elsewhere (e.g. replayed onto a reindex generation).
+     * @param doc document about to be written.
+     * @param offsets whether the target index stores offsets for the content field.
+     * @return matching document.
+     */
+    static Document alignContent(Document doc, boolean offsets) {
+        IndexableField content = doc.getField(CONTENT);
+        if (content == null || hasOffsets(content.fieldType().indexOptions()) == offsets) {
+            return doc;
+        }
+        FieldType type = withIndexOptions(content.fieldType(), offsets
+                ? IndexOptions.DOCS_AND_FREQS_AND_POSITIONS_AND_OFFSETS
+                : IndexOptions.DOCS_AND_FREQS_AND_POSITIONS);
+        Document aligned = new Document();
+        for (IndexableField field : doc) {
+            aligned.add(CONTENT.equals(field.name()) ? new Field(CONTENT, field.stringValue(), type) : field);
+        }
+        return aligned;
+    }
+
+    /**
+     * Tells whether index options include offsets.
+     * @param options index options of a field.
+     * @return {@code true} when offsets are indexed.
+     */
+    static boolean hasOffsets(IndexOptions options) {
+        return options == IndexOptions.DOCS_AND_FREQS_AND_POSITIONS_AND_OFFSETS;
+    }
+
+    /**
+     * Adds an integer field, skipped when the value is absent.
+     * @param doc target document.
+     * @param field integer field name.
+     * @param value value or {@code null}.
+     */
+    static void addInt(Document doc, String field, Integer value) {
+        if (value == null) {
+            return;
+        }
+        doc.add(new IntPoint(field, value));
+        doc.add(new NumericDocValuesField(field, value));
+    }
+
+    /**
+     * Adds a date field as epoch day, skipped when the value is absent or not an ISO date.
+     * @param doc target document.
+     * @param field date field name.
+     * @param isoDate date in {@code yyyy-MM-dd} form (a time part is ignored).
+     */
+    static void addDate(Document doc, String field, String isoDate) {
+        Long epochDay = parseIsoDate(isoDate);
+        if (epochDay == null) {
+            return;
+        }
+        doc.add(new LongPoint(field, epochDay));
+        doc.add(new NumericDocValuesField(field, epochDay));
+    }
+
+    /**
+     * Adds a lower-cased keyword field, skipped when the value is blank.
+     * @param doc target document.
+     * @param field keyword field name.
+     * @param value raw value.
+     */
+    static void addKeyword(Document doc, String field, String value) {
+        String keyword = keyword(value);
+        if (keyword.isEmpty()) {
+            return;
+        }
+        doc.add(new StringField(field, keyword, Field.Store.NO));
+        doc.add(new SortedDocValuesField(field, new BytesRef(keyword)));
+    }
+
+    /**
+     * Adds sorted doc values for the {@value #ID} and {@value #TYPE} keys unless present, so every written document,
+     * including prebuilt ones, can be sorted by id (stable paging) and counted by type (facets).
+     * @param doc document about to be written.
+     */
+    static void addKeyDocValues(Document doc) {
+        for (String key : new String[]{ID, TYPE}) {
+            String value = doc.get(key);
+            if (value != null && !hasSortedDocValues(doc, key)) {
+                doc.add(new SortedDocValuesField(key, new BytesRef(value)));
+            }
+        }
+    }
+
+    /**
+     * Resolves a field name case-insensitively to its schema name.
+     * @param field field name as typed by the user.
+     * @return schema name, or {@code null} when the field is not typed.
+     */
+    public static String canonical(String field) {
+        return field == null ? null : CANONICAL.get(field.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Tells whether a schema field is indexed as IntPoint.
+     * @param field schema name.
+     * @return true for integer fields.
+     */
+    public static boolean isInt(String field) {
+        return INT_FIELDS.contains(field);
+    }
+
+    /**
+     * Tells whether a schema field is indexed as a date (LongPoint, epoch day).
+     * @param field schema name.
+     * @return true for date fields.
+     */
+    public static boolean isDate(String field) {
+        return DATE_FIELDS.contains(field);
+    }
+
+    /**
+     * Tells whether a schema field is indexed as keyword.
+     * @param field schema name.
+     * @return true for keyword fields.
+     */
+    public static boolean isKeyword(String field) {
+        return KEYWORD_FIELDS.contains(field);
+    }
+
+    /**
+     * Normalizes a keyword value the way it is indexed.
+     * @param value raw value.
+     * @return trimmed lower-case value, empty for {@code null}.
+     */
+    public static String keyword(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Converts a query value of a date field to its epoch day. Accepts ISO dates and {@code today},
+     * {@code today+Nd} or {@code today-Nd}.
+     * @param value query value.
+     * @return epoch day.
+     * @throws IllegalArgumentException when the value is not a date.
+     */
+    public static long toEpochDay(String value) {
+        String trimmed = value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+        Matcher relative = RELATIVE_DATE.matcher(trimmed);
+        if (relative.matches()) {
+            LocalDate day = LocalDate.now();
+            if (relative.group(1) != null) {
+                long days = Long.parseLong(relative.group(2));
+                day = "+".equals(relative.group(1)) ? day.plusDays(days) : day.minusDays(days);
+            }
+            return day.toEpochDay();
+        }
+        Long epochDay = parseIsoDate(trimmed);
+        if (epochDay == null) {
+            throw new IllegalArgumentException("Not a date: " + value);
+        }
+        return epochDay;
+    }
+
+    private static FieldType withIndexOptions(IndexableFieldType base, IndexOptions options) {
+        FieldType type = new FieldType(base);
+        type.setIndexOptions(options);
+        type.freeze();
+        return type;
+    }
+
+    private static boolean hasSortedDocValues(Document doc, String field) {
+        for (IndexableField existing : doc.getFields(field)) {
+            if (existing.fieldType().docValuesType() == DocValuesType.SORTED) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Long parseIsoDate(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String trimmed = value.trim();
+        String datePart = trimmed.length() > 10 ? trimmed.substring(0, 10) : trimmed;
+        try {
+            return LocalDate.parse(datePart).toEpochDay();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static Map<String, String> canonicalNames() {
+        Map<String, String> names = new HashMap<>();
+        for (Set<String> group : List.of(INT_FIELDS, DATE_FIELDS, KEYWORD_FIELDS)) {
+            for (String name : group) {
+                names.put(name.toLowerCase(Locale.ROOT), name);
+            }
+        }
+        return Map.copyOf(names);
+    }
+}
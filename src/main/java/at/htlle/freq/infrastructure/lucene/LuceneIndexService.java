@@ -1,9 +1,14 @@
 // src/main/java/at/htlle/freq/infrastructure/lucene/LuceneIndexService.java
 package at.htlle.freq.infrastructure.lucene;
 
+import at.htlle.freq.domain.IndexChange;
+import at.htlle.freq.infrastructure.search.SearchFacets;
 import at.htlle.freq.infrastructure.search.SearchHit;
+import at.htlle.freq.infrastructure.search.SearchPage;
+import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.List;
@@ -32,6 +37,168 @@ public interface LuceneIndexService {
      */
     List<SearchHit> search(Query query);
 
+    /**
+     * Executes one page of a cursor-paged search for the query text within the configured time budget.
+     *
+     * @param queryText  Lucene query text.
+     * @param pageSize   requested hits per page (clamped to the configured maximum).
+     * @param cursor     token of the previous page, or {@code null} for the first page.
+     * @param exactTotal whether all hits must be counted; otherwise the total may be a lower bound.
+     * @return the page with total and the token of the next page.
+     * @throws IllegalArgumentException when the cursor is malformed.
+     */
+    default SearchPage searchPage(String queryText, int pageSize, String cursor, boolean exactTotal) {
+        return searchPage(queryText, pageSize, cursor, exactTotal, null);
+    }
+
+    /**
+     * Executes one page of a cursor-paged search for the query text. When the time budget runs out, the best hits
+     * found so far are returned as a {@link SearchPage#partial() partial} page.
+     *
+     * @param queryText  Lucene query text.
+     * @param pageSize   requested hits per page (clamped to the configured maximum); {@code 0} selects the configured
+     *                   default page size.
+     * @param cursor     token of the previous page, or {@code null} for the first page.
+     * @param exactTotal whether all hits must be counted; otherwise the total may be a lower bound.
+     * @param timeoutMs  time budget in milliseconds (clamped to the configured maximum), or {@code null} for the
+     *                   configured default.
+     * @return the page with total and the token of the next page.
+     * @throws IllegalArgumentException when the cursor is malformed.
+     */
+    SearchPage searchPage(String queryText, int pageSize, String cursor, boolean exactTotal, Long timeoutMs);
+
+    /**
+     * Executes one page of a cursor-paged search for a pre-built {@link Query} within the configured time budget; see
+     * {@link #searchPage(String, int, String, boolean)}.
+     */
+    default SearchPage searchPage(Query query, int pageSize, String cursor, boolean exactTotal) {
+        return searchPage(query, pageSize, cursor, exactTotal, null);
+    }
+
+    /**
+     * Executes one page of a cursor-paged search for a pre-built {@link Query}; see
+     * {@link #searchPage(String, int, String, boolean, Long)}.
+     */
+    SearchPage searchPage(Query query, int pageSize, String cursor, boolean exactTotal, Long timeoutMs);
+
+    /**
+     * Reports how many searches ran and how many of them ran out of their time budget.
+     */
+    SearchStats searchStats();
+
+    /**
+     * Reports the concurrent search pool: size, busy threads and queue depth.
+     */
+    SearchExecutorStats searchExecutorStats();
+
+    /**
+     * Reports the query sample and how many searchers were warmed with it.
+     */
+    WarmerStats warmerStats();
+
+    /**
+     * Reports the journal of live index operations: appended entries, syncs, checkpoint and replay backlog.
+     */
+    JournalStats journalStats();
+
+    /**
+     * Reports the hit, miss and eviction counters of the search page cache.
+     */
+    SearchCacheStats searchCacheStats();
+
+    /**
+     * Counts the documents matching the query text per entity type, project lifecycle status,
+     * installed-software status and software support phase. Unlike {@link #search(String)} the
+     * counts cover the full result set.
+     */
+    SearchFacets facets(String queryText);
+
+    /**
+     * Counts facets for a pre-built {@link Query}; see {@link #facets(String)}.
+     */
+    SearchFacets facets(Query query);
+
+    /**
+     * Parses query text with the same syntax as {@link #search(String)} (classic Lucene syntax with typed fields).
+     * @throws IllegalArgumentException when the text is not a valid query.
+     */
+    Query parseQuery(String queryText);
+
+    /**
+     * Streams every document matching the query to the consumer, one hit at a time and in index order, without
+     * paging or scoring. Hits carry the plain leading snippet. The export reads from the near-real-time searcher
+     * current at the call, so changes written before the call are included and later ones are not.
+     * @return number of exported hits.
+     * @throws IOException when the index cannot be read or the consumer fails; the export stops at that hit.
+     */
+    long export(Query query, HitConsumer consumer) throws IOException;
+
+    /**
+     * Runs the callback against the shared near-real-time searcher. The searcher is acquired from
+     * and released back to the searcher manager around the callback, so it must not escape it.
+     * Changes written before the call are guaranteed to be visible.
+     */
+    <T> T withSearcher(SearcherCallback<T> callback) throws IOException;
+
+    /**
+     * Registers a callback that runs whenever a new shared searcher is published (near-real-time refresh, index
+     * open, generation switch), and once right away when an index is already open. The callback runs on the
+     * refreshing thread and must return quickly.
+     * @param listener callback without access to the searcher; use {@link #withSearcher} on another thread.
+     */
+    void addRefreshListener(Runnable listener);
+
+    /**
+     * Reports the group-commit state: last durable commit generation and the number of changes
+     * that are searchable but not yet committed.
+     */
+    CommitPolicy.Status commitStatus();
+
+    /**
+     * Indexes a batch in a single writer session. Items may be any mix of domain entities
+     * (Account, Site, InstalledSoftware, …) and prebuilt Lucene documents carrying an {@code id}
+     * field; unsupported items are skipped. When an id occurs more than once, the last item wins.
+     *
+     * @param items entities or documents to index.
+     */
+    void indexAll(Collection<?> items);
+
+    /**
+     * Like {@link #indexAll(Collection)}, but first compares each document's content fingerprint with
+     * the one already in the index and skips unchanged documents without touching the writer.
+     * Intended for periodic sweeps that resend mostly unchanged rows. Unlike {@link #indexAll(Collection)} a batch that
+     * cannot be written is not just logged, so the caller can retry it.
+     *
+     * @param items entities or documents to index.
+     * @throws java.io.UncheckedIOException when the batch could not be written.
+     */
+    void indexChanged(Collection<?> items);
+
+    /**
+     * Returns the id of the document an item of {@link #indexAll(Collection)} would be indexed under, without building
+     * the document. Lets callers route updates of the same entity to the same writer thread.
+     *
+     * @param item domain entity or prebuilt document.
+     * @return document id, or {@code null} for unsupported items and entities without id.
+     */
+    String documentId(Object item);
+
+    /**
+     * Reports how many documents live indexing has written and how many unchanged ones
+     * {@link #indexChanged(Collection)} has skipped since startup.
+     */
+    IndexingStats indexingStats();
+
+    /**
+     * Applies entries of the database change log in one pass: inserted and updated rows are reloaded
+     * and indexed, deleted rows are removed. When a key occurs more than once, the last entry wins.
+     *
+     * @param changes change-log entries in sequence order.
+     * @throws java.io.UncheckedIOException when the documents cannot be written or deleted; a failure to load a row is
+     *         rethrown as is. The entries must then be kept and applied again.
+     */
+    void applyChanges(List<IndexChange> changes);
+
     /**
      * Rebuilds the entire Lucene index from the underlying data sources, ensuring stored documents
      * reflect the latest system state. Implementations should replace outdated entries as needed.
@@ -133,4 +300,79 @@ public interface LuceneIndexService {
      */
     void indexUpgradePlan(String upgradePlanId, String siteId, String softwareId, String plannedWindowStart, String plannedWindowEnd,
                           String status, String createdAt, String createdBy);
+
+    /**
+     * Callback executed with an acquired {@link IndexSearcher}.
+     */
+    @FunctionalInterface
+    interface SearcherCallback<T> {
+        T apply(IndexSearcher searcher) throws IOException;
+    }
+
+    /**
+     * Receives the hits of {@link #export(Query, HitConsumer)} one by one.
+     */
+    @FunctionalInterface
+    interface HitConsumer {
+        void accept(SearchHit hit) throws IOException;
+    }
+
+    /** Counters of live indexing; Jackson serializes them as JSON without additional configuration. */
+    record IndexingStats(long written, long skipped) {}
+
+    /**
+     * Counters of the search page cache.
+     *
+     * @param hits      lookups answered from the cache.
+     * @param misses    lookups that had to search.
+     * @param evictions entries dropped because the cache was full.
+     * @param size      current number of entries.
+     * @param capacity  maximum number of entries; {@code 0} means disabled.
+     */
+    record SearchCacheStats(long hits, long misses, long evictions, int size, int capacity) {}
+
+    /**
+     * Counters of executed searches; cache hits are not counted.
+     *
+     * @param searches  searches executed on a searcher.
+     * @param partial   searches that ran out of their time budget and returned partial results.
+     * @param timeoutMs configured default time budget in milliseconds; {@code 0} means unlimited.
+     */
+    record SearchStats(long searches, long partial, long timeoutMs) {}
+
+    /**
+     * State of the concurrent search pool.
+     *
+     * @param threads       pool size; {@code 0} when searches run on the request thread only.
+     * @param active        threads currently scoring a slice.
+     * @param queued        slices waiting for a thread.
+     * @param queueCapacity maximum number of waiting slices.
+     * @param completed     slices scored by the pool.
+     * @param callerRuns    slices scored by the request thread because the queue was full.
+     */
+    record SearchExecutorStats(int threads, int active, int queued, int queueCapacity, long completed,
+                               long callerRuns) {}
+
+    /**
+     * State of the query-log driven searcher warmer.
+     *
+     * @param sampled         search requests in the rolling query sample.
+     * @param distinct        distinct queries in the sample.
+     * @param warmedSearchers searchers warmed since startup.
+     * @param warmedQueries   queries replayed on them.
+     * @param lastWarmupMs    duration of the last warmup in milliseconds.
+     */
+    record WarmerStats(int sampled, int distinct, long warmedSearchers, long warmedQueries, long lastWarmupMs) {}
+
+    /**
+     * State of the index operation journal.
+     *
+     * @param appended   operations journaled since startup.
+     * @param syncs      forced writes of the journal to disk.
+     * @param checkpoint offset up to which every operation is committed to the index.
+     * @param end        offset after the last journaled operation.
+     * @param recovered  bytes after the checkpoint found at startup and not yet replayed.
+     * @param segments   journal segment files on disk.
+     */
+    record JournalStats(long appended, long syncs, long checkpoint, long end, long recovered, int segments) {}
 }
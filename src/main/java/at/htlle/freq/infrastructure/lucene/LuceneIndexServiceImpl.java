@@ -1,7 +1,9 @@
 package at.htlle.freq.infrastructure.lucene;
 
 import at.htlle.freq.domain.*;
+import at.htlle.freq.infrastructure.search.SearchFacets;
 import at.htlle.freq.infrastructure.search.SearchHit;
+import at.htlle.freq.infrastructure.search.SearchPage;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
@@ -9,42 +11,83 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.apache.lucene.analysis.standard.StandardAnalyzer;
 import org.apache.lucene.document.*;
 import org.apache.lucene.index.*;
+import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.queryparser.classic.QueryParser;
 import org.apache.lucene.search.*;
-import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.Lock;
 import org.apache.lucene.store.LockObtainFailedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import jakarta.annotation.PreDestroy;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /*
  * Central Lucene write service.
  *
  * Data flow:
  *  - Camel routes (timers & direct endpoints) push domain entities into the "seda:lucene-index" queue.
- *  - LuceneIndexingHubRoute unwraps the entities and invokes the matching indexXxx() methods.
- *  - Each indexXxx() method consolidates fields, forwards them to indexDocument(), and persists them in Lucene.
+ *  - LuceneIndexingHubRoute hands the entities to indexAll(), which maps them via toDocument() and writes the whole batch
+ *    in one writer session; reindexAll() feeds the same bulk path from a bounded worker pool (ParallelReindexer).
+ *  - Each indexXxx() method consolidates fields via the matching xxxDocument() builder and writes a batch of one.
+ *  - Search pages carry snippets from HitHighlighter, which reads match offsets from the postings of "content".
  *
  * Retry & locking strategy:
- *  - The IndexWriter is serialized via withWriter() and a ReentrantLock so that concurrent access from multiple threads (e.g.,
- *    timer plus on-demand) is queued.
+ *  - One application-scoped IndexWriter is opened lazily and shared by all writers (IndexWriter itself is thread-safe).
+ *    A ReentrantReadWriteLock guards its lifecycle: writes and searches hold the read lock, opening/closing or switching
+ *    the index path takes the write lock.
+ *  - Searches reuse warm near-real-time readers from a SearcherManager that is refreshed in the background by a
+ *    ControlledRealTimeReopenThread; searches wait only for the generation of the last write, so changes stay visible
+ *    immediately after indexXxx() returns.
+ *  - With lifex.lucene.search.threads > 0 the searchers split pages and facet counts into segment slices that are
+ *    scored on a bounded SearchExecutor pool.
+ *  - Changes are not committed one by one: CommitPolicy batches them into background group commits triggered by
+ *    lifex.lucene.commit.max-latency-ms / max-pending-docs, and close() flushes whatever is still pending.
+ *  - Live writes and deletes are appended to an IndexJournal below the index root before they reach the writer; every
+ *    commit moves its checkpoint. After a crash the startup replays the operations after the checkpoint from the
+ *    database, so writes of after-commit hooks that were never committed to Lucene are not lost.
+ *  - The configured index path is a root of numbered generations (IndexGenerations). reindexAll() builds the next
+ *    generation with its own writer while the active one keeps serving searches and live writes, validates the per-type
+ *    counts against the rows it read and against a COUNT(*) per table taken before the scan, replays the live changes
+ *    and then switches the pointer under the handle write lock.
+ *  - Every generation is opened through IndexDirectories (lifex.lucene.store.type: fs, mmap, nio or memory); the active
+ *    one is warmed when it is opened.
+ *  - First-page searches are sampled in a QueryLog. The first searcher of a freshly activated generation replays the
+ *    top queries of the sample before it is published (refresh-budget-ms), so a reindex never hands a cold index to
+ *    users. Near-real-time refreshes are not warmed: they only add small segments next to warm ones, and warming them
+ *    would delay every change becoming visible. The top queries are saved below the index root on close and replayed
+ *    at startup (startup-budget-ms) before the web server starts.
  *  - If Lucene fails with a write.lock, the service attempts to clean up the lock once via obtainLock()—see the warnings in
  *    clearStaleLock(). Afterwards the error is logged and propagated.
  *
@@ -56,10 +99,12 @@ import java.util.concurrent.locks.ReentrantLock;
  * Component that provides Lucene Index Service Impl behavior.
  */
 @Service
-public class LuceneIndexServiceImpl implements LuceneIndexService {
+public class LuceneIndexServiceImpl implements LuceneIndexService, SmartInitializingSingleton {
 
     private static final Logger log = LoggerFactory.getLogger(LuceneIndexServiceImpl.class);
     private static final int PROGRESS_LOG_INTERVAL = 250;
+    private static final String WARM_QUERIES_FILE = "warm-queries.txt";
+    private static final String JOURNAL_DIR = "journal";
     private static final String TYPE_ACCOUNT = "account";
     private static final String TYPE_ADDRESS = "address";
     private static final String TYPE_AUDIO_DEVICE = "audioDevice";
@@ -93,12 +138,33 @@ public class LuceneIndexServiceImpl implements LuceneIndexService {
     private final SiteRepository siteRepository;
     private final SoftwareRepository softwareRepository;
     private final UpgradePlanRepository upgradePlanRepository;
-
+    private final ProjectSiteAssignmentRepository projectSiteAssignmentRepository;
+
+    private final LuceneProperties properties;
+    private final SearchCache searchCache;
+    private final CommitPolicy commitPolicy;
+    private final IndexDirectories directories;
+    private final SearchExecutor searchExecutor;
+    private final QueryLog queryLog;
     private final StandardAnalyzer analyzer = new StandardAnalyzer();
-    private final ReentrantLock writerLock = new ReentrantLock();
+    private final ReentrantReadWriteLock handleLock = new ReentrantReadWriteLock();
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private volatile Path indexDir;
+    private final ReentrantLock reindexLock = new ReentrantLock();
+    private final AtomicLong writtenDocs = new AtomicLong();
+    private final AtomicLong skippedDocs = new AtomicLong();
+    private final AtomicLong executedSearches = new AtomicLong();
+    private final AtomicLong partialSearches = new AtomicLong();
+    private final AtomicLong warmedSearchers = new AtomicLong();
+    private final AtomicLong warmedQueries = new AtomicLong();
+    private volatile long lastWarmupMs;
+    private volatile IndexGenerations generations;
+    private volatile Path indexDir;     // active generation below generations.root()
     private volatile Path storedLicenseJsonPath;
+    private volatile Path warmQueriesPath;
+    private volatile IndexJournal journal;  // replaced under the handleLock write lock; null when disabled
+    private IndexHandle handle;         // guarded by handleLock
+    private final List<Runnable> refreshListeners = new CopyOnWriteArrayList<>();
+    private volatile ShadowBuild shadow; // set/cleared under the handleLock write lock
 
     /**
      * Test constructor—initializes every repository reference with {@code null}.
@@ -109,10 +175,9 @@ public class LuceneIndexServiceImpl implements LuceneIndexService {
     }
 
     /**
-     * Production constructor: all repository instances are injected.
-     * The index path is derived from {@link LuceneIndexService#INDEX_PATH} (see the logging hint for failures in clearIndex()).
+     * Repository-only constructor used by tests; falls back to the default {@link LuceneProperties} and indexes sites with
+     * their primary project only.
      */
-    @Autowired
     public LuceneIndexServiceImpl(AccountRepository accountRepository,
                                   AddressRepository addressRepository,
                                   AudioDeviceRepository audioDeviceRepository,
@@ -129,6 +194,36 @@ public class LuceneIndexServiceImpl implements LuceneIndexService {
                                   SiteRepository siteRepository,
                                   SoftwareRepository softwareRepository,
                                   UpgradePlanRepository upgradePlanRepository) {
+        this(accountRepository, addressRepository, audioDeviceRepository, cityRepository, clientsRepository,
+                countryRepository, deploymentVariantRepository, installedSoftwareRepository, phoneIntegrationRepository,
+                projectRepository, radioRepository, serverRepository, serviceContractRepository, siteRepository,
+                softwareRepository, upgradePlanRepository, null, new LuceneProperties());
+    }
+
+    /**
+     * Production constructor: all repository instances and the index settings are injected.
+     * The index path is taken from {@link LuceneProperties#getIndexPath()} and defaults to
+     * {@link LuceneIndexService#INDEX_PATH}; it is the root below which the index generations live.
+     */
+    @Autowired
+    public LuceneIndexServiceImpl(AccountRepository accountRepository,
+                                  AddressRepository addressRepository,
+                                  AudioDeviceRepository audioDeviceRepository,
+                                  CityRepository cityRepository,
+                                  ClientsRepository clientsRepository,
+                                  CountryRepository countryRepository,
+                                  DeploymentVariantRepository deploymentVariantRepository,
+                                  InstalledSoftwareRepository installedSoftwareRepository,
+                                  PhoneIntegrationRepository phoneIntegrationRepository,
+                                  ProjectRepository projectRepository,
+                                  RadioRepository radioRepository,
+                                  ServerRepository serverRepository,
+                                  ServiceContractRepository serviceContractRepository,
+                                  SiteRepository siteRepository,
+                                  SoftwareRepository softwareRepository,
+                                  UpgradePlanRepository upgradePlanRepository,
+                                  ProjectSiteAssignmentRepository projectSiteAssignmentRepository,
+                                  LuceneProperties properties) {
         this.accountRepository = accountRepository;
         this.addressRepository = addressRepository;
         this.audioDeviceRepository = audioDeviceRepository;
@@ -145,7 +240,15 @@ public class LuceneIndexServiceImpl implements LuceneIndexService {
         this.siteRepository = siteRepository;
         this.softwareRepository = softwareRepository;
         this.upgradePlanRepository = upgradePlanRepository;
-        setIndexPath(Paths.get(LuceneIndexService.INDEX_PATH));
+        this.projectSiteAssignmentRepository = projectSiteAssignmentRepository;
+        this.properties = properties != null ? properties : new LuceneProperties();
+        this.searchCache = new SearchCache(this.properties.getSearch().getCacheSize());
+        this.directories = new IndexDirectories(this.properties.getStore());
+        this.searchExecutor = new SearchExecutor(this.properties.getSearch());
+        this.queryLog = new QueryLog(this.properties.getWarmer().getSampleSize());
+        this.commitPolicy = new CommitPolicy(this::commitPendingChanges,
+                this.properties.getCommit().getMaxLatencyMs(), this.properties.getCommit().getMaxPendingDocs());
+        setIndexPath(Paths.get(this.properties.getIndexPath()));
     }
 
     /**
@@ -158,48 +261,451 @@ public class LuceneIndexServiceImpl implements LuceneIndexService {
     }
 
     /**
-     * Opens an IndexWriter with serialized access (mirrors the "Could not close Lucene directory" warning emitted on
-     * close failures).
+     * Runs the callback against the shared IndexWriter (mirrors the "Could not close Lucene directory" warning emitted on
+     * close failures while opening it).
      *
-     * Scheduling & parallelism: used indirectly by all indexXxx() methods so the ReentrantLock serializes access to the index.
-     * Camel delivers messages in parallel, but the lock enforces FIFO processing here.
+     * Scheduling & parallelism: used indirectly by all indexXxx() methods. The writer is opened once and then shared;
+     * IndexWriter is thread-safe, so concurrent callers only hold the read side of the handle lock.
+     *
+     * The callback returns the sequence number of its last change; it is remembered so searches can wait for exactly
+     * that generation instead of reopening readers on every call.
+     */
+    private void withWriter(WriterCallback callback) throws IOException {
+        IndexHandle current = lockHandle();
+        try {
+            current.recordWrite(callback.execute(current.writer, current.contentOffsets));
+        } finally {
+            handleLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the shared index handle with the read lock held, opening it on first use.
+     * Callers must release the read lock once they are done with the handle.
+     */
+    private IndexHandle lockHandle() throws IOException {
+        handleLock.readLock().lock();
+        if (handle != null) {
+            return handle;
+        }
+        handleLock.readLock().unlock();
+        handleLock.writeLock().lock();
+        try {
+            if (handle == null) {
+                handle = openHandle();
+                notifyRefreshListeners();
+            }
+            handleLock.readLock().lock(); // downgrade while still holding the write lock
+            return handle;
+        } finally {
+            handleLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Opens directory, writer, searcher manager and reopen thread for the active generation ({@link #indexDir}).
+     * Generation directories that are neither active nor being rebuilt are removed first.
      *
      * Retry strategy: on {@link LockObtainFailedException} the service invokes clearStaleLock() once and then retries opening.
      * Only afterwards is the exception propagated (see the log.warn/log.error entries in clearStaleLock()).
      */
-    private void withWriter(WriterCallback callback) throws IOException {
-        writerLock.lock();
+    private IndexHandle openHandle() throws IOException {
+        ShadowBuild pending = shadow;
+        generations.deleteStale(pending != null ? Set.of(indexDir, pending.path) : Set.of(indexDir));
+
+        for (int attempt = 0; ; attempt++) {
+            IndexWriterConfig config = new IndexWriterConfig(analyzer);
+            config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+
+            Directory dir = directories.open(indexDir);
+            IndexWriter writer = null;
+            try {
+                writer = new IndexWriter(dir, config);
+                IndexHandle opened = attach(dir, writer, properties.getWarmer().getStartupBudgetMs());
+                log.debug("Opened shared Lucene IndexWriter ({} store) at {}", directories.type(), indexDir.toAbsolutePath());
+                warmUp(opened);
+                return opened;
+            } catch (LockObtainFailedException e) {
+                boolean retry = attempt == 0 && clearStaleLock(dir);
+                closeDirectory(dir);
+                if (retry) {
+                    continue;
+                }
+                throw e;
+            } catch (IOException | RuntimeException e) {
+                if (writer != null) {
+                    writer.rollback();
+                }
+                closeDirectory(dir);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Puts a searcher manager and its reopen thread on top of an open writer. Only the first searcher is warmed, within
+     * {@code warmupMs}; searchers of near-real-time refreshes are published right away.
+     */
+    private IndexHandle attach(Directory dir, IndexWriter writer, long warmupMs) throws IOException {
+        SearcherManager searchers = new SearcherManager(writer, new SearcherFactory() {
+            @Override
+            public IndexSearcher newSearcher(IndexReader reader, IndexReader previousReader) {
+                IndexSearcher searcher = searchExecutor.newSearcher(reader);
+                if (previousReader == null) {
+                    warmSearcher(searcher, warmupMs);
+                }
+                return searcher;
+            }
+        });
+        searchers.addListener(new ReferenceManager.RefreshListener() {
+            @Override
+            public void beforeRefresh() {
+            }
+
+            @Override
+            public void afterRefresh(boolean didRefresh) {
+                if (didRefresh) {
+                    notifyRefreshListeners();
+                }
+            }
+        });
+        double maxStaleSec = Math.max(properties.getRefreshIntervalMs(), 1L) / 1000.0;
+        ControlledRealTimeReopenThread<IndexSearcher> reopener =
+                new ControlledRealTimeReopenThread<>(writer, searchers, maxStaleSec, 0.0);
+        reopener.setName("lucene-nrt-reopen");
+        reopener.setDaemon(true);
+        reopener.start();
+        // Reader versions of a different generation are unrelated; start the cache afresh.
+        searchCache.clear();
+        return new IndexHandle(dir, writer, searchers, reopener, contentOffsets(searchers));
+    }
+
+    @Override
+    /**
+     * Registers a callback for every newly published searcher: after each refresh that opened a new reader, when the
+     * index is opened and after a generation switch. When an index is already open the callback also runs once right
+     * away. Callbacks run on the refreshing thread, partly under the handle lock, so they must only hand work off.
+     */
+    public void addRefreshListener(Runnable listener) {
+        refreshListeners.add(listener);
+        boolean open;
+        handleLock.readLock().lock();
+        try {
+            open = handle != null;
+        } finally {
+            handleLock.readLock().unlock();
+        }
+        if (open) {
+            listener.run();
+        }
+    }
+
+    private void notifyRefreshListeners() {
+        for (Runnable listener : refreshListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                log.warn("Lucene refresh listener failed", e);
+            }
+        }
+    }
+
+    /**
+     * Tells whether the index stores offsets for the content field; indexes written before offsets were introduced keep
+     * indexing without them until the next reindex, because Lucene rejects mixed index options per field.
+     */
+    private static boolean contentOffsets(SearcherManager searchers) throws IOException {
+        IndexSearcher searcher = searchers.acquire();
         try {
-            Files.createDirectories(indexDir);
+            FieldInfo info = FieldInfos.getMergedFieldInfos(searcher.getIndexReader()).fieldInfo(IndexSchema.CONTENT);
+            return info == null || IndexSchema.hasOffsets(info.getIndexOptions());
+        } finally {
+            searchers.release(searcher);
+        }
+    }
 
-            for (int attempt = 0; attempt < 2; attempt++) {
-                IndexWriterConfig config = new IndexWriterConfig(analyzer);
-                config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+    /**
+     * Reads the hot files of a freshly opened index once (lifex.lucene.store.warmup), so the first searches after
+     * startup do not page them in one by one. A failed warmup is logged and only costs the head start.
+     */
+    private void warmUp(IndexHandle opened) {
+        if (!properties.getStore().isWarmup() || !directories.needsWarmup()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            IndexDirectories.Warmup warmup = directories.warm(opened.directory);
+            log.info("Warmed up Lucene index at {}: {} files, {} KB in {} ms", indexDir.toAbsolutePath(),
+                    warmup.files(), warmup.bytes() / 1024, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not warm up Lucene index at {}", indexDir.toAbsolutePath(), e);
+        }
+    }
 
-                FSDirectory dir = null;
-                try {
-                    dir = FSDirectory.open(indexDir);
-                    try (IndexWriter writer = new IndexWriter(dir, config)) {
-                        callback.execute(writer);
-                        return;
-                    }
-                } catch (LockObtainFailedException e) {
-                    if (attempt == 0 && clearStaleLock(dir)) {
-                        continue;
-                    }
-                    throw e;
-                } finally {
-                    if (dir != null) {
-                        try {
-                            dir.close();
-                        } catch (IOException closeEx) {
-                            log.warn("Could not close Lucene directory", closeEx);
-                        }
-                    }
+    /**
+     * Replays the top queries of the {@link QueryLog} on a searcher that is not yet published, so its term dictionaries,
+     * postings, doc values and query cache are loaded before users reach it. Runs sequentially within the budget; a
+     * query that no longer parses or fails is skipped, and warming never fails the refresh.
+     */
+    private void warmSearcher(IndexSearcher searcher, long budgetMs) {
+        LuceneProperties.Warmer settings = properties.getWarmer();
+        if (!settings.isEnabled() || budgetMs <= 0) {
+            return;
+        }
+        List<Object> queries = queryLog.top(settings.getTopQueries());
+        if (queries.isEmpty()) {
+            return;
+        }
+        SearchDeadline deadline = SearchDeadline.start(budgetMs);
+        int size = Math.max(1, properties.getSearch().getDefaultPageSize());
+        int threshold = Math.max(size + 1, properties.getSearch().getTotalHitsThreshold());
+        int warmed = 0;
+        for (Object recorded : queries) {
+            if (deadline.shouldExit()) {
+                break;
+            }
+            try {
+                Query query = recorded instanceof Query built ? built : parse((String) recorded);
+                SearchDeadline.Outcome<TopFieldDocs> outcome = deadline.search(searcher, searchExecutor, query,
+                        TopFieldCollector.createSharedManager(SearchCursor.SORT, size + 1, null, threshold));
+                for (ScoreDoc hit : outcome.result().scoreDocs) {
+                    searcher.doc(hit.doc);
+                }
+                warmed++;
+            } catch (ParseException | IOException | RuntimeException e) {
+                log.debug("Skipped warming query {}", recorded, e);
+            }
+        }
+        warmedSearchers.incrementAndGet();
+        warmedQueries.addAndGet(warmed);
+        lastWarmupMs = deadline.elapsedMs();
+        log.debug("Warmed searcher with {} of {} recorded queries in {} ms", warmed, queries.size(), lastWarmupMs);
+    }
+
+    /**
+     * Opens the index once all beans exist and before the web server starts, so the recorded queries of the previous
+     * run are replayed before the first request arrives. Without recorded queries the index still opens lazily.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        replayJournal();
+        if (!properties.getWarmer().isEnabled() || queryLog.distinct() == 0) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            lockHandle();
+            handleLock.readLock().unlock();
+            log.info("Opened and warmed Lucene index with {} recorded queries in {} ms before accepting traffic",
+                    queryLog.distinct(), (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not warm up Lucene index at startup", e);
+        }
+    }
+
+    /**
+     * Re-applies the journaled operations the previous run wrote but never committed. Upserts whose fingerprint the
+     * committed index already holds are skipped; the others are reloaded from the database through
+     * {@link #applyChanges(List)}, so the index receives the current row rather than the journaled state. The range is
+     * released only after applyChanges() returned; when a row cannot be loaded or written it stays pending and is
+     * replayed again at the next start.
+     * @return number of re-applied operations.
+     */
+    int replayJournal() {
+        IndexJournal current = journal;
+        if (current == null) {
+            return 0;
+        }
+        try {
+            List<IndexJournal.Entry> entries = current.pending();
+            if (entries.isEmpty()) {
+                current.replayed();
+                return 0;
+            }
+            Map<String, IndexJournal.Entry> latest = new LinkedHashMap<>();
+            for (IndexJournal.Entry entry : entries) {
+                latest.remove(entry.id());
+                latest.put(entry.id(), entry);
+            }
+            Map<String, Long> indexed = withSearcher(searcher -> DocumentFingerprint.lookup(searcher, latest.keySet()));
+            List<IndexChange> changes = new ArrayList<>();
+            for (IndexJournal.Entry entry : latest.values()) {
+                boolean delete = entry.op() == IndexJournal.Op.DELETE;
+                if (delete ? !indexed.containsKey(entry.id()) : Long.valueOf(entry.version()).equals(indexed.get(entry.id()))) {
+                    continue;
                 }
+                String table = delete ? "" : tableOf(entry.type());
+                changes.add(new IndexChange(0L, table, entry.id(), delete ? "DELETE" : "UPDATE"));
+            }
+            applyChanges(changes);
+            current.replayed();
+            log.info("Replayed {} of {} journaled Lucene operations that were not committed before the last shutdown",
+                    changes.size(), entries.size());
+            return changes.size();
+        } catch (IOException | RuntimeException e) {
+            log.error("Could not replay the Lucene index journal; the range stays pending until the next start", e);
+            return 0;
+        }
+    }
+
+    /**
+     * Maps a document type key to the table of its change-log entries.
+     */
+    private String tableOf(String type) {
+        return TYPE_CLIENT.equals(type) ? "CLIENTS" : safe(type).toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Opens the journal below the index root; without it writes stay unjournaled.
+     * @param dir journal directory.
+     * @return opened journal or {@code null} when disabled or unavailable.
+     */
+    private IndexJournal openJournal(Path dir) {
+        if (!properties.getJournal().isEnabled()) {
+            return null;
+        }
+        try {
+            return IndexJournal.open(dir, properties.getJournal());
+        } catch (IOException | RuntimeException e) {
+            log.error("Could not open Lucene index journal at {}; live writes are not journaled", dir.toAbsolutePath(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Closes the current journal; the caller holds the write lock.
+     */
+    private void closeJournal() {
+        if (journal != null) {
+            journal.close();
+            journal = null;
+        }
+    }
+
+    /**
+     * Appends the operations of a batch to the journal before they are written.
+     * @return batch offset, or {@code -1} when nothing was journaled.
+     */
+    private long appendJournal(List<IndexJournal.Entry> entries) {
+        IndexJournal current = journal;
+        if (current == null) {
+            return -1L;
+        }
+        try {
+            return current.append(entries);
+        } catch (IOException | RuntimeException e) {
+            log.error("Could not journal {} Lucene operations", entries.size(), e);
+            return -1L;
+        }
+    }
+
+    /**
+     * Reports the sequence number a journaled batch was written with.
+     */
+    private void journalWritten(long batch, long seqNo) {
+        IndexJournal current = journal;
+        if (batch >= 0 && current != null) {
+            current.written(batch, seqNo);
+        }
+    }
+
+    @Override
+    public JournalStats journalStats() {
+        IndexJournal current = journal;
+        return current != null ? current.stats() : new JournalStats(0L, 0L, 0L, 0L, 0L, 0);
+    }
+
+    /**
+     * Keeps the top recorded queries below the index root for the startup warmup of the next run.
+     */
+    private void saveQueryLog() {
+        Path file = warmQueriesPath;
+        if (file == null || queryLog.distinct() == 0) {
+            return;
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            queryLog.save(file, properties.getWarmer().getTopQueries());
+        } catch (IOException e) {
+            log.warn("Could not save warmup queries to {}", file.toAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Closes a directory that could not be handed over to an {@link IndexHandle}.
+     */
+    private void closeDirectory(Directory dir) {
+        try {
+            dir.close();
+        } catch (IOException closeEx) {
+            log.warn("Could not close Lucene directory", closeEx);
+        }
+    }
+
+    /**
+     * Flushes pending group commits, then closes the shared writer and searcher.
+     * Invoked by Spring on shutdown; changes arriving after the flush are committed by IndexWriter#close.
+     */
+    @PreDestroy
+    public void close() {
+        commitPolicy.flush();   // outside the write lock: the commit itself needs the read side
+        handleLock.writeLock().lock();
+        try {
+            closeHandle();
+            closeJournal();
+        } finally {
+            handleLock.writeLock().unlock();
+        }
+        commitPolicy.shutdown();
+        searchExecutor.close();
+        saveQueryLog();
+    }
+
+    /**
+     * Commits the shared writer on behalf of {@link CommitPolicy}. Never opens a writer: without an open handle there
+     * is nothing to commit.
+     * @return generation of the new commit point, or {@code -1} when no writer is open.
+     */
+    private long commitPendingChanges() throws IOException {
+        handleLock.readLock().lock();
+        try {
+            if (handle == null) {
+                return -1L;
+            }
+            long seqNo = handle.writer.commit();
+            IndexJournal current = journal;
+            if (current != null) {
+                current.committed(seqNo);
+            }
+            return SegmentInfos.getLastCommitGeneration(handle.directory);
+        } finally {
+            handleLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public CommitPolicy.Status commitStatus() {
+        return commitPolicy.status();
+    }
+
+    /**
+     * Closes the current handle; the caller holds the write lock.
+     */
+    private void closeHandle() {
+        if (handle == null) {
+            return;
+        }
+        try {
+            commitPolicy.reset(handle.close());
+            if (journal != null) {
+                journal.committedAll();
             }
+            log.debug("Closed shared Lucene IndexWriter at {}", indexDir.toAbsolutePath());
+        } catch (IOException e) {
+            log.warn("Could not close Lucene index at {}", indexDir.toAbsolutePath(), e);
+            commitPolicy.reset(-1L);
         } finally {
-            writerLock.unlock();
+            handle = null;
         }
     }
 
@@ -210,7 +716,7 @@ public class LuceneIndexServiceImpl implements LuceneIndexService {
      * {@code "Lucene lock on {} was released via obtainLock()."} and {@code "Removed orphaned Lucene write.lock ({})"}
      * before retrying. Invoked only by withWriter() after an initial open attempt failed.
      */
-    private boolean clearStaleLock(FSDirectory dir) {
+    private boolean clearStaleLock(Directory dir) {
         boolean cleared = false;
 
         if (dir != null) {
@@ -272,24 +778,10 @@ public class LuceneIndexServiceImpl implements LuceneIndexService {
         }
     }
 
-    /**
-     * Opens a reader context for ad-hoc searches. Returns {@code null} when no index exists yet.
-     */
-    private DirectoryReader openReader() throws IOException {
-        if (!Files.isDirectory(indexDir)) {
-            return null;
-        }
-        FSDirectory dir = FSDirectory.open(indexDir);
-        if (!DirectoryReader.indexExists(dir)) {
-            dir.close();
-            return null;
-        }
-        return DirectoryReader.open(dir);
-    }
-
     @Override
     /**
-     * Returns the currently configured index path. Synchronized because timers/REST may reconfigure it.
+     * Returns the directory of the active index generation, i.e. the target of the pointer file below the configured
+     * root. Changes after every successful reindexAll(). Synchronized because timers/REST may reconfigure it.
      */
     public synchronized Path getIndexPath() {
         return Objects.requireNonNull(indexDir, "indexPath is not configured");
@@ -297,457 +789,1161 @@ public class LuceneIndexServiceImpl implements LuceneIndexService {
 
     @Override
     /**
-     * Configures a new index path and updates the location of the license fragments.
-     * Side effect: subsequent indexXxx() calls write to the new directory.
+     * Configures a new index root and updates the location of the license fragments.
+     * Side effect: the shared writer of the previous path is closed; subsequent indexXxx() calls write to the active
+     * generation below the new root.
      */
     public synchronized void setIndexPath(Path indexPath) {
         Path normalized = Objects.requireNonNull(indexPath, "indexPath must not be null");
-        this.indexDir = normalized;
-        this.storedLicenseJsonPath = this.indexDir.resolve("license-fragments.json");
+        IndexGenerations layout = new IndexGenerations(normalized);
+        Path active;
+        try {
+            active = layout.active();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read Lucene index pointer below " + normalized.toAbsolutePath(), e);
+        }
+        handleLock.writeLock().lock();
+        try {
+            closeHandle();
+            closeJournal();
+            this.generations = layout;
+            this.indexDir = active;
+            this.storedLicenseJsonPath = normalized.resolve("license-fragments.json");
+            this.warmQueriesPath = normalized.resolve(WARM_QUERIES_FILE);
+            this.journal = openJournal(normalized.resolve(JOURNAL_DIR));
+        } finally {
+            handleLock.writeLock().unlock();
+        }
+        try {
+            queryLog.load(warmQueriesPath);
+        } catch (IOException e) {
+            log.warn("Could not read warmup queries from {}", warmQueriesPath.toAbsolutePath(), e);
+        }
     }
 
     // =================== Search ===================
 
     @Override
     /**
-     * Parses a query (StandardAnalyzer) and delegates to {@link #search(Query)}. Errors are logged and answered with an empty
-     * list so REST endpoints do not return exceptions (see the log.error entry).
+     * Parses a query (StandardAnalyzer, typed fields via {@link SchemaQueryParser}) and returns the first page of
+     * {@link #searchPage(String, int, String, boolean)}; repeated texts are served from the search cache without parsing.
+     * Errors are logged and answered with an empty list so REST endpoints do not return exceptions.
      */
     public List<SearchHit> search(String queryText) {
-        try {
-            QueryParser parser = new QueryParser("content", analyzer);
-            parser.setAllowLeadingWildcard(true);
-            Query query = parser.parse(queryText);
-            return search(query);
-        } catch (Exception e) {
-            log.error("Failed to parse search query: {}", queryText, e);
-            return List.of();
-        }
+        return searchPage(queryText, properties.getSearch().getDefaultPageSize(), null, false).hits();
     }
 
     @Override
     /**
-     * Executes a Lucene search limited to 50 hits. Ensures readers are closed (see the "Could not close Lucene reader"
-     * logger message). Thread-safe because readers are opened per invocation.
+     * Returns the first page ({@code lifex.lucene.search.default-page-size} hits, 50 by default) of
+     * {@link #searchPage(Query, int, String, boolean)}. Errors are logged and answered with an empty list.
      */
     public List<SearchHit> search(Query query) {
-        List<SearchHit> results = new ArrayList<>();
-        DirectoryReader reader = null;
-        try {
-            reader = openReader();
-            if (reader == null) {
-                return results;
-            }
-            IndexSearcher searcher = new IndexSearcher(reader);
-            TopDocs topDocs = searcher.search(query, 50);
+        return searchPage(query, properties.getSearch().getDefaultPageSize(), null, false).hits();
+    }
 
-            for (ScoreDoc sd : topDocs.scoreDocs) {
-                Document doc = searcher.doc(sd.doc);
-                results.add(mapToHit(doc));
-            }
-        } catch (Exception e) {
-            log.error("Search execution failed", e);
-        } finally {
-            if (reader != null) {
-                try {
-                    reader.close();
-                } catch (IOException closeEx) {
-                    log.warn("Could not close Lucene reader", closeEx);
-                }
-            }
+    @Override
+    /**
+     * Parses the query like {@link #search(String)} and returns one page of
+     * {@link #searchPage(Query, int, String, boolean, Long)}.
+     * The trimmed query text is the cache key, so repeated searches skip parsing as well. Parse errors are logged and
+     * answered with an empty page.
+     * First pages are recorded in the query log that warms new searchers.
+     */
+    public SearchPage searchPage(String queryText, int pageSize, String cursor, boolean exactTotal, Long timeoutMs) {
+        if (cursor == null || cursor.isBlank()) {
+            queryLog.record(queryText);
         }
-        return results;
+        String request = queryText == null ? "" : queryText.trim();
+        return searchPage(request, () -> parse(queryText), pageSize, cursor, exactTotal, timeoutMs);
     }
 
-    // =================== Reindex ===================
-
     @Override
     /**
-     * Aggregates all domain records from the repositories and indexes them sequentially.
+     * Executes one page of a search, sorted by relevance and then document id ({@link SearchCursor#SORT}), continuing
+     * after the position encoded in {@code cursor}. The first page runs on the shared near-real-time searcher, which is
+     * pinned for {@code lifex.lucene.search.cursor-ttl-seconds}; following pages run on that pinned searcher while it
+     * lives, so concurrent writes and refreshes do not shift the walk. Expired cursors continue on the current searcher.
      *
-     * Scheduling & parallelism: typically invoked by Camel timers (UnifiedIndexingRoutes) or admin triggers. Progress is written
-     * to {@link IndexProgress} so REST/monitoring endpoints can consume it. Side effects: clears the existing index (see
-     * clearIndex()) and emits detailed log output.
+     * The page size ({@code 0} for {@code lifex.lucene.search.default-page-size}) is clamped to
+     * {@code 1..lifex.lucene.search.max-page-size}; one extra hit is collected to decide
+     * whether a next page exists. Unless {@code exactTotal} is set, hits are counted exactly only up to
+     * {@code lifex.lucene.search.total-hits-threshold}; beyond that the collector skips non-competitive documents and the
+     * total is a lower bound. Per-page cost therefore depends on the page size, not on how deep the page is. A malformed
+     * cursor throws {@link IllegalArgumentException}; search errors are logged and answered with an empty page.
+     * Thread-safe because the searcher is acquired and released per invocation.
+     *
+     * Caching: pages are kept in a {@link SearchCache} of {@code lifex.lucene.search.cache-size} entries keyed by the
+     * query itself (by {@link Query#equals(Object)}, since {@link Query#toString()} is not guaranteed to be unique),
+     * page size, cursor, exact-total flag and the version of the reader they were computed on; a refresh therefore
+     * never serves stale pages.
+     *
+     * Deadline: the search gets {@code timeoutMs} (capped at {@code lifex.lucene.search.max-timeout-ms}) or the
+     * configured {@code lifex.lucene.search.timeout-ms}, measured from the call. Term enumeration and hit collection
+     * stop once it is spent (see {@link SearchDeadline}); the page then holds the best hits found so far, is flagged
+     * partial, carries no cursor and is not cached. Overruns are logged and counted in {@link #searchStats()}.
+     *
+     * Warming: first pages are recorded in the {@link QueryLog} as the query object; newly activated generations
+     * replay the most frequent ones before they are published.
      */
-    public void reindexAll() {
-        List<Account> accounts = accountRepository != null ? safeList(accountRepository.findAll()) : List.of();
-        List<Address> addresses = addressRepository != null ? safeList(addressRepository.findAll()) : List.of();
-        List<AudioDevice> audioDevices = audioDeviceRepository != null ? safeList(audioDeviceRepository.findAll()) : List.of();
-        List<City> cities = cityRepository != null ? safeList(cityRepository.findAll()) : List.of();
-        List<Clients> clients = clientsRepository != null ? safeList(clientsRepository.findAll()) : List.of();
-        List<Country> countries = countryRepository != null ? safeList(countryRepository.findAll()) : List.of();
-        List<DeploymentVariant> deploymentVariants = deploymentVariantRepository != null ? safeList(deploymentVariantRepository.findAll()) : List.of();
-        List<InstalledSoftware> installedSoftware = installedSoftwareRepository != null ? safeList(installedSoftwareRepository.findAll()) : List.of();
-        List<PhoneIntegration> phoneIntegrations = phoneIntegrationRepository != null ? safeList(phoneIntegrationRepository.findAll()) : List.of();
-        List<Project> projects = projectRepository != null ? safeList(projectRepository.findAll()) : List.of();
-        List<Radio> radios = radioRepository != null ? safeList(radioRepository.findAll()) : List.of();
-        List<Server> servers = serverRepository != null ? safeList(serverRepository.findAll()) : List.of();
-        List<ServiceContract> serviceContracts = serviceContractRepository != null ? safeList(serviceContractRepository.findAll()) : List.of();
-        List<Site> sites = siteRepository != null ? safeList(siteRepository.findAll()) : List.of();
-        List<Software> softwareList = softwareRepository != null ? safeList(softwareRepository.findAll()) : List.of();
-        List<UpgradePlan> upgradePlans = upgradePlanRepository != null ? safeList(upgradePlanRepository.findAll()) : List.of();
-
-        Map<String, Integer> totals = new LinkedHashMap<>();
-        totals.put(progressKey(TYPE_ACCOUNT), accounts.size());
-        totals.put(progressKey(TYPE_ADDRESS), addresses.size());
-        totals.put(progressKey(TYPE_AUDIO_DEVICE), audioDevices.size());
-        totals.put(progressKey(TYPE_CITY), cities.size());
-        totals.put(progressKey(TYPE_CLIENT), clients.size());
-        totals.put(progressKey(TYPE_COUNTRY), countries.size());
-        totals.put(progressKey(TYPE_DEPLOYMENT_VARIANT), deploymentVariants.size());
-        totals.put(progressKey(TYPE_INSTALLED_SOFTWARE), installedSoftware.size());
-        totals.put(progressKey(TYPE_PHONE_INTEGRATION), phoneIntegrations.size());
-        totals.put(progressKey(TYPE_PROJECT), projects.size());
-        totals.put(progressKey(TYPE_RADIO), radios.size());
-        totals.put(progressKey(TYPE_SERVER), servers.size());
-        totals.put(progressKey(TYPE_SERVICE_CONTRACT), serviceContracts.size());
-        totals.put(progressKey(TYPE_SITE), sites.size());
-        totals.put(progressKey(TYPE_SOFTWARE), softwareList.size());
-        totals.put(progressKey(TYPE_UPGRADE_PLAN), upgradePlans.size());
-
-        try {
-            clearIndex();
-        } catch (IOException e) {
-            log.error("Failed to delete Lucene index before reindexing", e);
-            return;
+    public SearchPage searchPage(Query query, int pageSize, String cursor, boolean exactTotal, Long timeoutMs) {
+        if (cursor == null || cursor.isBlank()) {
+            queryLog.record(query);
         }
+        return searchPage(query, () -> query, pageSize, cursor, exactTotal, timeoutMs);
+    }
 
-        IndexProgress progress = IndexProgress.get();
-        boolean started = false;
+    /**
+     * Serves a page from the cache or computes it on the pinned or current searcher; see
+     * {@link #searchPage(Query, int, String, boolean, Long)}.
+     */
+    private SearchPage searchPage(Object request, QuerySource source, int pageSize, String cursor, boolean exactTotal,
+                                  Long timeoutMs) {
+        SearchDeadline deadline = SearchDeadline.start(budgetMs(timeoutMs));
+        SearchCursor position = SearchCursor.decode(cursor);
+        LuceneProperties.Search settings = properties.getSearch();
+        int requested = pageSize > 0 ? pageSize : settings.getDefaultPageSize();
+        int size = Math.max(1, Math.min(requested, Math.max(1, settings.getMaxPageSize())));
+        int threshold = exactTotal ? Integer.MAX_VALUE : Math.max(size + 1, settings.getTotalHitsThreshold());
+        FieldDoc after = position != null ? position.after() : null;
+        PageKey key = new PageKey(request, size, cursor == null ? "" : cursor.trim(), exactTotal);
         try {
-            progress.start(totals);
-            started = true;
-
-            int totalRecords = 0;
-            for (Integer value : totals.values()) {
-                totalRecords += (value == null ? 0 : value);
-            }
-            log.debug("Starting full Lucene reindex with {} records.", totalRecords);
-
-            for (Account account : accounts) {
-                indexAccount(
-                        toStringOrNull(account.getAccountID()),
-                        account.getAccountName(),
-                        account.getCountry(),
-                        account.getContactEmail()
-                );
-            }
-            for (Address address : addresses) {
-                indexAddress(
-                        toStringOrNull(address.getAddressID()),
-                        address.getStreet(),
-                        address.getCityID()
-                );
+            IndexHandle current = lockHandle();
+            try {
+                IndexSearcher pinned = position != null ? current.lifetimes.acquire(position.version()) : null;
+                if (pinned != null) {
+                    try {
+                        return cachedPage(pinned, position.version(), key, source, size, after, threshold, deadline,
+                                false);
+                    } finally {
+                        current.lifetimes.release(pinned);
+                    }
+                }
+                current.awaitLastWrite();
+                IndexSearcher searcher = current.searchers.acquire();
+                try {
+                    long version = ((DirectoryReader) searcher.getIndexReader()).getVersion();
+                    SearchPage page = cachedPage(searcher, version, key, source, size, after, threshold, deadline,
+                            true);
+                    if (page.cursor() != null) {
+                        // Only searchers that handed out a cursor are pinned.
+                        current.lifetimes.record(searcher);
+                        current.lifetimes.prune(new SearcherLifetimeManager.PruneByAge(
+                                Math.max(1, settings.getCursorTtlSeconds())));
+                    }
+                    return page;
+                } finally {
+                    current.searchers.release(searcher);
+                }
+            } finally {
+                handleLock.readLock().unlock();
             }
-            for (AudioDevice audioDevice : audioDevices) {
-                indexAudioDevice(
-                        toStringOrNull(audioDevice.getAudioDeviceID()),
-                        toStringOrNull(audioDevice.getClientID()),
-                        audioDevice.getAudioDeviceBrand(),
-                        audioDevice.getDeviceSerialNr(),
-                        audioDevice.getAudioDeviceFirmware(),
-                        audioDevice.getDeviceType(),
-                        audioDevice.getDirection()
-                );
+        } catch (ParseException e) {
+            log.error("Failed to parse search query: {}", request, e);
+            return SearchPage.empty();
+        } catch (Exception e) {
+            log.error("Search execution failed", e);
+            return SearchPage.empty();
+        }
+    }
+
+    /**
+     * Resolves the time budget of a search: the requested one capped at the configured maximum, else the default.
+     */
+    private long budgetMs(Long timeoutMs) {
+        LuceneProperties.Search settings = properties.getSearch();
+        if (timeoutMs == null) {
+            return Math.max(0, settings.getTimeoutMs());
+        }
+        return Math.min(Math.max(1, timeoutMs), Math.max(1, settings.getMaxTimeoutMs()));
+    }
+
+    /**
+     * Looks the page up in {@link #searchCache}; on a miss builds the query and collects the page, which is cached when
+     * it is complete and was computed on the current (not a pinned) searcher.
+     */
+    private SearchPage cachedPage(IndexSearcher searcher, long version, PageKey key, QuerySource source, int size,
+                                  FieldDoc after, int threshold, SearchDeadline deadline, boolean current)
+            throws IOException, ParseException {
+        SearchPage cached = searchCache.get(version, key);
+        if (cached != null) {
+            return cached;
+        }
+        Query query = source.query();
+        SearchPage page = collectPage(searcher, version, query, size, after, threshold, deadline);
+        if (page.partial()) {
+            log.warn("Search exceeded its time budget of {} ms after {} ms; returning {} partial hits for {}",
+                    deadline.budgetMs(), deadline.elapsedMs(), page.hits().size(), query);
+        } else if (current) {
+            searchCache.put(version, key, page);
+        }
+        return page;
+    }
+
+    @Override
+    /**
+     * Returns the size of the query sample and how many searchers and queries were warmed since startup.
+     */
+    public WarmerStats warmerStats() {
+        return new WarmerStats(queryLog.size(), queryLog.distinct(), warmedSearchers.get(), warmedQueries.get(),
+                lastWarmupMs);
+    }
+
+    @Override
+    /**
+     * Returns the hit, miss and eviction counters of the search page cache.
+     */
+    public SearchCacheStats searchCacheStats() {
+        return searchCache.stats();
+    }
+
+    @Override
+    /**
+     * Returns the size, activity and queue depth of the concurrent search pool.
+     */
+    public SearchExecutorStats searchExecutorStats() {
+        return searchExecutor.stats();
+    }
+
+    @Override
+    /**
+     * Returns the executed and partial search counters together with the configured default budget.
+     */
+    public SearchStats searchStats() {
+        return new SearchStats(executedSearches.get(), partialSearches.get(),
+                Math.max(0, properties.getSearch().getTimeoutMs()));
+    }
+
+    /**
+     * Collects {@code size + 1} hits after {@code after} to fill one page and decide whether a next page exists. The
+     * returned hits carry query-aware snippets from {@link HitHighlighter}. When the deadline interrupts the search, the
+     * hits collected so far form a partial page without cursor. With a search pool the slices are collected
+     * concurrently and merged by the shared collector manager.
+     */
+    private SearchPage collectPage(IndexSearcher searcher, long version, Query query, int size, FieldDoc after,
+                                   int threshold, SearchDeadline deadline) throws IOException {
+        CollectorManager<TopFieldCollector, TopFieldDocs> manager =
+                TopFieldCollector.createSharedManager(SearchCursor.SORT, size + 1, after, threshold);
+        executedSearches.incrementAndGet();
+        SearchDeadline.Outcome<TopFieldDocs> outcome = deadline.search(searcher, searchExecutor, query, manager);
+        boolean partial = outcome.exceeded();
+        if (partial) {
+            partialSearches.incrementAndGet();
+        }
+        TopDocs topDocs = outcome.result();
+        int count = Math.min(size, topDocs.scoreDocs.length);
+        HitHighlighter.Highlight[] highlights = new HitHighlighter(searcher, analyzer)
+                .highlight(query, topDocs.scoreDocs, count);
+        List<SearchHit> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            results.add(mapToHit(searcher.doc(topDocs.scoreDocs[i].doc), highlights[i]));
+        }
+        results = Collections.unmodifiableList(results);
+        if (partial) {
+            return new SearchPage(results, topDocs.totalHits.value, false, null, true);
+        }
+        String next = topDocs.scoreDocs.length > size
+                ? SearchCursor.encode(version, (FieldDoc) topDocs.scoreDocs[count - 1])
+                : null;
+        boolean totalExact = topDocs.totalHits.relation == TotalHits.Relation.EQUAL_TO;
+        return new SearchPage(results, topDocs.totalHits.value, totalExact, next);
+    }
+
+    @Override
+    /**
+     * Parses the query like {@link #search(String)} and counts facets over all matching documents. Parse and search
+     * errors are logged and answered with empty facets.
+     */
+    public SearchFacets facets(String queryText) {
+        try {
+            return facets(parse(queryText));
+        } catch (Exception e) {
+            log.error("Failed to parse facet query: {}", queryText, e);
+            return SearchFacets.empty();
+        }
+    }
+
+    @Override
+    /**
+     * Counts facets in one pass over all matching documents with a {@link FacetCollector} per slice on the shared
+     * searcher. Errors are logged and answered with empty facets.
+     */
+    public SearchFacets facets(Query query) {
+        try {
+            return withSearcher(searcher -> searcher.search(query, FacetCollector.manager()));
+        } catch (Exception e) {
+            log.error("Facet counting failed", e);
+            return SearchFacets.empty();
+        }
+    }
+
+    @Override
+    /**
+     * Parses the query text like {@link #search(String)}; parse errors become {@link IllegalArgumentException}s.
+     */
+    public Query parseQuery(String queryText) {
+        try {
+            return parse(queryText);
+        } catch (ParseException e) {
+            throw new IllegalArgumentException("Invalid search query: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    /**
+     * Visits all matches with an {@link ExportCollector} on the current searcher. The handle lock is only held while
+     * the searcher is acquired: a slow consumer must not block a reindex swap, and a retired generation stays readable
+     * until the export releases its reader (see retire()). Stored fields are read per hit in index order, so memory use
+     * does not depend on the number of matches.
+     */
+    public long export(Query query, HitConsumer consumer) throws IOException {
+        SearcherManager searchers;
+        IndexSearcher searcher;
+        IndexHandle current = lockHandle();
+        try {
+            current.awaitLastWrite();
+            searchers = current.searchers;
+            searcher = searchers.acquire();
+        } finally {
+            handleLock.readLock().unlock();
+        }
+        long start = System.nanoTime();
+        ExportCollector collector = new ExportCollector(consumer);
+        try {
+            searcher.search(query, collector);
+        } finally {
+            searchers.release(searcher);
+        }
+        log.info("Exported {} hits in {} ms for {}", collector.exported, (System.nanoTime() - start) / 1_000_000,
+                query);
+        return collector.exported;
+    }
+
+    /**
+     * Parses query text against the {@code content} field with typed-field support ({@link SchemaQueryParser}).
+     */
+    private Query parse(String queryText) throws ParseException {
+        QueryParser parser = new SchemaQueryParser("content", analyzer);
+        parser.setAllowLeadingWildcard(true);
+        return parser.parse(queryText);
+    }
+
+    @Override
+    /**
+     * Acquires the shared searcher after waiting for the generation of the last write, runs the callback and releases
+     * the searcher again (see {@link SearcherManager#release(Object)}).
+     */
+    public <T> T withSearcher(SearcherCallback<T> callback) throws IOException {
+        IndexHandle current = lockHandle();
+        try {
+            current.awaitLastWrite();
+            IndexSearcher searcher = current.searchers.acquire();
+            try {
+                return callback.apply(searcher);
+            } finally {
+                current.searchers.release(searcher);
+            }
+        } finally {
+            handleLock.readLock().unlock();
+        }
+    }
+
+    // =================== Reindex ===================
+
+    @Override
+    /**
+     * Rebuilds the whole index into a shadow generation and switches to it atomically, so searches keep being served
+     * from the complete active generation for the whole run.
+     *
+     * Scheduling & parallelism: typically invoked by Camel timers (UnifiedIndexingRoutes) or admin triggers; concurrent
+     * calls are skipped while a rebuild runs. The entity types are streamed one after another with keyset queries; their
+     * rows are converted and written in batches of {@code lifex.lucene.reindex.batch-size} by
+     * {@code lifex.lucene.reindex.threads} workers (see {@link ParallelReindexer}) into a separate IndexWriter with a RAM
+     * buffer of
+     * {@code lifex.lucene.reindex.ram-buffer-mb}. Live changes that arrive meanwhile are applied to the active index and
+     * replayed onto the shadow before the swap. The shadow is only activated when its per-type document counts match the
+     * rows the scan read exactly and the repository {@code count()} taken before the scan within
+     * {@code lifex.lucene.reindex.count-tolerance-percent} plus the live changes recorded meanwhile; otherwise it is
+     * discarded. Progress is written to {@link IndexProgress} per type, with the {@code count()} of each table as its
+     * total.
+     */
+    public void reindexAll() {
+        if (!reindexLock.tryLock()) {
+            log.warn("Lucene reindex already running; request skipped");
+            return;
+        }
+        try {
+            rebuild();
+        } finally {
+            reindexLock.unlock();
+        }
+    }
+
+    /**
+     * Runs one shadow rebuild; the caller holds {@link #reindexLock}.
+     */
+    private void rebuild() {
+        int chunk = properties.getReindex().getBatchSize();
+        Map<String, Supplier<Stream<?>>> sources = new LinkedHashMap<>();
+        sources.put(TYPE_ACCOUNT, () -> accountRepository != null ? accountRepository.streamAll(chunk) : Stream.empty());
+        sources.put(TYPE_ADDRESS, () -> addressRepository != null ? addressRepository.streamAll(chunk) : Stream.empty());
+        sources.put(TYPE_AUDIO_DEVICE, () -> audioDeviceRepository != null ? audioDeviceRepository.streamAll(chunk) : Stream.empty());
+        sources.put(TYPE_CITY, () -> cityRepository != null ? cityRepository.streamAll(chunk) : Stream.empty());
+        sources.put(TYPE_CLIENT, () -> clientsRepository != null ? clientsRepository.streamAll(chunk) : Stream.empty());
+        sources.put(TYPE_COUNTRY, () -> countryRepository != null ? countryRepository.streamAll(chunk) : Stream.empty());
+        sources.put(TYPE_DEPLOYMENT_VARIANT, () -> deploymentVariantRepository != null ? deploymentVariantRepository.streamAll(chunk) : Stream.empty());
+        sources.put(TYPE_INSTALLED_SOFTWARE, () -> installedSoftwareRepository != null ? installedSoftwareRepository.streamAll(chunk) : Stream.empty());
+        sources.put(TYPE_PHONE_INTEGRATION, () -> phoneIntegrationRepository != null ? phoneIntegrationRepository.streamAll(chunk) : Stream.empty());
+        sources.put(TYPE_PROJECT, () -> projectRepository != null ? projectRepository.streamAll(chunk) : Stream.empty());
+        sources.put(TYPE_RADIO, () -> radioRepository != null ? radioRepository.streamAll(chunk) : Stream.empty());
+        sources.put(TYPE_SERVER, () -> serverRepository != null ? serverRepository.streamAll(chunk) : Stream.empty());
+        sources.put(TYPE_SERVICE_CONTRACT, () -> serviceContractRepository != null ? serviceContractRepository.streamAll(chunk) : Stream.empty());
+        sources.put(TYPE_SITE, () -> siteRepository != null ? siteRepository.streamAll(chunk) : Stream.empty());
+        sources.put(TYPE_SOFTWARE, () -> softwareRepository != null ? softwareRepository.streamAll(chunk) : Stream.empty());
+        sources.put(TYPE_UPGRADE_PLAN, () -> upgradePlanRepository != null ? upgradePlanRepository.streamAll(chunk) : Stream.empty());
+        Map<String, LongSupplier> counts = new LinkedHashMap<>();
+        counts.put(TYPE_ACCOUNT, () -> accountRepository != null ? accountRepository.count() : 0L);
+        counts.put(TYPE_ADDRESS, () -> addressRepository != null ? addressRepository.count() : 0L);
+        counts.put(TYPE_AUDIO_DEVICE, () -> audioDeviceRepository != null ? audioDeviceRepository.count() : 0L);
+        counts.put(TYPE_CITY, () -> cityRepository != null ? cityRepository.count() : 0L);
+        counts.put(TYPE_CLIENT, () -> clientsRepository != null ? clientsRepository.count() : 0L);
+        counts.put(TYPE_COUNTRY, () -> countryRepository != null ? countryRepository.count() : 0L);
+        counts.put(TYPE_DEPLOYMENT_VARIANT, () -> deploymentVariantRepository != null ? deploymentVariantRepository.count() : 0L);
+        counts.put(TYPE_INSTALLED_SOFTWARE, () -> installedSoftwareRepository != null ? installedSoftwareRepository.count() : 0L);
+        counts.put(TYPE_PHONE_INTEGRATION, () -> phoneIntegrationRepository != null ? phoneIntegrationRepository.count() : 0L);
+        counts.put(TYPE_PROJECT, () -> projectRepository != null ? projectRepository.count() : 0L);
+        counts.put(TYPE_RADIO, () -> radioRepository != null ? radioRepository.count() : 0L);
+        counts.put(TYPE_SERVER, () -> serverRepository != null ? serverRepository.count() : 0L);
+        counts.put(TYPE_SERVICE_CONTRACT, () -> serviceContractRepository != null ? serviceContractRepository.count() : 0L);
+        counts.put(TYPE_SITE, () -> siteRepository != null ? siteRepository.count() : 0L);
+        counts.put(TYPE_SOFTWARE, () -> softwareRepository != null ? softwareRepository.count() : 0L);
+        counts.put(TYPE_UPGRADE_PLAN, () -> upgradePlanRepository != null ? upgradePlanRepository.count() : 0L);
+
+        // Registered before the repositories are read so no live change between fetch and swap is lost
+        ShadowBuild build;
+        try {
+            build = prepareShadowIndex();
+        } catch (IOException e) {
+            log.error("Failed to prepare shadow Lucene index before reindexing", e);
+            return;
+        }
+
+        LuceneProperties.Reindex settings = properties.getReindex();
+        IndexProgress progress = IndexProgress.get();
+        boolean started = false;
+        boolean activated = false;
+        try (ParallelReindexer reindexer = new ParallelReindexer(settings.effectiveThreads(), settings.getBatchSize())) {
+            // Counted independently of the scan, after the shadow started recording live changes
+            Map<String, Long> rows = new LinkedHashMap<>();
+            Map<String, Integer> totals = new LinkedHashMap<>();
+            counts.forEach((type, count) -> {
+                long rowCount = count.getAsLong();
+                rows.put(type.toLowerCase(Locale.ROOT), rowCount);
+                totals.put(progressKey(type), (int) Math.min(rowCount, Integer.MAX_VALUE));
+            });
+            progress.start(totals);
+            started = true;
+            log.debug("Starting full Lucene reindex of {} entity types.", totals.size());
+
+            // Rows inserted after the count raise the total once the scan reads past it; scan() reports on this thread
+            Map<String, Integer> readSoFar = new HashMap<>();
+            Map<String, Integer> read = reindexer.scan(sources, (type, count) -> {
+                String key = progressKey(type);
+                int before = readSoFar.getOrDefault(key, 0);
+                readSoFar.put(key, before + count);
+                int beyondTotal = before + count - Math.max(before, totals.getOrDefault(key, 0));
+                if (beyondTotal > 0) {
+                    progress.grow(key, beyondTotal);
+                }
+            }, batch -> writeShadow(build, batch));
+
+            Map<String, Integer> expected = new LinkedHashMap<>();
+            read.forEach((type, count) -> expected.put(type.toLowerCase(Locale.ROOT), count));
+            if (validateShadow(build, expected, rows)) {
+                activateShadow(build);
+                activated = true;
+                log.debug("Lucene reindex finished. {} documents processed.", progress.totalDone());
+            } else {
+                log.error("Lucene reindex rejected; keeping active index {}", indexDir.toAbsolutePath());
             }
-            for (City city : cities) {
-                indexCity(city.getCityID(), city.getCityName(), city.getCountryCode());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Lucene reindex interrupted");
+        } catch (Exception e) {
+            log.error("Reindexing failed", e);
+        } finally {
+            if (!activated) {
+                discardShadow(build);
             }
-            for (Clients client : clients) {
-                indexClient(
-                        toStringOrNull(client.getClientID()),
-                        toStringOrNull(client.getSiteID()),
-                        client.getClientName(),
-                        client.getClientBrand(),
-                        client.getClientOS(),
-                        client.getInstallType(),
-                        client.getWorkingPositionType(),
-                        client.getOtherInstalledSoftware()
-                );
+            if (started) {
+                progress.finish();
             }
-            for (Country country : countries) {
-                indexCountry(country.getCountryCode(), country.getCountryName());
+        }
+    }
+
+    /**
+     * Creates the next index generation with its own IndexWriter and registers it as the rebuild target, so live changes
+     * from now on are also recorded for it. Called only from reindexAll() and mirrors the log entry
+     * "Shadow Lucene index prepared (ready for reindex)".
+     */
+    ShadowBuild prepareShadowIndex() throws IOException {
+        handleLock.writeLock().lock();
+        try {
+            Path target = generations.next();
+            IndexGenerations.delete(target);
+
+            IndexWriterConfig config = new IndexWriterConfig(analyzer);
+            config.setOpenMode(IndexWriterConfig.OpenMode.CREATE);
+            config.setRAMBufferSizeMB(properties.getReindex().getRamBufferMb());
+            Directory dir = directories.open(target);
+            IndexWriter writer;
+            try {
+                writer = new IndexWriter(dir, config);
+            } catch (IOException | RuntimeException e) {
+                closeDirectory(dir);
+                throw e;
             }
-            for (DeploymentVariant variant : deploymentVariants) {
-                indexDeploymentVariant(
-                        toStringOrNull(variant.getVariantID()),
-                        variant.getVariantCode(),
-                        variant.getVariantName(),
-                        variant.getDescription(),
-                        variant.isActive()
-                );
+            ShadowBuild build = new ShadowBuild(target, dir, writer);
+            shadow = build;
+            log.debug("Shadow Lucene index prepared (ready for reindex) at {}", target.toAbsolutePath());
+            return build;
+        } finally {
+            handleLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Converts one batch of repository rows and writes it into the shadow generation; runs on reindex workers.
+     */
+    private void writeShadow(ShadowBuild build, List<?> batch) {
+        Map<String, Integer> perType = new LinkedHashMap<>();
+        try {
+            for (Document doc : toDocuments(batch)) {
+                String id = doc.get("id");
+                if (id == null) {
+                    continue;
+                }
+                IndexSchema.addKeyDocValues(doc);
+                DocumentFingerprint.stamp(doc);
+                build.writer.updateDocument(new Term("id", id), IndexSchema.alignContent(doc, true));
+                String type = doc.get("typeDisplay");
+                perType.merge(progressKey(type), 1, Integer::sum);
+                if (log.isDebugEnabled()) {
+                    log.debug("Indexed {}: {}", type, id);
+                }
             }
-            for (InstalledSoftware item : installedSoftware) {
-                indexInstalledSoftware(
-                        toStringOrNull(item.getInstalledSoftwareID()),
-                        toStringOrNull(item.getSiteID()),
-                        toStringOrNull(item.getSoftwareID()),
-                        item.getStatus(),
-                        item.getOfferedDate(),
-                        item.getInstalledDate(),
-                        item.getRejectedDate(),
-                        item.getOutdatedDate()
-                );
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write shadow Lucene index " + build.path.toAbsolutePath(), e);
+        }
+        IndexProgress progress = IndexProgress.get();
+        if (progress.isActive()) {
+            perType.forEach((key, count) -> {
+                int processed = progress.add(key, count);
+                logProgress(progress, processed - count, processed);
+            });
+        }
+    }
+
+    /**
+     * Compares the number of documents per type in the shadow generation with the rows the scan read, which catches
+     * rows lost in conversion, and with the table counts taken before the scan, which catches rows the scan missed.
+     * Rows written concurrently make the table count drift, so it only has to match within
+     * {@code lifex.lucene.reindex.count-tolerance-percent} plus the number of live changes recorded during the rebuild.
+     * @param expected rows read per type key.
+     * @param rows table row count per type key.
+     * @return true when every type matches.
+     */
+    private boolean validateShadow(ShadowBuild build, Map<String, Integer> expected, Map<String, Long> rows)
+            throws IOException {
+        double tolerancePercent = Math.max(0, properties.getReindex().getCountTolerancePercent());
+        int liveChanges = build.liveChanges.size();
+        try (DirectoryReader reader = DirectoryReader.open(build.writer)) {
+            IndexSearcher searcher = new IndexSearcher(reader);
+            boolean valid = true;
+            for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+                int found = searcher.count(new TermQuery(new Term("type", entry.getKey())));
+                if (found != entry.getValue()) {
+                    log.error("Shadow Lucene index validation failed for {}: expected {} documents, found {}",
+                            entry.getKey(), entry.getValue(), found);
+                    valid = false;
+                    continue;
+                }
+                long counted = rows.getOrDefault(entry.getKey(), (long) found);
+                long tolerance = (long) Math.floor(counted * tolerancePercent / 100) + liveChanges;
+                if (Math.abs(found - counted) > tolerance) {
+                    log.error("Shadow Lucene index validation failed for {}: table holds {} rows, found {} documents "
+                            + "(tolerance {})", entry.getKey(), counted, found, tolerance);
+                    valid = false;
+                } else if (found != counted) {
+                    log.info("Shadow Lucene index for {} differs from the table count by {} rows (tolerance {})",
+                            entry.getKey(), found - counted, tolerance);
+                }
+            }
+            return valid;
+        }
+    }
+
+    /**
+     * Replays the live changes recorded during the rebuild, commits the shadow generation, moves the pointer to it and
+     * serves all further reads and writes from it. The previous generation is retired.
+     */
+    private void activateShadow(ShadowBuild build) throws IOException {
+        handleLock.writeLock().lock();
+        try {
+            if (shadow != build || !build.path.getParent().equals(generations.root())) {
+                throw new IllegalStateException("Shadow Lucene index was replaced before activation");
             }
-            for (PhoneIntegration integration : phoneIntegrations) {
-                indexPhoneIntegration(
-                        toStringOrNull(integration.getPhoneIntegrationID()),
-                        toStringOrNull(integration.getSiteID()),
-                        integration.getPhoneType(),
-                        integration.getPhoneBrand(),
-                        integration.getInterfaceName(),
-                        integration.getCapacity(),
-                        integration.getPhoneFirmware()
-                );
+            int replayed = build.replayLiveChanges();
+            build.writer.commit();
+
+            IndexHandle next = attach(build.directory, build.writer, properties.getWarmer().getRefreshBudgetMs());
+            try {
+                generations.activate(build.path);
+            } catch (IOException | RuntimeException e) {
+                next.detach();
+                throw e;
             }
-            for (Project project : projects) {
-                indexProject(
-                        toStringOrNull(project.getProjectID()),
-                        project.getProjectSAPID(),
-                        project.getProjectName(),
-                        toStringOrNull(project.getDeploymentVariantID()),
-                        project.getBundleType(),
-                        project.getLifecycleStatus() != null ? project.getLifecycleStatus().name() : null,
-                        toStringOrNull(project.getAccountID()),
-                        toStringOrNull(project.getAddressID()),
-                        project.getSpecialNotes()
-                );
+            IndexHandle previous = handle;
+            Path previousDir = indexDir;
+            handle = next;
+            indexDir = build.path;
+            shadow = null;
+            retire(previous, previousDir);
+            notifyRefreshListeners();
+            commitPolicy.reset(SegmentInfos.getLastCommitGeneration(build.directory));
+            if (journal != null) {
+                // the shadow commit holds every live change recorded during the rebuild
+                journal.committedAll();
             }
-            for (Radio radio : radios) {
-                indexRadio(
-                        toStringOrNull(radio.getRadioID()),
-                        toStringOrNull(radio.getSiteID()),
-                        toStringOrNull(radio.getAssignedClientID()),
-                        radio.getRadioBrand(),
-                        radio.getRadioSerialNr(),
-                        radio.getMode(),
-                        radio.getDigitalStandard()
-                );
+            log.info("Activated Lucene index generation {} ({} live changes replayed)", build.path.getFileName(), replayed);
+        } finally {
+            handleLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Closes the handle of a replaced generation and deletes its directory once the last reader on it is closed.
+     * Callers hold the write lock, so no search is in flight and the directory is normally removed right away.
+     */
+    private void retire(IndexHandle previous, Path previousDir) {
+        if (previous == null) {
+            IndexGenerations.delete(previousDir);
+            return;
+        }
+        try {
+            previous.reopener.close();
+            previous.writer.close();
+            IndexSearcher last = previous.searchers.acquire();
+            try {
+                last.getIndexReader().getReaderCacheHelper().addClosedListener(key -> {
+                    closeDirectory(previous.directory);
+                    IndexGenerations.delete(previousDir);
+                });
+            } finally {
+                previous.searchers.release(last);
             }
-            for (Server server : servers) {
-                indexServer(
-                        toStringOrNull(server.getServerID()),
-                        toStringOrNull(server.getSiteID()),
-                        server.getServerName(),
-                        server.getServerBrand(),
-                        server.getServerSerialNr(),
-                        server.getServerOS(),
-                        server.getPatchLevel(),
-                        server.getVirtualPlatform(),
-                        server.getVirtualVersion()
-                );
+            // Searchers pinned by paging cursors hold the old readers open too
+            previous.lifetimes.close();
+            previous.searchers.close();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not retire Lucene index generation {}", previousDir.toAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Drops a shadow generation that was not activated.
+     */
+    private void discardShadow(ShadowBuild build) {
+        handleLock.writeLock().lock();
+        try {
+            if (shadow == build) {
+                shadow = null;
             }
-            for (ServiceContract contract : serviceContracts) {
-                indexServiceContract(
-                        toStringOrNull(contract.getContractID()),
-                        toStringOrNull(contract.getAccountID()),
-                        toStringOrNull(contract.getProjectID()),
-                        toStringOrNull(contract.getSiteID()),
-                        contract.getContractNumber(),
-                        contract.getStatus(),
-                        toStringOrNull(contract.getStartDate()),
-                        toStringOrNull(contract.getEndDate())
-                );
+        } finally {
+            handleLock.writeLock().unlock();
+        }
+        try {
+            build.writer.rollback();
+        } catch (IOException e) {
+            log.warn("Could not roll back shadow Lucene index {}", build.path.toAbsolutePath(), e);
+        } finally {
+            closeDirectory(build.directory);
+            IndexGenerations.delete(build.path);
+        }
+    }
+
+    // =================== Helper ===================
+
+    /**
+     * Executes the progress Key operation.
+     * @param type type.
+     * @return the computed result.
+     */
+    private String progressKey(String type) {
+        if (type == null || type.isBlank()) {
+            return "Unknown";
+        }
+        StringBuilder sb = new StringBuilder(type.length() + 4);
+        for (int i = 0; i < type.length(); i++) {
+            char c = type.charAt(i);
+            if (i == 0) {
+                sb.append(Character.toUpperCase(c));
+            } else if (Character.isUpperCase(c)) {
+                sb.append(' ').append(c);
+            } else {
+                sb.append(c);
             }
-            for (Site site : sites) {
-                indexSite(
-                        toStringOrNull(site.getSiteID()),
-                        site.getProjectID() != null ? List.of(site.getProjectID().toString()) : List.of(),
-                        toStringOrNull(site.getAddressID()),
-                        site.getSiteName(),
-                        site.getFireZone(),
-                        site.getTenantCount(),
-                        site.getRedundantServers(),
-                        site.isHighAvailability()
-                );
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Executes the to String Or Null operation.
+     * @param value value.
+     * @return the computed result.
+     */
+    private String toStringOrNull(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * Executes the safe List operation.
+     * @param items items.
+     * @return the computed result.
+     */
+    private <T> List<T> safeList(List<T> items) {
+        return items == null ? List.of() : items;
+    }
+
+    /**
+     * Builds the Lucene document shared by all entity types: id/type keys, the aggregated {@code content} field and the
+     * stored display text.
+     */
+    private Document buildDocument(String id, String type, String... fields) {
+        Document doc = new Document();
+        String typeValue = safe(type);
+        String typeKey = typeValue.toLowerCase(Locale.ROOT);
+        String safeId = safe(id);
+
+        doc.add(new StringField("id", safeId, Field.Store.YES));
+        doc.add(new StringField("type", typeKey, Field.Store.YES));
+        if (!typeValue.isEmpty()) {
+            doc.add(new StoredField("typeDisplay", typeValue));
+        }
+
+        StringBuilder content = new StringBuilder();
+        if (!typeKey.isEmpty()) {
+            content.append(typeKey).append(' ');
+        }
+        for (String f : fields) {
+            content.append(safe(f)).append(' ');
+        }
+        String aggregated = content.toString().trim();
+        doc.add(IndexSchema.content(aggregated));
+        doc.add(new StoredField("display", determineDisplay(type, id, fields)));
+        return doc;
+    }
+
+    /**
+     * Core indexing routine for live changes: writes or replaces a batch of documents in one writer session. While a
+     * reindex is running the batch is also recorded for replay onto the shadow generation.
+     *
+     * Documents are keyed by their {@code id} field; when the batch contains the same id more than once, the last
+     * document wins. Every document carries its content fingerprint (see {@link DocumentFingerprint}) and doc values of
+     * its id and type keys (see {@link IndexSchema#addKeyDocValues(Document)}). Side effects:
+     * registers the changes with {@link CommitPolicy} (committed by the next group commit), counts them as written and
+     * emits log messages. Failures are logged and the batch is dropped.
+     */
+    private void writeDocuments(List<Document> docs) {
+        try {
+            writeDocumentsOrThrow(docs);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to index {} Lucene documents", docs.size(), e);
+        }
+    }
+
+    /**
+     * Same as {@link #writeDocuments(List)}, but hands write failures to the caller so it can retry the batch.
+     * @param docs documents to write.
+     * @throws IOException when the writer cannot be opened or the batch cannot be written.
+     */
+    private void writeDocumentsOrThrow(List<Document> docs) throws IOException {
+        Map<String, Document> byId = new LinkedHashMap<>();
+        Map<String, Long> fingerprints = new HashMap<>();
+        for (Document doc : docs) {
+            String id = doc.get("id");
+            if (id == null) {
+                log.warn("Skipping Lucene document without id field");
+                continue;
             }
-            for (Software software : softwareList) {
-                indexSoftware(
-                        toStringOrNull(software.getSoftwareID()),
-                        software.getName(),
-                        software.getRelease(),
-                        software.getRevision(),
-                        software.getSupportPhase(),
-                        software.getLicenseModel(),
-                        software.isThirdParty(),
-                        software.getEndOfSalesDate(),
-                        software.getSupportStartDate(),
-                        software.getSupportEndDate()
-                );
+            IndexSchema.addKeyDocValues(doc);
+            fingerprints.put(id, DocumentFingerprint.stamp(doc));
+            byId.remove(id);
+            byId.put(id, doc);
+        }
+        if (byId.isEmpty()) {
+            return;
+        }
+        List<IndexJournal.Entry> entries = new ArrayList<>(byId.size());
+        byId.forEach((id, doc) -> entries.add(
+                new IndexJournal.Entry(doc.get("type"), id, IndexJournal.Op.UPSERT, fingerprints.get(id))));
+        withWriter((writer, contentOffsets) -> {
+            long batch = appendJournal(entries);
+            long seqNo = -1L;
+            boolean written = false;
+            try {
+                for (Map.Entry<String, Document> entry : byId.entrySet()) {
+                    Document doc = IndexSchema.alignContent(entry.getValue(), contentOffsets);
+                    seqNo = writer.updateDocument(new Term("id", entry.getKey()), doc);
+                }
+                written = true;
+            } finally {
+                journalWritten(batch, written ? seqNo : -1L);
             }
-            for (UpgradePlan plan : upgradePlans) {
-                indexUpgradePlan(
-                        toStringOrNull(plan.getUpgradePlanID()),
-                        toStringOrNull(plan.getSiteID()),
-                        toStringOrNull(plan.getSoftwareID()),
-                        toStringOrNull(plan.getPlannedWindowStart()),
-                        toStringOrNull(plan.getPlannedWindowEnd()),
-                        plan.getStatus(),
-                        toStringOrNull(plan.getCreatedAt()),
-                        plan.getCreatedBy()
-                );
+            ShadowBuild rebuilding = shadow;
+            if (rebuilding != null) {
+                byId.forEach(rebuilding::recordUpdate);
             }
+            return seqNo;
+        });
+        commitPolicy.onChange(byId.size());
+        writtenDocs.addAndGet(byId.size());
 
-            log.debug("Lucene reindex finished. {} documents processed.", progress.totalDone());
-        } catch (Exception e) {
-            log.error("Reindexing failed", e);
-        } finally {
-            if (started) {
-                progress.finish();
+        if (log.isDebugEnabled()) {
+            for (Document doc : byId.values()) {
+                log.debug("Indexed {}: {}", doc.get("typeDisplay"), doc.get("id"));
             }
         }
     }
 
-    // =================== Helper ===================
+    /**
+     * Deletes the Document from the underlying store.
+     * @param id identifier.
+     */
+    @Override
+    public void deleteDocument(String id) {
+        String safeId = safe(id);
+        if (safeId.isEmpty()) {
+            log.warn("Ignoring Lucene delete for empty id");
+            return;
+        }
+        deleteDocuments(List.of(safeId));
+    }
 
     /**
-     * Clears the entire Lucene index and commits the deletion immediately.
-     * Called only from reindexAll() and mirrors the log entry "Lucene index cleared (ready for reindex)".
+     * Deletes a batch of documents in one writer session; recorded for replay while a reindex runs.
+     * @param ids non-empty identifiers.
      */
-    void clearIndex() throws IOException {
-        withWriter(writer -> {
-            writer.deleteAll();
-            writer.commit();
+    private void deleteDocuments(Collection<String> ids) {
+        try {
+            deleteDocumentsOrThrow(ids);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to delete document {} from Lucene", ids.size() == 1 ? ids.iterator().next() : ids, e);
+        }
+    }
+
+    /**
+     * Same as {@link #deleteDocuments(Collection)}, but hands failures to the caller.
+     * @param ids identifiers; an empty collection is a no-op.
+     * @throws IOException when the writer cannot be opened or the deletes cannot be written.
+     */
+    private void deleteDocumentsOrThrow(Collection<String> ids) throws IOException {
+        if (ids.isEmpty()) {
+            return;
+        }
+        withWriter((writer, contentOffsets) -> {
+            long batch = appendJournal(ids.stream()
+                    .map(id -> new IndexJournal.Entry("", id, IndexJournal.Op.DELETE, 0L))
+                    .toList());
+            long seqNo = -1L;
+            boolean written = false;
+            ShadowBuild rebuilding = shadow;
+            try {
+                for (String id : ids) {
+                    seqNo = writer.deleteDocuments(new Term("id", id));
+                    if (rebuilding != null) {
+                        rebuilding.recordDelete(id);
+                    }
+                }
+                written = true;
+            } finally {
+                journalWritten(batch, written ? seqNo : -1L);
+            }
+            return seqNo;
         });
-        log.debug("Lucene index cleared (ready for reindex) at {}", indexDir.toAbsolutePath());
+        commitPolicy.onChange(ids.size());
+        if (log.isDebugEnabled()) {
+            for (String id : ids) {
+                log.debug("Deleted document from Lucene index: {}", id);
+            }
+        }
+    }
+
+    @Override
+    /**
+     * Applies change-log entries. Only the last entry per table and key counts; for inserts and updates the row is
+     * loaded again, so the index always receives the committed state even when entries arrive out of order. A row that
+     * no longer exists is removed from the index. Tables without a configured repository are skipped.
+     *
+     * Failures are not swallowed: a row that cannot be loaded fails the call before anything is written, and write or
+     * delete failures reach the caller (I/O errors as UncheckedIOException). Callers acknowledge the entries only
+     * after this method returned; re-applying them is safe because rows are reloaded and unchanged ones rewritten.
+     */
+    public void applyChanges(List<IndexChange> changes) {
+        if (changes == null || changes.isEmpty()) {
+            return;
+        }
+        Map<String, IndexChange> latest = new LinkedHashMap<>();
+        for (IndexChange change : changes) {
+            String key = change.table() + ':' + change.key();
+            latest.remove(key);
+            latest.put(key, change);
+        }
+
+        List<Object> upserts = new ArrayList<>();
+        List<String> deletes = new ArrayList<>();
+        for (IndexChange change : latest.values()) {
+            if (change.isDelete()) {
+                deletes.add(change.key());
+                continue;
+            }
+            Optional<?> row;
+            try {
+                row = loadRow(change.table(), change.key());
+            } catch (RuntimeException e) {
+                log.error("Failed to load {} {} for Lucene change", change.table(), change.key(), e);
+                throw e;
+            }
+            if (row == null) {
+                log.warn("Skipping Lucene change for unsupported table {}", change.table());
+            } else if (row.isPresent()) {
+                upserts.add(row.get());
+            } else {
+                deletes.add(change.key());
+            }
+        }
+        try {
+            if (!upserts.isEmpty()) {
+                writeDocumentsOrThrow(toDocuments(upserts));
+            }
+            deleteDocumentsOrThrow(deletes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to apply " + latest.size() + " Lucene changes", e);
+        }
+    }
+
+    /**
+     * Loads the current row for a change-log entry.
+     * @param table upper-case table name.
+     * @param key primary key as text.
+     * @return the row, empty when it no longer exists, or {@code null} when the table is not indexed here.
+     */
+    private Optional<?> loadRow(String table, String key) {
+        return switch (table) {
+            case "ACCOUNT" -> accountRepository != null ? accountRepository.findById(UUID.fromString(key)) : null;
+            case "ADDRESS" -> addressRepository != null ? addressRepository.findById(UUID.fromString(key)) : null;
+            case "AUDIODEVICE" -> audioDeviceRepository != null ? audioDeviceRepository.findById(UUID.fromString(key)) : null;
+            case "CITY" -> cityRepository != null ? cityRepository.findById(key) : null;
+            case "CLIENTS" -> clientsRepository != null ? clientsRepository.findById(UUID.fromString(key)) : null;
+            case "COUNTRY" -> countryRepository != null ? countryRepository.findById(key) : null;
+            case "DEPLOYMENTVARIANT" -> deploymentVariantRepository != null ? deploymentVariantRepository.findById(UUID.fromString(key)) : null;
+            case "INSTALLEDSOFTWARE" -> installedSoftwareRepository != null ? installedSoftwareRepository.findById(UUID.fromString(key)) : null;
+            case "PHONEINTEGRATION" -> phoneIntegrationRepository != null ? phoneIntegrationRepository.findById(UUID.fromString(key)) : null;
+            case "PROJECT" -> projectRepository != null ? projectRepository.findById(UUID.fromString(key)) : null;
+            case "RADIO" -> radioRepository != null ? radioRepository.findById(UUID.fromString(key)) : null;
+            case "SERVER" -> serverRepository != null ? serverRepository.findById(UUID.fromString(key)) : null;
+            case "SERVICECONTRACT" -> serviceContractRepository != null ? serviceContractRepository.findById(UUID.fromString(key)) : null;
+            case "SITE" -> siteRepository != null ? siteRepository.findById(UUID.fromString(key)) : null;
+            case "SOFTWARE" -> softwareRepository != null ? softwareRepository.findById(UUID.fromString(key)) : null;
+            case "UPGRADEPLAN" -> upgradePlanRepository != null ? upgradePlanRepository.findById(UUID.fromString(key)) : null;
+            default -> null;
+        };
+    }
+
+    /**
+     * Logs progress whenever a batch crosses a multiple of {@code PROGRESS_LOG_INTERVAL} or completes the run.
+     * @param progress progress.
+     * @param before completed records before the batch.
+     * @param processed completed records after the batch.
+     */
+    private void logProgress(IndexProgress progress, int before, int processed) {
+        int total = progress.grandTotal();
+        if (processed == 0 || PROGRESS_LOG_INTERVAL == 0) {
+            return;
+        }
+        if (processed / PROGRESS_LOG_INTERVAL > before / PROGRESS_LOG_INTERVAL || processed == total) {
+            int percent = total == 0 ? 100 : Math.min(100, (processed * 100) / total);
+            log.debug("Lucene reindex progress: {}/{} documents ({}%)", processed, total, percent);
+        }
     }
 
     /**
-     * Executes the progress Key operation.
-     * @param type type.
-     * @return the computed result.
+     * Component that provides Writer Callback behavior. Returns the sequence number of the last change.
      */
-    private String progressKey(String type) {
-        if (type == null || type.isBlank()) {
-            return "Unknown";
-        }
-        StringBuilder sb = new StringBuilder(type.length() + 4);
-        for (int i = 0; i < type.length(); i++) {
-            char c = type.charAt(i);
-            if (i == 0) {
-                sb.append(Character.toUpperCase(c));
-            } else if (Character.isUpperCase(c)) {
-                sb.append(' ').append(c);
-            } else {
-                sb.append(c);
-            }
-        }
-        return sb.toString();
+    @FunctionalInterface
+    private interface WriterCallback {
+        /**
+         * @param writer shared writer.
+         * @param contentOffsets whether the index stores offsets for the content field (see
+         *                       {@link IndexSchema#alignContent(Document, boolean)}).
+         * @return sequence number of the last change.
+         */
+        long execute(IndexWriter writer, boolean contentOffsets) throws IOException;
     }
 
     /**
-     * Executes the to String Or Null operation.
-     * @param value value.
-     * @return the computed result.
+     * Cache key of a search page: the trimmed query text or the {@link Query} itself, compared by value.
      */
-    private String toStringOrNull(Object value) {
-        return value == null ? null : value.toString();
+    private record PageKey(Object request, int size, String cursor, boolean exactTotal) {
     }
 
     /**
-     * Executes the safe List operation.
-     * @param items items.
-     * @return the computed result.
+     * Deferred query construction, so cache hits skip parsing.
      */
-    private <T> List<T> safeList(List<T> items) {
-        return items == null ? List.of() : items;
+    @FunctionalInterface
+    private interface QuerySource {
+        Query query() throws ParseException;
     }
 
     /**
-     * Core indexing routine: writes or updates a document and advances the progress tracker.
-     *
-     * Side effects: commits the writer immediately (see writer.commit()), emits log messages, and updates {@link IndexProgress}.
-     * Camel invokes the method serially (SEDA) and potentially in parallel via REST, but the internal lock in withWriter()
-     * guarantees deterministic updates.
+     * Hands every match of an export to the consumer as soon as it is collected; nothing is buffered.
      */
-    private void indexDocument(String id, String type, String... fields) {
-        try {
-            withWriter(writer -> {
-                Document doc = new Document();
-                String typeValue = safe(type);
-                String typeKey = typeValue.toLowerCase(Locale.ROOT);
-                String safeId = safe(id);
-
-                doc.add(new StringField("id", safeId, Field.Store.YES));
-                doc.add(new StringField("type", typeKey, Field.Store.YES));
-                if (!typeValue.isEmpty()) {
-                    doc.add(new StoredField("typeDisplay", typeValue));
-                }
+    private final class ExportCollector extends SimpleCollector {
+        private final HitConsumer consumer;
+        private LeafReader reader;
+        private long exported;
 
-                StringBuilder content = new StringBuilder();
-                if (!typeKey.isEmpty()) {
-                    content.append(typeKey).append(' ');
-                }
-                for (String f : fields) {
-                    content.append(safe(f)).append(' ');
-                }
-                String aggregated = content.toString().trim();
-                doc.add(new TextField("content", aggregated, Field.Store.YES));
-                doc.add(new StoredField("display", determineDisplay(type, id, fields)));
+        private ExportCollector(HitConsumer consumer) {
+            this.consumer = consumer;
+        }
 
-                writer.updateDocument(new Term("id", safeId), doc);
-                writer.commit();
-            });
+        @Override
+        protected void doSetNextReader(LeafReaderContext context) {
+            reader = context.reader();
+        }
 
-            IndexProgress progress = IndexProgress.get();
-            if (progress.isActive()) {
-                progress.inc(progressKey(type));
-                logProgress(progress);
-            }
-            if (log.isDebugEnabled()) {
-                log.debug("Indexed {}: {}", type, id);
-            }
-        } catch (Exception e) {
-            log.error("Failed to index {}", type, e);
+        @Override
+        public void collect(int doc) throws IOException {
+            consumer.accept(mapToHit(reader.document(doc), null));
+            exported++;
+        }
+
+        @Override
+        public ScoreMode scoreMode() {
+            return ScoreMode.COMPLETE_NO_SCORES;
         }
     }
 
     /**
-     * Deletes the Document from the underlying store.
-     * @param id identifier.
+     * Long-lived Lucene resources that belong to one index directory: the shared writer, the searcher manager on top of
+     * it and the thread that keeps the searcher fresh.
      */
-    @Override
-    public void deleteDocument(String id) {
-        String safeId = safe(id);
-        if (safeId.isEmpty()) {
-            log.warn("Ignoring Lucene delete for empty id");
-            return;
+    private static final class IndexHandle {
+        private final Directory directory;
+        private final IndexWriter writer;
+        private final SearcherManager searchers;
+        private final ControlledRealTimeReopenThread<IndexSearcher> reopener;
+        private final AtomicLong lastWriteGeneration = new AtomicLong(-1);
+        private final SearcherLifetimeManager lifetimes = new SearcherLifetimeManager();
+        private final boolean contentOffsets;
+
+        private IndexHandle(Directory directory, IndexWriter writer, SearcherManager searchers,
+                            ControlledRealTimeReopenThread<IndexSearcher> reopener, boolean contentOffsets) {
+            this.directory = directory;
+            this.writer = writer;
+            this.searchers = searchers;
+            this.reopener = reopener;
+            this.contentOffsets = contentOffsets;
         }
-        try {
-            withWriter(writer -> {
-                writer.deleteDocuments(new Term("id", safeId));
-                writer.commit();
-            });
-            if (log.isDebugEnabled()) {
-                log.debug("Deleted document from Lucene index: {}", safeId);
+
+        /**
+         * Remembers the sequence number of a completed change.
+         */
+        private void recordWrite(long generation) {
+            lastWriteGeneration.accumulateAndGet(generation, Math::max);
+        }
+
+        /**
+         * Blocks until the searcher reflects the last recorded change; returns immediately when it already does.
+         */
+        private void awaitLastWrite() throws IOException {
+            long generation = lastWriteGeneration.get();
+            if (generation < 0) {
+                return;
+            }
+            try {
+                reopener.waitForGeneration(generation);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for Lucene searcher refresh", e);
             }
-        } catch (Exception e) {
-            log.error("Failed to delete document {} from Lucene", safeId, e);
         }
-    }
 
-    /**
-     * Executes the log Progress operation.
-     * @param progress progress.
-     */
-    private void logProgress(IndexProgress progress) {
-        int processed = progress.totalDone();
-        int total = progress.grandTotal();
-        if (processed == 0 || PROGRESS_LOG_INTERVAL == 0) {
-            return;
+        /**
+         * Stops the reopen thread and the searcher manager but leaves writer and directory open.
+         */
+        private void detach() throws IOException {
+            lifetimes.close();
+            reopener.close();
+            searchers.close();
         }
-        if (processed % PROGRESS_LOG_INTERVAL == 0 || processed == total) {
-            int percent = total == 0 ? 100 : Math.min(100, (processed * 100) / total);
-            log.debug("Lucene reindex progress: {}/{} documents ({}%)", processed, total, percent);
+
+        /**
+         * Stops the reopen thread and closes searcher, writer (committing pending changes) and directory.
+         * @return generation of the final commit point.
+         */
+        private long close() throws IOException {
+            try {
+                lifetimes.close();
+                reopener.close();
+                searchers.close();
+                writer.close();
+                return SegmentInfos.getLastCommitGeneration(directory);
+            } finally {
+                directory.close();
+            }
         }
     }
 
     /**
-     * Component that provides Writer Callback behavior.
+     * Target of a running reindex: the next index generation, its dedicated writer and the live changes that arrived
+     * while it was being built (last change per id wins; an empty value marks a delete).
      */
-    @FunctionalInterface
-    private interface WriterCallback {
-        void execute(IndexWriter writer) throws IOException;
+    static final class ShadowBuild {
+        private final Path path;
+        private final Directory directory;
+        private final IndexWriter writer;
+        private final Map<String, Optional<Document>> liveChanges = new ConcurrentHashMap<>();
+
+        private ShadowBuild(Path path, Directory directory, IndexWriter writer) {
+            this.path = path;
+            this.directory = directory;
+            this.writer = writer;
+        }
+
+        private void recordUpdate(String id, Document doc) {
+            liveChanges.put(id, Optional.of(doc));
+        }
+
+        private void recordDelete(String id) {
+            liveChanges.put(id, Optional.empty());
+        }
+
+        /**
+         * Applies the recorded live changes on top of the rebuilt documents.
+         * @return number of replayed changes.
+         */
+        private int replayLiveChanges() throws IOException {
+            for (Map.Entry<String, Optional<Document>> change : liveChanges.entrySet()) {
+                Term id = new Term("id", change.getKey());
+                if (change.getValue().isPresent()) {
+                    writer.updateDocument(id, IndexSchema.alignContent(change.getValue().get(), true));
+                } else {
+                    writer.deleteDocuments(id);
+                }
+            }
+            return liveChanges.size();
+        }
     }
 
     /**
@@ -788,9 +1984,10 @@ public class LuceneIndexServiceImpl implements LuceneIndexService {
     /**
      * Maps the supplied input into a To Hit representation.
      * @param doc doc.
+     * @param highlight highlighted passage of the content field, or {@code null} without a match in it.
      * @return the computed result.
      */
-    private SearchHit mapToHit(Document doc) {
+    private SearchHit mapToHit(Document doc, HitHighlighter.Highlight highlight) {
         String id = doc.get("id");
         String typeKey = doc.get("type");
         String typeDisplay = doc.get("typeDisplay");
@@ -799,6 +1996,9 @@ public class LuceneIndexServiceImpl implements LuceneIndexService {
 
         String type = firstNonBlank(typeDisplay, typeKey);
         String text = firstNonBlank(display, content, id, type);
+        if (highlight != null) {
+            return new SearchHit(id, type, text, highlight.text(), highlight.spans());
+        }
         String snippet = buildSnippet(content, text, typeKey, typeDisplay);
 
         return new SearchHit(id, type, text, snippet);
@@ -918,6 +2118,350 @@ public class LuceneIndexServiceImpl implements LuceneIndexService {
         return value.replaceAll("\\s+", " ").trim();
     }
 
+    // =================== Bulk Indexing ===================
+
+    /**
+     * Converts every item to a Lucene document and writes the whole batch in one writer session.
+     * Items may be domain entities (see {@link #toDocument(Object)}) or prebuilt {@link Document}s carrying an
+     * {@code id} field; unsupported items are logged and skipped.
+     * @param items entities or documents to index.
+     */
+    @Override
+    public void indexAll(Collection<?> items) {
+        if (items == null || items.isEmpty()) {
+            return;
+        }
+        writeDocuments(toDocuments(items));
+    }
+
+    @Override
+    /**
+     * Indexes only documents whose fingerprint differs from the indexed one. The lookup runs on the shared searcher
+     * after waiting for the last write, so a change written by an earlier batch is always compared against. When the
+     * lookup fails every document is written. Write failures are not swallowed but reach the caller (the indexing hub
+     * retries and dead-letters the batch); I/O errors arrive as UncheckedIOException.
+     */
+    public void indexChanged(Collection<?> items) {
+        if (items == null || items.isEmpty()) {
+            return;
+        }
+        Map<String, Document> byId = new LinkedHashMap<>();
+        Map<String, Long> fingerprints = new LinkedHashMap<>();
+        for (Document doc : toDocuments(items)) {
+            String id = doc.get("id");
+            if (id == null) {
+                log.warn("Skipping Lucene document without id field");
+                continue;
+            }
+            byId.remove(id);
+            byId.put(id, doc);
+            IndexSchema.addKeyDocValues(doc);
+            fingerprints.put(id, DocumentFingerprint.stamp(doc));
+        }
+        if (byId.isEmpty()) {
+            return;
+        }
+
+        Map<String, Long> indexed;
+        try {
+            indexed = withSearcher(searcher -> DocumentFingerprint.lookup(searcher, byId.keySet()));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not read Lucene fingerprints; indexing {} documents unconditionally", byId.size(), e);
+            indexed = Map.of();
+        }
+
+        List<Document> changed = new ArrayList<>(byId.size());
+        for (Map.Entry<String, Document> entry : byId.entrySet()) {
+            if (!fingerprints.get(entry.getKey()).equals(indexed.get(entry.getKey()))) {
+                changed.add(entry.getValue());
+            }
+        }
+        int skipped = byId.size() - changed.size();
+        if (skipped > 0) {
+            skippedDocs.addAndGet(skipped);
+            log.debug("Skipped {} unchanged Lucene documents", skipped);
+        }
+        if (!changed.isEmpty()) {
+            try {
+                writeDocumentsOrThrow(changed);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to index " + changed.size() + " Lucene documents", e);
+            }
+        }
+    }
+
+    @Override
+    /**
+     * Returns the live written/skipped counters.
+     */
+    public IndexingStats indexingStats() {
+        return new IndexingStats(writtenDocs.get(), skippedDocs.get());
+    }
+
+    /**
+     * Converts entities and prebuilt documents; unsupported or broken items are logged and skipped.
+     * @param items entities or documents.
+     * @return converted documents in input order.
+     */
+    private List<Document> toDocuments(Collection<?> items) {
+        List<Document> docs = new ArrayList<>(items.size());
+        for (Object item : items) {
+            Document doc;
+            try {
+                doc = item instanceof Document prebuilt ? prebuilt : toDocument(item);
+            } catch (RuntimeException e) {
+                log.error("Failed to build Lucene document for {}", item.getClass().getSimpleName(), e);
+                continue;
+            }
+            if (doc == null) {
+                log.warn("Skipping unsupported Lucene bulk item: {}", item == null ? "null" : item.getClass().getName());
+                continue;
+            }
+            docs.add(doc);
+        }
+        return docs;
+    }
+
+    /**
+     * Maps a domain entity to its Lucene document.
+     *
+     * Sites take their project identifiers from the ProjectSite assignments when the repository is available and fall
+     * back to the primary project otherwise.
+     * @param entity domain entity.
+     * @return the document, or {@code null} when the type is not indexed.
+     */
+    private Document toDocument(Object entity) {
+        if (entity instanceof Account a) {
+            return accountDocument(toStringOrNull(a.getAccountID()), a.getAccountName(), a.getCountry(), a.getContactEmail());
+        }
+        if (entity instanceof Address a) {
+            return addressDocument(toStringOrNull(a.getAddressID()), a.getStreet(), a.getCityID());
+        }
+        if (entity instanceof AudioDevice d) {
+            return audioDeviceDocument(
+                    toStringOrNull(d.getAudioDeviceID()),
+                    toStringOrNull(d.getClientID()),
+                    d.getAudioDeviceBrand(),
+                    d.getDeviceSerialNr(),
+                    d.getAudioDeviceFirmware(),
+                    d.getDeviceType(),
+                    d.getDirection()
+            );
+        }
+        if (entity instanceof City c) {
+            return cityDocument(c.getCityID(), c.getCityName(), c.getCountryCode());
+        }
+        if (entity instanceof Clients c) {
+            return clientDocument(
+                    toStringOrNull(c.getClientID()),
+                    toStringOrNull(c.getSiteID()),
+                    c.getClientName(),
+                    c.getClientBrand(),
+                    c.getClientOS(),
+                    c.getInstallType(),
+                    c.getWorkingPositionType(),
+                    c.getOtherInstalledSoftware()
+            );
+        }
+        if (entity instanceof Country c) {
+            return countryDocument(c.getCountryCode(), c.getCountryName());
+        }
+        if (entity instanceof DeploymentVariant v) {
+            return deploymentVariantDocument(
+                    toStringOrNull(v.getVariantID()),
+                    v.getVariantCode(),
+                    v.getVariantName(),
+                    v.getDescription(),
+                    v.isActive()
+            );
+        }
+        if (entity instanceof InstalledSoftware is) {
+            return installedSoftwareDocument(
+                    toStringOrNull(is.getInstalledSoftwareID()),
+                    toStringOrNull(is.getSiteID()),
+                    toStringOrNull(is.getSoftwareID()),
+                    is.getStatus(),
+                    is.getOfferedDate(),
+                    is.getInstalledDate(),
+                    is.getRejectedDate(),
+                    is.getOutdatedDate()
+            );
+        }
+        if (entity instanceof PhoneIntegration p) {
+            return phoneIntegrationDocument(
+                    toStringOrNull(p.getPhoneIntegrationID()),
+                    toStringOrNull(p.getSiteID()),
+                    p.getPhoneType(),
+                    p.getPhoneBrand(),
+                    p.getInterfaceName(),
+                    p.getCapacity(),
+                    p.getPhoneFirmware()
+            );
+        }
+        if (entity instanceof Project p) {
+            return projectDocument(
+                    toStringOrNull(p.getProjectID()),
+                    p.getProjectSAPID(),
+                    p.getProjectName(),
+                    toStringOrNull(p.getDeploymentVariantID()),
+                    p.getBundleType(),
+                    p.getLifecycleStatus() != null ? p.getLifecycleStatus().name() : null,
+                    toStringOrNull(p.getAccountID()),
+                    toStringOrNull(p.getAddressID()),
+                    p.getSpecialNotes()
+            );
+        }
+        if (entity instanceof Radio r) {
+            return radioDocument(
+                    toStringOrNull(r.getRadioID()),
+                    toStringOrNull(r.getSiteID()),
+                    toStringOrNull(r.getAssignedClientID()),
+                    r.getRadioBrand(),
+                    r.getRadioSerialNr(),
+                    r.getMode(),
+                    r.getDigitalStandard()
+            );
+        }
+        if (entity instanceof Server s) {
+            return serverDocument(
+                    toStringOrNull(s.getServerID()),
+                    toStringOrNull(s.getSiteID()),
+                    s.getServerName(),
+                    s.getServerBrand(),
+                    s.getServerSerialNr(),
+                    s.getServerOS(),
+                    s.getPatchLevel(),
+                    s.getVirtualPlatform(),
+                    s.getVirtualVersion()
+            );
+        }
+        if (entity instanceof ServiceContract sc) {
+            return serviceContractDocument(
+                    toStringOrNull(sc.getContractID()),
+                    toStringOrNull(sc.getAccountID()),
+                    toStringOrNull(sc.getProjectID()),
+                    toStringOrNull(sc.getSiteID()),
+                    sc.getContractNumber(),
+                    sc.getStatus(),
+                    toStringOrNull(sc.getStartDate()),
+                    toStringOrNull(sc.getEndDate())
+            );
+        }
+        if (entity instanceof Site s) {
+            return siteDocument(
+                    toStringOrNull(s.getSiteID()),
+                    projectIdsForSite(s),
+                    toStringOrNull(s.getAddressID()),
+                    s.getSiteName(),
+                    s.getFireZone(),
+                    s.getTenantCount(),
+                    s.getRedundantServers(),
+                    s.isHighAvailability()
+            );
+        }
+        if (entity instanceof Software sw) {
+            return softwareDocument(
+                    toStringOrNull(sw.getSoftwareID()),
+                    sw.getName(),
+                    sw.getRelease(),
+                    sw.getRevision(),
+                    sw.getSupportPhase(),
+                    sw.getLicenseModel(),
+                    sw.isThirdParty(),
+                    sw.getEndOfSalesDate(),
+                    sw.getSupportStartDate(),
+                    sw.getSupportEndDate()
+            );
+        }
+        if (entity instanceof UpgradePlan up) {
+            return upgradePlanDocument(
+                    toStringOrNull(up.getUpgradePlanID()),
+                    toStringOrNull(up.getSiteID()),
+                    toStringOrNull(up.getSoftwareID()),
+                    toStringOrNull(up.getPlannedWindowStart()),
+                    toStringOrNull(up.getPlannedWindowEnd()),
+                    up.getStatus(),
+                    toStringOrNull(up.getCreatedAt()),
+                    up.getCreatedBy()
+            );
+        }
+        return null;
+    }
+
+    @Override
+    /**
+     * Mirrors the id argument of {@link #toDocument(Object)} for every indexed entity type.
+     */
+    public String documentId(Object item) {
+        if (item instanceof Document doc) {
+            return doc.get("id");
+        }
+        if (item instanceof Account a) {
+            return toStringOrNull(a.getAccountID());
+        }
+        if (item instanceof Address a) {
+            return toStringOrNull(a.getAddressID());
+        }
+        if (item instanceof AudioDevice d) {
+            return toStringOrNull(d.getAudioDeviceID());
+        }
+        if (item instanceof City c) {
+            return c.getCityID();
+        }
+        if (item instanceof Clients c) {
+            return toStringOrNull(c.getClientID());
+        }
+        if (item instanceof Country c) {
+            return c.getCountryCode();
+        }
+        if (item instanceof DeploymentVariant v) {
+            return toStringOrNull(v.getVariantID());
+        }
+        if (item instanceof InstalledSoftware is) {
+            return toStringOrNull(is.getInstalledSoftwareID());
+        }
+        if (item instanceof PhoneIntegration p) {
+            return toStringOrNull(p.getPhoneIntegrationID());
+        }
+        if (item instanceof Project p) {
+            return toStringOrNull(p.getProjectID());
+        }
+        if (item instanceof Radio r) {
+            return toStringOrNull(r.getRadioID());
+        }
+        if (item instanceof Server s) {
+            return toStringOrNull(s.getServerID());
+        }
+        if (item instanceof ServiceContract sc) {
+            return toStringOrNull(sc.getContractID());
+        }
+        if (item instanceof Site s) {
+            return toStringOrNull(s.getSiteID());
+        }
+        if (item instanceof Software sw) {
+            return toStringOrNull(sw.getSoftwareID());
+        }
+        if (item instanceof UpgradePlan up) {
+            return toStringOrNull(up.getUpgradePlanID());
+        }
+        return null;
+    }
+
+    /**
+     * Resolves the project identifiers of a site for indexing.
+     * @param site site.
+     * @return project identifiers as strings.
+     */
+    private List<String> projectIdsForSite(Site site) {
+        if (projectSiteAssignmentRepository != null && site.getSiteID() != null) {
+            return safeList(projectSiteAssignmentRepository.findProjectIdsBySite(site.getSiteID())).stream()
+                    .filter(Objects::nonNull)
+                    .map(UUID::toString)
+                    .toList();
+        }
+        return site.getProjectID() != null ? List.of(site.getProjectID().toString()) : List.of();
+    }
+
     // =================== Indexing Methods ===================
 
     /**
@@ -929,7 +2473,14 @@ public class LuceneIndexServiceImpl implements LuceneIndexService {
      */
     @Override
     public void indexAccount(String accountId, String accountName, String country, String contactEmail) {
-        indexDocument(accountId, TYPE_ACCOUNT, accountName, country, contactEmail);
+        writeDocuments(List.of(accountDocument(accountId, accountName, country, contactEmail)));
+    }
+
+    /**
+     * Builds the Account document; shared by indexAccount() and the bulk path.
+     */
+    private Document accountDocument(String accountId, String accountName, String country, String contactEmail) {
+        return buildDocument(accountId, TYPE_ACCOUNT, accountName, country, contactEmail);
     }
 
     /**
@@ -940,7 +2491,14 @@ public class LuceneIndexServiceImpl implements LuceneIndexService {
      */
     @Override
     public void indexAddress(String addressId, String street, String cityId) {
-        indexDocument(addressId, TYPE_ADDRESS, street, cityId);
+        writeDocuments(List.of(addressDocument(addressId, street, cityId)));
+    }
+
+    /**
+     * Builds the Address document; shared by indexAddress() and the bulk path.
+     */
+    private Document addressDocument(String addressId, String street, String cityId) {
+        return buildDocument(addressId, TYPE_ADDRESS, street, cityId);
     }
 
     /**
@@ -951,7 +2509,14 @@ public class LuceneIndexServiceImpl implements LuceneIndexService {
      */
     @Override
     public void indexCity(String cityId, String cityName, String countryCode) {
-        indexDocument(cityId, TYPE_CITY, cityName, countryCode);
+        writeDocuments(List.of(cityDocument(cityId, cityName, countryCode)));
+    }
+
+    /**
+     * Builds the City document; shared by indexCity() and the bulk path.
+     */
+    private Document cityDocument(String cityId, String cityName, String countryCode) {
+        return buildDocument(cityId, TYPE_CITY, cityName, countryCode);
     }
 
     /**
@@ -968,7 +2533,18 @@ public class LuceneIndexServiceImpl implements LuceneIndexService {
     @Override
     public void indexClient(String clientId, String siteId, String clientName, String clientBrand, String clientOS,
                            String installType, String workingPositionType, String otherInstalledSoftware) {
-        indexDocument(clientId, TYPE_CLIENT, clientName, clientBrand, clientOS, installType, workingPositionType, otherInstalledSoftware, siteId);
+        writeDocuments(List.of(clientDocument(clientId, siteId, clientName, clientBrand, clientOS, installType, workingPositionType, otherInstalledSoftware)));
+    }
+
+    /**
+     * Builds the Client document; shared by indexClient() and the bulk path.
+     */
+    private Document clientDocument(String clientId, String siteId, String clientName, String clientBrand, String clientOS,
+                           String installType, String workingPositionType, String otherInstalledSoftware) {
+        Document doc = buildDocument(clientId, TYPE_CLIENT, clientName, clientBrand, clientOS, installType, workingPositionType, otherInstalledSoftware, siteId);
+        IndexSchema.addKeyword(doc, IndexSchema.BRAND, clientBrand);
+        IndexSchema.addKeyword(doc, IndexSchema.OS, clientOS);
+        return doc;
     }
 
     /**
@@ -978,7 +2554,14 @@ public class LuceneIndexServiceImpl implements LuceneIndexService {
      */
     @Override
     public void indexCountry(String countryCode, String countryName) {
-        indexDocument(countryCode, TYPE_COUNTRY, countryName);
+        writeDocuments(List.of(countryDocument(countryCode, countryName)));
+    }
+
+    /**
+     * Builds the Country document; shared by indexCountry() and the bulk path.
+     */
+    private Document countryDocument(String countryCode, String countryName) {
+        return buildDocument(countryCode, TYPE_COUNTRY, countryName);
     }
 
     /**
@@ -993,7 +2576,16 @@ public class LuceneIndexServiceImpl implements LuceneIndexService {
      */
     @Override
     public void indexAudioDevice(String audioDeviceId, String clientId, String brand, String serialNr, String firmware, String deviceType, String direction) {
-        indexDocument(audioDeviceId, TYPE_AUDIO_DEVICE, brand, serialNr, firmware, deviceType, direction, clientId);
+        writeDocuments(List.of(audioDeviceDocument(audioDeviceId, clientId, brand, serialNr, firmware, deviceType, direction)));
+    }
+
+    /**
+     * Builds the AudioDevice document; shared by indexAudioDevice() and the bulk path.
+     */
+    private Document audioDeviceDocument(String audioDeviceId, String clientId, String brand, String serialNr, String firmware, String deviceType, String direction) {
+        Document doc = buildDocument(audioDeviceId, TYPE_AUDIO_DEVICE, brand, serialNr, firmware, deviceType, direction, clientId);
+        IndexSchema.addKeyword(doc, IndexSchema.BRAND, brand);
+        return doc;
     }
 
     /**
@@ -1006,7 +2598,14 @@ public class LuceneIndexServiceImpl implements LuceneIndexService {
      */
     @Override
     public void indexDeploymentVariant(String variantId, String variantCode, String variantName, String description, boolean active) {
-        indexDocument(variantId, TYPE_DEPLOYMENT_VARIANT, variantName, variantCode, description, String.valueOf(active));
+        writeDocuments(List.of(deploymentVariantDocument(variantId, variantCode, variantName, description, active)));
+    }
+
+    /**
+     * Builds the DeploymentVariant document; shared by indexDeploymentVariant() and the bulk path.
+     */
+    private Document deploymentVariantDocument(String variantId, String variantCode, String variantName, String description, boolean active) {
+        return buildDocument(variantId, TYPE_DEPLOYMENT_VARIANT, variantName, variantCode, description, String.valueOf(active));
     }
 
     /**
@@ -1023,6 +2622,14 @@ public class LuceneIndexServiceImpl implements LuceneIndexService {
     @Override
     public void indexInstalledSoftware(String installedSoftwareId, String siteId, String softwareId, String status,
                                        String offeredDate, String installedDate, String rejectedDate, String outdatedDate) {
+        writeDocuments(List.of(installedSoftwareDocument(installedSoftwareId, siteId, softwareId, status, offeredDate, installedDate, rejectedDate, outdatedDate)));
+    }
+
+    /**
+     * Builds the InstalledSoftware document; shared by indexInstalledSoftware() and the bulk path.
+     */
+    private Document installedSoftwareDocument(String installedSoftwareId, String siteId, String softwareId, String status,
+                                       String offeredDate, String installedDate, String rejectedDate, String outdatedDate) {
         InstalledSoftwareStatus resolved;
         try {
             resolved = InstalledSoftwareStatus.from(status);
@@ -1041,11 +2648,14 @@ public class LuceneIndexServiceImpl implements LuceneIndexService {
         String installedToken = tokenWithPrefix("installed", installedSafe);
         String rejectedToken = tokenWithPrefix("rejected", rejectedSafe);
         String outdatedToken = tokenWithPrefix("outdated", outdatedSafe);
-        indexDocument(installedSoftwareId, TYPE_INSTALLED_SOFTWARE,
+        Document doc = buildDocument(installedSoftwareId, TYPE_INSTALLED_SOFTWARE,
                 statusValue, statusLabel, statusToken,
                 offeredSafe, installedSafe, rejectedSafe, outdatedSafe,
                 offeredToken, installedToken, rejectedToken, outdatedToken,
                 siteId, softwareId);
+        IndexSchema.addKeyword(doc, IndexSchema.STATUS, statusValue);
+        IndexSchema.addDate(doc, IndexSchema.INSTALLED_DATE, installedSafe);
+        return doc;
     }
 
     /**
@@ -1060,8 +2670,18 @@ public class LuceneIndexServiceImpl implements LuceneIndexService {
      */
     @Override
     public void indexPhoneIntegration(String phoneIntegrationId, String siteId, String phoneType, String phoneBrand, String interfaceName, Integer capacity, String phoneFirmware) {
+        writeDocuments(List.of(phoneIntegrationDocument(phoneIntegrationId, siteId, phoneType, phoneBrand, interfaceName, capacity, phoneFirmware)));
+    }
+
+    /**
+     * Builds the PhoneIntegration document; shared by indexPhoneIntegration() and the bulk path.
+     */
+    private Document phoneIntegrationDocument(String phoneIntegrationId, String siteId, String phoneType, String phoneBrand, String interfaceName, Integer capacity, String phoneFirmware) {
         String capacityValue = capacity != null ? capacity.toString() : null;
-        indexDocument(phoneIntegrationId, TYPE_PHONE_INTEGRATION, phoneType, phoneBrand, interfaceName, capacityValue, phoneFirmware, siteId);
+        Document doc = buildDocument(phoneIntegrationId, TYPE_PHONE_INTEGRATION, phoneType, phoneBrand, interfaceName, capacityValue, phoneFirmware, siteId);
+        IndexSchema.addKeyword(doc, IndexSchema.BRAND, phoneBrand);
+        IndexSchema.addInt(doc, IndexSchema.CAPACITY, capacity);
+        return doc;
     }
 
     /**
@@ -1079,14 +2699,24 @@ public class LuceneIndexServiceImpl implements LuceneIndexService {
     @Override
     public void indexProject(String projectId, String projectSAPId, String projectName, String deploymentVariantId, String bundleType, String lifecycleStatus,
                              String accountId, String addressId, String specialNotes) {
+        writeDocuments(List.of(projectDocument(projectId, projectSAPId, projectName, deploymentVariantId, bundleType, lifecycleStatus, accountId, addressId, specialNotes)));
+    }
+
+    /**
+     * Builds the Project document; shared by indexProject() and the bulk path.
+     */
+    private Document projectDocument(String projectId, String projectSAPId, String projectName, String deploymentVariantId, String bundleType, String lifecycleStatus,
+                             String accountId, String addressId, String specialNotes) {
         String status = lifecycleStatus == null ? "" : lifecycleStatus.trim();
         String statusLabel = status.replace('_', ' ').toLowerCase(Locale.ROOT);
         if (!statusLabel.isEmpty()) {
             statusLabel = statusLabel.substring(0, 1).toUpperCase(Locale.ROOT) + statusLabel.substring(1);
         }
         String statusToken = tokenWithPrefix("status", status);
-        indexDocument(projectId, TYPE_PROJECT, projectName, bundleType,
+        Document doc = buildDocument(projectId, TYPE_PROJECT, projectName, bundleType,
                 status, statusLabel, statusToken, projectSAPId, deploymentVariantId, accountId, addressId, specialNotes);
+        IndexSchema.addKeyword(doc, IndexSchema.STATUS, status);
+        return doc;
     }
 
     /**
@@ -1101,7 +2731,17 @@ public class LuceneIndexServiceImpl implements LuceneIndexService {
      */
     @Override
     public void indexRadio(String radioId, String siteId, String assignedClientId, String radioBrand, String radioSerialNr, String mode, String digitalStandard) {
-        indexDocument(radioId, TYPE_RADIO, radioBrand, radioSerialNr, mode, digitalStandard, siteId, assignedClientId);
+        writeDocuments(List.of(radioDocument(radioId, siteId, assignedClientId, radioBrand, radioSerialNr, mode, digitalStandard)));
+    }
+
+    /**
+     * Builds the Radio document; shared by indexRadio() and the bulk path.
+     */
+    private Document radioDocument(String radioId, String siteId, String assignedClientId, String radioBrand, String radioSerialNr, String mode, String digitalStandard) {
+        Document doc = buildDocument(radioId, TYPE_RADIO, radioBrand, radioSerialNr, mode, digitalStandard, siteId, assignedClientId);
+        IndexSchema.addKeyword(doc, IndexSchema.BRAND, radioBrand);
+        IndexSchema.addKeyword(doc, IndexSchema.MODE, mode);
+        return doc;
     }
 
     /**
@@ -1119,7 +2759,18 @@ public class LuceneIndexServiceImpl implements LuceneIndexService {
     @Override
     public void indexServer(String serverId, String siteId, String serverName, String serverBrand, String serverSerialNr, String serverOS,
                             String patchLevel, String virtualPlatform, String virtualVersion) {
-        indexDocument(serverId, TYPE_SERVER, serverName, serverBrand, serverSerialNr, serverOS, patchLevel, virtualPlatform, virtualVersion, siteId);
+        writeDocuments(List.of(serverDocument(serverId, siteId, serverName, serverBrand, serverSerialNr, serverOS, patchLevel, virtualPlatform, virtualVersion)));
+    }
+
+    /**
+     * Builds the Server document; shared by indexServer() and the bulk path.
+     */
+    private Document serverDocument(String serverId, String siteId, String serverName, String serverBrand, String serverSerialNr, String serverOS,
+                            String patchLevel, String virtualPlatform, String virtualVersion) {
+        Document doc = buildDocument(serverId, TYPE_SERVER, serverName, serverBrand, serverSerialNr, serverOS, patchLevel, virtualPlatform, virtualVersion, siteId);
+        IndexSchema.addKeyword(doc, IndexSchema.BRAND, serverBrand);
+        IndexSchema.addKeyword(doc, IndexSchema.OS, serverOS);
+        return doc;
     }
 
     /**
@@ -1136,8 +2787,18 @@ public class LuceneIndexServiceImpl implements LuceneIndexService {
     @Override
     public void indexServiceContract(String contractId, String accountId, String projectId, String siteId, String contractNumber, String status,
                                      String startDate, String endDate) {
+        writeDocuments(List.of(serviceContractDocument(contractId, accountId, projectId, siteId, contractNumber, status, startDate, endDate)));
+    }
+
+    /**
+     * Builds the ServiceContract document; shared by indexServiceContract() and the bulk path.
+     */
+    private Document serviceContractDocument(String contractId, String accountId, String projectId, String siteId, String contractNumber, String status,
+                                     String startDate, String endDate) {
         String statusToken = tokenWithPrefix("status", status);
-        indexDocument(contractId, TYPE_SERVICE_CONTRACT, contractNumber, status, statusToken, startDate, endDate, accountId, projectId, siteId);
+        Document doc = buildDocument(contractId, TYPE_SERVICE_CONTRACT, contractNumber, status, statusToken, startDate, endDate, accountId, projectId, siteId);
+        IndexSchema.addKeyword(doc, IndexSchema.STATUS, status);
+        return doc;
     }
 
     /**
@@ -1154,6 +2815,14 @@ public class LuceneIndexServiceImpl implements LuceneIndexService {
     @Override
     public void indexSite(String siteId, Collection<String> projectIds, String addressId, String siteName, String fireZone,
                           Integer tenantCount, Integer redundantServers, boolean highAvailability) {
+        writeDocuments(List.of(siteDocument(siteId, projectIds, addressId, siteName, fireZone, tenantCount, redundantServers, highAvailability)));
+    }
+
+    /**
+     * Builds the Site document; shared by indexSite() and the bulk path.
+     */
+    private Document siteDocument(String siteId, Collection<String> projectIds, String addressId, String siteName, String fireZone,
+                          Integer tenantCount, Integer redundantServers, boolean highAvailability) {
         String tenants = tenantCount != null ? tenantCount.toString() : "";
         String redundant = redundantServers != null ? redundantServers.toString() : "";
         String zoneToken = tokenWithPrefix("zone", fireZone);
@@ -1161,9 +2830,12 @@ public class LuceneIndexServiceImpl implements LuceneIndexService {
         String haValue = String.valueOf(highAvailability);
         String haToken = tokenWithPrefix("ha", haValue);
         List<String> projectTokens = projectIds == null ? List.of() : projectIds.stream().filter(Objects::nonNull).toList();
-        List<String> fields = new ArrayList<>(List.of(siteName, fireZone, zoneToken, tenants, redundant, redundantToken, haValue, haToken, addressId));
+        List<String> fields = new ArrayList<>(Arrays.asList(siteName, fireZone, zoneToken, tenants, redundant, redundantToken, haValue, haToken, addressId));
         fields.addAll(projectTokens);
-        indexDocument(siteId, TYPE_SITE, fields.toArray(String[]::new));
+        Document doc = buildDocument(siteId, TYPE_SITE, fields.toArray(String[]::new));
+        IndexSchema.addInt(doc, IndexSchema.TENANT_COUNT, tenantCount);
+        IndexSchema.addInt(doc, IndexSchema.REDUNDANT_SERVERS, redundantServers);
+        return doc;
     }
 
     /**
@@ -1182,9 +2854,20 @@ public class LuceneIndexServiceImpl implements LuceneIndexService {
     @Override
     public void indexSoftware(String softwareId, String name, String release, String revision, String supportPhase,
                               String licenseModel, boolean thirdParty, String endOfSalesDate, String supportStartDate, String supportEndDate) {
+        writeDocuments(List.of(softwareDocument(softwareId, name, release, revision, supportPhase, licenseModel, thirdParty, endOfSalesDate, supportStartDate, supportEndDate)));
+    }
+
+    /**
+     * Builds the Software document; shared by indexSoftware() and the bulk path.
+     */
+    private Document softwareDocument(String softwareId, String name, String release, String revision, String supportPhase,
+                              String licenseModel, boolean thirdParty, String endOfSalesDate, String supportStartDate, String supportEndDate) {
         String vendorLabel = thirdParty ? "Third-party" : "LifeX";
         String vendorToken = tokenWithPrefix("thirdparty", thirdParty ? "true" : "false");
-        indexDocument(softwareId, TYPE_SOFTWARE, name, release, revision, supportPhase, licenseModel, vendorLabel, vendorToken, endOfSalesDate, supportStartDate, supportEndDate);
+        Document doc = buildDocument(softwareId, TYPE_SOFTWARE, name, release, revision, supportPhase, licenseModel, vendorLabel, vendorToken, endOfSalesDate, supportStartDate, supportEndDate);
+        IndexSchema.addDate(doc, IndexSchema.SUPPORT_END_DATE, supportEndDate);
+        IndexSchema.addKeyword(doc, IndexSchema.SUPPORT_PHASE, supportPhase);
+        return doc;
     }
 
     /**
@@ -1201,7 +2884,18 @@ public class LuceneIndexServiceImpl implements LuceneIndexService {
     @Override
     public void indexUpgradePlan(String upgradePlanId, String siteId, String softwareId, String plannedWindowStart, String plannedWindowEnd,
                                  String status, String createdAt, String createdBy) {
-        indexDocument(upgradePlanId, TYPE_UPGRADE_PLAN, status, plannedWindowStart, plannedWindowEnd, createdAt, createdBy, siteId, softwareId);
+        writeDocuments(List.of(upgradePlanDocument(upgradePlanId, siteId, softwareId, plannedWindowStart, plannedWindowEnd, status, createdAt, createdBy)));
+    }
+
+    /**
+     * Builds the UpgradePlan document; shared by indexUpgradePlan() and the bulk path.
+     */
+    private Document upgradePlanDocument(String upgradePlanId, String siteId, String softwareId, String plannedWindowStart, String plannedWindowEnd,
+                                 String status, String createdAt, String createdBy) {
+        Document doc = buildDocument(upgradePlanId, TYPE_UPGRADE_PLAN, status, plannedWindowStart, plannedWindowEnd, createdAt, createdBy, siteId, softwareId);
+        IndexSchema.addKeyword(doc, IndexSchema.STATUS, status);
+        IndexSchema.addDate(doc, IndexSchema.PLANNED_WINDOW_START, plannedWindowStart);
+        return doc;
     }
 
     private static class LicenseReadingException extends RuntimeException {
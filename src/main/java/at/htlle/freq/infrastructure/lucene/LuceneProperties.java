@@ -0,0 +1,1192 @@
+package at.htlle.freq.infrastructure.lucene;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tuning knobs for the Lucene index, bound from the {@code lifex.lucene.*} namespace.
+ *
+ * <p>Every value carries a default so the index also works without any configuration
+ * (for example when {@link LuceneIndexServiceImpl} is created directly in tests).</p>
+ */
+@Component
+@ConfigurationProperties(prefix = "lifex.lucene")
+public class LuceneProperties {
+
+    /** Root directory of the index generations; the active one is owned exclusively by one long-lived IndexWriter. */
+    private String indexPath = LuceneIndexService.INDEX_PATH;
+
+    /** Upper bound for how stale the shared near-real-time searcher may become, in milliseconds. */
+    private long refreshIntervalMs = 1000;
+
+    /** Group-commit triggers ({@code lifex.lucene.commit.*}). */
+    private final Commit commit = new Commit();
+
+    /** Full reindex tuning ({@code lifex.lucene.reindex.*}). */
+    private final Reindex reindex = new Reindex();
+
+    /** Change-log tailing ({@code lifex.lucene.changelog.*}). */
+    private final Changelog changelog = new Changelog();
+
+    /** Periodic full-table sweeps ({@code lifex.lucene.sweep.*}). */
+    private final Sweep sweep = new Sweep();
+
+    /** Batching in front of the Camel indexing hub ({@code lifex.lucene.hub.*}). */
+    private final Hub hub = new Hub();
+
+    /** Result paging ({@code lifex.lucene.search.*}). */
+    private final Search search = new Search();
+
+    /** Directory implementation and warmup of the index files ({@code lifex.lucene.store.*}). */
+    private final Store store = new Store();
+
+    /** Replay of recorded queries on new searchers ({@code lifex.lucene.warmer.*}). */
+    private final Warmer warmer = new Warmer();
+
+    /** Durable journal of live index operations ({@code lifex.lucene.journal.*}). */
+    private final Journal journal = new Journal();
+
+    /**
+     * Returns the configured index location.
+     * @return index path as configured.
+     */
+    public String getIndexPath() {
+        return indexPath;
+    }
+
+    /**
+     * Sets the index location.
+     * @param indexPath index path.
+     */
+    public void setIndexPath(String indexPath) {
+        this.indexPath = indexPath;
+    }
+
+    /**
+     * Returns the background refresh interval of the shared searcher.
+     * @return interval in milliseconds.
+     */
+    public long getRefreshIntervalMs() {
+        return refreshIntervalMs;
+    }
+
+    /**
+     * Sets the background refresh interval of the shared searcher.
+     * @param refreshIntervalMs interval in milliseconds.
+     */
+    public void setRefreshIntervalMs(long refreshIntervalMs) {
+        this.refreshIntervalMs = refreshIntervalMs;
+    }
+
+    /**
+     * Returns the group-commit settings.
+     * @return commit settings.
+     */
+    public Commit getCommit() {
+        return commit;
+    }
+
+    /**
+     * Returns the full reindex settings.
+     * @return reindex settings.
+     */
+    public Reindex getReindex() {
+        return reindex;
+    }
+
+    /**
+     * Returns the change-log tailing settings.
+     * @return change-log settings.
+     */
+    public Changelog getChangelog() {
+        return changelog;
+    }
+
+    /**
+     * Returns the full-table sweep settings.
+     * @return sweep settings.
+     */
+    public Sweep getSweep() {
+        return sweep;
+    }
+
+    /**
+     * Returns the indexing hub batching settings.
+     * @return hub settings.
+     */
+    public Hub getHub() {
+        return hub;
+    }
+
+    /**
+     * Returns the result paging settings.
+     * @return search settings.
+     */
+    public Search getSearch() {
+        return search;
+    }
+
+    /**
+     * Returns the index storage settings.
+     * @return store settings.
+     */
+    public Store getStore() {
+        return store;
+    }
+
+    /**
+     * Returns the query warmer settings.
+     * @return warmer settings.
+     */
+    public Warmer getWarmer() {
+        return warmer;
+    }
+
+    /**
+     * Returns the index journal settings.
+     * @return journal settings.
+     */
+    public Journal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Triggers for the background group commit: whichever fires first commits all pending changes.
+     */
+    public static class Commit {
+
+        /** Longest time an applied change may stay uncommitted, in milliseconds. */
+        private long maxLatencyMs = 2000;
+
+        /** Number of pending changes that forces an immediate commit. */
+        private int maxPendingDocs = 500;
+
+        /**
+         * Returns the maximum commit latency.
+         * @return latency in milliseconds.
+         */
+        public long getMaxLatencyMs() {
+            return maxLatencyMs;
+        }
+
+        /**
+         * Sets the maximum commit latency.
+         * @param maxLatencyMs latency in milliseconds.
+         */
+        public void setMaxLatencyMs(long maxLatencyMs) {
+            this.maxLatencyMs = maxLatencyMs;
+        }
+
+        /**
+         * Returns the pending-change threshold.
+         * @return number of changes.
+         */
+        public int getMaxPendingDocs() {
+            return maxPendingDocs;
+        }
+
+        /**
+         * Sets the pending-change threshold.
+         * @param maxPendingDocs number of changes.
+         */
+        public void setMaxPendingDocs(int maxPendingDocs) {
+            this.maxPendingDocs = maxPendingDocs;
+        }
+    }
+
+    /**
+     * Worker pool and writer buffer used by {@code reindexAll()}.
+     */
+    public static class Reindex {
+
+        /** Worker threads for fetching and converting rows; {@code 0} uses one per available core. */
+        private int threads = 0;
+
+        /** Rows read per keyset query and converted and written per worker task. */
+        private int batchSize = 500;
+
+        /** RAM buffer of the IndexWriter that builds the shadow generation during a reindex, in MB. */
+        private double ramBufferMb = 256;
+
+        /**
+         * Share of a table's row count, in percent, by which the documents of a rebuilt type may differ from the
+         * {@code COUNT(*)} taken before the scan; live changes recorded during the rebuild are tolerated on top.
+         */
+        private double countTolerancePercent = 1;
+
+        /**
+         * Returns the configured worker count.
+         * @return threads, {@code 0} meaning one per core.
+         */
+        public int getThreads() {
+            return threads;
+        }
+
+        /**
+         * Sets the worker count.
+         * @param threads threads, {@code 0} meaning one per core.
+         */
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        /**
+         * Returns the worker count actually used.
+         * @return configured threads or the number of available processors.
+         */
+        public int effectiveThreads() {
+            return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        }
+
+        /**
+         * Returns the rows per worker task.
+         * @return batch size.
+         */
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        /**
+         * Sets the rows per worker task.
+         * @param batchSize batch size.
+         */
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        /**
+         * Returns the reindex RAM buffer.
+         * @return buffer size in MB.
+         */
+        public double getRamBufferMb() {
+            return ramBufferMb;
+        }
+
+        /**
+         * Sets the reindex RAM buffer.
+         * @param ramBufferMb buffer size in MB.
+         */
+        public void setRamBufferMb(double ramBufferMb) {
+            this.ramBufferMb = ramBufferMb;
+        }
+
+        /**
+         * Returns the tolerated deviation from the table row counts.
+         * @return tolerance in percent of the row count.
+         */
+        public double getCountTolerancePercent() {
+            return countTolerancePercent;
+        }
+
+        /**
+         * Sets the tolerated deviation from the table row counts.
+         * @param countTolerancePercent tolerance in percent of the row count.
+         */
+        public void setCountTolerancePercent(double countTolerancePercent) {
+            this.countTolerancePercent = countTolerancePercent;
+        }
+    }
+
+    /**
+     * Polling of the IndexChangeLog table that keeps the index in sync with the database.
+     */
+    public static class Changelog {
+
+        /** Pause between two polls of the change log, in milliseconds. */
+        private long pollIntervalMs = 1000;
+
+        /** Change-log entries applied per batch. */
+        private int batchSize = 500;
+
+        /**
+         * Returns the poll interval.
+         * @return interval in milliseconds.
+         */
+        public long getPollIntervalMs() {
+            return pollIntervalMs;
+        }
+
+        /**
+         * Sets the poll interval.
+         * @param pollIntervalMs interval in milliseconds.
+         */
+        public void setPollIntervalMs(long pollIntervalMs) {
+            this.pollIntervalMs = pollIntervalMs;
+        }
+
+        /**
+         * Returns the entries per batch.
+         * @return batch size.
+         */
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        /**
+         * Sets the entries per batch.
+         * @param batchSize batch size.
+         */
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    /**
+     * Timer-driven sweeps that resend every table to the indexing hub. Off by default since the change log keeps the
+     * index current; can be enabled as a reconciliation safety net.
+     */
+    public static class Sweep {
+
+        /** Whether the per-table sweep routes start with the Camel context. */
+        private boolean enabled = false;
+
+        /** Nominal pause between two sweeps of a table, in milliseconds; adapted per table within the bounds below. */
+        private long periodMs = 180000;
+
+        /** Shortest pause between two sweeps of a table, in milliseconds. */
+        private long minPeriodMs = 60000;
+
+        /** Longest pause between two sweeps of a table; an overdue sweep runs after it even under load. */
+        private long maxPeriodMs = 1800000;
+
+        /** Random spread of every scheduled pause, in percent of the pause. */
+        private int jitterPercent = 20;
+
+        /** Share of the time a table may spend sweeping; a slow sweep waits accordingly longer, in percent. */
+        private int maxDutyPercent = 10;
+
+        /** Interactive requests per second (over the last ten seconds) above which due sweeps are deferred. */
+        private double busyRequestsPerSecond = 20;
+
+        /** Concurrently running interactive requests at which due sweeps are deferred. */
+        private int busyInFlight = 8;
+
+        /** Rows a sweep reads per keyset query; only one such chunk of a table is held in memory at a time. */
+        private int chunkSize = 500;
+
+        /**
+         * Returns whether sweeps run.
+         * @return true when enabled.
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Enables or disables the sweeps.
+         * @param enabled true to run sweeps.
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * Returns the sweep period.
+         * @return period in milliseconds.
+         */
+        public long getPeriodMs() {
+            return periodMs;
+        }
+
+        /**
+         * Sets the sweep period.
+         * @param periodMs period in milliseconds.
+         */
+        public void setPeriodMs(long periodMs) {
+            this.periodMs = periodMs;
+        }
+
+        /**
+         * Returns the shortest sweep period.
+         * @return period in milliseconds.
+         */
+        public long getMinPeriodMs() {
+            return minPeriodMs;
+        }
+
+        /**
+         * Sets the shortest sweep period.
+         * @param minPeriodMs period in milliseconds.
+         */
+        public void setMinPeriodMs(long minPeriodMs) {
+            this.minPeriodMs = minPeriodMs;
+        }
+
+        /**
+         * Returns the longest sweep period.
+         * @return period in milliseconds.
+         */
+        public long getMaxPeriodMs() {
+            return maxPeriodMs;
+        }
+
+        /**
+         * Sets the longest sweep period.
+         * @param maxPeriodMs period in milliseconds.
+         */
+        public void setMaxPeriodMs(long maxPeriodMs) {
+            this.maxPeriodMs = maxPeriodMs;
+        }
+
+        /**
+         * Returns the jitter of the sweep period.
+         * @return jitter in percent.
+         */
+        public int getJitterPercent() {
+            return jitterPercent;
+        }
+
+        /**
+         * Sets the jitter of the sweep period.
+         * @param jitterPercent jitter in percent.
+         */
+        public void setJitterPercent(int jitterPercent) {
+            this.jitterPercent = jitterPercent;
+        }
+
+        /**
+         * Returns the share of the time a table may spend sweeping.
+         * @return duty cycle in percent.
+         */
+        public int getMaxDutyPercent() {
+            return maxDutyPercent;
+        }
+
+        /**
+         * Sets the share of the time a table may spend sweeping.
+         * @param maxDutyPercent duty cycle in percent.
+         */
+        public void setMaxDutyPercent(int maxDutyPercent) {
+            this.maxDutyPercent = maxDutyPercent;
+        }
+
+        /**
+         * Returns the request rate that defers sweeps.
+         * @return requests per second.
+         */
+        public double getBusyRequestsPerSecond() {
+            return busyRequestsPerSecond;
+        }
+
+        /**
+         * Sets the request rate that defers sweeps.
+         * @param busyRequestsPerSecond requests per second.
+         */
+        public void setBusyRequestsPerSecond(double busyRequestsPerSecond) {
+            this.busyRequestsPerSecond = busyRequestsPerSecond;
+        }
+
+        /**
+         * Returns the concurrent requests that defer sweeps.
+         * @return running requests.
+         */
+        public int getBusyInFlight() {
+            return busyInFlight;
+        }
+
+        /**
+         * Sets the concurrent requests that defer sweeps.
+         * @param busyInFlight running requests.
+         */
+        public void setBusyInFlight(int busyInFlight) {
+            this.busyInFlight = busyInFlight;
+        }
+
+        /**
+         * Returns the rows read per sweep query.
+         * @return chunk size.
+         */
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        /**
+         * Sets the rows read per sweep query.
+         * @param chunkSize chunk size.
+         */
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    /**
+     * Aggregation of queued entities into writer batches in the Camel indexing hub.
+     */
+    public static class Hub {
+
+        /** Entities per batch; a batch is written as soon as it reaches this size. */
+        private int batchSize = 500;
+
+        /** Quiet period after the last queued entity before an incomplete batch is written, in milliseconds. */
+        private long batchTimeoutMs = 200;
+
+        /** Consumer partitions entities are hashed to by id; {@code 0} uses one per available core. */
+        private int partitions = 0;
+
+        /** Hub queue depth at which the sweep timers start to back off instead of filling the queue. */
+        private int backoffDepth = 1000;
+
+        /** Age of the oldest queued entity at which the sweep timers back off regardless of the depth, in milliseconds. */
+        private long backoffLagMs = 30_000;
+
+        /** Upper bound of the delay a sweep waits before queueing its next entity, in milliseconds. */
+        private long maxBackoffMs = 1000;
+
+        /** Retries of a batch that failed with a transient error (I/O, closed writer) before it is dead-lettered. */
+        private int maxRetries = 3;
+
+        /** Delay before the first retry of a failed batch; doubled for every further retry, in milliseconds. */
+        private long retryBackoffMs = 100;
+
+        /** Upper bound of the delay between two retries, in milliseconds. */
+        private long maxRetryBackoffMs = 2000;
+
+        /** Failed batches kept for inspection and replay; the oldest one is dropped when the store is full. */
+        private int deadLetterCapacity = 1000;
+
+        /**
+         * Returns the batch size.
+         * @return entities per batch.
+         */
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        /**
+         * Sets the batch size.
+         * @param batchSize entities per batch.
+         */
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        /**
+         * Returns the batch timeout.
+         * @return timeout in milliseconds.
+         */
+        public long getBatchTimeoutMs() {
+            return batchTimeoutMs;
+        }
+
+        /**
+         * Sets the batch timeout.
+         * @param batchTimeoutMs timeout in milliseconds.
+         */
+        public void setBatchTimeoutMs(long batchTimeoutMs) {
+            this.batchTimeoutMs = batchTimeoutMs;
+        }
+
+        /**
+         * Returns the configured partition count.
+         * @return partitions, {@code 0} meaning one per core.
+         */
+        public int getPartitions() {
+            return partitions;
+        }
+
+        /**
+         * Sets the partition count.
+         * @param partitions partitions, {@code 0} for one per core.
+         */
+        public void setPartitions(int partitions) {
+            this.partitions = partitions;
+        }
+
+        /**
+         * Returns the partition count actually used.
+         * @return configured partitions or the number of available processors.
+         */
+        public int effectivePartitions() {
+            return partitions > 0 ? partitions : Runtime.getRuntime().availableProcessors();
+        }
+
+        /**
+         * Returns the queue depth at which sweeps back off.
+         * @return queued hub messages.
+         */
+        public int getBackoffDepth() {
+            return backoffDepth;
+        }
+
+        /**
+         * Sets the queue depth at which sweeps back off.
+         * @param backoffDepth queued hub messages.
+         */
+        public void setBackoffDepth(int backoffDepth) {
+            this.backoffDepth = backoffDepth;
+        }
+
+        /**
+         * Returns the queue age at which sweeps back off.
+         * @return age of the oldest queued entity in milliseconds.
+         */
+        public long getBackoffLagMs() {
+            return backoffLagMs;
+        }
+
+        /**
+         * Sets the queue age at which sweeps back off.
+         * @param backoffLagMs age of the oldest queued entity in milliseconds.
+         */
+        public void setBackoffLagMs(long backoffLagMs) {
+            this.backoffLagMs = backoffLagMs;
+        }
+
+        /**
+         * Returns the longest delay between two queued sweep entities.
+         * @return delay in milliseconds.
+         */
+        public long getMaxBackoffMs() {
+            return maxBackoffMs;
+        }
+
+        /**
+         * Sets the longest delay between two queued sweep entities.
+         * @param maxBackoffMs delay in milliseconds.
+         */
+        public void setMaxBackoffMs(long maxBackoffMs) {
+            this.maxBackoffMs = maxBackoffMs;
+        }
+
+        /**
+         * Returns the retries of a failed batch.
+         * @return retries after the first attempt.
+         */
+        public int getMaxRetries() {
+            return maxRetries;
+        }
+
+        /**
+         * Sets the retries of a failed batch.
+         * @param maxRetries retries after the first attempt.
+         */
+        public void setMaxRetries(int maxRetries) {
+            this.maxRetries = maxRetries;
+        }
+
+        /**
+         * Returns the delay before the first retry.
+         * @return delay in milliseconds.
+         */
+        public long getRetryBackoffMs() {
+            return retryBackoffMs;
+        }
+
+        /**
+         * Sets the delay before the first retry.
+         * @param retryBackoffMs delay in milliseconds.
+         */
+        public void setRetryBackoffMs(long retryBackoffMs) {
+            this.retryBackoffMs = retryBackoffMs;
+        }
+
+        /**
+         * Returns the longest delay between two retries.
+         * @return delay in milliseconds.
+         */
+        public long getMaxRetryBackoffMs() {
+            return maxRetryBackoffMs;
+        }
+
+        /**
+         * Sets the longest delay between two retries.
+         * @param maxRetryBackoffMs delay in milliseconds.
+         */
+        public void setMaxRetryBackoffMs(long maxRetryBackoffMs) {
+            this.maxRetryBackoffMs = maxRetryBackoffMs;
+        }
+
+        /**
+         * Returns the dead-letter capacity.
+         * @return failed batches kept.
+         */
+        public int getDeadLetterCapacity() {
+            return deadLetterCapacity;
+        }
+
+        /**
+         * Sets the dead-letter capacity.
+         * @param deadLetterCapacity failed batches kept.
+         */
+        public void setDeadLetterCapacity(int deadLetterCapacity) {
+            this.deadLetterCapacity = deadLetterCapacity;
+        }
+    }
+
+    /**
+     * Page sizes and hit counting of cursor-paged searches.
+     */
+    public static class Search {
+
+        /** Hits per page when the caller does not ask for a size. */
+        private int defaultPageSize = 50;
+
+        /** Upper bound for a requested page size. */
+        private int maxPageSize = 500;
+
+        /** Hits counted exactly before the total becomes a lower bound and non-competitive hits are skipped. */
+        private int totalHitsThreshold = 1000;
+
+        /** How long the searcher behind a cursor stays pinned for consistent follow-up pages, in seconds. */
+        private int cursorTtlSeconds = 300;
+
+        /** Search pages kept in the per-reader-version LRU cache; {@code 0} disables caching. */
+        private int cacheSize = 1000;
+
+        /** Time budget of a search in milliseconds; {@code 0} disables the deadline. */
+        private long timeoutMs = 1000;
+
+        /** Upper bound for a time budget requested per search, in milliseconds. */
+        private long maxTimeoutMs = 10000;
+
+        /** Threads that score segment slices concurrently; {@code 0} searches on the request thread only. */
+        private int threads = 0;
+
+        /** Slices that may wait for a search thread before request threads score them themselves. */
+        private int queueCapacity = 256;
+
+        /** Documents per slice; larger segments form a slice of their own. */
+        private int sliceMaxDocs = 250_000;
+
+        /** Segments per slice. */
+        private int sliceMaxSegments = 5;
+
+        /**
+         * Returns the default page size.
+         * @return hits per page.
+         */
+        public int getDefaultPageSize() {
+            return defaultPageSize;
+        }
+
+        /**
+         * Sets the default page size.
+         * @param defaultPageSize hits per page.
+         */
+        public void setDefaultPageSize(int defaultPageSize) {
+            this.defaultPageSize = defaultPageSize;
+        }
+
+        /**
+         * Returns the maximum page size.
+         * @return hits per page.
+         */
+        public int getMaxPageSize() {
+            return maxPageSize;
+        }
+
+        /**
+         * Sets the maximum page size.
+         * @param maxPageSize hits per page.
+         */
+        public void setMaxPageSize(int maxPageSize) {
+            this.maxPageSize = maxPageSize;
+        }
+
+        /**
+         * Returns the threshold up to which hits are counted exactly.
+         * @return number of hits.
+         */
+        public int getTotalHitsThreshold() {
+            return totalHitsThreshold;
+        }
+
+        /**
+         * Sets the threshold up to which hits are counted exactly.
+         * @param totalHitsThreshold number of hits.
+         */
+        public void setTotalHitsThreshold(int totalHitsThreshold) {
+            this.totalHitsThreshold = totalHitsThreshold;
+        }
+
+        /**
+         * Returns how long a cursor's searcher stays pinned.
+         * @return time to live in seconds.
+         */
+        public int getCursorTtlSeconds() {
+            return cursorTtlSeconds;
+        }
+
+        /**
+         * Sets how long a cursor's searcher stays pinned.
+         * @param cursorTtlSeconds time to live in seconds.
+         */
+        public void setCursorTtlSeconds(int cursorTtlSeconds) {
+            this.cursorTtlSeconds = cursorTtlSeconds;
+        }
+
+        /**
+         * Returns the capacity of the search page cache.
+         * @return number of cached pages.
+         */
+        public int getCacheSize() {
+            return cacheSize;
+        }
+
+        /**
+         * Sets the capacity of the search page cache.
+         * @param cacheSize number of cached pages; {@code 0} disables caching.
+         */
+        public void setCacheSize(int cacheSize) {
+            this.cacheSize = cacheSize;
+        }
+
+        /**
+         * Returns the default time budget of a search.
+         * @return budget in milliseconds; {@code 0} means unlimited.
+         */
+        public long getTimeoutMs() {
+            return timeoutMs;
+        }
+
+        /**
+         * Sets the default time budget of a search.
+         * @param timeoutMs budget in milliseconds; {@code 0} means unlimited.
+         */
+        public void setTimeoutMs(long timeoutMs) {
+            this.timeoutMs = timeoutMs;
+        }
+
+        /**
+         * Returns the upper bound for a requested time budget.
+         * @return budget in milliseconds.
+         */
+        public long getMaxTimeoutMs() {
+            return maxTimeoutMs;
+        }
+
+        /**
+         * Sets the upper bound for a requested time budget.
+         * @param maxTimeoutMs budget in milliseconds.
+         */
+        public void setMaxTimeoutMs(long maxTimeoutMs) {
+            this.maxTimeoutMs = maxTimeoutMs;
+        }
+
+        /**
+         * Returns the number of search threads.
+         * @return thread count; {@code 0} when concurrent search is off.
+         */
+        public int getThreads() {
+            return threads;
+        }
+
+        /**
+         * Sets the number of search threads.
+         * @param threads thread count; {@code 0} turns concurrent search off.
+         */
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        /**
+         * Returns the capacity of the search thread queue.
+         * @return number of queued slices.
+         */
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        /**
+         * Sets the capacity of the search thread queue.
+         * @param queueCapacity number of queued slices.
+         */
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        /**
+         * Returns the document limit of a slice.
+         * @return number of documents.
+         */
+        public int getSliceMaxDocs() {
+            return sliceMaxDocs;
+        }
+
+        /**
+         * Sets the document limit of a slice.
+         * @param sliceMaxDocs number of documents.
+         */
+        public void setSliceMaxDocs(int sliceMaxDocs) {
+            this.sliceMaxDocs = sliceMaxDocs;
+        }
+
+        /**
+         * Returns the segment limit of a slice.
+         * @return number of segments.
+         */
+        public int getSliceMaxSegments() {
+            return sliceMaxSegments;
+        }
+
+        /**
+         * Sets the segment limit of a slice.
+         * @param sliceMaxSegments number of segments.
+         */
+        public void setSliceMaxSegments(int sliceMaxSegments) {
+            this.sliceMaxSegments = sliceMaxSegments;
+        }
+    }
+
+    /**
+     * How the index files are accessed: the Lucene {@code Directory} implementation and which files are kept resident.
+     */
+    public static class Store {
+
+        /** Lucene directory implementations that can back the index. */
+        public enum Type {
+            /** Lets Lucene pick the best file-system directory for the platform (memory-mapped on 64-bit JVMs). */
+            FS,
+            /** Memory-mapped files; the hot files are preloaded into physical memory when a segment is opened. */
+            MMAP,
+            /** Positional reads through {@code FileChannel}, served from the OS page cache. */
+            NIO,
+            /** Heap-only index for tests and ephemeral nodes; nothing is written to disk and the index is lost on close. */
+            MEMORY
+        }
+
+        /** Directory implementation of every index generation. */
+        private Type type = Type.FS;
+
+        /** File extensions of the hot index files: norms, doc values, term dictionary and index, postings, compound files. */
+        private List<String> hotExtensions = new ArrayList<>(List.of("nvd", "dvd", "tim", "tip", "doc", "cfs"));
+
+        /** Whether opening the index at startup reads the hot files once so the first searches hit warm pages. */
+        private boolean warmup = true;
+
+        /**
+         * Returns the directory implementation.
+         * @return directory type.
+         */
+        public Type getType() {
+            return type;
+        }
+
+        /**
+         * Sets the directory implementation.
+         * @param type directory type.
+         */
+        public void setType(Type type) {
+            this.type = type;
+        }
+
+        /**
+         * Returns the extensions of the files that are preloaded or warmed.
+         * @return file extensions without dot.
+         */
+        public List<String> getHotExtensions() {
+            return hotExtensions;
+        }
+
+        /**
+         * Sets the extensions of the files that are preloaded or warmed; {@code *} selects all files.
+         * @param hotExtensions file extensions without dot.
+         */
+        public void setHotExtensions(List<String> hotExtensions) {
+            this.hotExtensions = hotExtensions;
+        }
+
+        /**
+         * Tells whether the index is warmed when it is opened.
+         * @return {@code true} when warmup is enabled.
+         */
+        public boolean isWarmup() {
+            return warmup;
+        }
+
+        /**
+         * Enables or disables the warmup when the index is opened.
+         * @param warmup {@code true} to read the hot files on open.
+         */
+        public void setWarmup(boolean warmup) {
+            this.warmup = warmup;
+        }
+    }
+
+    /**
+     * Query-log driven warming: the most frequent recent queries are replayed on every new searcher before it serves
+     * requests, and at startup before the web server accepts traffic.
+     */
+    public static class Warmer {
+
+        /** Whether new searchers are warmed with recorded queries. */
+        private boolean enabled = true;
+
+        /** Number of most recent search requests the rolling query sample holds. */
+        private int sampleSize = 1000;
+
+        /** Most frequent queries of the sample that are replayed and kept across restarts. */
+        private int topQueries = 20;
+
+        /** Time spent warming the first searcher of a newly activated generation, in milliseconds. */
+        private long refreshBudgetMs = 200;
+
+        /** Time spent warming the first searcher at startup, in milliseconds. */
+        private long startupBudgetMs = 5000;
+
+        /**
+         * Returns whether warming is enabled.
+         * @return {@code true} when recorded queries are replayed.
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Enables or disables warming.
+         * @param enabled {@code true} to replay recorded queries.
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * Returns the size of the rolling query sample.
+         * @return number of requests.
+         */
+        public int getSampleSize() {
+            return sampleSize;
+        }
+
+        /**
+         * Sets the size of the rolling query sample.
+         * @param sampleSize number of requests.
+         */
+        public void setSampleSize(int sampleSize) {
+            this.sampleSize = sampleSize;
+        }
+
+        /**
+         * Returns how many queries are replayed.
+         * @return number of queries.
+         */
+        public int getTopQueries() {
+            return topQueries;
+        }
+
+        /**
+         * Sets how many queries are replayed.
+         * @param topQueries number of queries.
+         */
+        public void setTopQueries(int topQueries) {
+            this.topQueries = topQueries;
+        }
+
+        /**
+         * Returns the warming budget after a generation switch.
+         * @return budget in milliseconds.
+         */
+        public long getRefreshBudgetMs() {
+            return refreshBudgetMs;
+        }
+
+        /**
+         * Sets the warming budget after a generation switch.
+         * @param refreshBudgetMs budget in milliseconds.
+         */
+        public void setRefreshBudgetMs(long refreshBudgetMs) {
+            this.refreshBudgetMs = refreshBudgetMs;
+        }
+
+        /**
+         * Returns the warming budget at startup.
+         * @return budget in milliseconds.
+         */
+        public long getStartupBudgetMs() {
+            return startupBudgetMs;
+        }
+
+        /**
+         * Sets the warming budget at startup.
+         * @param startupBudgetMs budget in milliseconds.
+         */
+        public void setStartupBudgetMs(long startupBudgetMs) {
+            this.startupBudgetMs = startupBudgetMs;
+        }
+    }
+
+    /**
+     * Memory-mapped journal that records live index operations until a Lucene commit covers them.
+     */
+    public static class Journal {
+
+        /** Whether live index operations are journaled and replayed after a restart. */
+        private boolean enabled = true;
+
+        /** Size of one journal segment file, in bytes. */
+        private int segmentBytes = 8 * 1024 * 1024;
+
+        /** Appended operations after which the journal is forced to disk. */
+        private int syncEvery = 256;
+
+        /** Longest time an appended operation may stay unsynced, in milliseconds. */
+        private long syncIntervalMs = 50;
+
+        /**
+         * Returns whether the journal is enabled.
+         * @return {@code true} when operations are journaled.
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Enables or disables the journal.
+         * @param enabled {@code true} to journal operations.
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * Returns the segment size.
+         * @return bytes per segment file.
+         */
+        public int getSegmentBytes() {
+            return segmentBytes;
+        }
+
+        /**
+         * Sets the segment size.
+         * @param segmentBytes bytes per segment file.
+         */
+        public void setSegmentBytes(int segmentBytes) {
+            this.segmentBytes = segmentBytes;
+        }
+
+        /**
+         * Returns the sync batch size.
+         * @return operations per forced sync.
+         */
+        public int getSyncEvery() {
+            return syncEvery;
+        }
+
+        /**
+         * Sets the sync batch size.
+         * @param syncEvery operations per forced sync.
+         */
+        public void setSyncEvery(int syncEvery) {
+            this.syncEvery = syncEvery;
+        }
+
+        /**
+         * Returns the sync interval.
+         * @return interval in milliseconds.
+         */
+        public long getSyncIntervalMs() {
+            return syncIntervalMs;
+        }
+
+        /**
+         * Sets the sync interval.
+         * @param syncIntervalMs interval in milliseconds.
+         */
+        public void setSyncIntervalMs(long syncIntervalMs) {
+            this.syncIntervalMs = syncIntervalMs;
+        }
+    }
+}
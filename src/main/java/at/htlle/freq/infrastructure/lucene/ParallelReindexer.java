@@ -0,0 +1,140 @@
+package at.htlle.freq.infrastructure.lucene;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/*
+ * Worker pool for full reindex runs.
+ *
+ * Data flow:
+ *  - scan(): reindexAll() passes the streamAll() of every repository. The calling thread reads the streams one table
+ *    after another and cuts them into batches; each batch is converted to documents and handed to the shadow
+ *    IndexWriter of the rebuild by a worker. At most 2 * threads batches are queued or being written; the reader waits
+ *    for a free slot, so memory is bounded by the batch size rather than by the size of the tables.
+ *
+ * Retry / locking considerations:
+ *  - The pool is bounded to the configured number of threads and lives only for one run.
+ *  - IndexWriter is thread-safe and keeps one in-memory segment per indexing thread, so workers never wait on each other
+ *    except when the RAM buffer is flushed.
+ *  - A failing batch fails the run: reading stops, and the first exception is rethrown once all submitted work has
+ *    finished.
+ */
+
+/**
+ * Streams the rows of {@code reindexAll()} through the conversion phase on a bounded worker pool.
+ */
+final class ParallelReindexer implements AutoCloseable {
+
+    private final ExecutorService pool;
+    private final int batchSize;
+    private final int maxInFlight;
+
+    /**
+     * Creates a reindexer with its own worker pool.
+     * @param threads number of worker threads (at least one).
+     * @param batchSize number of rows handed to the index sink per task.
+     */
+    ParallelReindexer(int threads, int batchSize) {
+        int size = Math.max(1, threads);
+        AtomicInteger counter = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(size, r -> {
+            Thread t = new Thread(r, "lucene-reindex-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.batchSize = Math.max(1, batchSize);
+        this.maxInFlight = 2 * size;
+    }
+
+    /**
+     * Reads every source stream on the calling thread, one after another, and hands the rows to the sink in batches on
+     * the worker pool. Reading blocks while {@code 2 * threads} batches are waiting or being written, so the rows held in
+     * memory stay bounded however large the tables are. Stops reading once a batch has failed.
+     * @param sources opens the row stream of each entity type; {@code null} streams count as empty.
+     * @param onRead told about every batch before it is submitted, with its entity type and size.
+     * @param sink converts and writes one batch.
+     * @return rows read per entity type, in the order of {@code sources}.
+     */
+    Map<String, Integer> scan(Map<String, Supplier<Stream<?>>> sources, ObjIntConsumer<String> onRead,
+                              Consumer<List<?>> sink) throws InterruptedException {
+        Semaphore slots = new Semaphore(maxInFlight);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<String, Supplier<Stream<?>>> source : sources.entrySet()) {
+                String type = source.getKey();
+                int count = 0;
+                Stream<?> stream = source.getValue().get();
+                if (stream != null) {
+                    try (stream) {
+                        Iterator<?> rows = stream.iterator();
+                        List<Object> batch = new ArrayList<>(batchSize);
+                        while (rows.hasNext() && failure.get() == null) {
+                            batch.add(rows.next());
+                            if (batch.size() == batchSize || !rows.hasNext()) {
+                                count += batch.size();
+                                onRead.accept(type, batch.size());
+                                submit(batch, sink, slots, failure);
+                                batch = new ArrayList<>(batchSize);
+                            }
+                        }
+                    }
+                }
+                counts.put(type, count);
+            }
+        } finally {
+            // Every running batch holds a slot until it is done
+            slots.acquire(maxInFlight);
+        }
+        Throwable failed = failure.get();
+        if (failed instanceof RuntimeException runtime) {
+            throw runtime;
+        }
+        if (failed instanceof Error error) {
+            throw error;
+        }
+        return counts;
+    }
+
+    /**
+     * Waits for a free slot and writes one batch on the pool; the first failure of any batch is kept.
+     */
+    private void submit(List<?> batch, Consumer<List<?>> sink, Semaphore slots, AtomicReference<Throwable> failure)
+            throws InterruptedException {
+        slots.acquire();
+        try {
+            pool.execute(() -> {
+                try {
+                    sink.accept(batch);
+                } catch (RuntimeException | Error e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    slots.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Stops the worker pool.
+     */
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,181 @@
+package at.htlle.freq.infrastructure.lucene;
+
+import org.apache.lucene.search.Query;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Rolling sample of the queries users search for.
+ *
+ * Data flow:
+ *  - LuceneIndexServiceImpl.searchPage() records the query text of every first page requested by SearchController
+ *    (follow-up pages of a cursor walk are not counted again). Queries built by SmartQueryBuilder are recorded as the
+ *    Query objects themselves: Query#toString() is not a round trip through the schema parser (keyword terms would be
+ *    analyzed again), so they are replayed as built.
+ *  - The sample holds the last sample-size requests in a ring; top() ranks the distinct queries in it by frequency,
+ *    then by recency. A query that stops being asked ages out once sample-size newer requests have arrived.
+ *  - save() writes the top query texts below the index root on shutdown; load() seeds the sample from that file when
+ *    the index root is configured, so the startup warmup replays the queries of the previous run. Built queries have no
+ *    text form and are sampled again after a restart.
+ *
+ * Retry / locking considerations:
+ *  - All operations synchronize on the log; record() only updates an array slot and a map entry.
+ *  - A missing or unreadable file just leaves the sample empty; the next searches fill it again.
+ */
+
+/**
+ * Bounded, frequency-ranked sample of recent search queries.
+ */
+final class QueryLog {
+
+    private static final class Stat {
+        int count;
+        long lastSeen;
+    }
+
+    // Entries are query texts (String) or built queries (Query), both compared by equals()
+    private final Object[] ring;
+    private final Map<Object, Stat> stats = new HashMap<>();
+    private long recorded;
+
+    /**
+     * Creates an empty log that remembers the last {@code capacity} queries.
+     * @param capacity sample size; at least one query is kept.
+     */
+    QueryLog(int capacity) {
+        this.ring = new Object[Math.max(1, capacity)];
+    }
+
+    /**
+     * Adds a query to the sample, evicting the oldest one when the sample is full. Blank queries are ignored.
+     * @param query query text; line breaks are folded into spaces.
+     */
+    synchronized void record(String query) {
+        String normalized = normalize(query);
+        if (!normalized.isEmpty()) {
+            add(normalized);
+        }
+    }
+
+    /**
+     * Adds a built query to the sample, evicting the oldest one when the sample is full.
+     * @param query query as executed; {@code null} is ignored.
+     */
+    synchronized void record(Query query) {
+        if (query != null) {
+            add(query);
+        }
+    }
+
+    private void add(Object entry) {
+        int slot = (int) (recorded % ring.length);
+        Object evicted = ring[slot];
+        if (evicted != null) {
+            Stat stat = stats.get(evicted);
+            if (--stat.count == 0) {
+                stats.remove(evicted);
+            }
+        }
+        ring[slot] = entry;
+        Stat stat = stats.computeIfAbsent(entry, q -> new Stat());
+        stat.count++;
+        stat.lastSeen = recorded++;
+    }
+
+    /**
+     * Returns the most frequent queries of the sample, most recently asked first among equally frequent ones.
+     * @param limit maximum number of queries.
+     * @return distinct queries in descending rank: query texts as {@link String}, built queries as {@link Query}.
+     */
+    synchronized List<Object> top(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        return stats.entrySet().stream()
+                .sorted(Comparator.comparingInt((Map.Entry<Object, Stat> e) -> e.getValue().count).reversed()
+                        .thenComparing(Comparator.comparingLong((Map.Entry<Object, Stat> e) -> e.getValue().lastSeen)
+                                .reversed()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * Returns the number of queries in the sample.
+     * @return sampled requests, at most the capacity.
+     */
+    synchronized int size() {
+        return (int) Math.min(recorded, ring.length);
+    }
+
+    /**
+     * Returns the number of distinct queries in the sample.
+     * @return distinct queries.
+     */
+    synchronized int distinct() {
+        return stats.size();
+    }
+
+    /**
+     * Replaces the sample with the queries of a file written by {@link #save(Path, int)}; the first line ranks highest.
+     * @param file query file; nothing is loaded when it does not exist.
+     * @return number of loaded queries.
+     * @throws IOException when the file cannot be read.
+     */
+    synchronized int load(Path file) throws IOException {
+        clear();
+        if (!Files.isRegularFile(file)) {
+            return 0;
+        }
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        // Oldest first, so the top query of the previous run is also the most recent one
+        for (int i = lines.size() - 1; i >= 0; i--) {
+            record(lines.get(i));
+        }
+        return stats.size();
+    }
+
+    /**
+     * Writes the top query texts to a file, one per line, replacing it atomically. Built queries among the top ones are
+     * left out.
+     * @param file target file; its directory must exist.
+     * @param limit maximum number of queries considered.
+     * @throws IOException when the file cannot be written.
+     */
+    void save(Path file, int limit) throws IOException {
+        List<Object> queries = top(limit);
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            for (Object query : queries) {
+                if (query instanceof String text) {
+                    out.write(text);
+                    out.newLine();
+                }
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Empties the sample.
+     */
+    synchronized void clear() {
+        Arrays.fill(ring, null);
+        stats.clear();
+        recorded = 0;
+    }
+
+    private static String normalize(String query) {
+        return query == null ? "" : query.replace('\r', ' ').replace('\n', ' ').trim();
+    }
+}
@@ -0,0 +1,110 @@
+package at.htlle.freq.infrastructure.lucene;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TermRangeQuery;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Classic query parser that understands the typed fields of {@link IndexSchema}.
+ *
+ * <p>Integer and date fields become point range queries: {@code tenantCount:[2 TO 10]},
+ * {@code capacity:>=50}, {@code supportEndDate:[today TO today+90d]} or
+ * {@code installedDate:<2024-01-01}. Keyword fields become exact, case-insensitive term queries
+ * ({@code status:installed}, {@code brand:"Motorola Solutions"}). All other fields keep the
+ * default behaviour of {@link QueryParser}.</p>
+ */
+public class SchemaQueryParser extends QueryParser {
+
+    private static final Pattern COMPARISON = Pattern.compile("(>=|<=|>|<|=)?(.+)");
+
+    /**
+     * Creates a parser for the given default field.
+     * @param defaultField field used for terms without field prefix.
+     * @param analyzer analyzer for analyzed fields.
+     */
+    public SchemaQueryParser(String defaultField, Analyzer analyzer) {
+        super(defaultField, analyzer);
+    }
+
+    @Override
+    protected Query getFieldQuery(String field, String queryText, boolean quoted) throws ParseException {
+        String typed = IndexSchema.canonical(field);
+        if (typed == null) {
+            return super.getFieldQuery(field, queryText, quoted);
+        }
+        if (IndexSchema.isKeyword(typed)) {
+            return new TermQuery(new Term(typed, IndexSchema.keyword(queryText)));
+        }
+        Matcher comparison = COMPARISON.matcher(queryText.trim());
+        if (!comparison.matches()) {
+            throw new ParseException("Missing value for field " + field);
+        }
+        String operator = comparison.group(1) == null ? "=" : comparison.group(1);
+        long value = toLong(typed, comparison.group(2));
+        return switch (operator) {
+            case ">" -> range(typed, value, Long.MAX_VALUE, false, true);
+            case ">=" -> range(typed, value, Long.MAX_VALUE, true, true);
+            case "<" -> range(typed, Long.MIN_VALUE, value, true, false);
+            case "<=" -> range(typed, Long.MIN_VALUE, value, true, true);
+            default -> range(typed, value, value, true, true);
+        };
+    }
+
+    @Override
+    protected Query getRangeQuery(String field, String part1, String part2, boolean startInclusive, boolean endInclusive)
+            throws ParseException {
+        String typed = IndexSchema.canonical(field);
+        if (typed == null) {
+            return super.getRangeQuery(field, part1, part2, startInclusive, endInclusive);
+        }
+        if (IndexSchema.isKeyword(typed)) {
+            return TermRangeQuery.newStringRange(typed, open(part1) ? null : IndexSchema.keyword(part1),
+                    open(part2) ? null : IndexSchema.keyword(part2), startInclusive, endInclusive);
+        }
+        long lower = open(part1) ? Long.MIN_VALUE : toLong(typed, part1);
+        long upper = open(part2) ? Long.MAX_VALUE : toLong(typed, part2);
+        return range(typed, lower, upper, startInclusive || open(part1), endInclusive || open(part2));
+    }
+
+    /**
+     * Builds the point range for an integer or date field; exclusive bounds are shifted by one.
+     */
+    private static Query range(String field, long lower, long upper, boolean lowerInclusive, boolean upperInclusive) {
+        if (!lowerInclusive && lower != Long.MAX_VALUE) {
+            lower++;
+        }
+        if (!upperInclusive && upper != Long.MIN_VALUE) {
+            upper--;
+        }
+        if (IndexSchema.isInt(field)) {
+            int intLower = (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, lower));
+            int intUpper = (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, upper));
+            return IntPoint.newRangeQuery(field, intLower, intUpper);
+        }
+        return LongPoint.newRangeQuery(field, lower, upper);
+    }
+
+    private static long toLong(String field, String value) throws ParseException {
+        try {
+            if (IndexSchema.isDate(field)) {
+                return IndexSchema.toEpochDay(value);
+            }
+            return Integer.parseInt(value.trim());
+        } catch (IllegalArgumentException e) {
+            throw new ParseException("Invalid value '" + value + "' for field " + field);
+        }
+    }
+
+    private static boolean open(String part) {
+        return part == null || "*".equals(part);
+    }
+}
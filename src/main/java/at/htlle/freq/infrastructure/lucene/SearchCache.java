@@ -0,0 +1,110 @@
+package at.htlle.freq.infrastructure.lucene;
+
+import at.htlle.freq.infrastructure.search.SearchPage;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * Bounded LRU cache of search pages.
+ *
+ * Data flow:
+ *  - LuceneIndexServiceImpl.searchPage() looks up the normalized request (query text or the Query object itself, page
+ *    size, cursor, exact-total flag) together with the version of the reader it is about to search. Requests are
+ *    compared with equals(), so two queries only share an entry when Lucene considers them equal. A hit skips parsing
+ *    and scoring entirely.
+ *  - The reader version is part of every key, so any near-real-time refresh, commit or generation swap makes older
+ *    entries unreachable. The first page stored for a new version drops all entries of the previous one at once.
+ *  - Only pages computed on the current searcher are stored; pages of pinned cursor searchers are looked up but never
+ *    stored, so an old snapshot cannot evict the entries of the current one.
+ *
+ * Retry / locking considerations:
+ *  - All operations synchronize on the cache; they only touch an in-memory map, so the critical sections are short.
+ *  - Pages are immutable records holding an unmodifiable hit list, so they can be shared between requests.
+ */
+
+/**
+ * Caches search pages per reader version with least-recently-used eviction.
+ */
+final class SearchCache {
+
+    private record Key(long version, Object request) {
+    }
+
+    private final int capacity;
+    private final LinkedHashMap<Key, SearchPage> entries;
+    private long version = -1;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Creates a cache for up to {@code capacity} pages; a capacity of {@code 0} or less disables caching.
+     * @param capacity maximum number of entries.
+     */
+    SearchCache(int capacity) {
+        this.capacity = Math.max(0, capacity);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, SearchPage> eldest) {
+                if (size() > SearchCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached page for a request on the given reader version.
+     * @param readerVersion version of the reader the request would run on.
+     * @param request normalized request key; compared with {@code equals()}.
+     * @return cached page, or {@code null} on a miss.
+     */
+    synchronized SearchPage get(long readerVersion, Object request) {
+        if (capacity == 0) {
+            return null;
+        }
+        SearchPage page = entries.get(new Key(readerVersion, request));
+        if (page != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return page;
+    }
+
+    /**
+     * Stores a page computed on the current searcher; a different reader version than before replaces all entries.
+     * @param readerVersion version of the current reader the page was computed on.
+     * @param request normalized request key; compared with {@code equals()}.
+     * @param page computed page.
+     */
+    synchronized void put(long readerVersion, Object request, SearchPage page) {
+        if (capacity == 0) {
+            return;
+        }
+        if (readerVersion != version) {
+            entries.clear();
+            version = readerVersion;
+        }
+        entries.put(new Key(readerVersion, request), page);
+    }
+
+    /**
+     * Drops all entries, e.g. when the index handle is replaced.
+     */
+    synchronized void clear() {
+        entries.clear();
+        version = -1;
+    }
+
+    /**
+     * Returns the current counters.
+     * @return cache statistics.
+     */
+    synchronized LuceneIndexService.SearchCacheStats stats() {
+        return new LuceneIndexService.SearchCacheStats(hits, misses, evictions, entries.size(), capacity);
+    }
+}
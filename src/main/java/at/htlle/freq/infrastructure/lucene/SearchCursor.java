@@ -0,0 +1,98 @@
+package at.htlle.freq.infrastructure.lucene;
+
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.util.BytesRef;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/*
+ * Opaque continuation token of cursor-paged searches.
+ *
+ * Data flow:
+ *  - Pages are sorted by SORT (relevance, then document id). The token of a page holds the version of the reader that
+ *    produced it and the sort position of its last hit (score, id, Lucene doc number), encoded as URL-safe Base64.
+ *  - LuceneIndexServiceImpl pins that reader version in a SearcherLifetimeManager, so following pages see the same
+ *    point-in-time view with identical scores. Once the pinned reader has expired, the walk continues on the current
+ *    reader; the unique id keeps the position well-defined, only scores may have drifted slightly.
+ *
+ * Retry / locking considerations:
+ *  - Immutable; the token itself carries all paging state.
+ */
+
+/**
+ * Encodes and decodes the reader version and sort position that a search page continues from.
+ */
+final class SearchCursor {
+
+    /** Relevance first, document id as unique tie-breaker. */
+    static final Sort SORT = new Sort(SortField.FIELD_SCORE, new SortField(IndexSchema.ID, SortField.Type.STRING));
+
+    private final long version;
+    private final FieldDoc after;
+
+    private SearchCursor(long version, FieldDoc after) {
+        this.version = version;
+        this.after = after;
+    }
+
+    /**
+     * Returns the version of the reader that produced the previous page.
+     * @return reader version.
+     */
+    long version() {
+        return version;
+    }
+
+    /**
+     * Returns the sort position to continue after.
+     * @return last hit of the previous page.
+     */
+    FieldDoc after() {
+        return after;
+    }
+
+    /**
+     * Encodes the position of the last hit of a page.
+     * @param version version of the reader that produced the page.
+     * @param last last hit, collected with {@link #SORT}.
+     * @return opaque token.
+     */
+    static String encode(long version, FieldDoc last) {
+        float score = (Float) last.fields[0];
+        BytesRef id = (BytesRef) last.fields[1];
+        byte[] idBytes = id == null ? new byte[0] : BytesRef.deepCopyOf(id).bytes;
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES + Float.BYTES + Integer.BYTES + 1 + idBytes.length);
+        buffer.putLong(version).putFloat(score).putInt(last.doc).put((byte) (id == null ? 0 : 1)).put(idBytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * Decodes a token created by {@link #encode(long, FieldDoc)}.
+     * @param token token or {@code null}/blank for the first page.
+     * @return cursor to continue from, or {@code null} for the first page.
+     * @throws IllegalArgumentException when the token is malformed.
+     */
+    static SearchCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Base64.getUrlDecoder().decode(token.trim()));
+            long version = buffer.getLong();
+            float score = buffer.getFloat();
+            int doc = buffer.getInt();
+            boolean hasId = buffer.get() == 1;
+            byte[] idBytes = new byte[buffer.remaining()];
+            buffer.get(idBytes);
+            BytesRef id = hasId ? new BytesRef(idBytes) : null;
+            // With an id the position is unique; MAX_VALUE makes the last hit itself compare as "already returned"
+            // even when merges renumbered it.
+            return new SearchCursor(version, new FieldDoc(hasId ? Integer.MAX_VALUE : doc, score, new Object[]{score, id}));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid search cursor: " + token, e);
+        }
+    }
+}
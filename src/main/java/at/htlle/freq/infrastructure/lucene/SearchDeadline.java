@@ -0,0 +1,303 @@
+package at.htlle.freq.infrastructure.lucene;
+
+import org.apache.lucene.index.BinaryDocValues;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.ExitableDirectoryReader;
+import org.apache.lucene.index.FilterDirectoryReader;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.QueryTimeout;
+import org.apache.lucene.index.SortedDocValues;
+import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.CollectorManager;
+import org.apache.lucene.search.FilterCollector;
+import org.apache.lucene.search.FilterLeafCollector;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.LeafCollector;
+import org.apache.lucene.search.Query;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Phaser;
+
+/*
+ * Time budget of one search request.
+ *
+ * Data flow:
+ *  - LuceneIndexServiceImpl.searchPage() starts the deadline when a request arrives, with the configured
+ *    lifex.lucene.search.timeout-ms or the budget passed by the caller, and runs the query through search().
+ *  - Query evaluation runs on a searcher whose reader checks the deadline while enumerating terms and points, so the
+ *    term-dictionary scan of a leading wildcard or a huge range is interrupted (ExitingReaderException). Doc values are
+ *    not wrapped: the sort comparators read them while updating the hit queue, and an exception there could leave a
+ *    queue entry half-updated.
+ *  - The collector checks the deadline before each segment and every DOCS_BETWEEN_CHECKS hits and stops collection
+ *    between two hits (Exceeded), so the queue always holds a consistent best-so-far result.
+ *  - With concurrent search (SearchExecutor) every slice has its own collector and checks the same deadline. A slice
+ *    that stops the search does not stop the others, so search() waits for all of them before it reduces the
+ *    collectors into the partial result.
+ *
+ * Retry / locking considerations:
+ *  - One instance per request; the wrapped searcher shares the caller's reader and needs no release of its own.
+ */
+
+/**
+ * Deadline of a search that interrupts term enumeration and hit collection once its budget is spent.
+ */
+final class SearchDeadline implements QueryTimeout {
+
+    private static final int DOCS_BETWEEN_CHECKS = 256;
+
+    /** Thrown by the wrapped collector when the budget is spent; carries no stack trace. */
+    static final class Exceeded extends RuntimeException {
+        private Exceeded() {
+            super("Search time budget exceeded", null, false, false);
+        }
+    }
+
+    /**
+     * Result of a budgeted search.
+     * @param result reduced result of all collectors.
+     * @param exceeded whether the budget ran out before the search completed.
+     */
+    record Outcome<T>(T result, boolean exceeded) {
+    }
+
+    private final long budgetMs;
+    private final long startNanos;
+    private final long deadlineNanos;
+
+    private SearchDeadline(long budgetMs) {
+        this.budgetMs = budgetMs;
+        this.startNanos = System.nanoTime();
+        this.deadlineNanos = startNanos + budgetMs * 1_000_000L;
+    }
+
+    /**
+     * Starts the clock of a search.
+     * @param budgetMs budget in milliseconds; {@code 0} or less means unlimited.
+     * @return running deadline.
+     */
+    static SearchDeadline start(long budgetMs) {
+        return new SearchDeadline(Math.max(0, budgetMs));
+    }
+
+    /**
+     * Returns the budget of the search.
+     * @return budget in milliseconds, {@code 0} when unlimited.
+     */
+    long budgetMs() {
+        return budgetMs;
+    }
+
+    /**
+     * Returns the time since the search started.
+     * @return elapsed milliseconds.
+     */
+    long elapsedMs() {
+        return (System.nanoTime() - startNanos) / 1_000_000L;
+    }
+
+    @Override
+    public boolean shouldExit() {
+        return budgetMs > 0 && System.nanoTime() - deadlineNanos > 0;
+    }
+
+    @Override
+    public boolean isTimeoutEnabled() {
+        return budgetMs > 0;
+    }
+
+    /**
+     * Runs a search within the budget. Term and point enumeration use a reader that checks the deadline, and every
+     * collector of the manager is wrapped so collection stops between two hits once the budget is spent. When the
+     * budget runs out, the collectors created so far are reduced after all slices of the search have stopped, so the
+     * result holds the best hits found until then.
+     * @param searcher searcher acquired by the caller.
+     * @param executors source of searchers with the same slicing and executor as {@code searcher}.
+     * @param query query to run.
+     * @param manager collectors and reduction of the search.
+     * @return reduced result and whether the budget ran out.
+     * @throws IOException when the index cannot be read.
+     */
+    <C extends Collector, T> Outcome<T> search(IndexSearcher searcher, SearchExecutor executors, Query query,
+                                              CollectorManager<C, T> manager) throws IOException {
+        if (budgetMs == 0 || !(searcher.getIndexReader() instanceof DirectoryReader reader)) {
+            return new Outcome<>(searcher.search(query, manager), false);
+        }
+        SliceTracker slices = searcher.getExecutor() == null ? null : new SliceTracker(searcher.getExecutor());
+        IndexSearcher budgeted = executors.newSearcher(new TermsDeadlineReader(reader, this), slices);
+        budgeted.setSimilarity(searcher.getSimilarity());
+        budgeted.setQueryCache(searcher.getQueryCache());
+        budgeted.setQueryCachingPolicy(searcher.getQueryCachingPolicy());
+
+        List<C> collectors = Collections.synchronizedList(new ArrayList<>());
+        CollectorManager<Collector, T> budgetedManager = new CollectorManager<>() {
+            @Override
+            public Collector newCollector() throws IOException {
+                C collector = manager.newCollector();
+                collectors.add(collector);
+                return wrap(collector);
+            }
+
+            @Override
+            public T reduce(Collection<Collector> wrapped) throws IOException {
+                return manager.reduce(List.copyOf(collectors));
+            }
+        };
+        try {
+            return new Outcome<>(budgeted.search(query, budgetedManager), false);
+        } catch (RuntimeException e) {
+            if (!isDeadline(e)) {
+                throw e;
+            }
+            // IndexSearcher does not wait for the other slices when one of them fails
+            if (slices != null) {
+                slices.awaitIdle();
+            }
+            return new Outcome<>(manager.reduce(List.copyOf(collectors)), true);
+        }
+    }
+
+    /**
+     * Wraps a collector so collection stops between two hits once the budget is spent.
+     */
+    private Collector wrap(Collector collector) {
+        return new FilterCollector(collector) {
+            @Override
+            public LeafCollector getLeafCollector(LeafReaderContext context) throws IOException {
+                check();
+                return new FilterLeafCollector(super.getLeafCollector(context)) {
+                    private int collected;
+
+                    @Override
+                    public void collect(int doc) throws IOException {
+                        if (++collected % DOCS_BETWEEN_CHECKS == 0) {
+                            check();
+                        }
+                        super.collect(doc);
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Tells whether a failure was caused by the deadline; slices scored on the search pool arrive wrapped in an
+     * {@link java.util.concurrent.ExecutionException}.
+     */
+    private static boolean isDeadline(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof Exceeded || t instanceof ExitableDirectoryReader.ExitingReaderException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void check() {
+        if (shouldExit()) {
+            throw new Exceeded();
+        }
+    }
+
+    /**
+     * Executor of one search that can wait until all slices it handed to the search pool have finished.
+     */
+    private static final class SliceTracker implements Executor {
+
+        private final Executor delegate;
+        private final Phaser running = new Phaser(1);
+
+        SliceTracker(Executor delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void execute(Runnable slice) {
+            running.register();
+            try {
+                delegate.execute(() -> {
+                    try {
+                        slice.run();
+                    } finally {
+                        running.arriveAndDeregister();
+                    }
+                });
+            } catch (RuntimeException e) {
+                running.arriveAndDeregister();
+                throw e;
+            }
+        }
+
+        void awaitIdle() {
+            running.arriveAndAwaitAdvance();
+        }
+    }
+
+    /**
+     * Directory reader whose leaves check the deadline on terms and points but hand out doc values unwrapped.
+     */
+    private static final class TermsDeadlineReader extends FilterDirectoryReader {
+
+        private final QueryTimeout timeout;
+
+        TermsDeadlineReader(DirectoryReader in, QueryTimeout timeout) throws IOException {
+            super(in, new SubReaderWrapper() {
+                @Override
+                public LeafReader wrap(LeafReader reader) {
+                    return new TermsDeadlineLeafReader(reader, timeout);
+                }
+            });
+            this.timeout = timeout;
+        }
+
+        @Override
+        protected DirectoryReader doWrapDirectoryReader(DirectoryReader in) throws IOException {
+            return new TermsDeadlineReader(in, timeout);
+        }
+
+        @Override
+        public CacheHelper getReaderCacheHelper() {
+            return in.getReaderCacheHelper();
+        }
+    }
+
+    private static final class TermsDeadlineLeafReader extends ExitableDirectoryReader.ExitableFilterAtomicReader {
+
+        TermsDeadlineLeafReader(LeafReader in, QueryTimeout timeout) {
+            super(in, timeout);
+        }
+
+        @Override
+        public NumericDocValues getNumericDocValues(String field) throws IOException {
+            return in.getNumericDocValues(field);
+        }
+
+        @Override
+        public BinaryDocValues getBinaryDocValues(String field) throws IOException {
+            return in.getBinaryDocValues(field);
+        }
+
+        @Override
+        public SortedDocValues getSortedDocValues(String field) throws IOException {
+            return in.getSortedDocValues(field);
+        }
+
+        @Override
+        public SortedNumericDocValues getSortedNumericDocValues(String field) throws IOException {
+            return in.getSortedNumericDocValues(field);
+        }
+
+        @Override
+        public SortedSetDocValues getSortedSetDocValues(String field) throws IOException {
+            return in.getSortedSetDocValues(field);
+        }
+    }
+}
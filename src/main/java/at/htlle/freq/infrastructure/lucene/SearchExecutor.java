@@ -0,0 +1,175 @@
+package at.htlle.freq.infrastructure.lucene;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.IndexSearcher;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Thread pool for concurrent segment search.
+ *
+ * Data flow:
+ *  - With lifex.lucene.search.threads > 0 every searcher of the SearcherManager is created by newSearcher(): it groups
+ *    the segments into slices of at most slice-max-docs documents or slice-max-segments segments, scores all slices
+ *    but the last one on this pool and the last one on the request thread, then merges the per-slice results.
+ *  - Only searches that run through a CollectorManager are split (search pages, facets). Exports stream hits in index
+ *    order and stay on the request thread.
+ *  - With threads = 0 (the default) searchers have no executor and every search runs on the request thread as before.
+ *
+ * Retry / locking considerations:
+ *  - The queue is bounded by queue-capacity. When it is full, or the pool is already shut down, the submitting request
+ *    thread runs the slice itself, so overload degrades to sequential search instead of failing requests, and a slice
+ *    is never dropped (IndexSearcher waits for every slice it submitted).
+ *  - One pool per service, shut down with it.
+ */
+
+/**
+ * Bounded search thread pool and the sliced searchers that use it.
+ */
+final class SearchExecutor implements AutoCloseable {
+
+    private static final long SHUTDOWN_WAIT_SECONDS = 5;
+
+    private final ThreadPoolExecutor pool;
+    private final int queueCapacity;
+    private final int maxDocsPerSlice;
+    private final int maxSegmentsPerSlice;
+    private final AtomicLong callerRuns = new AtomicLong();
+
+    /**
+     * Creates the pool described by the search settings; no threads are started for {@code threads = 0}.
+     * @param settings {@code lifex.lucene.search.*} settings.
+     */
+    SearchExecutor(LuceneProperties.Search settings) {
+        int threads = Math.max(0, settings.getThreads());
+        this.queueCapacity = Math.max(1, settings.getQueueCapacity());
+        this.maxDocsPerSlice = Math.max(1, settings.getSliceMaxDocs());
+        this.maxSegmentsPerSlice = Math.max(1, settings.getSliceMaxSegments());
+        if (threads == 0) {
+            this.pool = null;
+            return;
+        }
+        AtomicInteger counter = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "lucene-search-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                (task, executor) -> {
+                    callerRuns.incrementAndGet();
+                    task.run();
+                });
+    }
+
+    /**
+     * Tells whether searches are split into slices.
+     * @return {@code true} when a pool was configured.
+     */
+    boolean isEnabled() {
+        return pool != null;
+    }
+
+    /**
+     * Creates a searcher that scores its slices on the pool; without a pool a plain sequential searcher.
+     * @param reader reader to search.
+     * @return new searcher.
+     */
+    IndexSearcher newSearcher(IndexReader reader) {
+        return newSearcher(reader, pool);
+    }
+
+    /**
+     * Creates a searcher with the configured slicing on another executor, e.g. one that tracks the slices of a single
+     * search.
+     * @param reader reader to search.
+     * @param executor executor for the slices, or {@code null} for a sequential searcher.
+     * @return new searcher.
+     */
+    IndexSearcher newSearcher(IndexReader reader, Executor executor) {
+        if (executor == null) {
+            return new IndexSearcher(reader);
+        }
+        // Locals, not fields: IndexSearcher calls slices() from its constructor
+        int maxDocs = maxDocsPerSlice;
+        int maxSegments = maxSegmentsPerSlice;
+        return new IndexSearcher(reader, executor) {
+            @Override
+            protected LeafSlice[] slices(List<LeafReaderContext> leaves) {
+                return SearchExecutor.slices(leaves, maxDocs, maxSegments);
+            }
+        };
+    }
+
+    /**
+     * Groups segments into slices, largest first: a segment above {@code maxDocs} is a slice of its own, smaller ones
+     * are combined until the slice holds {@code maxSegments} segments or more than {@code maxDocs} documents.
+     * @param leaves segments of the reader.
+     * @param maxDocs document limit per slice.
+     * @param maxSegments segment limit per slice.
+     * @return slices in descending size.
+     */
+    static IndexSearcher.LeafSlice[] slices(List<LeafReaderContext> leaves, int maxDocs, int maxSegments) {
+        List<LeafReaderContext> sorted = new ArrayList<>(leaves);
+        sorted.sort(Comparator.comparingInt((LeafReaderContext leaf) -> leaf.reader().maxDoc()).reversed());
+        List<IndexSearcher.LeafSlice> slices = new ArrayList<>();
+        List<LeafReaderContext> group = new ArrayList<>();
+        long docs = 0;
+        for (LeafReaderContext leaf : sorted) {
+            if (leaf.reader().maxDoc() > maxDocs) {
+                slices.add(new IndexSearcher.LeafSlice(leaf));
+                continue;
+            }
+            group.add(leaf);
+            docs += leaf.reader().maxDoc();
+            if (group.size() >= maxSegments || docs > maxDocs) {
+                slices.add(new IndexSearcher.LeafSlice(group.toArray(new LeafReaderContext[0])));
+                group.clear();
+                docs = 0;
+            }
+        }
+        if (!group.isEmpty()) {
+            slices.add(new IndexSearcher.LeafSlice(group.toArray(new LeafReaderContext[0])));
+        }
+        return slices.toArray(new IndexSearcher.LeafSlice[0]);
+    }
+
+    /**
+     * Returns the current pool state.
+     * @return pool size, busy threads, queue depth and counters.
+     */
+    LuceneIndexService.SearchExecutorStats stats() {
+        if (pool == null) {
+            return new LuceneIndexService.SearchExecutorStats(0, 0, 0, queueCapacity, 0L, 0L);
+        }
+        return new LuceneIndexService.SearchExecutorStats(pool.getMaximumPoolSize(), pool.getActiveCount(),
+                pool.getQueue().size(), queueCapacity, pool.getCompletedTaskCount(), callerRuns.get());
+    }
+
+    /**
+     * Stops the pool after the queued slices, waiting up to {@link #SHUTDOWN_WAIT_SECONDS}; slices submitted afterwards
+     * run on the calling thread.
+     */
+    @Override
+    public void close() {
+        if (pool == null) {
+            return;
+        }
+        pool.shutdown();
+        try {
+            pool.awaitTermination(SHUTDOWN_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package at.htlle.freq.infrastructure.persistence;
+
+import org.h2.api.Trigger;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.Objects;
+
+/*
+ * H2 row trigger that feeds the IndexChangeLog table.
+ *
+ * Data flow:
+ *  - schema.sql attaches one instance per indexed table (AFTER INSERT, UPDATE, DELETE ... FOR EACH ROW).
+ *  - fire() appends (TableName, RowKey, Operation) using the connection of the writing statement, so the log row is
+ *    committed or rolled back together with the change itself. Seq is assigned by the identity column.
+ *  - ProjectSite rows are logged as UPDATE of the referenced Site, because the site document carries its project ids.
+ *
+ * Retry / locking considerations:
+ *  - H2 creates one trigger instance per table and calls init() once; the resolved key column index is read-only
+ *    afterwards, so concurrent fire() calls need no locking.
+ *  - A failing insert fails the writing statement; the log never silently falls behind the data.
+ */
+
+/**
+ * Records every row change of an indexed table in {@code IndexChangeLog}.
+ */
+public class ChangeLogTrigger implements Trigger {
+
+    static final String INSERT_SQL = "INSERT INTO IndexChangeLog (TableName, RowKey, Operation) VALUES (?, ?, ?)";
+
+    private static final String LINK_TABLE = "PROJECTSITE";
+
+    private String loggedTable;
+    private int keyColumn = -1;
+    private boolean linkTable;
+
+    /**
+     * Resolves the logged table name and the position of the key column.
+     */
+    @Override
+    public void init(Connection conn, String schemaName, String triggerName, String tableName, boolean before, int type)
+            throws SQLException {
+        String table = tableName.toUpperCase(Locale.ROOT);
+        linkTable = LINK_TABLE.equals(table);
+        loggedTable = linkTable ? "SITE" : table;
+        String keyName = linkTable ? "SITEID" : primaryKeyColumn(conn, schemaName, tableName);
+        keyColumn = columnIndex(conn, schemaName, tableName, keyName);
+    }
+
+    /**
+     * Appends the change to the log; an update that moves the key logs the old key as deleted.
+     */
+    @Override
+    public void fire(Connection conn, Object[] oldRow, Object[] newRow) throws SQLException {
+        Object oldKey = oldRow != null ? oldRow[keyColumn] : null;
+        Object newKey = newRow != null ? newRow[keyColumn] : null;
+        if (linkTable) {
+            log(conn, oldKey, "UPDATE");
+            if (!Objects.equals(oldKey, newKey)) {
+                log(conn, newKey, "UPDATE");
+            }
+            return;
+        }
+        if (newRow == null) {
+            log(conn, oldKey, "DELETE");
+        } else if (oldRow == null) {
+            log(conn, newKey, "INSERT");
+        } else {
+            if (!Objects.equals(oldKey, newKey)) {
+                log(conn, oldKey, "DELETE");
+            }
+            log(conn, newKey, "UPDATE");
+        }
+    }
+
+    private void log(Connection conn, Object key, String operation) throws SQLException {
+        if (key == null) {
+            return;
+        }
+        try (PreparedStatement insert = conn.prepareStatement(INSERT_SQL)) {
+            insert.setString(1, loggedTable);
+            insert.setString(2, key.toString());
+            insert.setString(3, operation);
+            insert.executeUpdate();
+        }
+    }
+
+    private static String primaryKeyColumn(Connection conn, String schema, String table) throws SQLException {
+        try (ResultSet keys = conn.getMetaData().getPrimaryKeys(null, schema, table)) {
+            if (keys.next()) {
+                return keys.getString("COLUMN_NAME");
+            }
+        }
+        throw new SQLException("Table " + table + " has no primary key to log");
+    }
+
+    private static int columnIndex(Connection conn, String schema, String table, String column) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet columns = meta.getColumns(null, schema, table, null)) {
+            while (columns.next()) {
+                if (column.equalsIgnoreCase(columns.getString("COLUMN_NAME"))) {
+                    return columns.getInt("ORDINAL_POSITION") - 1;
+                }
+            }
+        }
+        throw new SQLException("Column " + column + " not found in " + table);
+    }
+}
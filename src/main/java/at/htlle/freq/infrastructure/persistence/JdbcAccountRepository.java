@@ -9,6 +9,7 @@ import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * JDBC-based implementation of {@link AccountRepository} that encapsulates all CRUD operations
@@ -19,6 +20,11 @@ import java.util.*;
 @Repository
 public class JdbcAccountRepository implements AccountRepository {
 
+    private static final String SELECT_ALL = """
+            SELECT AccountID, AccountName, ContactName, ContactEmail, ContactPhone, VATNumber, Country
+            FROM Account
+            """;
+
     private final NamedParameterJdbcTemplate jdbc;
 
     /**
@@ -87,11 +93,27 @@ public class JdbcAccountRepository implements AccountRepository {
      */
     @Override
     public List<Account> findAll() {
-        String sql = """
-            SELECT AccountID, AccountName, ContactName, ContactEmail, ContactPhone, VATNumber, Country
-            FROM Account
-            """;
-        return jdbc.query(sql, mapper);
+        return jdbc.query(SELECT_ALL, mapper);
+    }
+
+    /**
+     * Streams all accounts in primary-key order, reading {@code chunkSize} rows per keyset query.
+     * @param chunkSize rows per query.
+     * @return lazily loaded accounts.
+     */
+    @Override
+    public Stream<Account> streamAll(int chunkSize) {
+        return KeysetScan.stream(jdbc, SELECT_ALL, "AccountID", mapper, Account::getAccountID, chunkSize);
+    }
+
+    /**
+     * Counts all accounts with one {@code SELECT COUNT(*)}, independently of {@link #streamAll(int)}.
+     * @return number of rows in the {@code Account} table.
+     */
+    @Override
+    public long count() {
+        Long rows = jdbc.queryForObject("SELECT COUNT(*) FROM Account", new MapSqlParameterSource(), Long.class);
+        return rows == null ? 0 : rows;
     }
 
     /**
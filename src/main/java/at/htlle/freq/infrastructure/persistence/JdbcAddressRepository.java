@@ -7,6 +7,7 @@ import org.springframework.jdbc.core.namedparam.*;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * JDBC repository for {@link Address} entities that provides CRUD operations for the
@@ -16,6 +17,8 @@ import java.util.*;
 @Repository
 public class JdbcAddressRepository implements AddressRepository {
 
+    private static final String SELECT_ALL = "SELECT AddressID, Street, CityID FROM Address";
+
     private final NamedParameterJdbcTemplate jdbc;
 
     /**
@@ -52,7 +55,27 @@ public class JdbcAddressRepository implements AddressRepository {
      */
     @Override
     public List<Address> findAll() {
-        return jdbc.query("SELECT AddressID, Street, CityID FROM Address", mapper);
+        return jdbc.query(SELECT_ALL, mapper);
+    }
+
+    /**
+     * Streams all addresses in primary-key order, reading {@code chunkSize} rows per keyset query.
+     * @param chunkSize rows per query.
+     * @return lazily loaded addresses.
+     */
+    @Override
+    public Stream<Address> streamAll(int chunkSize) {
+        return KeysetScan.stream(jdbc, SELECT_ALL, "AddressID", mapper, Address::getAddressID, chunkSize);
+    }
+
+    /**
+     * Counts all addresses with one {@code SELECT COUNT(*)}, independently of {@link #streamAll(int)}.
+     * @return number of rows in the {@code Address} table.
+     */
+    @Override
+    public long count() {
+        Long rows = jdbc.queryForObject("SELECT COUNT(*) FROM Address", new MapSqlParameterSource(), Long.class);
+        return rows == null ? 0 : rows;
     }
 
     /**
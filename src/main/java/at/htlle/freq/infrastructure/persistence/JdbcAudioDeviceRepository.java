@@ -7,6 +7,7 @@ import org.springframework.jdbc.core.namedparam.*;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * Repository for {@link AudioDevice} entities that encapsulates direct JDBC access to the
@@ -15,6 +16,11 @@ import java.util.*;
 @Repository
 public class JdbcAudioDeviceRepository implements AudioDeviceRepository {
 
+    private static final String SELECT_ALL = """
+            SELECT AudioDeviceID, ClientID, AudioDeviceBrand, DeviceSerialNr, AudioDeviceFirmware, DeviceType, Direction
+            FROM AudioDevice
+            """;
+
     private final NamedParameterJdbcTemplate jdbc;
 
     /**
@@ -68,10 +74,27 @@ public class JdbcAudioDeviceRepository implements AudioDeviceRepository {
      */
     @Override
     public List<AudioDevice> findAll() {
-        return jdbc.query("""
-            SELECT AudioDeviceID, ClientID, AudioDeviceBrand, DeviceSerialNr, AudioDeviceFirmware, DeviceType, Direction
-            FROM AudioDevice
-            """, mapper);
+        return jdbc.query(SELECT_ALL, mapper);
+    }
+
+    /**
+     * Streams all audio devices in primary-key order, reading {@code chunkSize} rows per keyset query.
+     * @param chunkSize rows per query.
+     * @return lazily loaded audio devices.
+     */
+    @Override
+    public Stream<AudioDevice> streamAll(int chunkSize) {
+        return KeysetScan.stream(jdbc, SELECT_ALL, "AudioDeviceID", mapper, AudioDevice::getAudioDeviceID, chunkSize);
+    }
+
+    /**
+     * Counts all audio devices with one {@code SELECT COUNT(*)}, independently of {@link #streamAll(int)}.
+     * @return number of rows in the {@code AudioDevice} table.
+     */
+    @Override
+    public long count() {
+        Long rows = jdbc.queryForObject("SELECT COUNT(*) FROM AudioDevice", new MapSqlParameterSource(), Long.class);
+        return rows == null ? 0 : rows;
     }
 
     /**
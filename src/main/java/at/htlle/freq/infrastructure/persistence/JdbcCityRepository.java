@@ -7,6 +7,7 @@ import org.springframework.jdbc.core.namedparam.*;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * JDBC-backed repository for {@link City} that provides CRUD access to the {@code City} table and
@@ -15,6 +16,8 @@ import java.util.*;
 @Repository
 public class JdbcCityRepository implements CityRepository {
 
+    private static final String SELECT_ALL = "SELECT CityID, CityName, CountryCode FROM City";
+
     private final NamedParameterJdbcTemplate jdbc;
 
     /**
@@ -110,6 +113,26 @@ public class JdbcCityRepository implements CityRepository {
      */
     @Override
     public List<City> findAll() {
-        return jdbc.query("SELECT CityID, CityName, CountryCode FROM City", mapper);
+        return jdbc.query(SELECT_ALL, mapper);
+    }
+
+    /**
+     * Streams all cities in primary-key order, reading {@code chunkSize} rows per keyset query.
+     * @param chunkSize rows per query.
+     * @return lazily loaded cities.
+     */
+    @Override
+    public Stream<City> streamAll(int chunkSize) {
+        return KeysetScan.stream(jdbc, SELECT_ALL, "CityID", mapper, City::getCityID, chunkSize);
+    }
+
+    /**
+     * Counts all cities with one {@code SELECT COUNT(*)}, independently of {@link #streamAll(int)}.
+     * @return number of rows in the {@code City} table.
+     */
+    @Override
+    public long count() {
+        Long rows = jdbc.queryForObject("SELECT COUNT(*) FROM City", new MapSqlParameterSource(), Long.class);
+        return rows == null ? 0 : rows;
     }
 }
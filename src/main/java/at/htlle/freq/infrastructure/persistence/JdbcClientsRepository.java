@@ -7,6 +7,7 @@ import org.springframework.jdbc.core.namedparam.*;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * JDBC repository for {@link Clients} that encapsulates access to the {@code Clients} table and
@@ -15,6 +16,12 @@ import java.util.*;
 @Repository
 public class JdbcClientsRepository implements ClientsRepository {
 
+    private static final String SELECT_ALL = """
+            SELECT ClientID, SiteID, ClientName, ClientBrand, ClientSerialNr, ClientOS, PatchLevel, InstallType,
+                   WorkingPositionType, OtherInstalledSoftware
+            FROM Clients
+            """;
+
     private final NamedParameterJdbcTemplate jdbc;
 
     /**
@@ -78,11 +85,27 @@ public class JdbcClientsRepository implements ClientsRepository {
      */
     @Override
     public List<Clients> findAll() {
-        return jdbc.query("""
-            SELECT ClientID, SiteID, ClientName, ClientBrand, ClientSerialNr, ClientOS, PatchLevel, InstallType,
-                   WorkingPositionType, OtherInstalledSoftware
-            FROM Clients
-            """, mapper);
+        return jdbc.query(SELECT_ALL, mapper);
+    }
+
+    /**
+     * Streams all clients in primary-key order, reading {@code chunkSize} rows per keyset query.
+     * @param chunkSize rows per query.
+     * @return lazily loaded clients.
+     */
+    @Override
+    public Stream<Clients> streamAll(int chunkSize) {
+        return KeysetScan.stream(jdbc, SELECT_ALL, "ClientID", mapper, Clients::getClientID, chunkSize);
+    }
+
+    /**
+     * Counts all clients with one {@code SELECT COUNT(*)}, independently of {@link #streamAll(int)}.
+     * @return number of rows in the {@code Clients} table.
+     */
+    @Override
+    public long count() {
+        Long rows = jdbc.queryForObject("SELECT COUNT(*) FROM Clients", new MapSqlParameterSource(), Long.class);
+        return rows == null ? 0 : rows;
     }
 
     /**
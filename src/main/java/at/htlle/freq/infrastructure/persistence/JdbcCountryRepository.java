@@ -7,6 +7,7 @@ import org.springframework.jdbc.core.namedparam.*;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * JDBC-backed repository for {@link Country} that bundles read and write operations on the
@@ -16,6 +17,8 @@ import java.util.*;
 @Repository
 public class JdbcCountryRepository implements CountryRepository {
 
+    private static final String SELECT_ALL = "SELECT CountryCode, CountryName FROM Country";
+
     private final NamedParameterJdbcTemplate jdbc;
 
     /**
@@ -81,7 +84,27 @@ public class JdbcCountryRepository implements CountryRepository {
      */
     @Override
     public List<Country> findAll() {
-        return jdbc.query("SELECT CountryCode, CountryName FROM Country", mapper);
+        return jdbc.query(SELECT_ALL, mapper);
+    }
+
+    /**
+     * Streams all countries in primary-key order, reading {@code chunkSize} rows per keyset query.
+     * @param chunkSize rows per query.
+     * @return lazily loaded countries.
+     */
+    @Override
+    public Stream<Country> streamAll(int chunkSize) {
+        return KeysetScan.stream(jdbc, SELECT_ALL, "CountryCode", mapper, Country::getCountryCode, chunkSize);
+    }
+
+    /**
+     * Counts all countries with one {@code SELECT COUNT(*)}, independently of {@link #streamAll(int)}.
+     * @return number of rows in the {@code Country} table.
+     */
+    @Override
+    public long count() {
+        Long rows = jdbc.queryForObject("SELECT COUNT(*) FROM Country", new MapSqlParameterSource(), Long.class);
+        return rows == null ? 0 : rows;
     }
 
     /**
@@ -7,6 +7,7 @@ import org.springframework.jdbc.core.namedparam.*;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * JDBC repository for {@link DeploymentVariant} that centralizes all access to the
@@ -15,6 +16,8 @@ import java.util.*;
 @Repository
 public class JdbcDeploymentVariantRepository implements DeploymentVariantRepository {
 
+    private static final String SELECT_ALL = "SELECT VariantID, VariantCode, VariantName, Description, IsActive FROM DeploymentVariant";
+
     private final NamedParameterJdbcTemplate jdbc;
 
     /**
@@ -85,8 +88,27 @@ public class JdbcDeploymentVariantRepository implements DeploymentVariantReposit
      */
     @Override
     public List<DeploymentVariant> findAll() {
-        String sql = "SELECT VariantID, VariantCode, VariantName, Description, IsActive FROM DeploymentVariant";
-        return jdbc.query(sql, mapper);
+        return jdbc.query(SELECT_ALL, mapper);
+    }
+
+    /**
+     * Streams all deployment variants in primary-key order, reading {@code chunkSize} rows per keyset query.
+     * @param chunkSize rows per query.
+     * @return lazily loaded deployment variants.
+     */
+    @Override
+    public Stream<DeploymentVariant> streamAll(int chunkSize) {
+        return KeysetScan.stream(jdbc, SELECT_ALL, "VariantID", mapper, DeploymentVariant::getVariantID, chunkSize);
+    }
+
+    /**
+     * Counts all deployment variants with one {@code SELECT COUNT(*)}, independently of {@link #streamAll(int)}.
+     * @return number of rows in the {@code DeploymentVariant} table.
+     */
+    @Override
+    public long count() {
+        Long rows = jdbc.queryForObject("SELECT COUNT(*) FROM DeploymentVariant", new MapSqlParameterSource(), Long.class);
+        return rows == null ? 0 : rows;
     }
 
     /**
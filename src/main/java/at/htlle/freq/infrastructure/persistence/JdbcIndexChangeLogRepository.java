@@ -0,0 +1,70 @@
+package at.htlle.freq.infrastructure.persistence;
+
+import at.htlle.freq.domain.IndexChange;
+import at.htlle.freq.domain.IndexChangeLogRepository;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository abstraction for reading and trimming the IndexChangeLog table filled by {@link ChangeLogTrigger}.
+ */
+@Repository
+public class JdbcIndexChangeLogRepository implements IndexChangeLogRepository {
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    /**
+     * Creates a new JdbcIndexChangeLogRepository instance and initializes it with the provided values.
+     * @param jdbc jdbc.
+     */
+    public JdbcIndexChangeLogRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Finds the oldest pending changes in sequence order.
+     * @param limit maximum number of entries.
+     * @return the pending changes.
+     */
+    @Override
+    public List<IndexChange> findPending(int limit) {
+        String sql = """
+                SELECT Seq, TableName, RowKey, Operation
+                FROM IndexChangeLog
+                ORDER BY Seq
+                LIMIT :limit
+                """;
+        return jdbc.query(sql, new MapSqlParameterSource("limit", Math.max(1, limit)), (rs, n) -> new IndexChange(
+                rs.getLong("Seq"),
+                rs.getString("TableName"),
+                rs.getString("RowKey"),
+                rs.getString("Operation")));
+    }
+
+    /**
+     * Deletes applied changes by their exact sequence numbers. Entries with a lower sequence number whose transaction
+     * committed late are therefore kept for the next poll.
+     * @param seqs sequence numbers.
+     */
+    @Override
+    public void deleteBySeq(Collection<Long> seqs) {
+        if (seqs == null || seqs.isEmpty()) {
+            return;
+        }
+        jdbc.update("DELETE FROM IndexChangeLog WHERE Seq IN (:seqs)", new MapSqlParameterSource("seqs", seqs));
+    }
+
+    /**
+     * Counts the entries in the log.
+     * @return number of pending changes.
+     */
+    @Override
+    public long countPending() {
+        Long count = jdbc.queryForObject("SELECT COUNT(*) FROM IndexChangeLog", new MapSqlParameterSource(), Long.class);
+        return count == null ? 0L : count;
+    }
+}
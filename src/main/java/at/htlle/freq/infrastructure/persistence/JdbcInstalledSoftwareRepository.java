@@ -11,6 +11,7 @@ import org.springframework.stereotype.Repository;
 import java.nio.ByteBuffer;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * JDBC repository for {@link InstalledSoftware} that targets the {@code InstalledSoftware}
@@ -19,6 +20,12 @@ import java.util.*;
 @Repository
 public class JdbcInstalledSoftwareRepository implements InstalledSoftwareRepository {
 
+    private static final String SELECT_ALL = """
+            SELECT InstalledSoftwareID, SiteID, SoftwareID, Status,
+                   OfferedDate, InstalledDate, RejectedDate, OutdatedDate
+            FROM InstalledSoftware
+            """;
+
     private final NamedParameterJdbcTemplate jdbc;
 
     /**
@@ -143,11 +150,27 @@ public class JdbcInstalledSoftwareRepository implements InstalledSoftwareReposit
      */
     @Override
     public List<InstalledSoftware> findAll() {
-        return jdbc.query("""
-            SELECT InstalledSoftwareID, SiteID, SoftwareID, Status,
-                   OfferedDate, InstalledDate, RejectedDate, OutdatedDate
-            FROM InstalledSoftware
-            """, mapper);
+        return jdbc.query(SELECT_ALL, mapper);
+    }
+
+    /**
+     * Streams all installed software records in primary-key order, reading {@code chunkSize} rows per keyset query.
+     * @param chunkSize rows per query.
+     * @return lazily loaded installed software records.
+     */
+    @Override
+    public Stream<InstalledSoftware> streamAll(int chunkSize) {
+        return KeysetScan.stream(jdbc, SELECT_ALL, "InstalledSoftwareID", mapper, InstalledSoftware::getInstalledSoftwareID, chunkSize);
+    }
+
+    /**
+     * Counts all installed software records with one {@code SELECT COUNT(*)}, independently of {@link #streamAll(int)}.
+     * @return number of rows in the {@code InstalledSoftware} table.
+     */
+    @Override
+    public long count() {
+        Long rows = jdbc.queryForObject("SELECT COUNT(*) FROM InstalledSoftware", new MapSqlParameterSource(), Long.class);
+        return rows == null ? 0 : rows;
     }
 
     /**
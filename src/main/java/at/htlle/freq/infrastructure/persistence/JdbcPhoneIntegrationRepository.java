@@ -7,6 +7,7 @@ import org.springframework.jdbc.core.namedparam.*;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * JDBC repository for {@link PhoneIntegration} that operates on the {@code PhoneIntegration}
@@ -15,6 +16,11 @@ import java.util.*;
 @Repository
 public class JdbcPhoneIntegrationRepository implements PhoneIntegrationRepository {
 
+    private static final String SELECT_ALL = """
+            SELECT PhoneIntegrationID, SiteID, PhoneType, PhoneBrand, InterfaceName, Capacity, PhoneFirmware
+            FROM PhoneIntegration
+            """;
+
     private final NamedParameterJdbcTemplate jdbc;
 
     /**
@@ -68,10 +74,27 @@ public class JdbcPhoneIntegrationRepository implements PhoneIntegrationRepositor
      */
     @Override
     public List<PhoneIntegration> findAll() {
-        return jdbc.query("""
-            SELECT PhoneIntegrationID, SiteID, PhoneType, PhoneBrand, InterfaceName, Capacity, PhoneFirmware
-            FROM PhoneIntegration
-            """, mapper);
+        return jdbc.query(SELECT_ALL, mapper);
+    }
+
+    /**
+     * Streams all phone integrations in primary-key order, reading {@code chunkSize} rows per keyset query.
+     * @param chunkSize rows per query.
+     * @return lazily loaded phone integrations.
+     */
+    @Override
+    public Stream<PhoneIntegration> streamAll(int chunkSize) {
+        return KeysetScan.stream(jdbc, SELECT_ALL, "PhoneIntegrationID", mapper, PhoneIntegration::getPhoneIntegrationID, chunkSize);
+    }
+
+    /**
+     * Counts all phone integrations with one {@code SELECT COUNT(*)}, independently of {@link #streamAll(int)}.
+     * @return number of rows in the {@code PhoneIntegration} table.
+     */
+    @Override
+    public long count() {
+        Long rows = jdbc.queryForObject("SELECT COUNT(*) FROM PhoneIntegration", new MapSqlParameterSource(), Long.class);
+        return rows == null ? 0 : rows;
     }
 
     /**
@@ -8,6 +8,7 @@ import org.springframework.jdbc.core.namedparam.*;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * JDBC repository for {@link Project} that manages all project data in the {@code Project} table
@@ -16,6 +17,12 @@ import java.util.*;
 @Repository
 public class JdbcProjectRepository implements ProjectRepository {
 
+    private static final String SELECT_ALL = """
+            SELECT ProjectID, ProjectSAPID, ProjectName, DeploymentVariantID, BundleType,
+                   CreateDateTime, LifecycleStatus, AccountID, AddressID, SpecialNotes
+            FROM Project
+            """;
+
     private final NamedParameterJdbcTemplate jdbc;
 
     /**
@@ -81,12 +88,27 @@ public class JdbcProjectRepository implements ProjectRepository {
      */
     @Override
     public List<Project> findAll() {
-        String sql = """
-            SELECT ProjectID, ProjectSAPID, ProjectName, DeploymentVariantID, BundleType,
-                   CreateDateTime, LifecycleStatus, AccountID, AddressID, SpecialNotes
-            FROM Project
-            """;
-        return jdbc.query(sql, mapper);
+        return jdbc.query(SELECT_ALL, mapper);
+    }
+
+    /**
+     * Streams all projects in primary-key order, reading {@code chunkSize} rows per keyset query.
+     * @param chunkSize rows per query.
+     * @return lazily loaded projects.
+     */
+    @Override
+    public Stream<Project> streamAll(int chunkSize) {
+        return KeysetScan.stream(jdbc, SELECT_ALL, "ProjectID", mapper, Project::getProjectID, chunkSize);
+    }
+
+    /**
+     * Counts all projects with one {@code SELECT COUNT(*)}, independently of {@link #streamAll(int)}.
+     * @return number of rows in the {@code Project} table.
+     */
+    @Override
+    public long count() {
+        Long rows = jdbc.queryForObject("SELECT COUNT(*) FROM Project", new MapSqlParameterSource(), Long.class);
+        return rows == null ? 0 : rows;
     }
 
     /**
@@ -7,6 +7,7 @@ import org.springframework.jdbc.core.namedparam.*;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * JDBC repository for {@link Radio} that manages inventory data in the {@code Radio} table and
@@ -15,6 +16,11 @@ import java.util.*;
 @Repository
 public class JdbcRadioRepository implements RadioRepository {
 
+    private static final String SELECT_ALL = """
+            SELECT RadioID, SiteID, AssignedClientID, RadioBrand, RadioSerialNr, Mode, DigitalStandard
+            FROM Radio
+            """;
+
     private final NamedParameterJdbcTemplate jdbc;
 
     /**
@@ -68,10 +74,27 @@ public class JdbcRadioRepository implements RadioRepository {
      */
     @Override
     public List<Radio> findAll() {
-        return jdbc.query("""
-            SELECT RadioID, SiteID, AssignedClientID, RadioBrand, RadioSerialNr, Mode, DigitalStandard
-            FROM Radio
-            """, mapper);
+        return jdbc.query(SELECT_ALL, mapper);
+    }
+
+    /**
+     * Streams all radios in primary-key order, reading {@code chunkSize} rows per keyset query.
+     * @param chunkSize rows per query.
+     * @return lazily loaded radios.
+     */
+    @Override
+    public Stream<Radio> streamAll(int chunkSize) {
+        return KeysetScan.stream(jdbc, SELECT_ALL, "RadioID", mapper, Radio::getRadioID, chunkSize);
+    }
+
+    /**
+     * Counts all radios with one {@code SELECT COUNT(*)}, independently of {@link #streamAll(int)}.
+     * @return number of rows in the {@code Radio} table.
+     */
+    @Override
+    public long count() {
+        Long rows = jdbc.queryForObject("SELECT COUNT(*) FROM Radio", new MapSqlParameterSource(), Long.class);
+        return rows == null ? 0 : rows;
     }
 
     /**
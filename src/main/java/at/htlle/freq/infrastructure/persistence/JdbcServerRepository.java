@@ -7,6 +7,7 @@ import org.springframework.jdbc.core.namedparam.*;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * JDBC repository for {@link Server} that maintains the {@code Server} table and maps server
@@ -15,6 +16,12 @@ import java.util.*;
 @Repository
 public class JdbcServerRepository implements ServerRepository {
 
+    private static final String SELECT_ALL = """
+            SELECT ServerID, SiteID, ServerName, ServerBrand, ServerSerialNr, ServerOS,
+                   PatchLevel, VirtualPlatform, VirtualVersion
+            FROM Server
+            """;
+
     private final NamedParameterJdbcTemplate jdbc;
 
     /**
@@ -72,12 +79,27 @@ public class JdbcServerRepository implements ServerRepository {
      */
     @Override
     public List<Server> findAll() {
-        String sql = """
-            SELECT ServerID, SiteID, ServerName, ServerBrand, ServerSerialNr, ServerOS,
-                   PatchLevel, VirtualPlatform, VirtualVersion
-            FROM Server
-            """;
-        return jdbc.query(sql, mapper);
+        return jdbc.query(SELECT_ALL, mapper);
+    }
+
+    /**
+     * Streams all servers in primary-key order, reading {@code chunkSize} rows per keyset query.
+     * @param chunkSize rows per query.
+     * @return lazily loaded servers.
+     */
+    @Override
+    public Stream<Server> streamAll(int chunkSize) {
+        return KeysetScan.stream(jdbc, SELECT_ALL, "ServerID", mapper, Server::getServerID, chunkSize);
+    }
+
+    /**
+     * Counts all servers with one {@code SELECT COUNT(*)}, independently of {@link #streamAll(int)}.
+     * @return number of rows in the {@code Server} table.
+     */
+    @Override
+    public long count() {
+        Long rows = jdbc.queryForObject("SELECT COUNT(*) FROM Server", new MapSqlParameterSource(), Long.class);
+        return rows == null ? 0 : rows;
     }
 
     /**
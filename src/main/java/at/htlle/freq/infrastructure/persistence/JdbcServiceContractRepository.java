@@ -9,6 +9,7 @@ import org.springframework.stereotype.Repository;
 import java.sql.Date;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * JDBC repository for {@link ServiceContract} that stores contract data in the
@@ -17,6 +18,11 @@ import java.util.*;
 @Repository
 public class JdbcServiceContractRepository implements ServiceContractRepository {
 
+    private static final String SELECT_ALL = """
+            SELECT ContractID, AccountID, ProjectID, SiteID, ContractNumber, Status, StartDate, EndDate
+            FROM ServiceContract
+            """;
+
     private final NamedParameterJdbcTemplate jdbc;
 
     /**
@@ -71,10 +77,27 @@ public class JdbcServiceContractRepository implements ServiceContractRepository
      */
     @Override
     public List<ServiceContract> findAll() {
-        return jdbc.query("""
-            SELECT ContractID, AccountID, ProjectID, SiteID, ContractNumber, Status, StartDate, EndDate
-            FROM ServiceContract
-            """, mapper);
+        return jdbc.query(SELECT_ALL, mapper);
+    }
+
+    /**
+     * Streams all service contracts in primary-key order, reading {@code chunkSize} rows per keyset query.
+     * @param chunkSize rows per query.
+     * @return lazily loaded service contracts.
+     */
+    @Override
+    public Stream<ServiceContract> streamAll(int chunkSize) {
+        return KeysetScan.stream(jdbc, SELECT_ALL, "ContractID", mapper, ServiceContract::getContractID, chunkSize);
+    }
+
+    /**
+     * Counts all service contracts with one {@code SELECT COUNT(*)}, independently of {@link #streamAll(int)}.
+     * @return number of rows in the {@code ServiceContract} table.
+     */
+    @Override
+    public long count() {
+        Long rows = jdbc.queryForObject("SELECT COUNT(*) FROM ServiceContract", new MapSqlParameterSource(), Long.class);
+        return rows == null ? 0 : rows;
     }
 
     /**
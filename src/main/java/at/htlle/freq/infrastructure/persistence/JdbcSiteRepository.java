@@ -9,6 +9,7 @@ import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * JDBC repository for {@link Site} that manages location data in the {@code Site} table and maps
@@ -17,6 +18,8 @@ import java.util.*;
 @Repository
 public class JdbcSiteRepository implements SiteRepository {
 
+    private static final String SELECT_ALL = "SELECT SiteID, SiteName, ProjectID, AddressID, FireZone, TenantCount, RedundantServers, HighAvailability FROM Site";
+
     private final NamedParameterJdbcTemplate jdbc;
 
     /**
@@ -74,7 +77,27 @@ public class JdbcSiteRepository implements SiteRepository {
      */
     @Override
     public List<Site> findAll() {
-        return jdbc.query("SELECT SiteID, SiteName, ProjectID, AddressID, FireZone, TenantCount, RedundantServers, HighAvailability FROM Site", mapper);
+        return jdbc.query(SELECT_ALL, mapper);
+    }
+
+    /**
+     * Streams all sites in primary-key order, reading {@code chunkSize} rows per keyset query.
+     * @param chunkSize rows per query.
+     * @return lazily loaded sites.
+     */
+    @Override
+    public Stream<Site> streamAll(int chunkSize) {
+        return KeysetScan.stream(jdbc, SELECT_ALL, "SiteID", mapper, Site::getSiteID, chunkSize);
+    }
+
+    /**
+     * Counts all sites with one {@code SELECT COUNT(*)}, independently of {@link #streamAll(int)}.
+     * @return number of rows in the {@code Site} table.
+     */
+    @Override
+    public long count() {
+        Long rows = jdbc.queryForObject("SELECT COUNT(*) FROM Site", new MapSqlParameterSource(), Long.class);
+        return rows == null ? 0 : rows;
     }
 
     /**
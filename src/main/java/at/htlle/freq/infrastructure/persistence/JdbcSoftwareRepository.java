@@ -7,6 +7,7 @@ import org.springframework.jdbc.core.namedparam.*;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * JDBC repository for {@link Software} that manages software metadata stored in the
@@ -15,6 +16,12 @@ import java.util.*;
 @Repository
 public class JdbcSoftwareRepository implements SoftwareRepository {
 
+    private static final String SELECT_ALL = """
+            SELECT SoftwareID, Name, Release, Revision, SupportPhase, LicenseModel, ThirdParty,
+                   EndOfSalesDate, SupportStartDate, SupportEndDate
+            FROM Software
+            """;
+
     private final NamedParameterJdbcTemplate jdbc;
 
     /**
@@ -73,12 +80,27 @@ public class JdbcSoftwareRepository implements SoftwareRepository {
      */
     @Override
     public List<Software> findAll() {
-        String sql = """
-            SELECT SoftwareID, Name, Release, Revision, SupportPhase, LicenseModel, ThirdParty,
-                   EndOfSalesDate, SupportStartDate, SupportEndDate
-            FROM Software
-            """;
-        return jdbc.query(sql, mapper);
+        return jdbc.query(SELECT_ALL, mapper);
+    }
+
+    /**
+     * Streams all software entries in primary-key order, reading {@code chunkSize} rows per keyset query.
+     * @param chunkSize rows per query.
+     * @return lazily loaded software entries.
+     */
+    @Override
+    public Stream<Software> streamAll(int chunkSize) {
+        return KeysetScan.stream(jdbc, SELECT_ALL, "SoftwareID", mapper, Software::getSoftwareID, chunkSize);
+    }
+
+    /**
+     * Counts all software entries with one {@code SELECT COUNT(*)}, independently of {@link #streamAll(int)}.
+     * @return number of rows in the {@code Software} table.
+     */
+    @Override
+    public long count() {
+        Long rows = jdbc.queryForObject("SELECT COUNT(*) FROM Software", new MapSqlParameterSource(), Long.class);
+        return rows == null ? 0 : rows;
     }
 
     /**
@@ -9,6 +9,7 @@ import org.springframework.stereotype.Repository;
 import java.sql.Date;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * JDBC repository for {@link UpgradePlan} that manages maintenance windows in the
@@ -17,6 +18,12 @@ import java.util.*;
 @Repository
 public class JdbcUpgradePlanRepository implements UpgradePlanRepository {
 
+    private static final String SELECT_ALL = """
+            SELECT UpgradePlanID, SiteID, SoftwareID, PlannedWindowStart, PlannedWindowEnd,
+                   Status, CreatedAt, CreatedBy
+            FROM UpgradePlan
+            """;
+
     private final NamedParameterJdbcTemplate jdbc;
 
     /**
@@ -73,11 +80,27 @@ public class JdbcUpgradePlanRepository implements UpgradePlanRepository {
      */
     @Override
     public List<UpgradePlan> findAll() {
-        return jdbc.query("""
-            SELECT UpgradePlanID, SiteID, SoftwareID, PlannedWindowStart, PlannedWindowEnd,
-                   Status, CreatedAt, CreatedBy
-            FROM UpgradePlan
-            """, mapper);
+        return jdbc.query(SELECT_ALL, mapper);
+    }
+
+    /**
+     * Streams all upgrade plans in primary-key order, reading {@code chunkSize} rows per keyset query.
+     * @param chunkSize rows per query.
+     * @return lazily loaded upgrade plans.
+     */
+    @Override
+    public Stream<UpgradePlan> streamAll(int chunkSize) {
+        return KeysetScan.stream(jdbc, SELECT_ALL, "UpgradePlanID", mapper, UpgradePlan::getUpgradePlanID, chunkSize);
+    }
+
+    /**
+     * Counts all upgrade plans with one {@code SELECT COUNT(*)}, independently of {@link #streamAll(int)}.
+     * @return number of rows in the {@code UpgradePlan} table.
+     */
+    @Override
+    public long count() {
+        Long rows = jdbc.queryForObject("SELECT COUNT(*) FROM UpgradePlan", new MapSqlParameterSource(), Long.class);
+        return rows == null ? 0 : rows;
     }
 
     /**
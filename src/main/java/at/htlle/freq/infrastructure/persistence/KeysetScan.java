@@ -0,0 +1,93 @@
+package at.htlle.freq.infrastructure.persistence;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/*
+ * Keyset-paginated full-table scans.
+ *
+ * Data flow:
+ *  - The repositories pass the SELECT of their findAll() together with the primary-key column. Each chunk appends
+ *    "WHERE <key> > :after ORDER BY <key> LIMIT :limit" and continues after the key of the last row of the previous
+ *    chunk, so every chunk is an index range scan no matter how far the scan has progressed (unlike OFFSET paging).
+ *  - The next chunk is only queried once the consumer of the stream has taken every row of the current one. At most one
+ *    chunk of mapped rows is held in memory at a time; the JDBC fetch size is set to the chunk size as well.
+ *
+ * Retry / locking considerations:
+ *  - Every chunk is a separate, short query; no connection or cursor stays open between chunks, so a slow consumer
+ *    (e.g. a sweep waiting for queue backoff) does not pin a pooled connection or hold read locks.
+ *  - A row inserted behind the current key during the scan is picked up, one inserted before it is not; the change log
+ *    and the next sweep cover it. Rows are never returned twice.
+ *
+ * Integration points:
+ *  - Used by the streamAll() implementations of the Jdbc*Repository classes, which feed the sweep routes and
+ *    reindexAll().
+ */
+
+/**
+ * Streams all rows of a table in primary-key order, one keyset chunk at a time.
+ */
+final class KeysetScan {
+
+    private KeysetScan() {
+    }
+
+    /**
+     * Creates a lazy stream over a whole table.
+     * @param jdbc template whose data source is queried.
+     * @param select the table's SELECT without WHERE or ORDER BY clause.
+     * @param keyColumn primary-key column the chunks are ordered and continued by.
+     * @param mapper row mapper of the repository.
+     * @param key extracts the primary key from a mapped row.
+     * @param chunkSize rows per query (at least one).
+     * @param <T> row type.
+     * @return rows in key order; closing the stream is not required but ends the scan early.
+     */
+    static <T> Stream<T> stream(NamedParameterJdbcTemplate jdbc, String select, String keyColumn, RowMapper<T> mapper,
+                                Function<T, ?> key, int chunkSize) {
+        int limit = Math.max(1, chunkSize);
+        JdbcTemplate chunks = new JdbcTemplate(jdbc.getJdbcTemplate().getDataSource());
+        chunks.setFetchSize(limit);
+        NamedParameterJdbcTemplate template = new NamedParameterJdbcTemplate(chunks);
+        String first = select.strip() + " ORDER BY " + keyColumn + " LIMIT :limit";
+        String next = select.strip() + " WHERE " + keyColumn + " > :after ORDER BY " + keyColumn + " LIMIT :limit";
+        Spliterator<T> rows = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            private Iterator<T> chunk = null;
+            private Object after = null;
+            private boolean last = false;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                while (chunk == null || !chunk.hasNext()) {
+                    if (last) {
+                        return false;
+                    }
+                    MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
+                    List<T> loaded = after == null
+                            ? template.query(first, params, mapper)
+                            : template.query(next, params.addValue("after", after), mapper);
+                    last = loaded.size() < limit;
+                    if (!loaded.isEmpty()) {
+                        after = key.apply(loaded.get(loaded.size() - 1));
+                    }
+                    chunk = loaded.iterator();
+                }
+                action.accept(chunk.next());
+                return true;
+            }
+        };
+        return StreamSupport.stream(rows, false);
+    }
+}
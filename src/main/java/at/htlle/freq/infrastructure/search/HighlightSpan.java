@@ -0,0 +1,14 @@
+package at.htlle.freq.infrastructure.search;
+
+/**
+ * Position of a query match inside the snippet of a {@link SearchHit}.
+ *
+ * <p>Serialized as {@code {"start": 12, "end": 17}}. Offsets are UTF-16 character positions into
+ * {@link SearchHit#getSnippet()}, {@code start} inclusive and {@code end} exclusive, as used by
+ * {@code String.substring} in Java and JavaScript.</p>
+ *
+ * @param start offset of the first matched character.
+ * @param end   offset after the last matched character.
+ */
+public record HighlightSpan(int start, int end) {
+}
@@ -0,0 +1,166 @@
+package at.htlle.freq.infrastructure.search;
+
+import at.htlle.freq.infrastructure.lucene.LuceneIndexService;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/*
+ * Serializer of exported search hits.
+ *
+ * Data flow:
+ *  - LuceneIndexService.export() hands each matching document to accept() as soon as it is collected; the hit is
+ *    written to the response stream right away and not kept, so an export of any size runs in constant memory.
+ *  - NDJSON writes one JSON object per line with the fields of SearchHit (id, type, text, snippet). CSV writes a header
+ *    line and quotes values as in RFC 4180.
+ *
+ * Retry / locking considerations:
+ *  - One instance per export; not thread-safe. close() flushes the buffer but leaves the target stream open, which
+ *    belongs to the servlet container.
+ */
+
+/**
+ * Writes search hits to an output stream as NDJSON or CSV.
+ */
+public final class SearchExportWriter implements LuceneIndexService.HitConsumer, Closeable {
+
+    /** Supported export formats. */
+    public enum Format {
+        /** Newline-delimited JSON, one hit per line. */
+        NDJSON("application/x-ndjson", "ndjson"),
+        /** Comma-separated values with a header line. */
+        CSV("text/csv", "csv");
+
+        private final String mediaType;
+        private final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        /**
+         * Returns the content type of the format.
+         * @return media type without charset.
+         */
+        public String mediaType() {
+            return mediaType;
+        }
+
+        /**
+         * Returns the file extension of the format.
+         * @return extension without dot.
+         */
+        public String extension() {
+            return extension;
+        }
+
+        /**
+         * Resolves a format name, case-insensitively.
+         * @param name {@code ndjson} or {@code csv}.
+         * @return matching format.
+         * @throws IllegalArgumentException for other names.
+         */
+        public static Format of(String name) {
+            String normalized = name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+            for (Format format : values()) {
+                if (format.extension.equals(normalized)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported export format: " + name);
+        }
+    }
+
+    private static final String[] CSV_COLUMNS = {"id", "type", "text", "snippet"};
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final Format format;
+    private final Writer writer;
+    private final JsonGenerator json;
+
+    /**
+     * Creates a writer on the given stream; CSV output starts with the header line.
+     * @param format output format.
+     * @param out target stream; it is flushed but not closed by {@link #close()}.
+     * @throws IOException when the header cannot be written.
+     */
+    public SearchExportWriter(Format format, OutputStream out) throws IOException {
+        this.format = format;
+        if (format == Format.NDJSON) {
+            this.writer = null;
+            this.json = JSON.createGenerator(out, JsonEncoding.UTF8)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .setRootValueSeparator(null);
+        } else {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            this.json = null;
+            writeCsvRow(CSV_COLUMNS);
+        }
+    }
+
+    @Override
+    public void accept(SearchHit hit) throws IOException {
+        if (format == Format.NDJSON) {
+            json.writeStartObject();
+            writeJsonField("id", hit.getId());
+            writeJsonField("type", hit.getType());
+            writeJsonField("text", hit.getText());
+            writeJsonField("snippet", hit.getSnippet());
+            json.writeEndObject();
+            json.writeRaw('\n');
+        } else {
+            writeCsvRow(new String[]{hit.getId(), hit.getType(), hit.getText(), hit.getSnippet()});
+        }
+    }
+
+    private void writeJsonField(String name, String value) throws IOException {
+        if (value != null) {
+            json.writeStringField(name, value);
+        }
+    }
+
+    private void writeCsvRow(String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvValue(values[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * Quotes a CSV value when it contains a separator, quote or line break; embedded quotes are doubled.
+     */
+    static String csvValue(String value) {
+        if (value == null) {
+            return "";
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+
+    /**
+     * Flushes buffered output to the target stream.
+     * @throws IOException when flushing fails.
+     */
+    @Override
+    public void close() throws IOException {
+        if (json != null) {
+            json.close();
+        } else {
+            writer.flush();
+        }
+    }
+}
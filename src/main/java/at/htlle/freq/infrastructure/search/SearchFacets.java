@@ -0,0 +1,33 @@
+package at.htlle.freq.infrastructure.search;
+
+import java.util.Map;
+
+/**
+ * Facet counts of a search over its full result set, not only the returned page of hits.
+ *
+ * <p>Serialized as {@code {"total": 42, "counts": {"type": {"site": 30, "server": 12}, ...}}}. Every dimension maps
+ * its values to the number of matching documents, ordered by descending count. Dimensions without matching values are
+ * omitted.</p>
+ *
+ * @param total  number of documents matching the query.
+ * @param counts counts per dimension and value.
+ */
+public record SearchFacets(long total, Map<String, Map<String, Long>> counts) {
+
+    /** Entity type of the document ({@code site}, {@code server}, …). */
+    public static final String TYPE = "type";
+    /** Lifecycle status of projects. */
+    public static final String LIFECYCLE_STATUS = "lifecycleStatus";
+    /** Status of installed software ({@code offered}, {@code installed}, …). */
+    public static final String INSTALLED_SOFTWARE_STATUS = "installedSoftwareStatus";
+    /** Support phase of software. */
+    public static final String SUPPORT_PHASE = "supportPhase";
+
+    /**
+     * Creates facets that describe an empty result.
+     * @return facets without matches.
+     */
+    public static SearchFacets empty() {
+        return new SearchFacets(0, Map.of());
+    }
+}
@@ -3,12 +3,15 @@ package at.htlle.freq.infrastructure.search;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 
+import java.util.List;
+
 /**
  * Represents a single search result that can be serialized to or deserialized from JSON.
  * <p>
  * The JSON structure contains the fields {@code id}, {@code type}, {@code text} and optionally
- * {@code snippet}. The optional {@code snippet} is included only when contextual text is
- * available for the hit because of {@link JsonInclude#Include#NON_NULL}.
+ * {@code snippet} and {@code highlights}. The optional {@code snippet} is included only when contextual text is
+ * available for the hit because of {@link JsonInclude#Include#NON_NULL}. {@code highlights} lists the positions of the
+ * query matches inside the snippet; it is present only when the snippet was produced by the highlighter.
  * </p>
  */
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -17,6 +20,7 @@ public class SearchHit {
     private String type;
     private String text;
     private String snippet;
+    private List<HighlightSpan> highlights;
 
     /**
      * Creates an empty search hit instance.
@@ -44,6 +48,20 @@ public class SearchHit {
         this.snippet = snippet;
     }
 
+    /**
+     * Creates a search hit whose snippet carries the positions of the query matches.
+     *
+     * @param id         unique identifier of the hit.
+     * @param type       logical type or domain of the hit.
+     * @param text       primary label or title presented to the user.
+     * @param snippet    passage of the indexed text around the best match.
+     * @param highlights match positions inside {@code snippet}; may be {@code null} when unknown.
+     */
+    public SearchHit(String id, String type, String text, String snippet, List<HighlightSpan> highlights) {
+        this(id, type, text, snippet);
+        this.highlights = highlights;
+    }
+
     /**
      * Returns the unique identifier of the hit.
      *
@@ -116,6 +134,24 @@ public class SearchHit {
         this.snippet = snippet;
     }
 
+    /**
+     * Returns the positions of the query matches inside the snippet.
+     *
+     * @return match spans, or {@code null} when the snippet was not produced by the highlighter.
+     */
+    public List<HighlightSpan> getHighlights() {
+        return highlights;
+    }
+
+    /**
+     * Assigns the positions of the query matches inside the snippet.
+     *
+     * @param highlights match spans; may be {@code null}.
+     */
+    public void setHighlights(List<HighlightSpan> highlights) {
+        this.highlights = highlights;
+    }
+
     /**
      * Returns a string representation useful for logging and debugging.
      */
@@ -126,6 +162,7 @@ public class SearchHit {
                 ", type='" + type + '\'' +
                 ", text='" + text + '\'' +
                 ", snippet='" + snippet + '\'' +
+                ", highlights=" + highlights +
                 '}';
     }
 }
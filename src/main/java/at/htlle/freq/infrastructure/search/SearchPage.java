@@ -0,0 +1,45 @@
+package at.htlle.freq.infrastructure.search;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * One page of a cursor-paged search.
+ *
+ * <p>Serialized as {@code {"hits": [...], "total": 1234, "totalExact": true, "cursor": "...", "partial": false}}. The
+ * {@code cursor} is an opaque continuation token for the next page and is omitted on the last page. When
+ * {@code totalExact} is {@code false}, {@code total} is a lower bound: counting stopped at the configured threshold so
+ * the search could skip non-competitive hits.</p>
+ *
+ * <p>A {@code partial} page was cut short by the time budget of the search: it holds the best hits found until then,
+ * its total is a lower bound and it has no cursor, since unvisited documents could rank above its hits.</p>
+ *
+ * @param hits       hits of this page in relevance order.
+ * @param total      number of matching documents, exact or lower bound.
+ * @param totalExact whether {@code total} is exact.
+ * @param cursor     token for the next page, or {@code null} on the last page.
+ * @param partial    whether the search ran out of time before visiting all documents.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SearchPage(List<SearchHit> hits, long total, boolean totalExact, String cursor, boolean partial) {
+
+    /**
+     * Creates a complete page.
+     * @param hits       hits of this page in relevance order.
+     * @param total      number of matching documents, exact or lower bound.
+     * @param totalExact whether {@code total} is exact.
+     * @param cursor     token for the next page, or {@code null} on the last page.
+     */
+    public SearchPage(List<SearchHit> hits, long total, boolean totalExact, String cursor) {
+        this(hits, total, totalExact, cursor, false);
+    }
+
+    /**
+     * Creates the page of a search without matches.
+     * @return empty last page.
+     */
+    public static SearchPage empty() {
+        return new SearchPage(List.of(), 0, true, null);
+    }
+}
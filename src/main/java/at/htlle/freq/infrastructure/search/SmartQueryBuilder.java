@@ -1,5 +1,6 @@
 package at.htlle.freq.infrastructure.search;
 
+import at.htlle.freq.infrastructure.lucene.SchemaQueryParser;
 import org.apache.lucene.analysis.standard.StandardAnalyzer;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.queryparser.classic.QueryParser;
@@ -16,6 +17,10 @@ import org.springframework.stereotype.Component;
  * <p>Uses a {@link StandardAnalyzer} so parsing and indexing share the same tokenization. The
  * {@code SearchController} delegates free-text input to this component whenever
  * {@link #looksLikeLucene(String)} does not detect explicit Lucene syntax.</p>
+ *
+ * <p>Parsing goes through {@link SchemaQueryParser}, so typed fields such as {@code tenantCount:[5 TO *]},
+ * {@code supportEndDate:[today TO today+90d]} or {@code status:installed} become point range and keyword term
+ * queries instead of analyzed text queries.</p>
  */
 @Component
 public class SmartQueryBuilder {
@@ -79,7 +84,7 @@ public class SmartQueryBuilder {
      */
     public Query build(String userInput, String typeFilter) {
         try {
-            QueryParser p = new QueryParser(DEFAULT_FIELD, ANALYZER);
+            QueryParser p = new SchemaQueryParser(DEFAULT_FIELD, ANALYZER);
             p.setAllowLeadingWildcard(true);
             p.setDefaultOperator(QueryParser.Operator.AND);
             Query baseQuery;
@@ -1,97 +1,372 @@
 package at.htlle.freq.infrastructure.search;
 
 import at.htlle.freq.infrastructure.lucene.LuceneIndexService;
-import org.apache.lucene.index.DirectoryReader;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.LeafReaderContext;
-import org.apache.lucene.index.Terms;
-import org.apache.lucene.index.TermsEnum;
-import org.apache.lucene.store.Directory;
-import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.search.suggest.InputIterator;
+import org.apache.lucene.search.suggest.Lookup;
+import org.apache.lucene.search.suggest.fst.WFSTCompletionLookup;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.util.Bits;
 import org.apache.lucene.util.BytesRef;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+/*
+ * In-memory completion suggester over entity display names.
+ *
+ * Data flow:
+ *  - Candidates are the stored "display" values of the indexed entities (account name, site name, server name, …),
+ *    lower-cased. Displays that are only the entity's id (or the "<type> <id>" fallback the index stores for entities
+ *    without a name) or contain a UUID are skipped, so ids and synthetic content tokens such as "statusinstalled" are
+ *    never suggested, while names that merely contain their code (country NO "Norway") still are.
+ *  - Every entity contributes the weight of its type (accounts, projects and sites rank above devices and plan
+ *    entries); equal names of several entities add up. Each later word of a name is added as a key of its own with
+ *    half the weight and maps back to the full name, so "val" also completes "silicon valley".
+ *  - The keys feed a weighted FST (WFSTCompletionLookup). It is rebuilt whenever the index publishes a new shared
+ *    searcher (LuceneIndexService#addRefreshListener); the stored fields of a segment are read only once per segment
+ *    core and reused until the segment is merged away, only deletions are re-applied per rebuild.
+ *
+ * Retry / locking considerations:
+ *  - Lookups only read the published snapshot: no index lock, no searcher, no wait for pending writes. The refresh
+ *    callback queues a rebuild on the single "suggest-rebuild" thread; at most one rebuild is queued at a time and it
+ *    builds from the searcher that is current when it starts, so a burst of refreshes costs one rebuild. The new
+ *    snapshot is swapped in atomically when it is complete.
+ *  - The segment cache is only touched by the rebuild thread.
+ *  - Read failures keep the previous snapshot and are logged.
+ *
+ * Integration points:
+ *  - Backs GET /search/suggest. Suggestions follow every refresh of the shared searcher by one background rebuild.
+ */
 
 /**
- * Simple auto-complete implementation backed by Lucene terms.
+ * Auto-complete backed by a weighted FST of entity display names, rebuilt in the background per index refresh.
  */
 @Service
 public class SuggestService {
 
-    private final LuceneIndexService lucene;
     private static final Logger log = LoggerFactory.getLogger(SuggestService.class);
 
+    private static final Set<String> STORED_FIELDS = Set.of("id", "type", "typeDisplay", "display");
+    private static final Pattern UUID = Pattern.compile(
+            "[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}");
+    private static final int DEFAULT_TYPE_WEIGHT = 10;
+    private static final int MIN_KEY_LENGTH = 2;
+
+    /** Relative weight per entity type key; types that users look up by name rank first. */
+    private static final Map<String, Integer> TYPE_WEIGHTS = Map.ofEntries(
+            Map.entry("account", 100),
+            Map.entry("project", 100),
+            Map.entry("site", 90),
+            Map.entry("software", 80),
+            Map.entry("server", 60),
+            Map.entry("client", 60),
+            Map.entry("radio", 50),
+            Map.entry("audiodevice", 50),
+            Map.entry("phoneintegration", 50),
+            Map.entry("country", 40),
+            Map.entry("city", 40),
+            Map.entry("deploymentvariant", 30),
+            Map.entry("address", 30),
+            Map.entry("servicecontract", 20),
+            Map.entry("installedsoftware", 5),
+            Map.entry("upgradeplan", 5)
+    );
+
+    /** Suggestion candidates of one segment core: lower-cased display (or {@code null}) and type weight per doc. */
+    private record SegmentEntries(String[] texts, int[] weights) {
+    }
+
+    /** Published lookup together with the cache key of the reader it was built from. */
+    private record Snapshot(Object readerKey, Lookup lookup, Map<String, String> owners) {
+    }
+
+    private final LuceneIndexService lucene;
+    private final Map<Object, SegmentEntries> segments = new HashMap<>();
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "suggest-rebuild");
+        t.setDaemon(true);
+        return t;
+    });
+    private volatile Snapshot snapshot;
+
     /**
-     * Creates a suggestion service backed by {@link LuceneIndexService}.
+     * Creates a suggestion service backed by {@link LuceneIndexService} and subscribes it to searcher refreshes.
      *
-     * @param lucene Lucene index service used to locate the index directory.
+     * @param lucene Lucene index service providing the shared searcher.
      */
     public SuggestService(LuceneIndexService lucene) {
         this.lucene = lucene;
+        lucene.addRefreshListener(this::queueRebuild);
     }
 
-    // Fields used to source suggestion candidates
-    private static final List<String> FIELDS = List.of(
-            // The aggregated search content is stored in the "content" field during indexing
-            "content"
-    );
-
     /**
-     * Returns up to {@code max} suggestions whose terms begin with the provided prefix.
+     * Returns up to {@code max} entity names that start with the provided prefix, or contain a word starting with it,
+     * ordered by weight.
      *
      * @param prefix user-entered prefix.
      * @param max maximum number of suggestions to return.
-     * @return list of suggestions ordered by discovery.
+     * @return lower-cased suggestions, best first.
      */
     public List<String> suggest(String prefix, int max) {
         if (prefix == null) return List.of();
         String pfx = prefix.toLowerCase(Locale.ROOT);
-        if (pfx.length() < 2) return List.of();
+        if (pfx.length() < MIN_KEY_LENGTH) return List.of();
         if (max <= 0) return List.of();
 
+        Snapshot current = snapshot;
+        if (current == null || current.lookup() == null) {
+            return List.of();
+        }
+
+        // A name can be reached through several of its words, so ask for a few more keys than needed
         Set<String> out = new LinkedHashSet<>();
+        try {
+            for (Lookup.LookupResult result : current.lookup().lookup(pfx, false, max * 2)) {
+                String key = result.key.toString();
+                out.add(current.owners().getOrDefault(key, key));
+                if (out.size() >= max) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("SuggestService: lookup failed for prefix {}", pfx, e);
+        }
+        return List.copyOf(out);
+    }
 
-        Path indexPath = lucene.getIndexPath();
+    /**
+     * Waits until the rebuilds queued so far have published their snapshot; used by tests.
+     *
+     * @throws InterruptedException when interrupted while waiting.
+     */
+    void awaitRebuild() throws InterruptedException {
+        try {
+            rebuilder.submit(() -> { }).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
 
-        try (Directory dir = FSDirectory.open(indexPath);
-             DirectoryReader rd = DirectoryReader.open(dir)) {
+    /**
+     * Stops the rebuild thread. Invoked by Spring on shutdown.
+     */
+    @PreDestroy
+    public void close() {
+        rebuilder.shutdownNow();
+    }
 
-            outer:
-            for (String field : FIELDS) {
-                for (LeafReaderContext leaf : rd.leaves()) {
-                    Terms terms = leaf.reader().terms(field);
-                    if (terms == null) continue;
+    // Reopened readers get a new cache key, also across index generations whose versions may coincide
+    private static Object readerKey(IndexReader reader) {
+        return reader.getReaderCacheHelper() == null ? reader : reader.getReaderCacheHelper().getKey();
+    }
 
-                    TermsEnum te = terms.iterator();
-                    BytesRef prefixRef = new BytesRef(pfx);
-                    if (te.seekCeil(prefixRef) == TermsEnum.SeekStatus.END) continue;
+    /**
+     * Queues a rebuild unless one is already waiting to run. Called by the index on every searcher refresh.
+     */
+    private void queueRebuild() {
+        if (!rebuildQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            rebuilder.execute(this::rebuild);
+        } catch (RejectedExecutionException e) {
+            rebuildQueued.set(false);
+            log.debug("SuggestService: rebuild not queued after shutdown");
+        }
+    }
 
-                    BytesRef br = te.term();
-                    while (br != null) {
-                        String term = br.utf8ToString();
-                        if (!term.toLowerCase(Locale.ROOT).startsWith(pfx)) {
-                            break;
-                        }
+    /**
+     * Publishes a snapshot of the current searcher. Runs on the rebuild thread only.
+     */
+    private void rebuild() {
+        // Cleared before the searcher is acquired, so a refresh during the build queues another pass
+        rebuildQueued.set(false);
+        try {
+            lucene.withSearcher(searcher -> {
+                IndexReader reader = searcher.getIndexReader();
+                Object readerKey = readerKey(reader);
+                Snapshot current = snapshot;
+                if (current != null && current.readerKey() == readerKey) {
+                    return null;
+                }
+                long start = System.nanoTime();
+                Snapshot rebuilt = build(readerKey, reader);
+                snapshot = rebuilt;
+                log.debug("SuggestService: rebuilt {} suggestion keys in {} ms",
+                        rebuilt.lookup() == null ? 0 : rebuilt.lookup().getCount(),
+                        (System.nanoTime() - start) / 1_000_000);
+                return null;
+            });
+        } catch (IOException | RuntimeException e) {
+            log.warn("SuggestService: failed to refresh suggestions from {}", lucene.getIndexPath(), e);
+        }
+    }
 
-                        out.add(term);
-                        if (out.size() >= max) break outer;
+    /**
+     * Aggregates the weighted keys of all live documents and builds the FST. Runs on the rebuild thread only.
+     */
+    private Snapshot build(Object readerKey, IndexReader reader) throws IOException {
+        Map<String, Long> weights = new HashMap<>();
+        Map<String, String> owners = new HashMap<>();
+        Map<String, Long> ownerWeights = new HashMap<>();
+        Set<String> names = new HashSet<>();
+        Set<Object> seen = new HashSet<>();
 
-                        br = te.next();
-                    }
+        for (LeafReaderContext leaf : reader.leaves()) {
+            LeafReader leafReader = leaf.reader();
+            Object key = leafReader.getCoreCacheHelper() == null ? leafReader : leafReader.getCoreCacheHelper().getKey();
+            seen.add(key);
+            SegmentEntries entries = segments.get(key);
+            if (entries == null) {
+                entries = load(leafReader);
+                segments.put(key, entries);
+            }
+            Bits live = leafReader.getLiveDocs();
+            for (int doc = 0; doc < entries.texts().length; doc++) {
+                String text = entries.texts()[doc];
+                if (text == null || (live != null && !live.get(doc))) {
+                    continue;
                 }
+                names.add(text);
+                addKeys(text, entries.weights()[doc], weights, owners, ownerWeights);
             }
-        } catch (IOException e) {
-            log.warn("SuggestService: failed to read index at {}", indexPath, e);
         }
+        segments.keySet().retainAll(seen);
+        // A word key that is also a name of its own resolves to itself
+        owners.keySet().removeAll(names);
+
+        if (weights.isEmpty()) {
+            return new Snapshot(readerKey, null, Map.of());
+        }
+        WFSTCompletionLookup lookup = new WFSTCompletionLookup(new ByteBuffersDirectory(), "suggest");
+        lookup.build(new WeightedKeys(weights));
+        return new Snapshot(readerKey, lookup, Map.copyOf(owners));
+    }
 
-        return out.stream().limit(max).collect(Collectors.toList());
+    /**
+     * Reads the suggestion candidate of every document of a segment once.
+     */
+    private SegmentEntries load(LeafReader reader) throws IOException {
+        int maxDoc = reader.maxDoc();
+        String[] texts = new String[maxDoc];
+        int[] weights = new int[maxDoc];
+        for (int doc = 0; doc < maxDoc; doc++) {
+            var stored = reader.document(doc, STORED_FIELDS);
+            texts[doc] = candidate(stored.get("display"), stored.get("id"), stored.get("typeDisplay"));
+            String type = stored.get("type");
+            weights[doc] = type == null ? DEFAULT_TYPE_WEIGHT : TYPE_WEIGHTS.getOrDefault(type, DEFAULT_TYPE_WEIGHT);
+        }
+        return new SegmentEntries(texts, weights);
+    }
+
+    /**
+     * Normalizes a display value, or returns {@code null} when it would only suggest an identifier: a UUID, the id
+     * itself or the "{@code <type> <id>}" fallback used for entities without a name.
+     */
+    static String candidate(String display, String id, String typeDisplay) {
+        if (display == null) {
+            return null;
+        }
+        String text = display.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        if (text.length() < MIN_KEY_LENGTH || UUID.matcher(text).find()) {
+            return null;
+        }
+        if (id != null && !id.isBlank()) {
+            String key = id.trim().toLowerCase(Locale.ROOT);
+            String fallback = typeDisplay == null ? key : (typeDisplay.trim() + " " + id.trim()).toLowerCase(Locale.ROOT);
+            if (text.equals(key) || text.equals(fallback)) {
+                return null;
+            }
+        }
+        return text;
+    }
+
+    /**
+     * Adds the full name and every later word start of it as weighted keys; word keys remember the heaviest name
+     * they were taken from.
+     */
+    private static void addKeys(String text, int weight, Map<String, Long> weights, Map<String, String> owners,
+                                Map<String, Long> ownerWeights) {
+        weights.merge(text, (long) weight, Long::sum);
+        long suffixWeight = Math.max(1, weight / 2);
+        for (int i = 1; i < text.length(); i++) {
+            if (text.charAt(i - 1) != ' ' || text.length() - i < MIN_KEY_LENGTH) {
+                continue;
+            }
+            String suffix = text.substring(i);
+            weights.merge(suffix, suffixWeight, Long::sum);
+            if (weight > ownerWeights.getOrDefault(suffix, -1L)) {
+                owners.put(suffix, text);
+                ownerWeights.put(suffix, (long) weight);
+            }
+        }
+    }
+
+    /** Feeds the aggregated keys to the FST builder. */
+    private static final class WeightedKeys implements InputIterator {
+
+        private final Iterator<Map.Entry<String, Long>> entries;
+        private long weight;
+
+        WeightedKeys(Map<String, Long> weights) {
+            this.entries = new ArrayList<>(weights.entrySet()).iterator();
+        }
+
+        @Override
+        public BytesRef next() {
+            if (!entries.hasNext()) {
+                return null;
+            }
+            Map.Entry<String, Long> entry = entries.next();
+            weight = Math.min(entry.getValue(), Integer.MAX_VALUE - 1L);
+            return new BytesRef(entry.getKey());
+        }
+
+        @Override
+        public long weight() {
+            return weight;
+        }
+
+        @Override
+        public BytesRef payload() {
+            return null;
+        }
+
+        @Override
+        public boolean hasPayloads() {
+            return false;
+        }
+
+        @Override
+        public Set<BytesRef> contexts() {
+            return null;
+        }
+
+        @Override
+        public boolean hasContexts() {
+            return false;
+        }
     }
 }
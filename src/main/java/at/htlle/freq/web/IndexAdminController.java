@@ -1,16 +1,27 @@
 package at.htlle.freq.web;
 
+import at.htlle.freq.infrastructure.camel.IndexingQueueMonitor;
+import at.htlle.freq.infrastructure.camel.LuceneIndexingHubRoute;
+import at.htlle.freq.infrastructure.camel.SweepScheduler;
+import at.htlle.freq.infrastructure.lucene.CommitPolicy;
 import at.htlle.freq.infrastructure.lucene.LuceneIndexService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.security.Principal;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Administrative controller for Lucene reindexing.
@@ -25,16 +36,38 @@ public class IndexAdminController {
 
     private final LuceneIndexService lucene;
     private final TaskExecutor taskExecutor;
+    private final Optional<LuceneIndexingHubRoute> hub;
+    private final Optional<IndexingQueueMonitor> queueMonitor;
+    private final Optional<SweepScheduler> sweepScheduler;
 
     /**
-     * Creates an admin controller for triggering Lucene reindexing.
+     * Creates an admin controller for triggering Lucene reindexing without the Camel indexing hub.
      *
      * @param lucene service that performs indexing work.
      * @param taskExecutor executor for running reindexing asynchronously.
      */
     public IndexAdminController(LuceneIndexService lucene, TaskExecutor taskExecutor) {
+        this(lucene, taskExecutor, Optional.empty(), Optional.empty(), Optional.empty());
+    }
+
+    /**
+     * Creates an admin controller for triggering Lucene reindexing.
+     *
+     * @param lucene service that performs indexing work.
+     * @param taskExecutor executor for running reindexing asynchronously.
+     * @param hub Camel indexing hub; absent when {@code lifex.lucene.camel.enabled=false}.
+     * @param queueMonitor instrumentation of the hub queue; absent together with the hub.
+     * @param sweepScheduler schedule of the reconciliation sweeps; absent together with the hub.
+     */
+    @Autowired
+    public IndexAdminController(LuceneIndexService lucene, TaskExecutor taskExecutor,
+                                Optional<LuceneIndexingHubRoute> hub, Optional<IndexingQueueMonitor> queueMonitor,
+                                Optional<SweepScheduler> sweepScheduler) {
         this.lucene = lucene;
         this.taskExecutor = taskExecutor;
+        this.hub = hub;
+        this.queueMonitor = queueMonitor;
+        this.sweepScheduler = sweepScheduler;
     }
 
     /**
@@ -86,6 +119,177 @@ public class IndexAdminController {
         }
     }
 
+    /**
+     * Reports the group-commit state of the Lucene index.
+     *
+     * <p>Path: {@code GET /api/index/commit}</p>
+     *
+     * @return last commit generation, number of uncommitted changes and the configured commit triggers.
+     */
+    @GetMapping("/commit")
+    public CommitPolicy.Status commitStatus() {
+        return lucene.commitStatus();
+    }
+
+    /**
+     * Reports how many documents live indexing wrote and how many unchanged ones it skipped.
+     *
+     * <p>Path: {@code GET /api/index/stats}</p>
+     *
+     * @return written and skipped document counters since startup.
+     */
+    @GetMapping("/stats")
+    public LuceneIndexService.IndexingStats indexingStats() {
+        return lucene.indexingStats();
+    }
+
+    /**
+     * Reports the hit, miss and eviction counters of the search page cache.
+     *
+     * <p>Path: {@code GET /api/index/search-cache}</p>
+     *
+     * @return cache counters, current size and capacity.
+     */
+    @GetMapping("/search-cache")
+    public LuceneIndexService.SearchCacheStats searchCacheStats() {
+        return lucene.searchCacheStats();
+    }
+
+    /**
+     * Reports how many searches ran and how many ran out of their time budget.
+     *
+     * <p>Path: {@code GET /api/index/search-stats}</p>
+     *
+     * @return executed and partial search counters since startup and the default budget.
+     */
+    @GetMapping("/search-stats")
+    public LuceneIndexService.SearchStats searchStats() {
+        return lucene.searchStats();
+    }
+
+    /**
+     * Reports the concurrent search pool.
+     *
+     * <p>Path: {@code GET /api/index/search-executor}</p>
+     *
+     * @return pool size, busy threads, queue depth and slice counters.
+     */
+    @GetMapping("/search-executor")
+    public LuceneIndexService.SearchExecutorStats searchExecutorStats() {
+        return lucene.searchExecutorStats();
+    }
+
+    /**
+     * Reports the query sample that warms new searchers.
+     *
+     * <p>Path: {@code GET /api/index/warmer}</p>
+     *
+     * @return sampled and distinct queries, warmed searchers and queries, and the last warmup duration.
+     */
+    @GetMapping("/warmer")
+    public LuceneIndexService.WarmerStats warmerStats() {
+        return lucene.warmerStats();
+    }
+
+    /**
+     * Reports the journal of live index operations.
+     *
+     * <p>Path: {@code GET /api/index/journal}</p>
+     *
+     * @return journaled operations, syncs, checkpoint and end offsets, unreplayed bytes and segment files.
+     */
+    @GetMapping("/journal")
+    public LuceneIndexService.JournalStats journalStats() {
+        return lucene.journalStats();
+    }
+
+    /**
+     * Reports the consumer partitions of the Camel indexing hub.
+     *
+     * <p>Path: {@code GET /api/index/hub}</p>
+     *
+     * @return dispatched and indexed entities, lag, queue depth and batches per partition; empty when the hub is off.
+     */
+    @GetMapping("/hub")
+    public List<LuceneIndexingHubRoute.PartitionStats> hubPartitions() {
+        return hub.map(LuceneIndexingHubRoute::partitionStats).orElse(List.of());
+    }
+
+    /**
+     * Reports how far the Camel indexing queue is behind.
+     *
+     * <p>Path: {@code GET /api/index/queue}</p>
+     *
+     * @return queue depth, age of the oldest queued entity, index rate per type, latency and batch time percentiles
+     *         and the current sweep backoff; 404 when the hub is off.
+     */
+    @GetMapping("/queue")
+    public ResponseEntity<IndexingQueueMonitor.QueueStats> queueStats() {
+        return queueMonitor.map(monitor -> ResponseEntity.ok(monitor.stats()))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Reports the schedule of the reconciliation sweeps.
+     *
+     * <p>Path: {@code GET /api/index/sweeps}</p>
+     *
+     * @return per table the current period, time until the next sweep, runs, load deferrals, change rate and the rows
+     *         and duration of the last sweep; empty when sweeps or the hub are off.
+     */
+    @GetMapping("/sweeps")
+    public List<SweepScheduler.SweepSchedule> sweepSchedule() {
+        return sweepScheduler.map(SweepScheduler::schedule).orElse(List.of());
+    }
+
+    /**
+     * Lists the indexing batches the Camel hub gave up on after its retries.
+     *
+     * <p>Path: {@code GET /api/index/dead-letters}</p>
+     *
+     * @return stored and evicted dead letters, retried writes and every letter with its document ids and last error;
+     *         404 when the hub is off.
+     */
+    @GetMapping("/dead-letters")
+    public ResponseEntity<LuceneIndexingHubRoute.DeadLetterReport> deadLetters() {
+        return hub.map(h -> ResponseEntity.ok(h.deadLetters()))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Puts dead-lettered batches back on the indexing queue.
+     *
+     * <p>Path: {@code POST /api/index/dead-letters/replay?ids=1,2}</p>
+     *
+     * @param ids dead-letter ids; all letters when omitted.
+     * @return number of replayed letters; 404 when the hub is off.
+     */
+    @PostMapping("/dead-letters/replay")
+    public ResponseEntity<Map<String, Integer>> replayDeadLetters(
+            @RequestParam(name = "ids", required = false) List<Long> ids) {
+        return hub.map(h -> {
+            LOG.info("Dead-letter replay requested for {}", ids == null || ids.isEmpty() ? "all letters" : ids);
+            return ResponseEntity.ok(Map.of("replayed", h.replayDeadLetters(ids)));
+        }).orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Drops dead-lettered batches without indexing them.
+     *
+     * <p>Path: {@code DELETE /api/index/dead-letters?ids=1,2}</p>
+     *
+     * @param ids dead-letter ids; all letters when omitted.
+     * @return number of purged letters; 404 when the hub is off.
+     */
+    @DeleteMapping("/dead-letters")
+    public ResponseEntity<Map<String, Integer>> purgeDeadLetters(
+            @RequestParam(name = "ids", required = false) List<Long> ids) {
+        return hub.map(h -> {
+            LOG.info("Dead-letter purge requested for {}", ids == null || ids.isEmpty() ? "all letters" : ids);
+            return ResponseEntity.ok(Map.of("purged", h.purgeDeadLetters(ids)));
+        }).orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     /**
      * Resolves an actor label for log messages.
      *
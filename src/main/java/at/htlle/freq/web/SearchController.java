@@ -1,16 +1,24 @@
 package at.htlle.freq.web;
 
+import at.htlle.freq.infrastructure.search.SearchExportWriter;
+import at.htlle.freq.infrastructure.search.SearchFacets;
 import at.htlle.freq.infrastructure.search.SearchHit;
+import at.htlle.freq.infrastructure.search.SearchPage;
 import at.htlle.freq.infrastructure.lucene.LuceneIndexService;
 import at.htlle.freq.infrastructure.search.SmartQueryBuilder;
 import at.htlle.freq.infrastructure.search.SuggestService;
 import org.apache.lucene.search.Query;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -24,6 +32,9 @@ public class SearchController {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SearchController.class);
 
+    /** Response header of {@code GET /search} marking hits cut short by the time budget. */
+    static final String PARTIAL_HEADER = "X-Search-Partial";
+
     private final LuceneIndexService lucene;
     private final SmartQueryBuilder smart;
     private final SuggestService suggest;
@@ -47,17 +58,22 @@ public class SearchController {
      * Executes a full-text search.
      *
      * <p>Path: {@code GET /search}</p>
-     * <p>Query parameters: {@code q} (optional search term), {@code raw} (optional boolean).</p>
+     * <p>Query parameters: {@code q} (optional search term), {@code raw} (optional boolean), {@code timeoutMs}
+     * (optional time budget in milliseconds instead of the configured one). With {@code timeoutMs} the response carries
+     * the header {@value #PARTIAL_HEADER}{@code : true} when the budget ran out and the list holds only the best hits
+     * found until then.</p>
      *
-     * @param q   search expression.
-     * @param raw when {@code true}, interprets the expression as a Lucene query.
+     * @param q         search expression.
+     * @param raw       when {@code true}, interprets the expression as a Lucene query.
+     * @param timeoutMs optional time budget of this search.
      * @return 200 OK with a list of {@link SearchHit search hits}.
      */
     @GetMapping("/search")
     public ResponseEntity<?> query(
             @RequestParam(name = "q", required = false) String q,
             @RequestParam(name = "type", required = false) String type,
-            @RequestParam(name = "raw", defaultValue = "false") boolean raw
+            @RequestParam(name = "raw", defaultValue = "false") boolean raw,
+            @RequestParam(name = "timeoutMs", required = false) Long timeoutMs
     ) {
         String normalizedType = normalizeType(type);
         boolean hasQuery = q != null && !q.isBlank();
@@ -69,11 +85,17 @@ public class SearchController {
             // Run the Lucene query verbatim when 'raw' is true or the input already uses Lucene syntax.
             if (raw || SmartQueryBuilder.looksLikeLucene(q)) {
                 String luceneQuery = appendTypeFilter(q, normalizedType);
+                if (timeoutMs != null) {
+                    return hitsOf(lucene.searchPage(luceneQuery, 0, null, false, timeoutMs));
+                }
                 return ResponseEntity.ok(lucene.search(luceneQuery));
             }
 
             // Otherwise build a Lucene query from the user-friendly input and use the Query overload.
             Query built = smart.build(q, normalizedType);
+            if (timeoutMs != null) {
+                return hitsOf(lucene.searchPage(built, 0, null, false, timeoutMs));
+            }
             return ResponseEntity.ok(lucene.search(built));
         } catch (IllegalArgumentException ex) {
             LOGGER.warn("Failed to execute search for query='{}', type='{}', raw={}", q, normalizedType, raw, ex);
@@ -82,6 +104,160 @@ public class SearchController {
         }
     }
 
+    /**
+     * Executes one page of a cursor-paged full-text search.
+     *
+     * <p>Path: {@code GET /search/page}</p>
+     * <p>Query parameters: {@code q}, {@code type} and {@code raw} as for {@link #query(String, String, boolean, Long)};
+     * {@code size} (optional hits per page, clamped by the index service), {@code cursor} (optional token from the
+     * previous page) and {@code exactTotal} (optional boolean; by default the total is exact only up to the configured
+     * threshold) and {@code timeoutMs} (optional time budget in milliseconds instead of the configured one; a page cut
+     * short by it is flagged {@code partial}).</p>
+     *
+     * @param q          search expression.
+     * @param type       optional type filter.
+     * @param raw        when {@code true}, interprets the expression as a Lucene query.
+     * @param size       hits per page.
+     * @param cursor     continuation token of the previous page.
+     * @param exactTotal whether all hits must be counted.
+     * @param timeoutMs  optional time budget of this search.
+     * @return 200 OK with a {@link SearchPage}, or 400 for an invalid query or cursor.
+     */
+    @GetMapping("/search/page")
+    public ResponseEntity<?> page(
+            @RequestParam(name = "q", required = false) String q,
+            @RequestParam(name = "type", required = false) String type,
+            @RequestParam(name = "raw", defaultValue = "false") boolean raw,
+            @RequestParam(name = "size", defaultValue = "50") int size,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "exactTotal", defaultValue = "false") boolean exactTotal,
+            @RequestParam(name = "timeoutMs", required = false) Long timeoutMs
+    ) {
+        String normalizedType = normalizeType(type);
+        boolean hasQuery = q != null && !q.isBlank();
+        if (!hasQuery && normalizedType == null) {
+            return ResponseEntity.ok(SearchPage.empty());
+        }
+
+        try {
+            if (raw || SmartQueryBuilder.looksLikeLucene(q)) {
+                String luceneQuery = appendTypeFilter(q, normalizedType);
+                return ResponseEntity.ok(timeoutMs == null
+                        ? lucene.searchPage(luceneQuery, size, cursor, exactTotal)
+                        : lucene.searchPage(luceneQuery, size, cursor, exactTotal, timeoutMs));
+            }
+            Query built = smart.build(q, normalizedType);
+            return ResponseEntity.ok(timeoutMs == null
+                    ? lucene.searchPage(built, size, cursor, exactTotal)
+                    : lucene.searchPage(built, size, cursor, exactTotal, timeoutMs));
+        } catch (IllegalArgumentException ex) {
+            LOGGER.warn("Failed to execute paged search for query='{}', type='{}', raw={}", q, normalizedType, raw, ex);
+            String message = ex.getMessage() != null ? ex.getMessage() : "Invalid search query";
+            return ResponseEntity.badRequest().body(message);
+        }
+    }
+
+    /**
+     * Streams every match of a search as a file download.
+     *
+     * <p>Path: {@code GET /search/export}</p>
+     * <p>Query parameters: {@code q}, {@code type} and {@code raw} as for {@link #query(String, String, boolean, Long)};
+     * {@code format} (optional, {@code ndjson} by default or {@code csv}). Unlike {@code /search} the result is not
+     * limited to one page: the query is validated up front, then the hits are written to the response while the index
+     * service collects them, so the export needs constant memory however many documents match. Without {@code q} and
+     * {@code type} the export is empty.</p>
+     *
+     * @param q      search expression.
+     * @param type   optional type filter.
+     * @param raw    when {@code true}, interprets the expression as a Lucene query.
+     * @param format {@code ndjson} or {@code csv}.
+     * @return 200 OK with a streamed body.
+     * @throws ResponseStatusException 400 for an invalid query or format.
+     */
+    @GetMapping("/search/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(name = "q", required = false) String q,
+            @RequestParam(name = "type", required = false) String type,
+            @RequestParam(name = "raw", defaultValue = "false") boolean raw,
+            @RequestParam(name = "format", defaultValue = "ndjson") String format
+    ) {
+        String normalizedType = normalizeType(type);
+        boolean hasQuery = q != null && !q.isBlank();
+        SearchExportWriter.Format exportFormat;
+        Query query;
+        try {
+            exportFormat = SearchExportWriter.Format.of(format);
+            if (!hasQuery && normalizedType == null) {
+                query = null;
+            } else if (raw || SmartQueryBuilder.looksLikeLucene(q)) {
+                query = lucene.parseQuery(appendTypeFilter(q, normalizedType));
+            } else {
+                query = smart.build(q, normalizedType);
+            }
+        } catch (IllegalArgumentException ex) {
+            LOGGER.warn("Failed to start export for query='{}', type='{}', raw={}, format='{}'",
+                    q, normalizedType, raw, format, ex);
+            String message = ex.getMessage() != null ? ex.getMessage() : "Invalid search query";
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, message, ex);
+        }
+
+        StreamingResponseBody body = out -> {
+            try (SearchExportWriter writer = new SearchExportWriter(exportFormat, out)) {
+                if (query != null) {
+                    lucene.export(query, writer);
+                }
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.mediaType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"search-export." + exportFormat.extension() + "\"")
+                .body(body);
+    }
+
+    /**
+     * Counts the matches of a search per facet over the full result set.
+     *
+     * <p>Path: {@code GET /search/facets}</p>
+     * <p>Query parameters: {@code q} (optional search term), {@code raw} (optional boolean). No type filter is
+     * applied, so the {@code type} dimension reports the count for every scope of the same query.</p>
+     *
+     * @param q   search expression, interpreted like {@link #query(String, String, boolean, Long)}.
+     * @param raw when {@code true}, interprets the expression as a Lucene query.
+     * @return 200 OK with {@link SearchFacets}, or 400 for an invalid query.
+     */
+    @GetMapping("/search/facets")
+    public ResponseEntity<?> facets(
+            @RequestParam(name = "q", required = false) String q,
+            @RequestParam(name = "raw", defaultValue = "false") boolean raw
+    ) {
+        if (q == null || q.isBlank()) {
+            return ResponseEntity.ok(SearchFacets.empty());
+        }
+        try {
+            if (raw || SmartQueryBuilder.looksLikeLucene(q)) {
+                return ResponseEntity.ok(lucene.facets(q));
+            }
+            return ResponseEntity.ok(lucene.facets(smart.build(q, null)));
+        } catch (IllegalArgumentException ex) {
+            LOGGER.warn("Failed to count facets for query='{}', raw={}", q, raw, ex);
+            String message = ex.getMessage() != null ? ex.getMessage() : "Invalid search query";
+            return ResponseEntity.badRequest().body(message);
+        }
+    }
+
+    /**
+     * Answers the hits of the first page like {@code GET /search} without a budget, flagging partial results in the
+     * {@value #PARTIAL_HEADER} header.
+     */
+    private static ResponseEntity<List<SearchHit>> hitsOf(SearchPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.partial()) {
+            response.header(PARTIAL_HEADER, "true");
+        }
+        return response.body(page.hits());
+    }
+
     /**
      * Normalizes a type filter to lower-case or returns null when empty.
      *
@@ -3,6 +3,7 @@
 -- =========================================================
 
 -- ---------- Safety check: drop tables in dependency order ----------
+DROP TABLE IF EXISTS IndexChangeLog;
 DROP TABLE IF EXISTS ServiceContract;
 DROP TABLE IF EXISTS UpgradePlan;
 DROP TABLE IF EXISTS InstalledSoftware;
@@ -322,3 +323,37 @@ CREATE INDEX ix_installed_software   ON InstalledSoftware(SoftwareID);
 CREATE INDEX ix_upgrade_site         ON UpgradePlan(SiteID);
 CREATE INDEX ix_upgrade_software     ON UpgradePlan(SoftwareID);
 CREATE INDEX ix_service_contracts    ON ServiceContract(AccountID, ProjectID, SiteID);
+
+-- =========================================================
+-- 22.1 IndexChangeLog table (change capture for the Lucene index)
+-- =========================================================
+-- Every insert, update and delete on an indexed table appends one row here inside the writing transaction.
+-- IndexChangeLogRoute tails the table in Seq order and removes the rows it has applied to the index.
+CREATE TABLE IndexChangeLog (
+                                Seq        BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+                                TableName  VARCHAR(64) NOT NULL,               -- upper-case table name
+                                RowKey     VARCHAR(64) NOT NULL,               -- primary key of the changed row
+                                Operation  VARCHAR(6)  NOT NULL,
+                                ChangedAt  TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+                                CONSTRAINT ck_changelog_operation
+                                    CHECK (Operation IN ('INSERT','UPDATE','DELETE'))
+);
+
+-- ProjectSite changes are recorded as updates of the affected Site (the site document lists its projects)
+CREATE TRIGGER trg_changelog_account           AFTER INSERT, UPDATE, DELETE ON Account           FOR EACH ROW CALL 'at.htlle.freq.infrastructure.persistence.ChangeLogTrigger';
+CREATE TRIGGER trg_changelog_address           AFTER INSERT, UPDATE, DELETE ON Address           FOR EACH ROW CALL 'at.htlle.freq.infrastructure.persistence.ChangeLogTrigger';
+CREATE TRIGGER trg_changelog_audiodevice       AFTER INSERT, UPDATE, DELETE ON AudioDevice       FOR EACH ROW CALL 'at.htlle.freq.infrastructure.persistence.ChangeLogTrigger';
+CREATE TRIGGER trg_changelog_city              AFTER INSERT, UPDATE, DELETE ON City              FOR EACH ROW CALL 'at.htlle.freq.infrastructure.persistence.ChangeLogTrigger';
+CREATE TRIGGER trg_changelog_clients           AFTER INSERT, UPDATE, DELETE ON Clients           FOR EACH ROW CALL 'at.htlle.freq.infrastructure.persistence.ChangeLogTrigger';
+CREATE TRIGGER trg_changelog_country           AFTER INSERT, UPDATE, DELETE ON Country           FOR EACH ROW CALL 'at.htlle.freq.infrastructure.persistence.ChangeLogTrigger';
+CREATE TRIGGER trg_changelog_deploymentvariant AFTER INSERT, UPDATE, DELETE ON DeploymentVariant FOR EACH ROW CALL 'at.htlle.freq.infrastructure.persistence.ChangeLogTrigger';
+CREATE TRIGGER trg_changelog_installedsoftware AFTER INSERT, UPDATE, DELETE ON InstalledSoftware FOR EACH ROW CALL 'at.htlle.freq.infrastructure.persistence.ChangeLogTrigger';
+CREATE TRIGGER trg_changelog_phoneintegration  AFTER INSERT, UPDATE, DELETE ON PhoneIntegration  FOR EACH ROW CALL 'at.htlle.freq.infrastructure.persistence.ChangeLogTrigger';
+CREATE TRIGGER trg_changelog_project           AFTER INSERT, UPDATE, DELETE ON Project           FOR EACH ROW CALL 'at.htlle.freq.infrastructure.persistence.ChangeLogTrigger';
+CREATE TRIGGER trg_changelog_projectsite       AFTER INSERT, UPDATE, DELETE ON ProjectSite       FOR EACH ROW CALL 'at.htlle.freq.infrastructure.persistence.ChangeLogTrigger';
+CREATE TRIGGER trg_changelog_radio             AFTER INSERT, UPDATE, DELETE ON Radio             FOR EACH ROW CALL 'at.htlle.freq.infrastructure.persistence.ChangeLogTrigger';
+CREATE TRIGGER trg_changelog_server            AFTER INSERT, UPDATE, DELETE ON Server            FOR EACH ROW CALL 'at.htlle.freq.infrastructure.persistence.ChangeLogTrigger';
+CREATE TRIGGER trg_changelog_servicecontract   AFTER INSERT, UPDATE, DELETE ON ServiceContract   FOR EACH ROW CALL 'at.htlle.freq.infrastructure.persistence.ChangeLogTrigger';
+CREATE TRIGGER trg_changelog_site              AFTER INSERT, UPDATE, DELETE ON Site              FOR EACH ROW CALL 'at.htlle.freq.infrastructure.persistence.ChangeLogTrigger';
+CREATE TRIGGER trg_changelog_software          AFTER INSERT, UPDATE, DELETE ON Software          FOR EACH ROW CALL 'at.htlle.freq.infrastructure.persistence.ChangeLogTrigger';
+CREATE TRIGGER trg_changelog_upgradeplan       AFTER INSERT, UPDATE, DELETE ON UpgradePlan       FOR EACH ROW CALL 'at.htlle.freq.infrastructure.persistence.ChangeLogTrigger';
@@ -4,6 +4,8 @@ const API = {
     reindex:  '/api/index/reindex',    // POST → manual reindex
     search:   '/search',               // GET /search?q=...
     suggest:  '/search/suggest',       // GET /search/suggest?q=...
+    page:     '/search/page',          // GET /search/page?q=...&size=&cursor= → one page plus continuation cursor
+    facets:   '/search/facets',        // GET /search/facets?q=... → counts per type/status over all matches
     table:    '/table',                // GET /table/{name}
     siteSoftwareSummary: '/sites/software-summary',
 };
@@ -105,6 +107,28 @@ function highlightMatches(text, terms){
     result += escapeHtml(source.slice(lastIndex));
     return result;
 }
+function highlightSpans(text, spans){
+    const source = text ?? '';
+    let lastIndex = 0;
+    let result = '';
+    for (const span of spans){
+        const start = Math.max(Number(span?.start) || 0, lastIndex);
+        const end = Math.min(Number(span?.end) || 0, source.length);
+        if (end <= start) continue;
+        result += escapeHtml(source.slice(lastIndex, start));
+        result += `<mark class="hit-highlight">${escapeHtml(source.slice(start, end))}</mark>`;
+        lastIndex = end;
+    }
+    result += escapeHtml(source.slice(lastIndex));
+    return result;
+}
+function renderSnippet(hit, terms){
+    const snippet = hit?.snippet ?? '';
+    // Server-side match spans point into the untrimmed snippet; fall back to term matching without them
+    return Array.isArray(hit?.highlights)
+        ? highlightSpans(snippet, hit.highlights)
+        : highlightMatches(snippet.trim(), terms);
+}
 function setBusy(el, busy){ if(!el) return; busy ? el.setAttribute('aria-busy','true') : el.removeAttribute('aria-busy'); }
 
 function setAdvancedHelpExpanded(expanded) {
@@ -869,7 +893,7 @@ function formatPreview(type, row){
     }
     return parts.join(' · ');
 }
-async function enrichRows(hits){
+async function enrichRows(hits, offset = 0){
     const jobs = hits.map(async (h, i) => {
         try{
             const table = tableForType(h.type);
@@ -877,7 +901,7 @@ async function enrichRows(hits){
             if (!res.ok) return;
             const row = await res.json();
             const info = formatPreview(h.type, row) || '';
-            const cell = document.getElementById(`info-${i}`);
+            const cell = document.getElementById(`info-${offset + i}`);
             if (cell) cell.textContent = info;
         } catch {}
     });
@@ -1258,7 +1282,7 @@ function runSearch(raw, options = {}) {
     if (!options.skipUrlUpdate) {
         updateUrlState(text);
     }
-    runLucene(prepared, scopeOption, highlightTerms);
+    runLucene(prepared, scopeOption, highlightTerms, buildScopedQuery(text, null));
 }
 
 function shortUuid(value) {
@@ -1309,11 +1333,112 @@ function filterHitsByScope(hits, scopeKey) {
     if (!Array.isArray(hits)) return [];
     const canonicalScope = resolveScopeKey(scopeKey);
     if (!canonicalScope || canonicalScope === 'all') return hits;
+    // The backend already scopes by type; this only guards against hits of unknown types.
     return hits.filter(hit => resolveScopeKey(hit?.type) === canonicalScope);
 }
 
-async function runLucene(q, scopeOption, highlightTerms) {
+async function fetchFacets(query) {
+    if (!query) return null;
+    try {
+        const url = (typeof window !== 'undefined' && window?.location)
+            ? new URL(API.facets, window.location.origin)
+            : new URL(API.facets, 'http://localhost');
+        url.searchParams.set('q', query);
+        const res = await fetch(url.toString());
+        if (!res.ok) return null;
+        return await res.json();
+    } catch (e) {
+        return null;
+    }
+}
+
+function renderFacetBar(facets, scopeKey) {
+    const typeCounts = facets?.counts?.type;
+    if (!typeCounts || typeof typeCounts !== 'object') return '';
+    const activeScope = resolveScopeKey(scopeKey) || 'all';
+    const pills = Object.entries(typeCounts).map(([type, count]) => {
+        const resolved = resolveScopeKey(type);
+        const option = resolved ? getScopeOption(resolved) : null;
+        if (!option || option.key === 'all') return '';
+        const pressed = option.key === activeScope ? 'true' : 'false';
+        return `<button type="button" class="search-type-pill" data-search-type="${option.key}" aria-pressed="${pressed}">${escapeHtml(option.label)} (${Number(count) || 0})</button>`;
+    }).join(' ');
+    if (!pills.trim()) return '';
+    const total = Number(facets.total) || 0;
+    return `<div class="search-facets" aria-label="Matches per type"><small>${total} matches:</small> ${pills}</div>`;
+}
+
+const SEARCH_PAGE_SIZE = 50;
+let searchPaging = null;
+
+function renderHitRows(hits, highlightTerms, offset) {
+    return hits.map((h, i) => {
+        const snippet = (h.snippet ?? '').trim();
+        const snippetHtml = snippet ? `<div class="hit-snippet"><small>${renderSnippet(h, highlightTerms)}</small></div>` : '';
+        const typeArg = JSON.stringify(h.type ?? '');
+        const idArg = JSON.stringify(h.id ?? '');
+        const idDisplay = renderIdDisplay(h.id);
+        return `
+      <tr onclick='toDetails(${typeArg},${idArg})' style="cursor:pointer">
+        <td>${renderTypeCell(h.type)}</td>
+        <td><div class="hit-text">${highlightMatches(h.text ?? '', highlightTerms)}</div></td>
+        <td>${snippetHtml}<div id="info-${offset + i}" class="hit-info"></div></td>
+        <td title="${escapeHtml(idDisplay.title)}">${idDisplay.inner}</td>
+      </tr>`;
+    }).join('');
+}
+
+function renderPagingFooter(state) {
+    if (!state) return '';
+    const total = `${state.total}${state.totalExact ? '' : '+'}`;
+    const button = state.cursor
+        ? ' <button type="button" id="search-load-more" class="btn-primary">Load more</button>'
+        : '';
+    const partial = state.partial
+        ? ' <small class="search-partial" role="status">Search took too long; showing the best matches found so far.</small>'
+        : '';
+    return `<div id="search-paging" class="search-paging"><small>Showing ${state.shown} of ${total}</small>${button}${partial}</div>`;
+}
+
+function bindLoadMore() {
+    const button = document.getElementById('search-load-more');
+    if (button) button.addEventListener('click', loadMoreHits);
+}
+
+async function loadMoreHits() {
+    const state = searchPaging;
+    if (!state || !state.cursor) return;
+    const url = new URL(state.url.toString());
+    url.searchParams.set('cursor', state.cursor);
+    try {
+        setBusy(resultArea, true);
+        const res = await fetch(url.toString());
+        if (!res.ok) throw new Error(await res.text());
+        const page = await res.json();
+        if (searchPaging !== state) return;
+        const hits = filterHitsByScope(page?.hits, state.scopeKey);
+        const table = document.getElementById('search-results-table');
+        if (table && hits.length) {
+            table.insertAdjacentHTML('beforeend', renderHitRows(hits, state.highlightTerms, state.shown));
+        }
+        enrichRows(hits, state.shown);
+        state.shown += hits.length;
+        state.cursor = page?.cursor || null;
+        state.partial = page?.partial === true;
+        state.totalExact = state.totalExact && !state.partial;
+        const footer = document.getElementById('search-paging');
+        if (footer) footer.outerHTML = renderPagingFooter(state);
+        bindLoadMore();
+    } catch (e) {
+        resultArea.insertAdjacentHTML('beforeend', `<p id="error" role="alert">Error: ${escapeHtml(String(e))}</p>`);
+    } finally {
+        setBusy(resultArea, false);
+    }
+}
+
+async function runLucene(q, scopeOption, highlightTerms, facetQuery) {
     const query = (q ?? '').trim();
+    searchPaging = null;
     if (!query) {
         resultArea.textContent = '(no matches)';
         return;
@@ -1321,8 +1446,8 @@ async function runLucene(q, scopeOption, highlightTerms) {
     try {
         setBusy(resultArea, true);
         const url = (typeof window !== 'undefined' && window?.location)
-            ? new URL(API.search, window.location.origin)
-            : new URL(API.search, 'http://localhost');
+            ? new URL(API.page, window.location.origin)
+            : new URL(API.page, 'http://localhost');
         url.searchParams.set('q', query);
         const scopeType = scopeOption?.type || null;
         const scopeKey = scopeOption?.key || null;
@@ -1331,37 +1456,42 @@ async function runLucene(q, scopeOption, highlightTerms) {
         } else {
             url.searchParams.delete('type');
         }
-        const res  = await fetch(url.toString());
-        const hits = await res.json();
-        const filteredHits = filterHitsByScope(hits, scopeKey);
+        url.searchParams.set('size', String(SEARCH_PAGE_SIZE));
+        const [res, facets] = await Promise.all([fetch(url.toString()), fetchFacets(facetQuery)]);
+        const page = await res.json();
+        const filteredHits = filterHitsByScope(page?.hits, scopeKey);
+        const facetBar = renderFacetBar(facets, scopeKey);
         if (!Array.isArray(filteredHits) || !filteredHits.length) {
-            resultArea.textContent = '(no matches)';
+            if (facetBar) {
+                resultArea.innerHTML = `${facetBar}<p>(no matches in this scope)</p>`;
+            } else {
+                resultArea.textContent = '(no matches)';
+            }
             return;
         }
 
-        const rows = filteredHits.map((h, i) => {
-            const snippet = (h.snippet ?? '').trim();
-            const snippetHtml = snippet ? `<div class="hit-snippet"><small>${highlightMatches(snippet, highlightTerms)}</small></div>` : '';
-            const typeArg = JSON.stringify(h.type ?? '');
-            const idArg = JSON.stringify(h.id ?? '');
-            const idDisplay = renderIdDisplay(h.id);
-            return `
-      <tr onclick='toDetails(${typeArg},${idArg})' style="cursor:pointer">
-        <td>${renderTypeCell(h.type)}</td>
-        <td><div class="hit-text">${highlightMatches(h.text ?? '', highlightTerms)}</div></td>
-        <td>${snippetHtml}<div id="info-${i}" class="hit-info"></div></td>
-        <td title="${escapeHtml(idDisplay.title)}">${idDisplay.inner}</td>
-      </tr>`;
-        }).join('');
+        const rows = renderHitRows(filteredHits, highlightTerms, 0);
+        searchPaging = {
+            url,
+            scopeKey,
+            highlightTerms,
+            shown: filteredHits.length,
+            total: Number(page?.total) || filteredHits.length,
+            totalExact: page?.totalExact !== false,
+            cursor: page?.cursor || null,
+            partial: page?.partial === true,
+        };
 
-        resultArea.innerHTML = `
+        resultArea.innerHTML = `${facetBar}
       <div class="table-scroll">
-        <table>
+        <table id="search-results-table">
           <tr><th>Type</th><th>Name / Text</th><th>Snippet / Info</th><th>ID</th></tr>
           ${rows}
         </table>
-      </div>`;
+      </div>
+      ${renderPagingFooter(searchPaging)}`;
 
+        bindLoadMore();
         enrichRows(filteredHits);
 
     } catch (e) {
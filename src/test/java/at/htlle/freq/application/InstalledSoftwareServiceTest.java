@@ -242,6 +242,7 @@ class InstalledSoftwareServiceTest {
         InOrder order = inOrder(repo);
         order.verify(repo).findById(UUID2);
         order.verify(repo).deleteById(UUID2);
+        verify(lucene).deleteDocument(UUID2.toString());
     }
 
     @Test
@@ -291,4 +292,36 @@ class InstalledSoftwareServiceTest {
         verify(repo).deleteById(stale.getInstalledSoftwareID());
         verify(lucene, atLeastOnce()).indexInstalledSoftware(any(), any(), any(), any(), any(), any(), any(), any());
     }
+
+    @Test
+    void replaceAssignmentsForSiteIndexesTransactionAsOneBatch() {
+        InstalledSoftware existing = installedSoftware();
+        when(repo.findBySite(UUID4)).thenReturn(List.of(existing));
+        when(repo.findById(UUID2)).thenReturn(Optional.of(existing));
+        when(repo.save(any())).thenAnswer(invocation -> {
+            InstalledSoftware arg = invocation.getArgument(0);
+            if (arg.getInstalledSoftwareID() == null) {
+                arg.setInstalledSoftwareID(UUID.randomUUID());
+            }
+            return arg;
+        });
+
+        InstalledSoftware updated = new InstalledSoftware();
+        updated.setInstalledSoftwareID(UUID2);
+        updated.setSoftwareID(existing.getSoftwareID());
+        updated.setStatus("Offered");
+        InstalledSoftware created = new InstalledSoftware();
+        created.setSoftwareID(UUID.randomUUID());
+        created.setStatus("Offered");
+
+        List<TransactionSynchronization> synchronizations = TransactionTestUtils.executeWithinTransaction(
+                () -> service.replaceAssignmentsForSite(UUID4, List.of(updated, created)));
+
+        assertEquals(1, synchronizations.size());
+        verify(lucene, never()).indexAll(any());
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        verify(lucene).indexAll(argThat(batch -> batch.size() == 2));
+        verify(lucene, never()).indexInstalledSoftware(any(), any(), any(), any(), any(), any(), any(), any());
+    }
 }
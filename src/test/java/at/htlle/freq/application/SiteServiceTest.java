@@ -163,5 +163,6 @@ class SiteServiceTest {
         InOrder order = inOrder(repo);
         order.verify(repo).findById(UUID4);
         order.verify(repo).deleteById(UUID4);
+        verify(lucene).deleteDocument(UUID4.toString());
     }
 }
@@ -0,0 +1,156 @@
+package at.htlle.freq.infrastructure.camel;
+
+import at.htlle.freq.domain.AccountRepository;
+import at.htlle.freq.domain.IndexChange;
+import at.htlle.freq.domain.IndexChangeLogRepository;
+import at.htlle.freq.infrastructure.lucene.LuceneIndexService;
+import at.htlle.freq.infrastructure.lucene.LuceneIndexServiceImpl;
+import at.htlle.freq.infrastructure.lucene.LuceneProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IndexChangeLogRouteTest {
+
+    private IndexChangeLogRepository changeLog;
+    private LuceneIndexService lucene;
+    private IndexChangeLogRoute route;
+
+    @BeforeEach
+    void setUp() {
+        changeLog = mock(IndexChangeLogRepository.class);
+        lucene = mock(LuceneIndexService.class);
+        LuceneProperties properties = new LuceneProperties();
+        properties.getChangelog().setBatchSize(2);
+        route = new IndexChangeLogRoute(changeLog, lucene, properties, mock(SweepScheduler.class),
+                new LuceneIndexingHubRoute(lucene, properties));
+    }
+
+    @Test
+    void drainAppliesBatchesInOrderAndAcknowledgesThem() {
+        List<IndexChange> first = List.of(
+                new IndexChange(1, "SITE", "a", "INSERT"),
+                new IndexChange(2, "SITE", "b", "UPDATE"));
+        List<IndexChange> second = List.of(new IndexChange(3, "SITE", "a", "DELETE"));
+        when(changeLog.findPending(2)).thenReturn(first, second);
+
+        assertEquals(3, route.drain());
+
+        InOrder order = inOrder(lucene, changeLog);
+        order.verify(lucene).applyChanges(first);
+        order.verify(changeLog).deleteBySeq(List.of(1L, 2L));
+        order.verify(lucene).applyChanges(second);
+        order.verify(changeLog).deleteBySeq(List.of(3L));
+    }
+
+    @Test
+    void drainDoesNothingWhenLogIsEmpty() {
+        when(changeLog.findPending(anyInt())).thenReturn(List.of());
+
+        assertEquals(0, route.drain());
+
+        verify(lucene, never()).applyChanges(anyList());
+        verify(changeLog, never()).deleteBySeq(anyList());
+    }
+
+    @Test
+    void failedApplyKeepsEntriesForNextPoll(@TempDir Path tempDir) {
+        UUID id = UUID.randomUUID();
+        AccountRepository accounts = mock(AccountRepository.class);
+        when(accounts.findById(id)).thenThrow(new DataAccessResourceFailureException("database unavailable"));
+        LuceneIndexServiceImpl service = new LuceneIndexServiceImpl(accounts, null, null, null, null, null, null, null,
+                null, null, null, null, null, null, null, null);
+        service.setIndexPath(tempDir.resolve("index"));
+        LuceneProperties properties = new LuceneProperties();
+        properties.getChangelog().setBatchSize(2);
+        IndexChangeLogRoute failing = new IndexChangeLogRoute(changeLog, service, properties,
+                mock(SweepScheduler.class), new LuceneIndexingHubRoute(service, properties));
+        when(changeLog.findPending(2)).thenReturn(List.of(
+                new IndexChange(7, "ACCOUNT", id.toString(), "UPDATE"),
+                new IndexChange(8, "ACCOUNT", "acc-gone", "DELETE")));
+
+        try {
+            assertThrows(DataAccessResourceFailureException.class, failing::drain);
+        } finally {
+            service.close();
+        }
+
+        verify(changeLog, never()).deleteBySeq(anyList());
+    }
+
+    @Test
+    void entriesThatCannotBeAppliedAreDeadLetteredSoTheLogMovesOn(@TempDir Path tempDir) {
+        UUID id = UUID.randomUUID();
+        AccountRepository accounts = mock(AccountRepository.class);
+        when(accounts.findById(id)).thenReturn(Optional.empty());
+        LuceneIndexServiceImpl service = new LuceneIndexServiceImpl(accounts, null, null, null, null, null, null, null,
+                null, null, null, null, null, null, null, null);
+        service.setIndexPath(tempDir.resolve("index"));
+        LuceneProperties properties = new LuceneProperties();
+        properties.getChangelog().setBatchSize(2);
+        LuceneIndexingHubRoute hub = new LuceneIndexingHubRoute(service, properties);
+        IndexChangeLogRoute isolating = new IndexChangeLogRoute(changeLog, service, properties,
+                mock(SweepScheduler.class), hub);
+        when(changeLog.findPending(2)).thenReturn(List.of(
+                new IndexChange(7, "ACCOUNT", id.toString(), "UPDATE"),
+                new IndexChange(8, "ACCOUNT", "not-a-uuid", "UPDATE")), List.of());
+
+        try {
+            assertEquals(2, isolating.drain());
+        } finally {
+            service.close();
+        }
+
+        verify(changeLog).deleteBySeq(List.of(7L, 8L));
+        List<LuceneIndexingHubRoute.DeadLetter> letters = hub.deadLetters().letters();
+        assertEquals(1, letters.size());
+        assertEquals(List.of("not-a-uuid"), letters.get(0).ids());
+        assertEquals(-1, letters.get(0).partition());
+    }
+
+    @Test
+    void retriableFailuresAreClassifiedByCause() {
+        assertTrue(IndexChangeLogRoute.isRetriable(new UncheckedIOException(new IOException("lock held"))));
+        assertTrue(IndexChangeLogRoute.isRetriable(new DataAccessResourceFailureException("database unavailable")));
+        assertFalse(IndexChangeLogRoute.isRetriable(new IllegalArgumentException("Invalid UUID string")));
+    }
+
+    @Test
+    void appliedEntriesAreCountedPerTableForTheSweepSchedule() {
+        SweepScheduler scheduler = mock(SweepScheduler.class);
+        LuceneProperties properties = new LuceneProperties();
+        properties.getChangelog().setBatchSize(10);
+        IndexChangeLogRoute counting = new IndexChangeLogRoute(changeLog, lucene, properties, scheduler,
+                new LuceneIndexingHubRoute(lucene, properties));
+        when(changeLog.findPending(10)).thenReturn(List.of(
+                new IndexChange(1, "SITE", "a", "INSERT"),
+                new IndexChange(2, "ACCOUNT", "x", "UPDATE"),
+                new IndexChange(3, "SITE", "b", "DELETE")));
+
+        assertEquals(3, counting.drain());
+
+        verify(scheduler).changed("SITE", 2);
+        verify(scheduler).changed("ACCOUNT", 1);
+    }
+}
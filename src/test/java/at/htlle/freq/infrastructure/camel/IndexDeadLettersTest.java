@@ -0,0 +1,37 @@
+package at.htlle.freq.infrastructure.camel;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndexDeadLettersTest {
+
+    @Test
+    void oldestLetterIsEvictedWhenTheStoreIsFull() {
+        IndexDeadLetters store = new IndexDeadLetters(2);
+        store.add(0, List.of("a"), 1, new IOException("first"));
+        store.add(1, List.of("b", "c"), 4, new IOException("second"));
+        store.add(0, List.of("d"), 4, null);
+
+        assertThat(store.list()).extracting(IndexDeadLetters.Letter::id).containsExactly(2L, 3L);
+        assertThat(store.list().get(0).error()).isEqualTo("IOException: second");
+        assertThat(store.list().get(1).error()).isEqualTo("unknown");
+        assertThat(store.evicted()).isEqualTo(1);
+    }
+
+    @Test
+    void takeRemovesSelectedOrAllLetters() {
+        IndexDeadLetters store = new IndexDeadLetters(10);
+        store.add(0, List.of("a"), 1, null);
+        store.add(0, List.of("b"), 1, null);
+        store.add(1, List.of("c"), 1, null);
+
+        assertThat(store.take(List.of(2L))).extracting(IndexDeadLetters.Letter::payload)
+                .containsExactly(List.of("b"));
+        assertThat(store.purge(null)).isEqualTo(2);
+        assertThat(store.size()).isZero();
+    }
+}
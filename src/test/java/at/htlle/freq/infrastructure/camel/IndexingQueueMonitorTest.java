@@ -0,0 +1,67 @@
+package at.htlle.freq.infrastructure.camel;
+
+import at.htlle.freq.infrastructure.lucene.LuceneProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndexingQueueMonitorTest {
+
+    private static IndexingQueueMonitor monitor() {
+        LuceneProperties properties = new LuceneProperties();
+        properties.getHub().setBackoffDepth(100);
+        properties.getHub().setBackoffLagMs(10_000);
+        properties.getHub().setMaxBackoffMs(40);
+        return new IndexingQueueMonitor(properties);
+    }
+
+    @Test
+    void backoffDoublesWhileTheQueueLagsAndResetsOnceItKeepsUp() {
+        IndexingQueueMonitor monitor = monitor();
+
+        assertThat(monitor.nextBackoff(99, 9_999)).isZero();
+        assertThat(monitor.nextBackoff(100, 0)).isEqualTo(5);
+        assertThat(monitor.nextBackoff(150, 0)).isEqualTo(10);
+        assertThat(monitor.nextBackoff(0, 10_000)).isEqualTo(20);
+        assertThat(monitor.nextBackoff(150, 0)).isEqualTo(40);
+        assertThat(monitor.nextBackoff(150, 0)).as("capped at max-backoff-ms").isEqualTo(40);
+        assertThat(monitor.stats().backoffMs()).isEqualTo(40);
+
+        assertThat(monitor.nextBackoff(10, 0)).isZero();
+        assertThat(monitor.stats().throttled()).isEqualTo(5);
+        assertThat(monitor.stats().backoffMs()).isZero();
+    }
+
+    @Test
+    void batchesFeedTypeRatesAndPercentiles() {
+        IndexingQueueMonitor monitor = monitor();
+        long now = System.currentTimeMillis();
+        for (int i = 1; i <= 100; i++) {
+            monitor.batchIndexed(List.of("entity", 42), now - i * 10L, i);
+        }
+        monitor.batchIndexed(List.of("entity"), null, 0);
+
+        IndexingQueueMonitor.QueueStats stats = monitor.stats();
+        assertThat(stats.indexed()).isEqualTo(201);
+        assertThat(stats.perSecond()).isEqualTo(201 / 60.0);
+        assertThat(stats.types()).containsOnlyKeys("Integer", "String");
+        assertThat(stats.types().get("String").indexed()).isEqualTo(101);
+        assertThat(stats.types().get("Integer").indexed()).isEqualTo(100);
+        assertThat(stats.processingP50Ms()).isEqualTo(50);
+        assertThat(stats.processingP99Ms()).isEqualTo(99);
+        assertThat(stats.latencyP50Ms()).isBetween(500L, 600L);
+        assertThat(stats.latencyP99Ms()).isBetween(990L, 1_100L);
+        assertThat(stats.queued()).isZero();
+        assertThat(stats.oldestAgeMs()).isZero();
+    }
+
+    @Test
+    void percentilesUseTheNearestRank() {
+        long[] sorted = {1, 2, 3, 4};
+        assertThat(IndexingQueueMonitor.percentile(sorted, 50)).isEqualTo(2);
+        assertThat(IndexingQueueMonitor.percentile(sorted, 99)).isEqualTo(4);
+        assertThat(IndexingQueueMonitor.percentile(new long[0], 99)).isZero();
+    }
+}
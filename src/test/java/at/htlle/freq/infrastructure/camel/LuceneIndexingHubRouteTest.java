@@ -0,0 +1,213 @@
+package at.htlle.freq.infrastructure.camel;
+
+import at.htlle.freq.domain.IndexChange;
+import at.htlle.freq.infrastructure.lucene.LuceneIndexService;
+import at.htlle.freq.infrastructure.lucene.LuceneProperties;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.test.junit5.CamelTestSupport;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LuceneIndexingHubRouteTest extends CamelTestSupport {
+
+    private final LuceneIndexService lucene = mock(LuceneIndexService.class);
+    private LuceneIndexingHubRoute hub;
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        LuceneProperties properties = new LuceneProperties();
+        properties.getHub().setBatchSize(3);
+        properties.getHub().setBatchTimeoutMs(100);
+        properties.getHub().setPartitions(2);
+        properties.getHub().setRetryBackoffMs(1);
+        properties.getHub().setMaxRetryBackoffMs(4);
+        hub = new LuceneIndexingHubRoute(lucene, properties);
+        return hub;
+    }
+
+    @Test
+    void entitiesAreWrittenInBatchesOfConfiguredSize() {
+        for (int i = 1; i <= 7; i++) {
+            template.sendBody("seda:lucene-index", "entity-" + i);
+        }
+
+        List<List<Object>> batches = capturedBatches(3);
+        assertThat(batches).containsExactly(
+                List.of("entity-1", "entity-2", "entity-3"),
+                List.of("entity-4", "entity-5", "entity-6"),
+                List.of("entity-7"));
+    }
+
+    @Test
+    void collectionBodiesAreFlattenedAndNullBodiesDropped() {
+        template.sendBody("seda:lucene-index", List.of("a", "b"));
+        template.sendBody("seda:lucene-index", null);
+        template.sendBody("seda:lucene-index", "c");
+
+        assertThat(capturedBatches(1)).containsExactly(List.of("a", "b", "c"));
+    }
+
+    @Test
+    void updatesOfOneEntityStayOrderedWithinItsPartition() {
+        // "a" and "b" hash to different partitions of two
+        when(lucene.documentId(any())).thenAnswer(inv -> inv.getArgument(0).toString().split("#")[0]);
+        assertThat(hub.partitionOf("a#1")).isNotEqualTo(hub.partitionOf("b#1"));
+
+        template.sendBody("seda:lucene-index", List.of("a#1", "b#1", "a#2"));
+        template.sendBody("seda:lucene-index", "b#2");
+        template.sendBody("seda:lucene-index", "a#3");
+        template.sendBody("seda:lucene-index", "b#3");
+
+        List<List<Object>> batches = capturedBatches(2);
+        assertThat(batches).containsExactlyInAnyOrder(
+                List.of("a#1", "a#2", "a#3"),
+                List.of("b#1", "b#2", "b#3"));
+        awaitNoLag();
+        assertThat(hub.partitionStats())
+                .extracting(LuceneIndexingHubRoute.PartitionStats::dispatched,
+                        LuceneIndexingHubRoute.PartitionStats::indexed,
+                        LuceneIndexingHubRoute.PartitionStats::lag,
+                        LuceneIndexingHubRoute.PartitionStats::batches)
+                .containsExactly(tuple(3L, 3L, 0L, 1L), tuple(3L, 3L, 0L, 1L));
+    }
+
+    @Test
+    void aNewerBatchWaitsForTheTimeoutCompletedBatchBeforeIt() throws InterruptedException {
+        // batch 1 (completed by size on the consumer thread) wins the race against batch 0 (completed by the timeout
+        // checker), both carrying updates of entity "a"
+        Thread sizeCompleted = new Thread(() -> hub.indexBatch(0, 1L, List.of("a#2", "a#3", "a#4"), null));
+        sizeCompleted.start();
+        sizeCompleted.join(200);
+        assertThat(sizeCompleted.isAlive()).isTrue();
+        verify(lucene, never()).indexChanged(any());
+
+        hub.indexBatch(0, 0L, List.of("a#1"), null);
+        sizeCompleted.join(2_000);
+
+        assertThat(sizeCompleted.isAlive()).isFalse();
+        assertThat(capturedBatches(2)).containsExactly(List.of("a#1"), List.of("a#2", "a#3", "a#4"));
+    }
+
+    @Test
+    void writtenBatchesAreReportedToTheQueueMonitor() {
+        long enqueuedAt = System.currentTimeMillis() - 5_000;
+        template.sendBodyAndHeader("seda:lucene-index", List.of("a", "b"),
+                IndexingQueueMonitor.ENQUEUED_AT_HEADER, enqueuedAt);
+
+        capturedBatches(1);
+        awaitNoLag();
+        IndexingQueueMonitor.QueueStats stats = hub.monitor().stats();
+        assertThat(stats.indexed()).isEqualTo(2);
+        assertThat(stats.types()).containsOnlyKeys("String");
+        assertThat(stats.latencyP99Ms()).isGreaterThanOrEqualTo(5_000);
+        assertThat(stats.queued()).isZero();
+        assertThat(stats.partitionQueued()).isZero();
+    }
+
+    @Test
+    void transientFailuresAreRetriedWithBackoff() {
+        UncheckedIOException lockHeld = new UncheckedIOException(new IOException("Lock held by another writer"));
+        doThrow(lockHeld).doThrow(lockHeld).doNothing().when(lucene).indexChanged(any());
+
+        template.sendBody("seda:lucene-index", List.of("a", "b"));
+
+        assertThat(capturedBatches(3)).containsOnly(List.of("a", "b"));
+        awaitNoLag();
+        LuceneIndexingHubRoute.DeadLetterReport report = hub.deadLetters();
+        assertThat(report.retries()).isEqualTo(2);
+        assertThat(report.letters()).isEmpty();
+    }
+
+    @Test
+    void batchesThatKeepFailingAreDeadLetteredAndReplayedOnRequest() {
+        when(lucene.documentId(any())).thenAnswer(inv -> "id-" + inv.getArgument(0));
+        doThrow(new UncheckedIOException(new IOException("disk full"))).when(lucene).indexChanged(any());
+
+        template.sendBody("seda:lucene-index", List.of("a"));
+
+        // first attempt plus the default three retries
+        capturedBatches(4);
+        awaitNoLag();
+        LuceneIndexingHubRoute.DeadLetterReport report = hub.deadLetters();
+        assertThat(report.stored()).isEqualTo(1);
+        LuceneIndexingHubRoute.DeadLetter letter = report.letters().get(0);
+        assertThat(letter.ids()).containsExactly("id-a");
+        assertThat(letter.attempts()).isEqualTo(4);
+        assertThat(letter.error()).contains("disk full");
+
+        doNothing().when(lucene).indexChanged(any());
+        assertThat(hub.replayDeadLetters(null)).isEqualTo(1);
+        assertThat(capturedBatches(5)).last().isEqualTo(List.of("a"));
+        assertThat(hub.deadLetters().letters()).isEmpty();
+    }
+
+    @Test
+    void permanentFailuresAreDeadLetteredWithoutRetryAndCanBePurged() {
+        doThrow(new IllegalArgumentException("unsupported entity")).when(lucene).indexChanged(any());
+
+        template.sendBody("seda:lucene-index", "a");
+        template.sendBody("seda:lucene-index", "b");
+        template.sendBody("seda:lucene-index", "c");
+
+        capturedBatches(1);
+        awaitNoLag();
+        LuceneIndexingHubRoute.DeadLetterReport report = hub.deadLetters();
+        assertThat(report.retries()).isZero();
+        assertThat(report.letters()).extracting(LuceneIndexingHubRoute.DeadLetter::attempts).containsExactly(1);
+        long id = report.letters().get(0).id();
+
+        assertThat(hub.purgeDeadLetters(List.of(id + 1))).isZero();
+        assertThat(hub.purgeDeadLetters(List.of(id))).isEqualTo(1);
+        assertThat(hub.deadLetters().stored()).isZero();
+    }
+
+    @Test
+    void deadLetteredChangeLogEntriesAreAppliedAgainOnReplay() {
+        IndexChange change = new IndexChange(5, "SITE", "site-1", "UPDATE");
+        hub.deadLetterChanges(List.of(change), new IllegalStateException("mapping failed"));
+
+        LuceneIndexingHubRoute.DeadLetter letter = hub.deadLetters().letters().get(0);
+        assertThat(letter.ids()).containsExactly("site-1");
+        assertThat(letter.partition()).isEqualTo(-1);
+
+        assertThat(hub.replayDeadLetters(null)).isEqualTo(1);
+        verify(lucene).applyChanges(List.of(change));
+        assertThat(hub.deadLetters().letters()).isEmpty();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private List<List<Object>> capturedBatches(int expected) {
+        ArgumentCaptor<Collection> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(lucene, timeout(2_000).times(expected)).indexChanged(captor.capture());
+        List<List<Object>> batches = new ArrayList<>();
+        for (Collection batch : captor.getAllValues()) {
+            batches.add(new ArrayList<>(batch));
+        }
+        return batches;
+    }
+
+    private void awaitNoLag() {
+        long deadline = System.currentTimeMillis() + 2_000;
+        while (hub.partitionStats().stream().anyMatch(stats -> stats.lag() > 0)
+                && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+}
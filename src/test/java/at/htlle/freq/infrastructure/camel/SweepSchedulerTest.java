@@ -0,0 +1,95 @@
+package at.htlle.freq.infrastructure.camel;
+
+import at.htlle.freq.infrastructure.logging.RequestLoadFilter;
+import at.htlle.freq.infrastructure.lucene.LuceneProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SweepSchedulerTest {
+
+    private static final long PERIOD = 180_000;
+
+    private static LuceneProperties properties() {
+        LuceneProperties properties = new LuceneProperties();
+        properties.getSweep().setJitterPercent(0);
+        return properties;
+    }
+
+    @Test
+    void firstSweepsAreSpreadOverTheNominalPeriod() {
+        SweepScheduler scheduler = new SweepScheduler(properties(), Optional.empty());
+        List<String> tables = List.of("ACCOUNT", "ADDRESS", "CITY", "COUNTRY", "PROJECT", "SERVER", "SITE", "RADIO");
+        long now = System.currentTimeMillis();
+        tables.forEach(table -> scheduler.register(table, now));
+
+        List<Long> dueIn = scheduler.schedule().stream().map(SweepScheduler.SweepSchedule::nextInMs).toList();
+        assertThat(dueIn).allSatisfy(ms -> assertThat(ms).isBetween(0L, PERIOD));
+        assertThat(dueIn.stream().distinct().count()).isGreaterThan(1);
+
+        assertThat(scheduler.tryStart("SITE", now + PERIOD)).isTrue();
+        assertThat(scheduler.tryStart("SITE", now + PERIOD + 1_000)).as("already running").isFalse();
+        assertThat(scheduler.tryStart("UNKNOWN", now + PERIOD)).isFalse();
+    }
+
+    @Test
+    void periodFollowsChangeRateAndSweepCost() {
+        SweepScheduler scheduler = new SweepScheduler(properties(), Optional.empty());
+
+        assertThat(scheduler.nextPeriod(PERIOD, 0, 10)).as("idle table backs off").isEqualTo(2 * PERIOD);
+        assertThat(scheduler.nextPeriod(1_500_000, 0, 10)).as("capped").isEqualTo(1_800_000);
+        assertThat(scheduler.nextPeriod(PERIOD, 1.0, 10)).isEqualTo(PERIOD / 2);
+        assertThat(scheduler.nextPeriod(PERIOD, 100.0, 10)).as("floored").isEqualTo(60_000);
+        assertThat(scheduler.nextPeriod(PERIOD, 1.0, 20_000)).as("at most 10% sweeping").isEqualTo(200_000);
+    }
+
+    @Test
+    void finishedSweepRecordsItsCostAndChangeRate() {
+        SweepScheduler scheduler = new SweepScheduler(properties(), Optional.empty());
+        scheduler.register("SITE", 0);
+        assertThat(scheduler.tryStart("SITE", PERIOD)).isTrue();
+        scheduler.changed("SITE", 6);
+        scheduler.changed("CITY", 100);
+        scheduler.finished("SITE", 250, PERIOD + 400);
+
+        SweepScheduler.SweepSchedule site = scheduler.schedule().get(0);
+        assertThat(site.running()).isFalse();
+        assertThat(site.runs()).isEqualTo(1);
+        assertThat(site.lastRows()).isEqualTo(250);
+        assertThat(site.lastDurationMs()).isEqualTo(400);
+        assertThat(site.changesPerMinute()).isCloseTo(6 * 60_000.0 / (PERIOD + 400), within(0.001));
+        assertThat(site.periodMs()).isEqualTo(scheduler.nextPeriod(PERIOD, site.changesPerMinute(), 400));
+        assertThat(scheduler.tryStart("SITE", PERIOD + 400 + site.periodMs() - 1)).isFalse();
+        assertThat(scheduler.tryStart("SITE", PERIOD + 400 + site.periodMs())).isTrue();
+    }
+
+    @Test
+    void dueSweepsAreDeferredWhileInteractiveLoadIsHighUntilOverdue() {
+        RequestLoadFilter load = mock(RequestLoadFilter.class);
+        when(load.inFlight()).thenReturn(12);
+        SweepScheduler scheduler = new SweepScheduler(properties(), Optional.of(load));
+        scheduler.register("SITE", 0);
+
+        assertThat(scheduler.tryStart("SITE", PERIOD)).isFalse();
+        assertThat(scheduler.tryStart("SITE", PERIOD + 1_000)).isFalse();
+        assertThat(scheduler.schedule().get(0).deferred()).as("counted once per due sweep").isEqualTo(1);
+
+        assertThat(scheduler.tryStart("SITE", PERIOD + 1_800_000)).as("overdue sweeps run anyway").isTrue();
+
+        when(load.inFlight()).thenReturn(0);
+        when(load.requestsPerSecond()).thenReturn(50.0);
+        scheduler.finished("SITE", 1, PERIOD + 1_800_001);
+        long next = PERIOD + 1_800_001 + scheduler.schedule().get(0).periodMs();
+        assertThat(scheduler.tryStart("SITE", next)).isFalse();
+
+        when(load.requestsPerSecond()).thenReturn(1.0);
+        assertThat(scheduler.tryStart("SITE", next + 1_000)).isTrue();
+        assertThat(scheduler.schedule().get(0).deferred()).isEqualTo(2);
+    }
+}
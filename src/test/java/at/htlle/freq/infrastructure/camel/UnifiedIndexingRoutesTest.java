@@ -1,5 +1,6 @@
 package at.htlle.freq.infrastructure.camel;
 
+import at.htlle.freq.domain.Account;
 import at.htlle.freq.domain.AccountRepository;
 import at.htlle.freq.domain.AddressRepository;
 import at.htlle.freq.domain.AudioDeviceRepository;
@@ -16,7 +17,9 @@ import at.htlle.freq.domain.ServiceContractRepository;
 import at.htlle.freq.domain.SiteRepository;
 import at.htlle.freq.domain.SoftwareRepository;
 import at.htlle.freq.domain.UpgradePlanRepository;
+import at.htlle.freq.infrastructure.lucene.LuceneProperties;
 import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
 import org.apache.camel.ProducerTemplate;
 import org.apache.camel.Route;
 import org.apache.camel.builder.RouteBuilder;
@@ -31,13 +34,21 @@ import org.junit.jupiter.api.Test;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.apache.camel.builder.AdviceWith.adviceWith;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 class UnifiedIndexingRoutesTest extends CamelTestSupport {
 
+    private final AccountRepository accountRepo = mock(AccountRepository.class);
+    private final SweepScheduler scheduler = mock(SweepScheduler.class);
+
     private final List<String> timerRouteIds = List.of(
             "ReindexAccounts",
             "ReindexAddresses",
@@ -91,8 +102,9 @@ class UnifiedIndexingRoutesTest extends CamelTestSupport {
 
     @Override
     protected RouteBuilder createRouteBuilder() {
+        LuceneProperties properties = new LuceneProperties();
         return new UnifiedIndexingRoutes(
-                mock(AccountRepository.class),
+                accountRepo,
                 mock(AddressRepository.class),
                 mock(AudioDeviceRepository.class),
                 mock(CityRepository.class),
@@ -107,7 +119,10 @@ class UnifiedIndexingRoutesTest extends CamelTestSupport {
                 mock(ServiceContractRepository.class),
                 mock(SiteRepository.class),
                 mock(SoftwareRepository.class),
-                mock(UpgradePlanRepository.class)
+                mock(UpgradePlanRepository.class),
+                properties,
+                new IndexingQueueMonitor(properties),
+                scheduler
         );
     }
 
@@ -141,6 +156,16 @@ class UnifiedIndexingRoutesTest extends CamelTestSupport {
         }
     }
 
+    @Test
+    void directRoutesStampTheEnqueueTime() {
+        long before = System.currentTimeMillis();
+        template.sendBody("direct:index-single-account", "stamped");
+
+        Exchange received = consumer.receive("seda:lucene-index", 1000);
+        assertThat(received.getIn().getHeader(IndexingQueueMonitor.ENQUEUED_AT_HEADER, Long.class))
+                .isBetween(before, System.currentTimeMillis());
+    }
+
     @Test
     void routesAreLoadedWhenCamelFlagIsMissing() {
         List<Route> activeRoutes = context.getRoutes();
@@ -150,6 +175,52 @@ class UnifiedIndexingRoutesTest extends CamelTestSupport {
         assertThat(routeIds).containsAll(timerRouteIds).containsAll(directRouteIds);
     }
 
+    @Test
+    void sweepRunsOnlyWhenTheSchedulerFindsItsTableDueAndReportsBack() throws Exception {
+        Account first = new Account();
+        Account second = new Account();
+        when(accountRepo.streamAll(anyInt())).thenAnswer(invocation -> Stream.of(first, second));
+        context.getRouteController().startRoute("ReindexAccounts");
+
+        template.sendBody("direct:ReindexAccounts-trigger", null);
+        verify(scheduler, timeout(1_000)).tryStart("ACCOUNT");
+        assertThat(consumer.receiveBody("seda:lucene-index", 200)).isNull();
+
+        when(scheduler.tryStart("ACCOUNT")).thenReturn(true);
+        template.sendBody("direct:ReindexAccounts-trigger", null);
+        assertThat(consumer.receiveBody("seda:lucene-index", 1_000)).isSameAs(first);
+        assertThat(consumer.receiveBody("seda:lucene-index", 1_000)).isSameAs(second);
+        verify(scheduler, timeout(1_000)).finished("ACCOUNT", 2);
+        verify(accountRepo).streamAll(new LuceneProperties().getSweep().getChunkSize());
+    }
+
+    @Test
+    void failedSweepIsStillReportedToTheScheduler() throws Exception {
+        when(accountRepo.streamAll(anyInt())).thenThrow(new IllegalStateException("database unavailable"));
+        when(scheduler.tryStart("ACCOUNT")).thenReturn(true);
+        context.getRouteController().startRoute("ReindexAccounts");
+
+        try {
+            template.sendBody("direct:ReindexAccounts-trigger", null);
+        } catch (RuntimeException expected) {
+            // surfaced to the caller by the default error handler
+        }
+
+        verify(scheduler, timeout(1_000)).finished("ACCOUNT", 0);
+    }
+
+    @Test
+    void sweepRoutesStayStoppedUnlessEnabled() {
+        for (String routeId : timerRouteIds) {
+            assertThat(context.getRouteController().getRouteStatus(routeId).isStopped())
+                    .as("Sweep route %s", routeId).isTrue();
+        }
+        for (String routeId : directRouteIds) {
+            assertThat(context.getRouteController().getRouteStatus(routeId).isStarted())
+                    .as("Direct route %s", routeId).isTrue();
+        }
+    }
+
     private List<String> collectUris(ProcessorDefinition<?> definition) {
         List<String> targets = new ArrayList<>();
         for (ProcessorDefinition<?> output : definition.getOutputs()) {
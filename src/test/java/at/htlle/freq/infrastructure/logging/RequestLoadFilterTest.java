@@ -0,0 +1,62 @@
+package at.htlle.freq.infrastructure.logging;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestLoadFilterTest {
+
+    @Test
+    void countsInteractiveRequestsWhileTheyRunButNotIndexAdminCalls() throws Exception {
+        RequestLoadFilter filter = new RequestLoadFilter();
+        AtomicInteger seenInFlight = new AtomicInteger(-1);
+        FilterChain chain = (req, res) -> seenInFlight.set(filter.inFlight());
+
+        filter.doFilter(request("/search"), new MockHttpServletResponse(), chain);
+        assertThat(seenInFlight).hasValue(1);
+        assertThat(filter.inFlight()).isZero();
+
+        filter.doFilter(request("/api/index/queue"), new MockHttpServletResponse(), chain);
+        assertThat(seenInFlight).hasValue(0);
+        assertThat(filter.requestsPerSecond()).isEqualTo(1.0 / RequestLoadFilter.WINDOW_SECONDS);
+    }
+
+    @Test
+    void onlyTheIndexAdminApiAndStaticAssetsAreSkipped() {
+        assertThat(RequestLoadFilter.isInteractive(request("/api/index"))).isFalse();
+        assertThat(RequestLoadFilter.isInteractive(request("/api/index/sweeps"))).isFalse();
+        assertThat(RequestLoadFilter.isInteractive(request("/css/style.css"))).isFalse();
+        assertThat(RequestLoadFilter.isInteractive(request("/js/app.js"))).isFalse();
+        assertThat(RequestLoadFilter.isInteractive(request("/img/LifeXDatawarehouseLogo.png"))).isFalse();
+        assertThat(RequestLoadFilter.isInteractive(request("/api/indexes"))).isTrue();
+        assertThat(RequestLoadFilter.isInteractive(request("/index.html"))).isTrue();
+
+        MockHttpServletRequest underContextPath = request("/search");
+        underContextPath.setContextPath("/api/index");
+        underContextPath.setRequestURI("/api/index/search");
+        assertThat(RequestLoadFilter.isInteractive(underContextPath)).isTrue();
+    }
+
+    @Test
+    void requestRateCoversOnlyTheLastWindow() {
+        RequestLoadFilter filter = new RequestLoadFilter();
+        for (int i = 0; i < 30; i++) {
+            filter.started(1_000_000L);
+        }
+        filter.started(1_005_000L);
+
+        assertThat(filter.requestsPerSecond(1_005_500L)).isEqualTo(31.0 / RequestLoadFilter.WINDOW_SECONDS);
+        assertThat(filter.requestsPerSecond(1_012_000L)).isEqualTo(1.0 / RequestLoadFilter.WINDOW_SECONDS);
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        return request;
+    }
+}
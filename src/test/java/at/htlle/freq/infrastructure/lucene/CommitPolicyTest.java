@@ -0,0 +1,109 @@
+package at.htlle.freq.infrastructure.lucene;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommitPolicyTest {
+
+    private CommitPolicy policy;
+
+    @AfterEach
+    void tearDown() {
+        if (policy != null) {
+            policy.shutdown();
+        }
+    }
+
+    @Test
+    void reachingMaxPendingDocsCommitsImmediately() throws InterruptedException {
+        CountDownLatch committed = new CountDownLatch(1);
+        AtomicInteger commits = new AtomicInteger();
+        policy = new CommitPolicy(() -> {
+            commits.incrementAndGet();
+            committed.countDown();
+            return 4L;
+        }, 60_000, 3);
+
+        policy.onChange(1);
+        policy.onChange(1);
+        assertEquals(2, policy.status().uncommittedDocs());
+        policy.onChange(1);
+
+        assertTrue(committed.await(2, TimeUnit.SECONDS));
+        waitForCommitCount(1);
+        assertEquals(1, commits.get());
+        assertEquals(0, policy.status().uncommittedDocs());
+        assertEquals(4L, policy.status().lastCommitGeneration());
+    }
+
+    @Test
+    void oneCommitCoversAllChangesWithinMaxLatency() throws InterruptedException {
+        AtomicInteger commits = new AtomicInteger();
+        policy = new CommitPolicy(() -> commits.incrementAndGet(), 100, 1_000);
+
+        for (int i = 0; i < 50; i++) {
+            policy.onChange(1);
+        }
+
+        waitForCommitCount(1);
+        assertEquals(1, commits.get());
+        assertEquals(0, policy.status().uncommittedDocs());
+    }
+
+    @Test
+    void failedCommitKeepsChangesPending() {
+        policy = new CommitPolicy(() -> {
+            throw new IllegalStateException("disk full");
+        }, 60_000, 1_000);
+
+        policy.onChange(2);
+        policy.flush();
+
+        CommitPolicy.Status status = policy.status();
+        assertEquals(2, status.uncommittedDocs());
+        assertEquals(0, status.commitCount());
+        assertEquals(-1L, status.lastCommitGeneration());
+    }
+
+    @Test
+    void failedCommitIsRetriedWithoutFurtherChanges() throws InterruptedException {
+        AtomicInteger attempts = new AtomicInteger();
+        policy = new CommitPolicy(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("disk full");
+            }
+            return 7L;
+        }, 50, 1_000);
+
+        policy.onChange(2);
+
+        waitForCommitCount(1);
+        assertEquals(2, attempts.get());
+        assertEquals(0, policy.status().uncommittedDocs());
+        assertEquals(7L, policy.status().lastCommitGeneration());
+    }
+
+    @Test
+    void flushWithoutPendingChangesDoesNotCommit() {
+        AtomicInteger commits = new AtomicInteger();
+        policy = new CommitPolicy(() -> commits.incrementAndGet(), 60_000, 1_000);
+
+        policy.flush();
+
+        assertEquals(0, commits.get());
+    }
+
+    private void waitForCommitCount(long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2_000;
+        while (policy.status().commitCount() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, policy.status().commitCount());
+    }
+}
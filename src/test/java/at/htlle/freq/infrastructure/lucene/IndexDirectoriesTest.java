@@ -0,0 +1,106 @@
+package at.htlle.freq.infrastructure.lucene;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FileSwitchDirectory;
+import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.store.NIOFSDirectory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexDirectoriesTest {
+
+    @TempDir
+    Path root;
+
+    private static IndexDirectories directories(LuceneProperties.Store.Type type, String... hotExtensions) {
+        LuceneProperties.Store settings = new LuceneProperties.Store();
+        settings.setType(type);
+        settings.setHotExtensions(List.of(hotExtensions));
+        return new IndexDirectories(settings);
+    }
+
+    @Test
+    void opensTheConfiguredImplementation() throws IOException {
+        Path generation = root.resolve("index-000001");
+
+        try (Directory memory = directories(LuceneProperties.Store.Type.MEMORY, "tim").open(generation)) {
+            assertInstanceOf(ByteBuffersDirectory.class, memory);
+            assertFalse(Files.exists(generation), "the in-memory store writes nothing to disk");
+        }
+        try (Directory nio = directories(LuceneProperties.Store.Type.NIO, "tim").open(generation)) {
+            assertInstanceOf(NIOFSDirectory.class, nio);
+            assertTrue(Files.isDirectory(generation));
+        }
+        try (Directory mmap = directories(LuceneProperties.Store.Type.MMAP).open(generation)) {
+            assertFalse(((MMapDirectory) mmap).getPreload());
+        }
+        try (Directory mmap = directories(LuceneProperties.Store.Type.MMAP, "*").open(generation)) {
+            assertTrue(((MMapDirectory) mmap).getPreload());
+        }
+    }
+
+    @Test
+    void mmapPreloadsOnlyTheHotFiles() throws IOException {
+        try (Directory dir = directories(LuceneProperties.Store.Type.MMAP, ".TIM", "dvd").open(root)) {
+            FileSwitchDirectory switched = assertInstanceOf(FileSwitchDirectory.class, dir);
+            assertTrue(((MMapDirectory) switched.getPrimaryDir()).getPreload());
+            assertFalse(((MMapDirectory) switched.getSecondaryDir()).getPreload());
+
+            writeDocument(dir);
+            try (DirectoryReader reader = DirectoryReader.open(dir)) {
+                assertEquals(1, reader.numDocs());
+            }
+        }
+    }
+
+    @Test
+    void warmupReadsHotFilesOnly() throws IOException {
+        IndexDirectories hot = directories(LuceneProperties.Store.Type.NIO, "tim");
+        IndexDirectories all = directories(LuceneProperties.Store.Type.NIO, "*");
+        try (Directory dir = new ByteBuffersDirectory()) {
+            writeDocument(dir);
+            long timBytes = 0;
+            long allBytes = 0;
+            int allFiles = 0;
+            for (String name : dir.listAll()) {
+                allBytes += dir.fileLength(name);
+                allFiles++;
+                if (name.endsWith(".tim")) {
+                    timBytes += dir.fileLength(name);
+                }
+            }
+
+            assertEquals(new IndexDirectories.Warmup(1, timBytes), hot.warm(dir));
+            assertEquals(new IndexDirectories.Warmup(allFiles, allBytes), all.warm(dir));
+        }
+        assertTrue(hot.needsWarmup());
+        assertFalse(directories(LuceneProperties.Store.Type.MMAP, "tim").needsWarmup());
+        assertFalse(directories(LuceneProperties.Store.Type.MEMORY, "tim").needsWarmup());
+        assertFalse(directories(LuceneProperties.Store.Type.FS).needsWarmup());
+    }
+
+    private static void writeDocument(Directory dir) throws IOException {
+        IndexWriterConfig config = new IndexWriterConfig(new StandardAnalyzer());
+        config.setUseCompoundFile(false);
+        try (IndexWriter writer = new IndexWriter(dir, config)) {
+            Document doc = new Document();
+            doc.add(new TextField("content", "warm index files", Field.Store.YES));
+            writer.addDocument(doc);
+        }
+    }
+}
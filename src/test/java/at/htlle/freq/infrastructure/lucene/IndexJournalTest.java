@@ -0,0 +1,115 @@
+package at.htlle.freq.infrastructure.lucene;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexJournalTest {
+
+    @TempDir
+    Path dir;
+
+    private static LuceneProperties.Journal settings(int segmentBytes) {
+        LuceneProperties.Journal settings = new LuceneProperties.Journal();
+        settings.setSegmentBytes(segmentBytes);
+        settings.setSyncEvery(1);
+        return settings;
+    }
+
+    private static IndexJournal.Entry upsert(String id, long version) {
+        return new IndexJournal.Entry("account", id, IndexJournal.Op.UPSERT, version);
+    }
+
+    @Test
+    void uncommittedBatchesAreReplayedAfterARestart() throws IOException {
+        try (IndexJournal journal = IndexJournal.open(dir, settings(4096))) {
+            journal.written(journal.append(List.of(upsert("a", 1L))), 10L);
+            journal.committed(10L);
+            journal.written(journal.append(List.of(upsert("b", 2L),
+                    new IndexJournal.Entry("", "c", IndexJournal.Op.DELETE, 0L))), 11L);
+            long inFlight = journal.append(List.of(upsert("d", 3L)));
+            journal.committed(11L);
+            assertTrue(journal.stats().checkpoint() <= inFlight, "the batch still being written is not checkpointed");
+        }
+
+        try (IndexJournal reopened = IndexJournal.open(dir, settings(4096))) {
+            assertEquals(List.of(upsert("d", 3L)), reopened.pending());
+            assertTrue(reopened.stats().recovered() > 0);
+
+            // a commit of new writes does not pass the recovered range before it was replayed
+            reopened.written(reopened.append(List.of(upsert("e", 4L))), 1L);
+            reopened.committed(1L);
+            assertEquals(List.of(upsert("d", 3L)), reopened.pending());
+
+            reopened.replayed();
+            assertEquals(List.of(), reopened.pending());
+            assertEquals(reopened.stats().end(), reopened.stats().checkpoint());
+        }
+        try (IndexJournal again = IndexJournal.open(dir, settings(4096))) {
+            assertEquals(List.of(), again.pending());
+        }
+    }
+
+    @Test
+    void consumedSegmentsAreDeleted() throws IOException {
+        try (IndexJournal journal = IndexJournal.open(dir, settings(4096))) {
+            long seqNo = 0;
+            for (int i = 0; i < 200; i++) {
+                journal.written(journal.append(List.of(upsert("entity-" + i, i))), ++seqNo);
+            }
+            assertTrue(segments() > 1, "200 entries span several 4 KiB segments");
+
+            journal.committed(seqNo);
+
+            assertEquals(1, segments());
+            assertEquals(journal.stats().end(), journal.stats().checkpoint());
+            assertEquals(200, journal.stats().appended());
+        }
+    }
+
+    @Test
+    void aTornTailEndsTheReplayAndIsOverwritten() throws IOException {
+        try (IndexJournal journal = IndexJournal.open(dir, settings(4096))) {
+            journal.append(List.of(upsert("kept", 1L)));
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(dir)) {
+            segment = files.filter(f -> f.getFileName().toString().endsWith(".log")).findFirst().orElseThrow();
+        }
+        long end;
+        try (IndexJournal journal = IndexJournal.open(dir, settings(4096))) {
+            end = journal.stats().end();
+        }
+        // a record whose length was written but whose payload never reached the disk
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(8).putInt(40).putInt(123).flip(), end);
+        }
+
+        try (IndexJournal journal = IndexJournal.open(dir, settings(4096))) {
+            assertEquals(List.of(upsert("kept", 1L)), journal.pending());
+            journal.append(List.of(upsert("next", 2L)));
+        }
+        try (IndexJournal journal = IndexJournal.open(dir, settings(4096))) {
+            assertEquals(List.of(upsert("kept", 1L), upsert("next", 2L)), journal.pending());
+        }
+    }
+
+    private long segments() throws IOException {
+        List<Path> logs = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(f -> f.getFileName().toString().endsWith(".log")).forEach(logs::add);
+        }
+        return logs.size();
+    }
+}
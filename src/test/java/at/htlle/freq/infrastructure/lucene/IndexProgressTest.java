@@ -3,7 +3,9 @@ package at.htlle.freq.infrastructure.lucene;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -59,4 +61,38 @@ class IndexProgressTest {
         progress.inc("Custom");
         assertEquals(1, progress.status().done().get("Custom"));
     }
+
+    @Test
+    void addCountsBatchesAndReturnsRunningTotal() {
+        Map<String, Integer> totals = new LinkedHashMap<>();
+        totals.put("Account", 10);
+        totals.put("Site", 5);
+        progress.start(totals);
+
+        assertEquals(4, progress.add("Account", 4));
+        progress.inc("Site");
+        assertEquals(8, progress.add("Site", 3));
+        assertEquals(4, progress.status().done().get("Site"));
+        assertEquals(8, progress.totalDone());
+    }
+
+    @Test
+    void growRaisesTotalsWhileSourcesAreStreamed() {
+        Map<String, Integer> totals = new LinkedHashMap<>();
+        totals.put("Account", 0);
+        totals.put("Site", 0);
+        progress.start(totals);
+
+        progress.grow("Account", 500);
+        progress.grow("Account", 20);
+        progress.add("Account", 260);
+        progress.grow("Unknown", 1);
+
+        IndexProgress.Status status = progress.status();
+        assertEquals(520, status.totals().get("Account"));
+        assertEquals(0, status.totals().get("Site"));
+        assertEquals(521, status.grandTotal());
+        assertEquals(49, status.percent());
+        assertEquals(List.of("Account", "Site", "Unknown"), new ArrayList<>(status.totals().keySet()));
+    }
 }
@@ -17,8 +17,10 @@ import java.nio.file.Path;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
@@ -58,7 +60,8 @@ class LuceneIndexServiceImplLoggingTest {
         AccountRepository accountRepository = mock(AccountRepository.class);
         UUID id = UUID.randomUUID();
         Account account = new Account(id, "Acme", null, "contact@example.test", null, null, "AT");
-        Mockito.when(accountRepository.findAll()).thenReturn(List.of(account));
+        Mockito.when(accountRepository.streamAll(anyInt())).thenAnswer(invocation -> Stream.of(account));
+        Mockito.when(accountRepository.count()).thenReturn(1L);
 
         attachAppender(LuceneIndexServiceImpl.class);
 
@@ -67,27 +70,31 @@ class LuceneIndexServiceImplLoggingTest {
         );
         service.setIndexPath(tempDir.resolve("index"));
 
-        service.reindexAll();
+        try {
+            service.reindexAll();
+        } finally {
+            service.close();
+        }
 
         List<String> messages = appender.list.stream()
                 .map(ILoggingEvent::getFormattedMessage)
                 .collect(Collectors.toList());
 
-        assertTrue(messages.stream().anyMatch(m -> m.contains("Lucene index cleared (ready for reindex)")));
-        assertTrue(messages.stream().anyMatch(m -> m.contains("Starting full Lucene reindex with 1 records.")));
+        assertTrue(messages.stream().anyMatch(m -> m.contains("Shadow Lucene index prepared (ready for reindex)")));
+        assertTrue(messages.stream().anyMatch(m -> m.contains("Starting full Lucene reindex of 16 entity types.")));
         assertTrue(messages.stream().anyMatch(m -> m.contains("Lucene reindex progress: 1/1 documents (100%)")));
         assertTrue(messages.stream().anyMatch(m -> m.contains("Lucene reindex finished. 1 documents processed.")));
         assertTrue(messages.stream().anyMatch(m -> m.startsWith("Indexed account:")));
     }
 
     @Test
-    void reindexAllLogsErrorWhenClearIndexFails() throws IOException {
+    void reindexAllLogsErrorWhenShadowIndexCannotBePrepared() throws IOException {
         attachAppender(LuceneIndexServiceImpl.class);
 
         LuceneIndexServiceImpl service = new LuceneIndexServiceImpl();
         service.setIndexPath(tempDir.resolve("error-index"));
         LuceneIndexServiceImpl spyService = spy(service);
-        doThrow(new IOException("forced failure")).when(spyService).clearIndex();
+        doThrow(new IOException("forced failure")).when(spyService).prepareShadowIndex();
 
         spyService.reindexAll();
 
@@ -95,6 +102,6 @@ class LuceneIndexServiceImplLoggingTest {
                 .map(ILoggingEvent::getFormattedMessage)
                 .collect(Collectors.toList());
 
-        assertTrue(messages.stream().anyMatch(m -> m.contains("Failed to delete Lucene index before reindexing")));
+        assertTrue(messages.stream().anyMatch(m -> m.contains("Failed to prepare shadow Lucene index before reindexing")));
     }
 }
@@ -1,29 +1,54 @@
 package at.htlle.freq.infrastructure.lucene;
 
+import at.htlle.freq.infrastructure.search.HighlightSpan;
+import at.htlle.freq.infrastructure.search.SearchFacets;
 import at.htlle.freq.infrastructure.search.SearchHit;
+import at.htlle.freq.infrastructure.search.SearchPage;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
 import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.store.FSDirectory;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import at.htlle.freq.domain.Account;
+import at.htlle.freq.domain.AccountRepository;
+import at.htlle.freq.domain.Country;
+import at.htlle.freq.domain.CountryRepository;
+import at.htlle.freq.domain.IndexChange;
 import at.htlle.freq.domain.InstalledSoftware;
 import at.htlle.freq.domain.InstalledSoftwareRepository;
 import at.htlle.freq.domain.InstalledSoftwareStatus;
+import at.htlle.freq.domain.ProjectSiteAssignmentRepository;
+import at.htlle.freq.domain.Site;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.spy;
-import static org.mockito.Mockito.verify;
 
 /**
  * Integration-like tests for {@link LuceneIndexServiceImpl} that operate on a temporary
@@ -43,6 +68,7 @@ class LuceneIndexServiceImplTest {
 
     @AfterEach
     void tearDown() throws IOException {
+        service.close();
         if (indexPath != null && Files.exists(indexPath)) {
             Files.walk(indexPath)
                     .sorted((a, b) -> b.compareTo(a))
@@ -71,6 +97,54 @@ class LuceneIndexServiceImplTest {
         assertEquals("account", hits.get(0).getType());
     }
 
+    @Test
+    void sharedWriterIsReleasedOnCloseAndReopenedLazily() throws Exception {
+        service.indexAccount("acc-shared", "Shared", null, null);
+        Query query = new QueryParser("content", new org.apache.lucene.analysis.standard.StandardAnalyzer()).parse("shared");
+
+        // A second instance can only take over the directory once the first one released its write.lock
+        service.close();
+        LuceneIndexServiceImpl other = new LuceneIndexServiceImpl(indexPath);
+        try {
+            assertEquals(1, other.search(query).size());
+            other.indexAccount("acc-other", "Shared Other", null, null);
+            assertEquals(2, other.search(query).size());
+        } finally {
+            other.close();
+        }
+
+        // The closed instance reopens its writer transparently on the next call
+        assertEquals(2, service.search(query).size());
+    }
+
+    @Test
+    void changesAreGroupCommittedAndFlushedOnClose() throws Exception {
+        service.close();
+        LuceneProperties properties = new LuceneProperties();
+        properties.setIndexPath(indexPath.toString());
+        properties.getCommit().setMaxLatencyMs(60_000);
+        properties.getCommit().setMaxPendingDocs(1_000);
+        service = new LuceneIndexServiceImpl(null, null, null, null, null, null, null, null, null, null, null, null,
+                null, null, null, null, null, properties);
+
+        service.indexAccount("acc-g1", "Grouped", null, null);
+        service.indexAccount("acc-g2", "Grouped", null, null);
+
+        // Both changes are searchable right away but wait for the next group commit
+        assertEquals(2, service.search("grouped").size());
+        assertEquals(2, service.commitStatus().uncommittedDocs());
+
+        service.close();
+
+        CommitPolicy.Status status = service.commitStatus();
+        assertEquals(0, status.uncommittedDocs());
+        assertTrue(status.lastCommitGeneration() > 0);
+        try (FSDirectory dir = FSDirectory.open(service.getIndexPath());
+             DirectoryReader reader = DirectoryReader.open(dir)) {
+            assertEquals(2, reader.numDocs());
+        }
+    }
+
     @Test
     void searchStringHandlesParseErrorsGracefully() {
         List<SearchHit> hits = service.search("\\");
@@ -168,7 +242,8 @@ class LuceneIndexServiceImplTest {
                 rejected,
                 outdated
         );
-        Mockito.when(repository.findAll()).thenReturn(List.of(record));
+        Mockito.when(repository.streamAll(anyInt())).thenAnswer(invocation -> Stream.of(record));
+        Mockito.when(repository.count()).thenReturn(1L);
 
         LuceneIndexServiceImpl serviceWithRepository = new LuceneIndexServiceImpl(
                 null, null, null, null, null, null, null, repository,
@@ -176,21 +251,706 @@ class LuceneIndexServiceImplTest {
         );
         serviceWithRepository.setIndexPath(Path.of("target", "test-index", UUID.randomUUID().toString()));
 
-        LuceneIndexServiceImpl spyService = spy(serviceWithRepository);
-        doNothing().when(spyService).clearIndex();
-        doNothing().when(spyService).indexInstalledSoftware(any(), any(), any(), any(), any(), any(), any(), any());
+        try {
+            serviceWithRepository.reindexAll();
 
-        spyService.reindexAll();
+            String content = serviceWithRepository.withSearcher(searcher -> {
+                TopDocs top = searcher.search(new TermQuery(new Term("id", installedId.toString())), 1);
+                assertEquals(1, top.totalHits.value);
+                return searcher.doc(top.scoreDocs[0].doc).get("content");
+            });
+            assertTrue(content.contains(siteId.toString()));
+            assertTrue(content.contains(softwareId.toString()));
+            assertTrue(content.contains(InstalledSoftwareStatus.INSTALLED.dbValue()));
+            for (String date : List.of(offered, installed, rejected, outdated)) {
+                assertTrue(content.contains(date), () -> "missing date " + date);
+            }
+        } finally {
+            serviceWithRepository.close();
+        }
+    }
 
-        verify(spyService).indexInstalledSoftware(
-                installedId.toString(),
-                siteId.toString(),
-                softwareId.toString(),
-                InstalledSoftwareStatus.INSTALLED.dbValue(),
-                offered,
-                installed,
-                rejected,
-                outdated
-        );
+    @Test
+    void indexAllWritesEntitiesAndPrebuiltDocumentsInOneBatch() throws Exception {
+        UUID accountId = UUID.randomUUID();
+        Account account = new Account(accountId, "Bulkcorp", null, "bulk@example.test", null, null, "AT");
+        Country country = new Country("BK", "Bulkland");
+        Document prebuilt = new Document();
+        prebuilt.add(new StringField("id", "doc-1", Field.Store.YES));
+        prebuilt.add(new StringField("type", "custom", Field.Store.YES));
+        prebuilt.add(new TextField("content", "custom bulkentry", Field.Store.YES));
+
+        service.indexAll(List.of(account, country, prebuilt, "unsupported"));
+
+        assertEquals(accountId.toString(), service.search("bulkcorp").get(0).getId());
+        assertEquals("BK", service.search("bulkland").get(0).getId());
+        assertEquals("doc-1", service.search("bulkentry").get(0).getId());
+        assertEquals(3, service.commitStatus().uncommittedDocs());
+    }
+
+    @Test
+    void indexAllKeepsLastDocumentPerId() throws Exception {
+        Country first = new Country("DU", "Firstname");
+        Country second = new Country("DU", "Secondname");
+
+        service.indexAll(List.of(first, second));
+
+        assertTrue(service.search("firstname").isEmpty());
+        List<SearchHit> hits = service.search("secondname");
+        assertEquals(1, hits.size());
+        assertEquals("DU", hits.get(0).getId());
+    }
+
+    @Test
+    void indexAllResolvesSiteProjectsFromAssignments() throws Exception {
+        ProjectSiteAssignmentRepository assignments = mock(ProjectSiteAssignmentRepository.class);
+        UUID siteId = UUID.randomUUID();
+        UUID primaryProject = UUID.randomUUID();
+        UUID secondaryProject = UUID.randomUUID();
+        Mockito.when(assignments.findProjectIdsBySite(siteId)).thenReturn(List.of(primaryProject, secondaryProject));
+        Site site = new Site();
+        site.setSiteID(siteId);
+        site.setSiteName("Bulk Site");
+        site.setProjectID(primaryProject);
+
+        service.close();
+        LuceneProperties properties = new LuceneProperties();
+        properties.setIndexPath(indexPath.toString());
+        service = new LuceneIndexServiceImpl(null, null, null, null, null, null, null, null, null, null, null, null,
+                null, null, null, null, assignments, properties);
+
+        service.indexAll(List.of(site));
+
+        List<SearchHit> hits = service.search("\"" + secondaryProject + "\"");
+        assertEquals(1, hits.size());
+        assertEquals(siteId.toString(), hits.get(0).getId());
+    }
+
+    @Test
+    void reindexAllUsesWorkerPoolAndReportsProgressPerType() throws Exception {
+        CountryRepository countries = mock(CountryRepository.class);
+        List<Country> rows = new ArrayList<>();
+        for (int i = 0; i < 1_200; i++) {
+            rows.add(new Country(String.format("C%04d", i), "Land" + i));
+        }
+        List<Integer> totalsWhenCountriesAreRead = new ArrayList<>();
+        Mockito.when(countries.streamAll(anyInt())).thenAnswer(invocation -> {
+            totalsWhenCountriesAreRead.add(IndexProgress.get().status().grandTotal());
+            return rows.stream();
+        });
+        Mockito.when(countries.count()).thenReturn((long) rows.size());
+        AccountRepository accounts = mock(AccountRepository.class);
+        Mockito.when(accounts.streamAll(anyInt())).thenAnswer(invocation -> Stream.of(
+                new Account(UUID.randomUUID(), "Parallel", null, null, null, null, "AT")));
+        Mockito.when(accounts.count()).thenReturn(1L);
+
+        service.close();
+        LuceneProperties properties = new LuceneProperties();
+        properties.setIndexPath(indexPath.toString());
+        properties.getReindex().setThreads(4);
+        properties.getReindex().setBatchSize(100);
+        service = new LuceneIndexServiceImpl(accounts, null, null, null, null, countries, null, null, null, null, null,
+                null, null, null, null, null, null, properties);
+
+        service.reindexAll();
+
+        IndexProgress.Status status = IndexProgress.get().status();
+        assertEquals(1_200, status.done().get("Country"));
+        assertEquals(1, status.done().get("Account"));
+        assertEquals(1_200, status.totals().get("Country"));
+        assertEquals(List.of(1_201), totalsWhenCountriesAreRead, "totals come from the table counts before the scan");
+        int indexed = service.withSearcher(searcher -> searcher.getIndexReader().numDocs());
+        assertEquals(1_201, indexed);
+    }
+
+    @Test
+    void reindexAllActivatesNewGenerationAndDeletesPreviousOne() throws Exception {
+        service.indexAccount("acc-old", "Stale", null, null);
+        Path before = service.getIndexPath();
+
+        service.reindexAll();
+
+        Path after = service.getIndexPath();
+        assertNotEquals(before, after);
+        assertEquals(indexPath, after.getParent());
+        assertEquals(after.getFileName().toString(),
+                Files.readString(indexPath.resolve(IndexGenerations.POINTER_FILE)).trim());
+        assertFalse(Files.exists(before));
+
+        // A fresh instance on the same root picks up the activated generation
+        service.close();
+        LuceneIndexServiceImpl reopened = new LuceneIndexServiceImpl();
+        reopened.setIndexPath(indexPath);
+        try {
+            assertEquals(after, reopened.getIndexPath());
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void reindexAllDeletesPreviousGenerationPinnedByACursor() throws Exception {
+        for (int i = 0; i < 30; i++) {
+            service.indexSite(String.format("site-%03d", i), List.of(), null, "Pier " + i, null, 1, 0, false);
+        }
+        Path before = service.getIndexPath();
+        assertNotNull(service.searchPage("pier", 10, null, true).cursor());
+
+        service.reindexAll();
+
+        assertNotEquals(before, service.getIndexPath());
+        assertFalse(Files.exists(before));
+    }
+
+    @Test
+    void reindexAllKeepsActiveIndexWhenValidationFails() throws Exception {
+        service.indexAccount("acc-keep", "Survivor", null, null);
+        Path before = service.getIndexPath();
+
+        CountryRepository countries = mock(CountryRepository.class);
+        // A row that cannot be converted is skipped, so the shadow count falls short of the repository total
+        Country broken = mock(Country.class);
+        Mockito.when(broken.getCountryCode()).thenThrow(new IllegalStateException("broken row"));
+        Mockito.when(countries.streamAll(anyInt()))
+                .thenAnswer(invocation -> Stream.of(new Country("AT", "Austria"), broken));
+        Mockito.when(countries.count()).thenReturn(2L);
+        service.close();
+        service = new LuceneIndexServiceImpl(null, null, null, null, null, countries, null, null, null, null, null,
+                null, null, null, null, null);
+        service.setIndexPath(indexPath);
+
+        service.reindexAll();
+
+        assertEquals(before, service.getIndexPath());
+        assertEquals(1, service.search("survivor").size());
+        assertTrue(service.search("austria").isEmpty());
+        try (var dirs = Files.list(indexPath)) {
+            assertEquals(1, dirs.filter(d -> d.getFileName().toString().startsWith("index-")).count());
+        }
+    }
+
+    @Test
+    void reindexAllChecksTheShadowAgainstTheTableCountWithinTolerance() throws Exception {
+        service.indexAccount("acc-keep", "Survivor", null, null);
+        Path before = service.getIndexPath();
+        CountryRepository countries = mock(CountryRepository.class);
+        List<Country> rows = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            rows.add(new Country(String.format("C%04d", i), "Land" + i));
+        }
+        Mockito.when(countries.streamAll(anyInt())).thenAnswer(invocation -> rows.stream());
+        // The scan stopped short of the table: 5 rows missing exceed 1 % of 205
+        Mockito.when(countries.count()).thenReturn(205L);
+        service.close();
+        service = new LuceneIndexServiceImpl(null, null, null, null, null, countries, null, null, null, null, null,
+                null, null, null, null, null);
+        service.setIndexPath(indexPath);
+
+        service.reindexAll();
+
+        assertEquals(before, service.getIndexPath());
+        assertTrue(service.search("land0").isEmpty());
+
+        // Two rows written concurrently stay within 1 % of 202
+        Mockito.when(countries.count()).thenReturn(202L);
+        service.reindexAll();
+
+        assertNotEquals(before, service.getIndexPath());
+        assertEquals(1, service.search("land0").size());
+    }
+
+    @Test
+    void searchesAndLiveChangesDuringReindexSurviveTheSwap() throws Exception {
+        service.indexAccount("acc-live-old", "Before", null, null);
+        AccountRepository accounts = mock(AccountRepository.class);
+        List<Integer> hitsDuringRebuild = new ArrayList<>();
+        service.close();
+        service = new LuceneIndexServiceImpl(accounts, null, null, null, null, null, null, null, null, null, null,
+                null, null, null, null, null);
+        service.setIndexPath(indexPath);
+        UUID rebuiltId = UUID.randomUUID();
+        Mockito.when(accounts.streamAll(anyInt())).thenAnswer(invocation -> {
+            // Runs while the shadow generation is being built
+            hitsDuringRebuild.add(service.search("before").size());
+            service.indexAccount("acc-live-new", "During", null, null);
+            return Stream.of(new Account(rebuiltId, "Rebuilt", null, null, null, null, "AT"));
+        });
+        Mockito.when(accounts.count()).thenReturn(1L);
+
+        service.reindexAll();
+
+        assertEquals(List.of(1), hitsDuringRebuild);
+        assertEquals(1, service.search("during").size());
+        assertEquals(1, service.search("rebuilt").size());
+        assertTrue(service.search("before").isEmpty());
+    }
+
+    @Test
+    void indexChangedSkipsDocumentsWithUnchangedFingerprint() throws Exception {
+        UUID id = UUID.randomUUID();
+        Account account = new Account(id, "Stable", null, "stable@example.test", null, null, "AT");
+
+        service.indexChanged(List.of(account));
+        service.indexChanged(List.of(account));
+        assertEquals(new LuceneIndexService.IndexingStats(1, 1), service.indexingStats());
+
+        service.indexChanged(List.of(new Account(id, "Renamed", null, "stable@example.test", null, null, "AT")));
+        assertEquals(new LuceneIndexService.IndexingStats(2, 1), service.indexingStats());
+        assertEquals(1, service.search("renamed").size());
+    }
+
+    @Test
+    void reindexedDocumentsCarryFingerprintsForLaterSweeps() throws Exception {
+        AccountRepository accounts = mock(AccountRepository.class);
+        Account account = new Account(UUID.randomUUID(), "Swept", null, null, null, null, "AT");
+        Mockito.when(accounts.streamAll(anyInt())).thenAnswer(invocation -> Stream.of(account));
+        Mockito.when(accounts.count()).thenReturn(1L);
+        service.close();
+        service = new LuceneIndexServiceImpl(accounts, null, null, null, null, null, null, null, null, null, null,
+                null, null, null, null, null);
+        service.setIndexPath(indexPath);
+
+        service.reindexAll();
+        service.indexChanged(List.of(account));
+
+        assertEquals(new LuceneIndexService.IndexingStats(0, 1), service.indexingStats());
+    }
+
+    @Test
+    void applyChangesReloadsUpsertsAndRemovesDeletedRows() throws Exception {
+        CountryRepository countries = mock(CountryRepository.class);
+        Mockito.when(countries.findById("AT")).thenReturn(java.util.Optional.of(new Country("AT", "Austria")));
+        Mockito.when(countries.findById("DE")).thenReturn(java.util.Optional.empty());
+        service.close();
+        service = new LuceneIndexServiceImpl(null, null, null, null, null, countries, null, null, null, null, null,
+                null, null, null, null, null);
+        service.setIndexPath(indexPath);
+        service.indexAll(List.of(new Country("DE", "Germany"), new Country("CH", "Switzerland")));
+
+        service.applyChanges(List.of(
+                new IndexChange(1, "COUNTRY", "AT", "INSERT"),
+                new IndexChange(2, "COUNTRY", "DE", "UPDATE"),
+                new IndexChange(3, "COUNTRY", "CH", "DELETE"),
+                new IndexChange(4, "UNKNOWN", "x", "INSERT")));
+
+        assertEquals(1, service.search("austria").size());
+        assertTrue(service.search("germany").isEmpty());
+        assertTrue(service.search("switzerland").isEmpty());
+    }
+
+    @Test
+    void applyChangesReportsRowsThatCannotBeWritten() throws Exception {
+        CountryRepository countries = mock(CountryRepository.class);
+        // An id beyond Lucene's term length limit is rejected by the IndexWriter
+        Mockito.when(countries.findById("XX"))
+                .thenReturn(java.util.Optional.of(new Country("X".repeat(40_000), "Oversized")));
+        service.close();
+        service = new LuceneIndexServiceImpl(null, null, null, null, null, countries, null, null, null, null, null,
+                null, null, null, null, null);
+        service.setIndexPath(indexPath);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.applyChanges(List.of(new IndexChange(1, "COUNTRY", "XX", "UPDATE"))));
+        assertTrue(service.search("oversized").isEmpty());
+    }
+
+    @Test
+    void journaledWritesThatWereNeverCommittedAreReplayedAtStartup() throws Exception {
+        UUID recoveredId = UUID.randomUUID();
+        service.indexAccount("acc-gone", "Vanished", null, null);
+        service.close();
+
+        // The previous run journaled these writes but crashed before its group commit
+        try (IndexJournal journal = IndexJournal.open(indexPath.resolve("journal"), new LuceneProperties.Journal())) {
+            long batch = journal.append(List.of(
+                    new IndexJournal.Entry("account", recoveredId.toString(), IndexJournal.Op.UPSERT, 42L),
+                    new IndexJournal.Entry("", "acc-gone", IndexJournal.Op.DELETE, 0L)));
+            journal.written(batch, 7L);
+        }
+
+        AccountRepository accounts = mock(AccountRepository.class);
+        Mockito.when(accounts.findById(recoveredId)).thenReturn(java.util.Optional.of(
+                new Account(recoveredId, "Recovered", null, null, null, null, "AT")));
+        service = new LuceneIndexServiceImpl(accounts, null, null, null, null, null, null, null, null, null, null,
+                null, null, null, null, null);
+        service.setIndexPath(indexPath);
+        assertTrue(service.journalStats().recovered() > 0);
+
+        service.afterSingletonsInstantiated();
+
+        assertEquals(1, service.search("recovered").size());
+        assertTrue(service.search("vanished").isEmpty());
+        assertEquals(0, service.journalStats().recovered());
+
+        // Once committed, the next start has nothing to replay
+        service.close();
+        assertEquals(service.journalStats().end(), service.journalStats().checkpoint());
+        service.setIndexPath(indexPath);
+        assertEquals(0, service.replayJournal());
+    }
+
+    @Test
+    void failedJournalReplayKeepsTheRangePendingForTheNextStart() throws Exception {
+        service.close();
+        try (IndexJournal journal = IndexJournal.open(indexPath.resolve("journal"), new LuceneProperties.Journal())) {
+            long batch = journal.append(List.of(new IndexJournal.Entry("country", "XX", IndexJournal.Op.UPSERT, 42L)));
+            journal.written(batch, 3L);
+        }
+
+        CountryRepository countries = mock(CountryRepository.class);
+        // The first replay cannot be written: an id beyond Lucene's term length limit is rejected by the IndexWriter
+        Mockito.when(countries.findById("XX")).thenReturn(
+                java.util.Optional.of(new Country("X".repeat(40_000), "Xanadu")),
+                java.util.Optional.of(new Country("XX", "Xanadu")));
+        service = new LuceneIndexServiceImpl(null, null, null, null, null, countries, null, null, null, null, null,
+                null, null, null, null, null);
+        service.setIndexPath(indexPath);
+
+        service.afterSingletonsInstantiated();
+
+        assertTrue(service.journalStats().recovered() > 0);
+        assertTrue(service.search("xanadu").isEmpty());
+
+        assertEquals(1, service.replayJournal());
+        assertEquals(0, service.journalStats().recovered());
+        assertEquals(1, service.search("xanadu").size());
+    }
+
+    @Test
+    void indexChangedKeepsLastUpdatePerIdWithinBatch() throws Exception {
+        UUID id = UUID.randomUUID();
+
+        service.indexChanged(List.of(
+                new Account(id, "Draft", null, null, null, null, "AT"),
+                new Account(id, "Final", null, null, null, null, "AT")));
+
+        assertEquals(new LuceneIndexService.IndexingStats(1, 0), service.indexingStats());
+        assertTrue(service.search("draft").isEmpty());
+        assertEquals(1, service.search("final").size());
+    }
+
+    @Test
+    void typedFieldsAnswerRangeAndKeywordQueries() throws Exception {
+        service.indexSite("site-small", List.of(), null, "Small", null, 2, 0, false);
+        service.indexSite("site-large", List.of(), null, "Large", null, 12, 2, true);
+        String soon = java.time.LocalDate.now().plusDays(30).toString();
+        String later = java.time.LocalDate.now().plusYears(2).toString();
+        service.indexSoftware("sw-soon", "Dispatcher", "1", "0", "Maintenance", null, false, null, null, soon);
+        service.indexSoftware("sw-later", "Recorder", "1", "0", "Active", null, false, null, null, later);
+        service.indexServer("srv-1", null, "Core", "Dell", "SN1", "Windows Server", null, null, null);
+
+        assertEquals(List.of("site-large"), ids(service.search("tenantCount:[5 TO *]")));
+        assertEquals(List.of("site-large"), ids(service.search("redundantServers:>1")));
+        assertEquals(List.of("sw-soon"), ids(service.search("supportEndDate:[today TO today+90d]")));
+        assertEquals(List.of("srv-1"), ids(service.search("os:\"windows server\"")));
+        assertTrue(service.search("tenantCount:[x TO 3]").isEmpty());
+    }
+
+    @Test
+    void facetsCountAllMatchesBeyondTheHitLimit() throws Exception {
+        for (int i = 0; i < 60; i++) {
+            service.indexSite("site-" + i, List.of(), null, "Plant " + i, null, 1, 0, false);
+        }
+        service.indexProject("proj-1", "SAP-1", "Plant HQ", null, null, "ACTIVE", null, null, null);
+        service.indexProject("proj-2", "SAP-2", "Plant Annex", null, null, "CLOSED", null, null, null);
+        service.indexInstalledSoftware("is-1", null, null, "Installed", null, null, null, null);
+        service.indexSoftware("sw-1", "Plant Suite", "1", "0", "Maintenance", null, false, null, null, null);
+
+        SearchFacets facets = service.facets("plant");
+
+        assertEquals(50, service.search("plant").size());
+        assertEquals(63, facets.total());
+        assertEquals(Map.of("site", 60L, "project", 2L, "software", 1L), facets.counts().get(SearchFacets.TYPE));
+        assertEquals(Map.of("active", 1L, "closed", 1L), facets.counts().get(SearchFacets.LIFECYCLE_STATUS));
+        assertEquals(Map.of("maintenance", 1L), facets.counts().get(SearchFacets.SUPPORT_PHASE));
+        assertEquals(Map.of("installed", 1L),
+                service.facets("type:installedsoftware").counts().get(SearchFacets.INSTALLED_SOFTWARE_STATUS));
+        assertEquals(SearchFacets.empty(), service.facets("\"unterminated"));
+    }
+
+    @Test
+    void searchPageWalksAllMatchesWithCursor() throws Exception {
+        for (int i = 0; i < 120; i++) {
+            service.indexSite(String.format("site-%03d", i), List.of(), null, "Depot " + i, null, 1, 0, false);
+        }
+
+        java.util.Set<String> seen = new java.util.HashSet<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            SearchPage page = service.searchPage("depot", 25, cursor, true);
+            assertEquals(120, page.total());
+            assertTrue(page.totalExact());
+            page.hits().forEach(hit -> assertTrue(seen.add(hit.getId()), "duplicate " + hit.getId()));
+            cursor = page.cursor();
+            pages++;
+            // A refresh between pages must not shift the walk.
+            service.indexAccount("acc-" + pages, "Unrelated", null, null);
+        } while (cursor != null);
+
+        assertEquals(120, seen.size());
+        assertEquals(5, pages);
+        assertThrows(IllegalArgumentException.class, () -> service.searchPage("depot", 25, "%%%", false));
+    }
+
+    @Test
+    void searchPageThresholdsTotalUnlessExactIsRequested() throws Exception {
+        service.close();
+        LuceneProperties properties = new LuceneProperties();
+        properties.getSearch().setTotalHitsThreshold(10);
+        properties.setIndexPath(indexPath.toString());
+        service = new LuceneIndexServiceImpl(null, null, null, null, null, null, null, null, null, null, null,
+                null, null, null, null, null, null, properties);
+        for (int i = 0; i < 40; i++) {
+            service.indexSite("site-" + i, List.of(), null, "Yard " + i, null, 1, 0, false);
+        }
+
+        SearchPage estimated = service.searchPage("yard", 5, null, false);
+        SearchPage exact = service.searchPage("yard", 5, null, true);
+
+        assertFalse(estimated.totalExact());
+        assertTrue(estimated.total() >= 10);
+        assertEquals(40, exact.total());
+        assertEquals(5, exact.hits().size());
+        assertNotNull(exact.cursor());
+    }
+
+    @Test
+    void repeatedSearchesAreServedFromCacheUntilTheIndexChanges() throws Exception {
+        service.indexAccount("acc-cache", "Cachecorp", null, null);
+
+        List<SearchHit> first = service.search("cachecorp");
+        List<SearchHit> second = service.search("cachecorp");
+        LuceneIndexService.SearchCacheStats afterRepeat = service.searchCacheStats();
+        service.indexAccount("acc-cache-2", "Cachecorp Two", null, null);
+        List<SearchHit> afterWrite = service.search("cachecorp");
+
+        assertSame(first, second);
+        assertEquals(1, afterRepeat.hits());
+        assertEquals(1, afterRepeat.misses());
+        assertEquals(2, afterWrite.size());
+    }
+
+    @Test
+    void queriesWithTheSameTextButDifferentTermsDoNotShareCachedPages() throws Exception {
+        service.indexAccount("acc:1", "Colon", null, null);
+        Query exact = new TermQuery(new Term("id", "acc:1"));
+        Query otherField = new TermQuery(new Term("id:acc", "1"));
+        assertEquals(exact.toString(), otherField.toString());
+
+        assertEquals(1, service.searchPage(exact, 10, null, true, null).hits().size());
+        assertTrue(service.searchPage(otherField, 10, null, true, null).hits().isEmpty());
+    }
+
+    @Test
+    void searchHitsCarryHighlightedPassagesWithMatchSpans() throws Exception {
+        StringBuilder notes = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            notes.append("filler").append(i).append(' ');
+        }
+        service.indexProject("prj-hl", "SAP-1", "Harbour Rollout", null, null, "ACTIVE", "acc-1", null,
+                notes + "needle placed near the end");
+
+        SearchHit hit = service.search("needle").get(0);
+        String snippet = hit.getSnippet();
+        HighlightSpan span = hit.getHighlights().get(0);
+
+        assertEquals(1, hit.getHighlights().size());
+        assertEquals("needle", snippet.substring(span.start(), span.end()));
+        assertTrue(snippet.startsWith("…"), snippet);
+        assertTrue(snippet.length() <= HitHighlighter.SNIPPET_LENGTH + 40, snippet);
+        assertNull(service.search("status:active").get(0).getHighlights());
+    }
+
+    @Test
+    void indexWithoutContentOffsetsKeepsAcceptingWrites() throws Exception {
+        try (FSDirectory dir = FSDirectory.open(service.getIndexPath());
+             IndexWriter writer = new IndexWriter(dir, new IndexWriterConfig(new StandardAnalyzer()))) {
+            Document legacy = new Document();
+            legacy.add(new StringField("id", "legacy-1", Field.Store.YES));
+            legacy.add(new StringField("type", "account", Field.Store.YES));
+            legacy.add(new TextField("content", "account Oldcorp", Field.Store.YES));
+            IndexSchema.addKeyDocValues(legacy);
+            writer.addDocument(legacy);
+            writer.commit();
+        }
+
+        service.indexAccount("acc-new", "Newcorp", null, null);
+
+        SearchHit hit = service.search("newcorp").get(0);
+        assertEquals("acc-new", hit.getId());
+        assertEquals("Newcorp", hit.getSnippet().substring(hit.getHighlights().get(0).start(),
+                hit.getHighlights().get(0).end()));
+        assertEquals("legacy-1", service.search("oldcorp").get(0).getId());
+    }
+
+    @Test
+    void searchPageReturnsPartialHitsWhenTheBudgetRunsOut() throws Exception {
+        service.indexAccount("acc-slow-1", "Slowcorp", null, null);
+        service.indexAccount("acc-slow-2", "Slowcorp Two", null, null);
+        Query slow = new TermQuery(new Term("content", "slowcorp")) {
+            @Override
+            public Weight createWeight(IndexSearcher searcher, ScoreMode scoreMode, float boost) throws IOException {
+                try {
+                    Thread.sleep(30);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.createWeight(searcher, scoreMode, boost);
+            }
+        };
+
+        SearchPage partial = service.searchPage(slow, 10, null, false, 5L);
+        SearchPage complete = service.searchPage(slow, 10, null, false);
+
+        assertTrue(partial.partial());
+        assertFalse(partial.totalExact());
+        assertNull(partial.cursor());
+        assertFalse(complete.partial());
+        assertEquals(2, complete.hits().size());
+        LuceneIndexService.SearchStats stats = service.searchStats();
+        assertEquals(2, stats.searches());
+        assertEquals(1, stats.partial());
+    }
+
+    private static List<String> ids(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::getId).toList();
+    }
+
+    @Test
+    void inMemoryStoreServesSearchesAndReindexWithoutIndexFilesOnDisk() throws Exception {
+        AccountRepository accounts = mock(AccountRepository.class);
+        Mockito.when(accounts.streamAll(anyInt())).thenAnswer(invocation -> Stream.of(
+                new Account(UUID.randomUUID(), "Ephemeral", null, null, null, null, "AT")));
+        Mockito.when(accounts.count()).thenReturn(1L);
+        service.close();
+        LuceneProperties properties = new LuceneProperties();
+        properties.setIndexPath(indexPath.toString());
+        properties.getStore().setType(LuceneProperties.Store.Type.MEMORY);
+        service = new LuceneIndexServiceImpl(accounts, null, null, null, null, null, null, null, null, null, null,
+                null, null, null, null, null, null, properties);
+
+        service.indexAccount("acc-mem", "Volatile", null, null);
+        assertEquals(1, service.search("volatile").size());
+
+        service.reindexAll();
+
+        assertEquals(1, service.search("ephemeral").size());
+        assertTrue(service.search("volatile").isEmpty());
+        assertFalse(Files.exists(service.getIndexPath()), "generations stay on the heap");
+    }
+
+    @Test
+    void nioStoreIsWarmedWhenOpenedAndKeepsItsContents() throws Exception {
+        service.indexAccount("acc-warm", "Resident", null, null);
+        service.close();
+        LuceneProperties properties = new LuceneProperties();
+        properties.setIndexPath(indexPath.toString());
+        properties.getStore().setType(LuceneProperties.Store.Type.NIO);
+        properties.getStore().setHotExtensions(List.of("*"));
+        service = new LuceneIndexServiceImpl(null, null, null, null, null, null, null, null, null, null, null,
+                null, null, null, null, null, null, properties);
+
+        assertEquals(1, service.search("resident").size());
+        service.indexAccount("acc-warm-2", "Resident Two", null, null);
+        assertEquals(2, service.search("resident").size());
+    }
+
+    @Test
+    void concurrentSearchMergesPagesAndFacetsOfAllSlices() throws Exception {
+        service.close();
+        LuceneProperties properties = new LuceneProperties();
+        properties.setIndexPath(indexPath.toString());
+        properties.getSearch().setThreads(4);
+        properties.getSearch().setSliceMaxSegments(1);
+        service = new LuceneIndexServiceImpl(null, null, null, null, null, null, null, null, null, null, null,
+                null, null, null, null, null, null, properties);
+        for (int batch = 0; batch < 4; batch++) {
+            for (int i = 0; i < 30; i++) {
+                service.indexSite(String.format("site-%d-%02d", batch, i), List.of(), null, "Quay " + i, null, 1, 0,
+                        false);
+            }
+            // Each refresh adds a segment, so the searcher ends up with several slices
+            assertEquals(30 * (batch + 1), service.searchPage("quay", 10, null, true).total());
+        }
+        service.indexProject("proj-quay", "SAP-Q", "Quay HQ", null, null, "ACTIVE", null, null, null);
+
+        java.util.Set<String> seen = new java.util.HashSet<>();
+        String cursor = null;
+        do {
+            SearchPage page = service.searchPage("quay", 25, cursor, true);
+            assertEquals(121, page.total());
+            page.hits().forEach(hit -> assertTrue(seen.add(hit.getId()), "duplicate " + hit.getId()));
+            cursor = page.cursor();
+        } while (cursor != null);
+        SearchFacets facets = service.facets("quay");
+        LuceneIndexService.SearchExecutorStats stats = service.searchExecutorStats();
+
+        assertEquals(121, seen.size());
+        assertEquals(121, facets.total());
+        assertEquals(Map.of("site", 120L, "project", 1L), facets.counts().get(SearchFacets.TYPE));
+        assertEquals(4, stats.threads());
+        assertTrue(stats.completed() + stats.callerRuns() > 0, "slices were handed to the search pool");
+    }
+
+    @Test
+    void recordedQueriesWarmNewGenerationsAndTheNextStartupButNotRefreshes() throws Exception {
+        service.indexAccount("acc-w1", "Warm Harbor", null, null);
+        service.search("harbor");
+        service.search("harbor");
+        service.search("type:account");
+        service.search(new TermQuery(new Term("status", "installed")));
+        assertEquals(4, service.warmerStats().sampled());
+
+        service.indexAccount("acc-w2", "Warm Harbor Two", null, null);
+        assertEquals(2, service.search("harbor").size());
+        assertEquals(0, service.warmerStats().warmedSearchers(), "near-real-time refreshes are not warmed");
+
+        service.reindexAll();
+        LuceneIndexService.WarmerStats switched = service.warmerStats();
+        assertEquals(1, switched.warmedSearchers(), "the new generation was warmed before it was activated");
+        assertEquals(3, switched.warmedQueries(), "the built query was replayed as recorded");
+
+        service.close();
+        assertTrue(Files.exists(indexPath.resolve("warm-queries.txt")));
+        service = new LuceneIndexServiceImpl(indexPath);
+        assertEquals(2, service.warmerStats().distinct());
+        assertEquals(0, service.warmerStats().warmedSearchers());
+
+        service.afterSingletonsInstantiated();
+
+        LuceneIndexService.WarmerStats startup = service.warmerStats();
+        assertEquals(1, startup.warmedSearchers(), "the index was opened and warmed before the first search");
+        assertEquals(2, startup.warmedQueries());
+    }
+
+    @Test
+    void documentIdMatchesTheIdEntitiesAreIndexedUnder() throws Exception {
+        UUID accountId = UUID.randomUUID();
+        Account account = new Account(accountId, "Routed", null, null, null, null, "AT");
+        Country country = new Country("RT", "Routeland");
+        service.indexAll(List.of(account, country));
+
+        assertEquals(accountId.toString(), service.documentId(account));
+        assertEquals("RT", service.documentId(country));
+        assertEquals(service.documentId(account), service.search("routed").get(0).getId());
+        assertEquals(service.documentId(country), service.search("routeland").get(0).getId());
+        assertNull(service.documentId("not an entity"));
+    }
+
+    @Test
+    void exportVisitsEveryMatchBeyondThePageSize() throws Exception {
+        for (int i = 0; i < 120; i++) {
+            service.indexSite("site-exp-" + i, List.of(), null, "Harbour " + i, null, 1, 0, false);
+        }
+        service.indexAccount("acc-exp", "Inland", null, null);
+        List<String> ids = new ArrayList<>();
+
+        long exported = service.export(service.parseQuery("harbour"), hit -> ids.add(hit.getId()));
+
+        assertEquals(120, exported);
+        assertEquals(120, ids.stream().distinct().count());
+        assertTrue(ids.stream().allMatch(id -> id.startsWith("site-exp-")));
+        assertThrows(IllegalArgumentException.class, () -> service.parseQuery("type:("));
     }
 }
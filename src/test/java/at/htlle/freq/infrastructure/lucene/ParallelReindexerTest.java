@@ -0,0 +1,106 @@
+package at.htlle.freq.infrastructure.lucene;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelReindexerTest {
+
+    @Test
+    void scanHandsEveryRowToTheSinkInBoundedBatches() throws Exception {
+        List<Integer> rows = IntStream.range(0, 1_005).boxed().toList();
+        Set<Object> seen = ConcurrentHashMap.newKeySet();
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        Set<String> workers = ConcurrentHashMap.newKeySet();
+
+        try (ParallelReindexer reindexer = new ParallelReindexer(4, 100)) {
+            reindexer.scan(Map.of("numbers", rows::stream), (type, count) -> { }, batch -> {
+                workers.add(Thread.currentThread().getName());
+                batchSizes.add(batch.size());
+                seen.addAll(batch);
+            });
+        }
+
+        assertEquals(1_005, seen.size());
+        assertEquals(11, batchSizes.size());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 100));
+        assertTrue(workers.stream().allMatch(name -> name.startsWith("lucene-reindex-")));
+    }
+
+    @Test
+    void scanRethrowsBatchFailures() {
+        try (ParallelReindexer reindexer = new ParallelReindexer(2, 1)) {
+            IllegalStateException ex = assertThrows(IllegalStateException.class, () ->
+                    reindexer.scan(Map.of("rows", () -> Stream.of(1, 2, 3)), (type, count) -> { }, batch -> {
+                        if (batch.contains(2)) {
+                            throw new IllegalStateException("broken row");
+                        }
+                    }));
+            assertEquals("broken row", ex.getMessage());
+        }
+    }
+
+    @Test
+    void scanReadsStreamsLazilyAndBoundsBatchesInFlight() throws Exception {
+        AtomicInteger read = new AtomicInteger();
+        AtomicInteger maxAhead = new AtomicInteger();
+        AtomicInteger written = new AtomicInteger();
+        Map<String, Supplier<Stream<?>>> sources = new LinkedHashMap<>();
+        sources.put("numbers", () -> IntStream.range(0, 1_000).boxed().peek(i -> read.incrementAndGet()));
+        sources.put("missing", () -> null);
+        Map<String, Integer> reported = new ConcurrentHashMap<>();
+
+        Map<String, Integer> counts;
+        try (ParallelReindexer reindexer = new ParallelReindexer(2, 10)) {
+            counts = reindexer.scan(sources, (type, count) -> reported.merge(type, count, Integer::sum), batch -> {
+                // Rows read but not yet written never exceed the four batches in flight plus the one being filled
+                maxAhead.accumulateAndGet(read.get() - written.get(), Math::max);
+                sleep(2);
+                written.addAndGet(batch.size());
+            });
+        }
+
+        assertEquals(List.of("numbers", "missing"), new ArrayList<>(counts.keySet()));
+        assertEquals(1_000, counts.get("numbers"));
+        assertEquals(0, counts.get("missing"));
+        assertEquals(Map.of("numbers", 1_000), reported);
+        assertEquals(1_000, written.get());
+        assertTrue(maxAhead.get() <= 5 * 10 + 1, "read ahead " + maxAhead.get());
+    }
+
+    @Test
+    void scanStopsReadingAfterAFailedBatch() {
+        AtomicInteger read = new AtomicInteger();
+        Map<String, Supplier<Stream<?>>> sources = Map.of("rows",
+                () -> IntStream.range(0, 10_000).boxed().peek(i -> read.incrementAndGet()));
+
+        try (ParallelReindexer reindexer = new ParallelReindexer(1, 1)) {
+            IllegalStateException ex = assertThrows(IllegalStateException.class, () ->
+                    reindexer.scan(sources, (type, count) -> { }, batch -> {
+                        throw new IllegalStateException("broken row");
+                    }));
+            assertEquals("broken row", ex.getMessage());
+        }
+        assertTrue(read.get() < 10_000, "kept reading " + read.get() + " rows");
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package at.htlle.freq.infrastructure.lucene;
+
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void ranksByFrequencyThenRecency() {
+        QueryLog log = new QueryLog(10);
+        log.record("vienna");
+        log.record("graz");
+        log.record("vienna");
+        log.record("linz");
+        log.record("  ");
+        log.record((String) null);
+
+        assertEquals(List.of("vienna", "linz", "graz"), log.top(5));
+        assertEquals(List.of("vienna"), log.top(1));
+        assertEquals(4, log.size());
+        assertEquals(3, log.distinct());
+    }
+
+    @Test
+    void oldQueriesAgeOutOfTheSample() {
+        QueryLog log = new QueryLog(3);
+        log.record("vienna");
+        log.record("vienna");
+        log.record("graz");
+        log.record("linz");
+        log.record("linz");
+
+        assertEquals(List.of("linz", "graz"), log.top(5));
+        assertEquals(3, log.size());
+    }
+
+    @Test
+    void savedTopQueriesSeedTheNextRun() throws Exception {
+        QueryLog log = new QueryLog(10);
+        log.record("graz");
+        log.record("vienna\nsite");
+        log.record("vienna\nsite");
+        Path file = dir.resolve("warm-queries.txt");
+        log.save(file, 5);
+
+        QueryLog next = new QueryLog(10);
+        next.record("stale");
+
+        assertEquals(List.of("vienna site", "graz"), Files.readAllLines(file));
+        assertEquals(2, next.load(file));
+        assertEquals(List.of("vienna site", "graz"), next.top(5));
+        assertEquals(0, next.load(dir.resolve("missing.txt")));
+        assertEquals(0, next.distinct());
+    }
+
+    @Test
+    void builtQueriesAreRankedAsQueriesButNotSaved() throws Exception {
+        QueryLog log = new QueryLog(10);
+        Query status = new TermQuery(new Term("status", "installed"));
+        log.record(status);
+        log.record(new TermQuery(new Term("status", "installed")));
+        log.record("status:installed");
+        Path file = dir.resolve("warm-queries.txt");
+        log.save(file, 5);
+
+        assertEquals(List.of(status, "status:installed"), log.top(5));
+        assertEquals(List.of("status:installed"), Files.readAllLines(file));
+    }
+}
@@ -0,0 +1,54 @@
+package at.htlle.freq.infrastructure.lucene;
+
+import at.htlle.freq.infrastructure.search.SearchHit;
+import at.htlle.freq.infrastructure.search.SearchPage;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchCacheTest {
+
+    private static SearchPage page(String id) {
+        return new SearchPage(List.of(new SearchHit(id, "site", id, null)), 1, true, null);
+    }
+
+    @Test
+    void servesPagesOfTheSameReaderVersionOnly() {
+        SearchCache cache = new SearchCache(10);
+        SearchPage first = page("a");
+
+        assertNull(cache.get(1, "q"));
+        cache.put(1, "q", first);
+
+        assertSame(first, cache.get(1, "q"));
+        assertNull(cache.get(2, "q"));
+        cache.put(2, "other", page("b"));
+        assertNull(cache.get(1, "q"), "a new reader version drops older pages");
+        assertEquals(new LuceneIndexService.SearchCacheStats(1, 3, 0, 1, 10), cache.stats());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntries() {
+        SearchCache cache = new SearchCache(2);
+        cache.put(1, "a", page("a"));
+        cache.put(1, "b", page("b"));
+        cache.get(1, "a");
+        cache.put(1, "c", page("c"));
+
+        assertNotNull(cache.get(1, "a"));
+        assertNull(cache.get(1, "b"));
+        assertNotNull(cache.get(1, "c"));
+        assertEquals(1, cache.stats().evictions());
+    }
+
+    @Test
+    void zeroCapacityDisablesCaching() {
+        SearchCache cache = new SearchCache(0);
+        cache.put(1, "q", page("a"));
+
+        assertNull(cache.get(1, "q"));
+        assertEquals(new LuceneIndexService.SearchCacheStats(0, 0, 0, 0, 0), cache.stats());
+    }
+}
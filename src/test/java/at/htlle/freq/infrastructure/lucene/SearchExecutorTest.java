@@ -0,0 +1,104 @@
+package at.htlle.freq.infrastructure.lucene;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.TopScoreDocCollector;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchExecutorTest {
+
+    private static LuceneProperties.Search settings(int threads, int queueCapacity, int maxDocs, int maxSegments) {
+        LuceneProperties.Search settings = new LuceneProperties.Search();
+        settings.setThreads(threads);
+        settings.setQueueCapacity(queueCapacity);
+        settings.setSliceMaxDocs(maxDocs);
+        settings.setSliceMaxSegments(maxSegments);
+        return settings;
+    }
+
+    /** Writes one segment per entry of {@code sizes}. */
+    private static Directory segments(int... sizes) throws IOException {
+        Directory dir = new ByteBuffersDirectory();
+        IndexWriterConfig config = new IndexWriterConfig(new StandardAnalyzer());
+        config.setMergePolicy(NoMergePolicy.INSTANCE);
+        try (IndexWriter writer = new IndexWriter(dir, config)) {
+            int id = 0;
+            for (int size : sizes) {
+                for (int i = 0; i < size; i++) {
+                    Document doc = new Document();
+                    doc.add(new StringField("id", Integer.toString(id++), Field.Store.NO));
+                    writer.addDocument(doc);
+                }
+                writer.flush();
+            }
+        }
+        return dir;
+    }
+
+    @Test
+    void slicesGroupSmallSegmentsAndIsolateLargeOnes() throws IOException {
+        try (Directory dir = segments(50, 4, 3, 2, 1);
+             DirectoryReader reader = DirectoryReader.open(dir)) {
+            IndexSearcher.LeafSlice[] slices = SearchExecutor.slices(reader.leaves(), 10, 2);
+
+            int[][] sizes = Arrays.stream(slices)
+                    .map(slice -> Arrays.stream(slice.leaves).mapToInt(leaf -> leaf.reader().maxDoc()).toArray())
+                    .toArray(int[][]::new);
+            assertArrayEquals(new int[][]{{50}, {4, 3}, {2, 1}}, sizes);
+        }
+    }
+
+    @Test
+    void searchersScoreSlicesOnThePoolAndMatchSequentialResults() throws IOException {
+        SearchExecutor executor = new SearchExecutor(settings(2, 16, 1_000, 1));
+        SearchExecutor sequential = new SearchExecutor(settings(0, 16, 1_000, 1));
+        try (Directory dir = segments(5, 5, 5, 5);
+             DirectoryReader reader = DirectoryReader.open(dir)) {
+            IndexSearcher concurrent = executor.newSearcher(reader);
+            IndexSearcher plain = sequential.newSearcher(reader);
+
+            assertEquals(4, concurrent.getSlices().length);
+            assertNull(plain.getExecutor());
+            assertEquals(20, concurrent.search(new MatchAllDocsQuery(),
+                    TopScoreDocCollector.createSharedManager(5, null, Integer.MAX_VALUE)).totalHits.value);
+            assertEquals(20, plain.count(new MatchAllDocsQuery()));
+            assertTrue(executor.isEnabled());
+            assertFalse(sequential.isEnabled());
+        } finally {
+            executor.close();
+        }
+        LuceneIndexService.SearchExecutorStats stats = executor.stats();
+        assertEquals(2, stats.threads());
+        assertEquals(16, stats.queueCapacity());
+        assertEquals(3, stats.completed() + stats.callerRuns(), "all but the last slice are handed to the pool");
+    }
+
+    @Test
+    void closedPoolRunsSlicesOnTheCallingThread() throws IOException {
+        SearchExecutor executor = new SearchExecutor(settings(1, 1, 1_000, 1));
+        executor.close();
+        try (Directory dir = segments(3, 3, 3);
+             DirectoryReader reader = DirectoryReader.open(dir)) {
+            IndexSearcher searcher = executor.newSearcher(reader);
+
+            assertEquals(9, searcher.search(new MatchAllDocsQuery(),
+                    TopScoreDocCollector.createSharedManager(5, null, Integer.MAX_VALUE)).totalHits.value);
+        }
+        assertEquals(2, executor.stats().callerRuns());
+    }
+}
@@ -0,0 +1,78 @@
+package at.htlle.freq.infrastructure.persistence;
+
+import at.htlle.freq.domain.IndexChange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class JdbcIndexChangeLogRepositoryIntegrationTest {
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbc;
+
+    @Autowired
+    private JdbcIndexChangeLogRepository changeLog;
+
+    @BeforeEach
+    void clearLog() {
+        jdbc.update("DELETE FROM IndexChangeLog", new MapSqlParameterSource());
+    }
+
+    @Test
+    void triggersLogEveryWriteInSequenceOrder() {
+        MapSqlParameterSource code = new MapSqlParameterSource("code", "ZZ");
+        jdbc.update("INSERT INTO Country (CountryCode, CountryName) VALUES (:code, 'Zed')", code);
+        jdbc.update("UPDATE Country SET CountryName = 'Zeta' WHERE CountryCode = :code", code);
+        jdbc.update("DELETE FROM Country WHERE CountryCode = :code", code);
+
+        List<IndexChange> pending = changeLog.findPending(10);
+
+        assertEquals(List.of("INSERT", "UPDATE", "DELETE"), pending.stream().map(IndexChange::operation).toList());
+        assertTrue(pending.stream().allMatch(c -> "COUNTRY".equals(c.table()) && "ZZ".equals(c.key())));
+        assertTrue(pending.get(0).seq() < pending.get(1).seq() && pending.get(1).seq() < pending.get(2).seq());
+        assertEquals(3, changeLog.countPending());
+    }
+
+    @Test
+    void projectSiteChangesAreLoggedAsSiteUpdates() {
+        Map<String, Object> link = jdbc.queryForMap("SELECT ProjectSiteID, SiteID FROM ProjectSite LIMIT 1",
+                new MapSqlParameterSource());
+        jdbc.update("DELETE FROM ProjectSite WHERE ProjectSiteID = :id",
+                new MapSqlParameterSource("id", link.get("PROJECTSITEID")));
+
+        List<IndexChange> pending = changeLog.findPending(10);
+
+        assertEquals(1, pending.size());
+        assertEquals("SITE", pending.get(0).table());
+        assertEquals(((UUID) link.get("SITEID")).toString(), pending.get(0).key());
+        assertEquals("UPDATE", pending.get(0).operation());
+    }
+
+    @Test
+    void deleteBySeqRemovesOnlyTheAppliedEntries() {
+        jdbc.update("INSERT INTO Country (CountryCode, CountryName) VALUES ('ZY', 'First')", new MapSqlParameterSource());
+        jdbc.update("INSERT INTO Country (CountryCode, CountryName) VALUES ('ZX', 'Second')", new MapSqlParameterSource());
+        List<IndexChange> pending = changeLog.findPending(1);
+
+        changeLog.deleteBySeq(pending.stream().map(IndexChange::seq).toList());
+
+        List<IndexChange> remaining = changeLog.findPending(10);
+        assertEquals(1, remaining.size());
+        assertEquals("ZX", remaining.get(0).key());
+    }
+}
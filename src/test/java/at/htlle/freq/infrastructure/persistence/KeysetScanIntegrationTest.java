@@ -0,0 +1,87 @@
+package at.htlle.freq.infrastructure.persistence;
+
+import at.htlle.freq.domain.Country;
+import at.htlle.freq.domain.Server;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class KeysetScanIntegrationTest {
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbc;
+
+    @Autowired
+    private JdbcCountryRepository countries;
+
+    @Autowired
+    private JdbcServerRepository servers;
+
+    @Test
+    void streamAllReturnsEveryRowOnceInKeyOrderAcrossChunks() {
+        List<String> all = countries.findAll().stream().map(Country::getCountryCode).sorted().toList();
+        assertTrue(all.size() > 2, "sample data should span several chunks");
+
+        List<String> streamed = countries.streamAll(2).map(Country::getCountryCode).toList();
+
+        assertEquals(all, streamed);
+    }
+
+    @Test
+    void streamAllContinuesAfterUuidKeys() {
+        List<UUID> all = servers.findAll().stream().map(Server::getServerID).toList();
+
+        List<UUID> streamed = servers.streamAll(3).map(Server::getServerID).toList();
+
+        assertEquals(all.size(), streamed.size());
+        assertTrue(streamed.containsAll(all));
+        assertEquals(streamed.size(), streamed.stream().distinct().count());
+    }
+
+    @Test
+    void countMatchesTheRowsOfAFullScan() {
+        assertEquals(countries.findAll().size(), countries.count());
+        assertEquals(servers.streamAll(3).count(), servers.count());
+    }
+
+    @Test
+    void streamAllQueriesOnlyTheChunksThatAreConsumed() {
+        AtomicInteger chunks = new AtomicInteger();
+        KeysetScan.stream(jdbc, "SELECT CountryCode, CountryName FROM Country", "CountryCode", (rs, n) -> {
+            if (n == 0) {
+                chunks.incrementAndGet();
+            }
+            return new Country(rs.getString("CountryCode"), rs.getString("CountryName"));
+        }, Country::getCountryCode, 1).limit(2).forEach(country -> { });
+
+        assertEquals(2, chunks.get());
+    }
+
+    @Test
+    void rowsInsertedBehindTheCurrentKeyDuringTheScanAreIncluded() {
+        Iterator<Country> scan = countries.streamAll(1).iterator();
+        scan.next();
+        jdbc.update("INSERT INTO Country (CountryCode, CountryName) VALUES ('ZZ', 'Zed')", new MapSqlParameterSource());
+
+        List<String> rest = new ArrayList<>();
+        scan.forEachRemaining(country -> rest.add(country.getCountryCode()));
+
+        assertEquals("ZZ", rest.get(rest.size() - 1));
+    }
+}
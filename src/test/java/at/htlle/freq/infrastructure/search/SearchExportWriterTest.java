@@ -0,0 +1,46 @@
+package at.htlle.freq.infrastructure.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchExportWriterTest {
+
+    @Test
+    void ndjsonWritesOneObjectPerLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (SearchExportWriter writer = new SearchExportWriter(SearchExportWriter.Format.NDJSON, out)) {
+            writer.accept(new SearchHit("a-1", "account", "Acme", null));
+            writer.accept(new SearchHit("s-1", "site", "Line\nbreak", "say \"hi\""));
+        }
+
+        assertEquals("{\"id\":\"a-1\",\"type\":\"account\",\"text\":\"Acme\"}\n"
+                        + "{\"id\":\"s-1\",\"type\":\"site\",\"text\":\"Line\\nbreak\",\"snippet\":\"say \\\"hi\\\"\"}\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void csvQuotesOnlyWhereNeeded() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (SearchExportWriter writer = new SearchExportWriter(SearchExportWriter.Format.CSV, out)) {
+            writer.accept(new SearchHit("a-1", "account", "Acme", null));
+            writer.accept(new SearchHit("s-1", "site", "Graz, Süd", "two\nlines"));
+        }
+
+        assertEquals("id,type,text,snippet\r\n"
+                        + "a-1,account,Acme,\r\n"
+                        + "s-1,site,\"Graz, Süd\",\"two\nlines\"\r\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void formatNamesAreResolvedCaseInsensitively() {
+        assertEquals(SearchExportWriter.Format.CSV, SearchExportWriter.Format.of(" CSV "));
+        assertEquals("application/x-ndjson", SearchExportWriter.Format.of("ndjson").mediaType());
+        assertThrows(IllegalArgumentException.class, () -> SearchExportWriter.Format.of("xlsx"));
+    }
+}
@@ -69,4 +69,21 @@ class SmartQueryBuilderTest {
                 () -> builder.build("\"unterminated"));
         assertTrue(ex.getMessage().contains("Invalid search query"));
     }
+
+    @Test
+    void buildTurnsTypedFieldsIntoPointAndKeywordQueries() {
+        assertEquals("tenantCount:[5 TO 2147483647]", builder.build("tenantCount:[5 TO *]").toString());
+        assertEquals("capacity:[51 TO 2147483647]", builder.build("capacity:>50").toString());
+        String window = builder.build("supportEndDate:[2025-01-01 TO 2025-01-31}").toString();
+        assertEquals("supportEndDate:[" + java.time.LocalDate.parse("2025-01-01").toEpochDay() + " TO "
+                + (java.time.LocalDate.parse("2025-01-31").toEpochDay() - 1) + "]", window);
+        assertEquals("+brand:motorola solutions +content:radio",
+                builder.build("brand:\"Motorola Solutions\" radio").toString());
+    }
+
+    @Test
+    void buildRejectsInvalidTypedValues() {
+        assertThrows(IllegalArgumentException.class, () -> builder.build("installedDate:>yesterday"));
+        assertThrows(IllegalArgumentException.class, () -> builder.build("capacity:[a TO 5]"));
+    }
 }
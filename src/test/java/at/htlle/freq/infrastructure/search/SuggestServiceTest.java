@@ -1,5 +1,6 @@
 package at.htlle.freq.infrastructure.search;
 
+import at.htlle.freq.infrastructure.lucene.LuceneIndexService;
 import at.htlle.freq.infrastructure.lucene.LuceneIndexServiceImpl;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,6 +15,10 @@ import java.util.Locale;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 class SuggestServiceTest {
 
@@ -31,6 +36,7 @@ class SuggestServiceTest {
 
     @AfterEach
     void tearDown() throws IOException {
+        service.close();
         if (indexPath != null && Files.exists(indexPath)) {
             Files.walk(indexPath)
                     .sorted((a, b) -> b.compareTo(a))
@@ -44,12 +50,50 @@ class SuggestServiceTest {
         }
     }
 
+    /** Forces the refresh of the last write, which queues the rebuild, and answers once it is published. */
+    private List<String> suggestFresh(String prefix, int max) {
+        try {
+            lucene.withSearcher(searcher -> null);
+            service.awaitRebuild();
+        } catch (IOException e) {
+            fail(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail("interrupted while waiting for the suggestion rebuild");
+        }
+        return service.suggest(prefix, max);
+    }
+
+    @Test
+    void suggestReadsTheSnapshotWithoutTouchingTheIndex() throws IOException {
+        LuceneIndexService index = mock(LuceneIndexService.class);
+        SuggestService detached = new SuggestService(index);
+        try {
+            assertTrue(detached.suggest("ha", 5).isEmpty());
+            verify(index).addRefreshListener(any());
+            verify(index, never()).withSearcher(any());
+        } finally {
+            detached.close();
+        }
+    }
+
+    @Test
+    void suggestionsFollowTheBackgroundRefreshWithoutASearch() throws InterruptedException {
+        lucene.indexAccount("acc-15", "Harbour", null, null);
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (service.suggest("ha", 5).isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(List.of("harbour"), service.suggest("ha", 5));
+    }
+
     @Test
     void suggestReturnsTermsFromIndex() {
         lucene.indexAccount("acc-5", "Acme", "Austria", "contact@acme.test");
         lucene.indexServer("srv-1", null, null, "Dell", null, null, null, null, null);
 
-        List<String> suggestions = service.suggest("ac", 5);
+        List<String> suggestions = suggestFresh("ac", 5);
         assertTrue(suggestions.stream().anyMatch(s -> s.equalsIgnoreCase("acme")));
     }
 
@@ -61,7 +105,7 @@ class SuggestServiceTest {
         assertTrue(service.suggest("fo", 0).isEmpty());
 
         lucene.indexAccount("acc-7", "FooBaz", null, null);
-        List<String> suggestions = service.suggest("fo", 1);
+        List<String> suggestions = suggestFresh("fo", 1);
         assertEquals(1, suggestions.size());
     }
 
@@ -70,7 +114,7 @@ class SuggestServiceTest {
         lucene.indexAccount("acc-8", "Alpha", null, null);
         lucene.indexAccount("acc-9", "alpha", null, null);
 
-        List<String> suggestions = service.suggest("al", 5);
+        List<String> suggestions = suggestFresh("al", 5);
         assertEquals(1, suggestions.size());
         assertEquals("alpha", suggestions.get(0));
     }
@@ -83,10 +127,48 @@ class SuggestServiceTest {
         Locale problematic = new Locale("tr");
         Locale.setDefault(problematic);
         try {
-            List<String> suggestions = service.suggest("in", 5);
+            List<String> suggestions = suggestFresh("in", 5);
             assertFalse(suggestions.isEmpty(), "suggestions should still be returned under Turkish locale");
         } finally {
             Locale.setDefault(previous);
         }
     }
+
+    @Test
+    void suggestSkipsIdentifiersAndSyntheticTokens() {
+        String id = "3f2c9a1e-0000-4000-8000-070000000001";
+        lucene.indexAccount("acc-11", "Statusboard Ltd", null, null);
+        lucene.indexAccount(id, null, null, null);
+        lucene.indexProject("prj-1", null, "Rollout", null, null, "STARTED", "acc-11", null, null);
+
+        List<String> suggestions = suggestFresh("st", 10);
+        assertEquals(List.of("statusboard ltd"), suggestions);
+        assertTrue(service.suggest("3f", 5).isEmpty(), "UUID fragments must not be suggested");
+    }
+
+    @Test
+    void suggestKeepsNamesThatContainTheirIdAndSkipsIdFallbacks() {
+        lucene.indexCountry("NO", "Norway");
+        lucene.indexCountry("FI", "Finland");
+        lucene.indexAccount("acc-14", "Nordic acc-14", null, null);
+        lucene.indexAccount("acc-no", null, null, null);
+
+        assertEquals(List.of("nordic acc-14", "norway"), suggestFresh("no", 5));
+        assertEquals(List.of("finland"), service.suggest("fi", 5));
+        assertEquals(List.of("nordic acc-14"), service.suggest("acc", 5), "the account without a name is skipped");
+        assertNull(SuggestService.candidate("acc-14", "acc-14", "Account"));
+        assertNull(SuggestService.candidate("Account acc-14", "acc-14", "Account"));
+    }
+
+    @Test
+    void suggestRanksByTypeAndCompletesLaterWords() {
+        lucene.indexServer("srv-2", null, "Valley Gateway", "Dell", null, null, null, null, null);
+        lucene.indexAccount("acc-12", "Silicon Valley Corp", null, null);
+
+        assertEquals(List.of("valley gateway", "silicon valley corp"), suggestFresh("val", 5));
+        assertEquals(List.of("silicon valley corp"), service.suggest("cor", 5));
+
+        lucene.indexAccount("acc-13", "Valley Holdings", null, null);
+        assertEquals("valley holdings", suggestFresh("val", 5).get(0), "refreshed index must be reflected");
+    }
 }
@@ -1,5 +1,9 @@
 package at.htlle.freq.web;
 
+import at.htlle.freq.infrastructure.camel.IndexingQueueMonitor;
+import at.htlle.freq.infrastructure.camel.LuceneIndexingHubRoute;
+import at.htlle.freq.infrastructure.camel.SweepScheduler;
+import at.htlle.freq.infrastructure.lucene.CommitPolicy;
 import at.htlle.freq.infrastructure.lucene.LuceneIndexService;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
@@ -8,18 +12,26 @@ import ch.qos.logback.core.read.ListAppender;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.slf4j.LoggerFactory;
 
 import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
 
 class IndexAdminControllerTest {
 
@@ -105,4 +117,145 @@ class IndexAdminControllerTest {
 
         assertTrue(messages.stream().anyMatch(m -> m.contains("Manual reindex task failed (principal=tester)")));
     }
+
+    @Test
+    void commitStatusDelegatesToService() {
+        LuceneIndexService lucene = mock(LuceneIndexService.class);
+        CommitPolicy.Status status = new CommitPolicy.Status(7L, 3L, 1_000L, 2L, 2_000L, 500);
+        when(lucene.commitStatus()).thenReturn(status);
+
+        IndexAdminController controller = new IndexAdminController(lucene, Runnable::run);
+
+        assertSame(status, controller.commitStatus());
+    }
+
+    @Test
+    void indexingStatsDelegatesToService() {
+        LuceneIndexService lucene = mock(LuceneIndexService.class);
+        LuceneIndexService.IndexingStats stats = new LuceneIndexService.IndexingStats(12L, 340L);
+        when(lucene.indexingStats()).thenReturn(stats);
+
+        IndexAdminController controller = new IndexAdminController(lucene, Runnable::run);
+
+        assertSame(stats, controller.indexingStats());
+    }
+
+    @Test
+    void searchCacheStatsDelegatesToService() {
+        LuceneIndexService lucene = mock(LuceneIndexService.class);
+        LuceneIndexService.SearchCacheStats stats = new LuceneIndexService.SearchCacheStats(9L, 3L, 1L, 2, 1000);
+        when(lucene.searchCacheStats()).thenReturn(stats);
+
+        IndexAdminController controller = new IndexAdminController(lucene, Runnable::run);
+
+        assertSame(stats, controller.searchCacheStats());
+    }
+
+    @Test
+    void searchStatsDelegatesToService() {
+        LuceneIndexService lucene = mock(LuceneIndexService.class);
+        LuceneIndexService.SearchStats stats = new LuceneIndexService.SearchStats(12L, 2L, 1000L);
+        when(lucene.searchStats()).thenReturn(stats);
+
+        IndexAdminController controller = new IndexAdminController(lucene, Runnable::run);
+
+        assertSame(stats, controller.searchStats());
+    }
+
+    @Test
+    void searchExecutorStatsDelegatesToService() {
+        LuceneIndexService lucene = mock(LuceneIndexService.class);
+        LuceneIndexService.SearchExecutorStats stats =
+                new LuceneIndexService.SearchExecutorStats(4, 1, 3, 256, 40L, 0L);
+        when(lucene.searchExecutorStats()).thenReturn(stats);
+
+        IndexAdminController controller = new IndexAdminController(lucene, Runnable::run);
+
+        assertSame(stats, controller.searchExecutorStats());
+    }
+
+    @Test
+    void warmerStatsDelegatesToService() {
+        LuceneIndexService lucene = mock(LuceneIndexService.class);
+        LuceneIndexService.WarmerStats stats = new LuceneIndexService.WarmerStats(120, 14, 6L, 60L, 35L);
+        when(lucene.warmerStats()).thenReturn(stats);
+
+        IndexAdminController controller = new IndexAdminController(lucene, Runnable::run);
+
+        assertSame(stats, controller.warmerStats());
+    }
+
+    @Test
+    void journalStatsDelegatesToService() {
+        LuceneIndexService lucene = mock(LuceneIndexService.class);
+        LuceneIndexService.JournalStats stats = new LuceneIndexService.JournalStats(12L, 3L, 400L, 512L, 0L, 1);
+        when(lucene.journalStats()).thenReturn(stats);
+
+        assertSame(stats, new IndexAdminController(lucene, Runnable::run).journalStats());
+    }
+
+    @Test
+    void hubPartitionsAreReportedWhenTheHubRuns() {
+        LuceneIndexService lucene = mock(LuceneIndexService.class);
+        LuceneIndexingHubRoute hub = mock(LuceneIndexingHubRoute.class);
+        List<LuceneIndexingHubRoute.PartitionStats> stats =
+                List.of(new LuceneIndexingHubRoute.PartitionStats(0, 10L, 8L, 2L, 1, 3L));
+        when(hub.partitionStats()).thenReturn(stats);
+
+        assertSame(stats, new IndexAdminController(lucene, Runnable::run, Optional.of(hub), Optional.empty(),
+                Optional.empty()).hubPartitions());
+        assertTrue(new IndexAdminController(lucene, Runnable::run).hubPartitions().isEmpty());
+    }
+
+    @Test
+    void queueStatsAreReportedWhenTheHubRuns() {
+        LuceneIndexService lucene = mock(LuceneIndexService.class);
+        IndexingQueueMonitor monitor = mock(IndexingQueueMonitor.class);
+        IndexingQueueMonitor.QueueStats stats = new IndexingQueueMonitor.QueueStats(5, 2, 1500L, 40L, 0.5,
+                120L, 900L, 15L, 80L, 0L, 0L, Map.of("Account", new IndexingQueueMonitor.TypeStats(40L, 0.5)));
+        when(monitor.stats()).thenReturn(stats);
+
+        ResponseEntity<IndexingQueueMonitor.QueueStats> response =
+                new IndexAdminController(lucene, Runnable::run, Optional.empty(), Optional.of(monitor),
+                        Optional.empty()).queueStats();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(stats, response.getBody());
+        assertEquals(HttpStatus.NOT_FOUND, new IndexAdminController(lucene, Runnable::run).queueStats().getStatusCode());
+    }
+
+    @Test
+    void deadLettersAreListedReplayedAndPurgedThroughTheHub() {
+        LuceneIndexService lucene = mock(LuceneIndexService.class);
+        LuceneIndexingHubRoute hub = mock(LuceneIndexingHubRoute.class);
+        LuceneIndexingHubRoute.DeadLetterReport report = new LuceneIndexingHubRoute.DeadLetterReport(1, 0L, 3L,
+                List.of(new LuceneIndexingHubRoute.DeadLetter(7L, 1, 1, List.of("account:1"), 4,
+                        "IOException: disk full", 1000L)));
+        when(hub.deadLetters()).thenReturn(report);
+        when(hub.replayDeadLetters(List.of(7L))).thenReturn(1);
+        when(hub.purgeDeadLetters(null)).thenReturn(2);
+        IndexAdminController controller = new IndexAdminController(lucene, Runnable::run, Optional.of(hub),
+                Optional.empty(), Optional.empty());
+
+        assertSame(report, controller.deadLetters().getBody());
+        assertEquals(Map.of("replayed", 1), controller.replayDeadLetters(List.of(7L)).getBody());
+        assertEquals(Map.of("purged", 2), controller.purgeDeadLetters(null).getBody());
+
+        IndexAdminController withoutHub = new IndexAdminController(lucene, Runnable::run);
+        assertEquals(HttpStatus.NOT_FOUND, withoutHub.deadLetters().getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, withoutHub.replayDeadLetters(null).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, withoutHub.purgeDeadLetters(null).getStatusCode());
+    }
+
+    @Test
+    void sweepScheduleIsReportedWhenTheHubRuns() {
+        LuceneIndexService lucene = mock(LuceneIndexService.class);
+        SweepScheduler scheduler = mock(SweepScheduler.class);
+        List<SweepScheduler.SweepSchedule> schedule = List.of(
+                new SweepScheduler.SweepSchedule("SITE", 90_000L, 1_200L, false, 4L, 1L, 1.0, 250L, 40L));
+        when(scheduler.schedule()).thenReturn(schedule);
+
+        assertSame(schedule, new IndexAdminController(lucene, Runnable::run, Optional.empty(), Optional.empty(),
+                Optional.of(scheduler)).sweepSchedule());
+        assertTrue(new IndexAdminController(lucene, Runnable::run).sweepSchedule().isEmpty());
+    }
 }
@@ -9,9 +9,14 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -63,4 +68,31 @@ class SearchControllerIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].type").value("account"));
     }
+
+    @Test
+    void exportStreamsEveryMatchAsNdjson() throws Exception {
+        MvcResult started = mockMvc.perform(get("/search/export").param("type", "account"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"search-export.ndjson\""))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertTrue(lines.length > 0);
+        for (String line : lines) {
+            assertTrue(line.startsWith("{") && line.contains("\"type\":\"account\""), line);
+        }
+        assertTrue(body.contains(ACME_ACCOUNT_ID));
+    }
+
+    @Test
+    void exportRejectsInvalidQueriesBeforeStreaming() throws Exception {
+        mockMvc.perform(get("/search/export").param("q", "type:(").param("raw", "true"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/search/export").param("q", "Acme").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -1,16 +1,24 @@
 package at.htlle.freq.web;
 
 import at.htlle.freq.infrastructure.lucene.LuceneIndexService;
+import at.htlle.freq.infrastructure.search.SearchFacets;
 import at.htlle.freq.infrastructure.search.SearchHit;
+import at.htlle.freq.infrastructure.search.SearchPage;
 import at.htlle.freq.infrastructure.search.SmartQueryBuilder;
 import at.htlle.freq.infrastructure.search.SuggestService;
 import org.apache.lucene.search.Query;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.mockito.ArgumentCaptor;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -34,7 +42,7 @@ class SearchControllerTest {
 
     @Test
     void queryReturnsEmptyListForBlankSearchTerm() {
-        assertEquals(List.of(), controller.query("   ", null, false).getBody());
+        assertEquals(List.of(), controller.query("   ", null, false, null).getBody());
         verifyNoInteractions(lucene);
     }
 
@@ -43,7 +51,7 @@ class SearchControllerTest {
         List<SearchHit> hits = List.of(new SearchHit("1", "type", "name", "snippet"));
         when(lucene.search("type:server")).thenReturn(hits);
 
-        assertEquals(hits, controller.query("type:server", null, true).getBody());
+        assertEquals(hits, controller.query("type:server", null, true, null).getBody());
         verify(lucene).search("type:server");
         verify(smart, never()).build(any());
     }
@@ -53,7 +61,7 @@ class SearchControllerTest {
         List<SearchHit> hits = List.of(new SearchHit("2", "type", "name", "snippet"));
         when(lucene.search(any(Query.class))).thenReturn(hits);
 
-        assertEquals(hits, controller.query("Vienna", null, false).getBody());
+        assertEquals(hits, controller.query("Vienna", null, false, null).getBody());
         ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
         verify(lucene).search(captor.capture());
         assertTrue(captor.getValue().toString().contains("vienna"));
@@ -64,7 +72,7 @@ class SearchControllerTest {
         List<SearchHit> hits = List.of(new SearchHit("3", "city", "Vienna", null));
         when(lucene.search("type:city AND (status:active)")).thenReturn(hits);
 
-        assertEquals(hits, controller.query("status:active", "City", true).getBody());
+        assertEquals(hits, controller.query("status:active", "City", true, null).getBody());
         verify(lucene).search("type:city AND (status:active)");
     }
 
@@ -73,7 +81,7 @@ class SearchControllerTest {
         List<SearchHit> hits = List.of(new SearchHit("4", "account", "Acme", null));
         when(lucene.search(any(Query.class))).thenReturn(hits);
 
-        assertEquals(hits, controller.query("Integration", "account", false).getBody());
+        assertEquals(hits, controller.query("Integration", "account", false, null).getBody());
         ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
         verify(lucene).search(captor.capture());
         String luceneQuery = captor.getValue().toString();
@@ -86,7 +94,7 @@ class SearchControllerTest {
         IllegalArgumentException failure = new IllegalArgumentException("Invalid query syntax");
         doThrow(failure).when(smart).build(eq("???"), any());
 
-        var response = controller.query("???", null, false);
+        var response = controller.query("???", null, false, null);
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertEquals("Invalid query syntax", response.getBody());
@@ -98,10 +106,90 @@ class SearchControllerTest {
         List<SearchHit> hits = List.of(new SearchHit("5", "country", "Austria", null));
         when(lucene.search(any(Query.class))).thenReturn(hits);
 
-        assertEquals(hits, controller.query(null, "Country", false).getBody());
+        assertEquals(hits, controller.query(null, "Country", false, null).getBody());
         verify(lucene).search(any(Query.class));
     }
 
+    @Test
+    void pageForwardsCursorAndSizeAndRejectsBadCursors() {
+        SearchPage page = new SearchPage(List.of(new SearchHit("6", "site", "Plant", null)), 120, true, "next");
+        when(lucene.searchPage("type:site AND (plant*)", 20, "abc", true)).thenReturn(page);
+        when(lucene.searchPage(any(Query.class), eq(50), eq("broken"), eq(false)))
+                .thenThrow(new IllegalArgumentException("Invalid search cursor: broken"));
+
+        assertEquals(page, controller.page("plant*", "Site", false, 20, "abc", true, null).getBody());
+        var rejected = controller.page("plant", null, false, 50, "broken", false, null);
+        assertEquals(HttpStatus.BAD_REQUEST, rejected.getStatusCode());
+        assertEquals(SearchPage.empty(), controller.page(" ", null, false, 50, null, false, null).getBody());
+    }
+
+    @Test
+    void timeoutIsForwardedAndPartialHitsAreFlagged() {
+        List<SearchHit> hits = List.of(new SearchHit("7", "site", "Plant", null));
+        SearchPage partial = new SearchPage(hits, 1, false, null, true);
+        when(lucene.searchPage("*lant", 0, null, false, 25L)).thenReturn(partial);
+        when(lucene.searchPage(any(Query.class), eq(20), eq(null), eq(false), eq(40L))).thenReturn(partial);
+
+        var listed = controller.query("*lant", null, true, 25L);
+        var paged = controller.page("plant", null, false, 20, null, false, 40L);
+
+        assertEquals(hits, listed.getBody());
+        assertEquals("true", listed.getHeaders().getFirst(SearchController.PARTIAL_HEADER));
+        assertEquals(partial, paged.getBody());
+        verify(lucene, never()).search(any(String.class));
+    }
+
+    @Test
+    void facetsCountUnscopedQueries() {
+        SearchFacets facets = new SearchFacets(3, Map.of(SearchFacets.TYPE, Map.of("site", 2L, "server", 1L)));
+        when(lucene.facets(any(Query.class))).thenReturn(facets);
+        when(lucene.facets("status:installed")).thenReturn(SearchFacets.empty());
+
+        assertEquals(facets, controller.facets("Vienna", false).getBody());
+        assertEquals(SearchFacets.empty(), controller.facets("status:installed", false).getBody());
+        assertEquals(SearchFacets.empty(), controller.facets("  ", false).getBody());
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(lucene).facets(captor.capture());
+        assertFalse(captor.getValue().toString().contains("type:"));
+    }
+
+    @Test
+    void exportStreamsHitsOfTheScopedQuery() throws Exception {
+        Query parsed = new org.apache.lucene.search.TermQuery(new org.apache.lucene.index.Term("type", "server"));
+        when(lucene.parseQuery("type:server AND (os:linux)")).thenReturn(parsed);
+        when(lucene.export(eq(parsed), any())).thenAnswer(invocation -> {
+            LuceneIndexService.HitConsumer consumer = invocation.getArgument(1);
+            consumer.accept(new SearchHit("s-1", "server", "web, 01", "Linux \"edge\""));
+            return 1L;
+        });
+
+        ResponseEntity<StreamingResponseBody> response = controller.export("os:linux", "Server", false, "csv");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("text/csv;charset=UTF-8", response.getHeaders().getContentType().toString());
+        assertEquals("id,type,text,snippet\r\ns-1,server,\"web, 01\",\"Linux \"\"edge\"\"\"\r\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void exportRejectsBadQueriesAndFormatsUpFront() throws Exception {
+        when(lucene.parseQuery("type:(")).thenThrow(new IllegalArgumentException("Invalid search query"));
+
+        ResponseStatusException badQuery = assertThrows(ResponseStatusException.class,
+                () -> controller.export("type:(", null, true, "ndjson"));
+        ResponseStatusException badFormat = assertThrows(ResponseStatusException.class,
+                () -> controller.export("Vienna", null, false, "xml"));
+        assertEquals(HttpStatus.BAD_REQUEST, badQuery.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, badFormat.getStatusCode());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        controller.export(" ", null, false, "ndjson").getBody().writeTo(out);
+        assertEquals(0, out.size());
+        verify(lucene, never()).export(any(), any());
+    }
+
     @Test
     void suggestDelegatesToServiceWithClampedMax() {
         when(suggest.suggest("ac", 8)).thenReturn(List.of("acme"));